@@ -12,6 +12,7 @@ import com.cappielloantonio.tempo.helper.ThemeHelper;
 import com.cappielloantonio.tempo.subsonic.Subsonic;
 import com.cappielloantonio.tempo.subsonic.SubsonicPreferences;
 import com.cappielloantonio.tempo.util.Preferences;
+import com.cappielloantonio.tempo.util.StartupTracer;
 
 public class App extends Application {
     private static App instance;
@@ -32,6 +33,8 @@ public class App extends Application {
         instance = new App();
         context = getApplicationContext();
         preferences = PreferenceManager.getDefaultSharedPreferences(context);
+
+        StartupTracer.mark(StartupTracer.APPLICATION_CREATED);
     }
 
     public static App getInstance() {
@@ -1,17 +1,20 @@
 package com.cappielloantonio.tempo.database;
 
+import androidx.annotation.NonNull;
 import androidx.media3.common.util.UnstableApi;
 import androidx.room.AutoMigration;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.cappielloantonio.tempo.App;
 import com.cappielloantonio.tempo.database.converter.DateConverters;
 import com.cappielloantonio.tempo.database.dao.ChronologyDao;
 import com.cappielloantonio.tempo.database.dao.DownloadDao;
-import com.cappielloantonio.tempo.database.dao.FavoriteDao;
+import com.cappielloantonio.tempo.database.dao.MutationDao;
 import com.cappielloantonio.tempo.database.dao.PlaylistDao;
 import com.cappielloantonio.tempo.database.dao.QueueDao;
 import com.cappielloantonio.tempo.database.dao.RecentSearchDao;
@@ -19,27 +22,44 @@ import com.cappielloantonio.tempo.database.dao.ServerDao;
 import com.cappielloantonio.tempo.database.dao.SessionMediaItemDao;
 import com.cappielloantonio.tempo.model.Chronology;
 import com.cappielloantonio.tempo.model.Download;
-import com.cappielloantonio.tempo.model.Favorite;
+import com.cappielloantonio.tempo.model.Mutation;
 import com.cappielloantonio.tempo.model.Queue;
 import com.cappielloantonio.tempo.model.RecentSearch;
 import com.cappielloantonio.tempo.model.Server;
 import com.cappielloantonio.tempo.model.SessionMediaItem;
 import com.cappielloantonio.tempo.subsonic.models.Playlist;
+import com.cappielloantonio.tempo.util.Preferences;
 
 @UnstableApi
 @Database(
-        version = 10,
-        entities = {Queue.class, Server.class, RecentSearch.class, Download.class, Chronology.class, Favorite.class, SessionMediaItem.class, Playlist.class},
-        autoMigrations = {@AutoMigration(from = 9, to = 10)}
+        version = 12,
+        entities = {Queue.class, Server.class, RecentSearch.class, Download.class, Chronology.class, SessionMediaItem.class, Playlist.class, Mutation.class},
+        autoMigrations = {@AutoMigration(from = 9, to = 10), @AutoMigration(from = 10, to = 11)}
 )
 @TypeConverters({DateConverters.class})
 public abstract class AppDatabase extends RoomDatabase {
     private final static String DB_NAME = "tempo_db";
     private static AppDatabase instance;
 
+    /*
+     * Stars that failed before the mutation journal existed were kept in the favorite table, they are
+     * moved to the journal, which replaces the table.
+     */
+    private static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `mutation` (`id` TEXT NOT NULL, `server` TEXT, `type` TEXT NOT NULL, `song_id` TEXT, `album_id` TEXT, `artist_id` TEXT, `value` INTEGER NOT NULL, `timestamp` INTEGER NOT NULL, `attempts` INTEGER NOT NULL DEFAULT 0, PRIMARY KEY(`id`))");
+            database.execSQL("INSERT OR REPLACE INTO mutation (id, server, type, song_id, album_id, artist_id, value, timestamp, attempts) "
+                    + "SELECT 'star:' || CASE WHEN songId IS NOT NULL THEN 'song:' || songId WHEN albumId IS NOT NULL THEN 'album:' || albumId ELSE 'artist:' || artistId END, "
+                    + "?, 'star', songId, albumId, artistId, toStar, timestamp, 0 FROM favorite ORDER BY timestamp", new Object[]{Preferences.getServerId()});
+            database.execSQL("DROP TABLE IF EXISTS favorite");
+        }
+    };
+
     public static synchronized AppDatabase getInstance() {
         if (instance == null) {
             instance = Room.databaseBuilder(App.getContext(), AppDatabase.class, DB_NAME)
+                    .addMigrations(MIGRATION_11_12)
                     .fallbackToDestructiveMigration()
                     .build();
         }
@@ -57,9 +77,9 @@ public abstract class AppDatabase extends RoomDatabase {
 
     public abstract ChronologyDao chronologyDao();
 
-    public abstract FavoriteDao favoriteDao();
-
     public abstract SessionMediaItemDao sessionMediaItemDao();
 
     public abstract PlaylistDao playlistDao();
+
+    public abstract MutationDao mutationDao();
 }
@@ -18,6 +18,12 @@ public interface ChronologyDao {
     @Query("SELECT * FROM chronology WHERE timestamp >= :endDate AND timestamp < :startDate AND server == :server GROUP BY id ORDER BY COUNT(id) DESC LIMIT 20")
     LiveData<List<Chronology>> getAllFrom(long startDate, long endDate, String server);
 
+    @Query("SELECT * FROM chronology WHERE server == :server GROUP BY id ORDER BY COUNT(id) DESC, MAX(timestamp) DESC LIMIT :count")
+    List<Chronology> getMostPlayed(String server, int count);
+
+    @Query("SELECT chronology.* FROM chronology INNER JOIN download ON download.id = chronology.id WHERE download.auto_synced = 1 AND chronology.server == :server")
+    List<Chronology> getAutoSyncedDownloads(String server);
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(Chronology chronologyObject);
 }
\ No newline at end of file
@@ -18,6 +18,15 @@ public interface DownloadDao {
     @Query("SELECT * FROM download WHERE id = :id")
     Download getOne(String id);
 
+    @Query("SELECT * FROM download WHERE auto_synced = 1")
+    List<Download> getAutoSynced();
+
+    @Query("SELECT COUNT(*) FROM download WHERE cover_art_id = :coverArtId AND id NOT IN (:excludedIds)")
+    int countByCoverArt(String coverArtId, List<String> excludedIds);
+
+    @Query("SELECT DISTINCT cover_art_id FROM download WHERE cover_art_id IS NOT NULL")
+    List<String> getCoverArtIds();
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(Download download);
 
@@ -0,0 +1,27 @@
+package com.cappielloantonio.tempo.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Update;
+
+import com.cappielloantonio.tempo.model.Mutation;
+
+import java.util.List;
+
+@Dao
+public interface MutationDao {
+    @Query("SELECT * FROM mutation WHERE server = :server ORDER BY timestamp")
+    List<Mutation> getAll(String server);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(Mutation mutation);
+
+    @Update
+    void update(Mutation mutation);
+
+    @Delete
+    void delete(Mutation mutation);
+}
@@ -19,10 +19,12 @@ import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.signature.ObjectKey;
 import com.cappielloantonio.tempo.App;
 import com.cappielloantonio.tempo.R;
+import com.cappielloantonio.tempo.util.ArtworkUtil;
 import com.cappielloantonio.tempo.util.Preferences;
 import com.cappielloantonio.tempo.util.Util;
 import com.google.android.material.elevation.SurfaceColors;
 
+import java.io.File;
 import java.util.Map;
 
 public class CustomGlideRequest {
@@ -116,7 +118,11 @@ public class CustomGlideRequest {
         private Builder(Context context, String item, ResourceType type) {
             this.requestManager = Glide.with(context);
 
-            if (item != null && !Preferences.isDataSavingMode()) {
+            File pinnedArtwork = ArtworkUtil.getPinnedArtwork(item);
+
+            if (pinnedArtwork != null) {
+                this.item = pinnedArtwork;
+            } else if (item != null && !Preferences.isDataSavingMode()) {
                 this.item = createUrl(item, Preferences.getImageSize());
             }
 
@@ -4,12 +4,16 @@ import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.ObjectAnimator;
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
 import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.util.TypedValue;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.View;
 import android.widget.LinearLayout;
+import android.widget.SectionIndexer;
 import android.widget.TextView;
 
 import androidx.annotation.IdRes;
@@ -19,6 +23,8 @@ import androidx.core.view.ViewCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.material.color.MaterialColors;
+
 public class FastScrollbar extends LinearLayout {
     private static final int BUBBLE_ANIMATION_DURATION = 100;
     private static final int TRACK_SNAP_RANGE = 5;
@@ -29,6 +35,7 @@ public class FastScrollbar extends LinearLayout {
     private int height;
     private boolean isInitialized = false;
     private ObjectAnimator currentAnimator = null;
+    private Paint railPaint;
 
     private final RecyclerView.OnScrollListener onScrollListener = new RecyclerView.OnScrollListener() {
         @Override
@@ -61,6 +68,32 @@ public class FastScrollbar extends LinearLayout {
         isInitialized = true;
         setOrientation(HORIZONTAL);
         setClipChildren(false);
+
+        railPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        railPaint.setTextAlign(Paint.Align.CENTER);
+        railPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 10, getResources().getDisplayMetrics()));
+        railPaint.setColor(MaterialColors.getColor(this, com.google.android.material.R.attr.colorOnSurfaceVariant));
+    }
+
+    /*
+     * When the adapter is a SectionIndexer, the track is a rail of its sections: the letters are drawn along
+     * the track and touching one jumps to the first row of its section.
+     */
+    @Override
+    protected void dispatchDraw(@NonNull Canvas canvas) {
+        Object[] sections = getSections();
+
+        if (handle != null && sections.length > 0) {
+            float x = handle.getLeft() + handle.getWidth() / 2f;
+            float step = (float) height / sections.length;
+            float baseline = (railPaint.descent() + railPaint.ascent()) / 2;
+
+            for (int i = 0; i < sections.length; i++) {
+                canvas.drawText(String.valueOf(sections[i]), x, step * (i + 0.5f) - baseline, railPaint);
+            }
+        }
+
+        super.dispatchDraw(canvas);
     }
 
     public void setViewsToUse(@LayoutRes int layoutResId, @IdRes int bubbleResId, @IdRes int handleResId) {
@@ -120,17 +153,37 @@ public class FastScrollbar extends LinearLayout {
         }
     }
 
+    private Object[] getSections() {
+        if (recyclerView != null && recyclerView.getAdapter() instanceof SectionIndexer) {
+            Object[] sections = ((SectionIndexer) recyclerView.getAdapter()).getSections();
+            if (sections != null) return sections;
+        }
+
+        return new Object[0];
+    }
+
     private void setRecyclerViewPosition(float y) {
         if (recyclerView != null) {
-            final int itemCount = recyclerView.getAdapter().getItemCount();
-            float proportion;
-            if (handle.getY() == 0) proportion = 0f;
-            else if (handle.getY() + handle.getHeight() >= height - TRACK_SNAP_RANGE)
-                proportion = 1f;
-            else proportion = y / (float) height;
-            final int targetPos = getValueInRange(0, itemCount - 1, (int) (proportion * (float) itemCount));
+            final Object[] sections = getSections();
+            final int targetPos;
+            final String bubbleText;
+
+            if (sections.length > 0) {
+                final int section = getValueInRange(0, sections.length - 1, (int) (y / height * sections.length));
+                targetPos = ((SectionIndexer) recyclerView.getAdapter()).getPositionForSection(section);
+                bubbleText = String.valueOf(sections[section]);
+            } else {
+                final int itemCount = recyclerView.getAdapter().getItemCount();
+                float proportion;
+                if (handle.getY() == 0) proportion = 0f;
+                else if (handle.getY() + handle.getHeight() >= height - TRACK_SNAP_RANGE)
+                    proportion = 1f;
+                else proportion = y / (float) height;
+                targetPos = getValueInRange(0, itemCount - 1, (int) (proportion * (float) itemCount));
+                bubbleText = recyclerView.getAdapter() instanceof BubbleTextGetter ? ((BubbleTextGetter) recyclerView.getAdapter()).getTextToShowInBubble(targetPos) : null;
+            }
+
             ((LinearLayoutManager) recyclerView.getLayoutManager()).scrollToPositionWithOffset(targetPos, 0);
-            final String bubbleText = ((BubbleTextGetter) recyclerView.getAdapter()).getTextToShowInBubble(targetPos);
             if (bubble != null) {
                 bubble.setText(bubbleText);
                 if (TextUtils.isEmpty(bubbleText)) {
@@ -150,6 +203,9 @@ public class FastScrollbar extends LinearLayout {
     private void updateBubbleAndHandlePosition() {
         if (bubble == null || handle.isSelected()) return;
 
+        // The sections may have changed with the rows
+        invalidate();
+
         final int verticalScrollOffset = recyclerView.computeVerticalScrollOffset();
         final int verticalScrollRange = recyclerView.computeVerticalScrollRange();
         float proportion = (float) verticalScrollOffset / ((float) verticalScrollRange - height);
@@ -4,6 +4,7 @@ import android.graphics.Rect;
 import android.view.View;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 public class GridItemDecoration extends RecyclerView.ItemDecoration {
@@ -21,19 +22,33 @@ public class GridItemDecoration extends RecyclerView.ItemDecoration {
     public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, RecyclerView parent, @NonNull RecyclerView.State state) {
         int position = parent.getChildAdapterPosition(view); // item position
         int column = position % spanCount; // item column
+        int row = position / spanCount;
+
+        // Items spanning the whole row, like section headers, shift the columns of the items after them
+        if (parent.getLayoutManager() instanceof GridLayoutManager && position != RecyclerView.NO_POSITION) {
+            GridLayoutManager.SpanSizeLookup lookup = ((GridLayoutManager) parent.getLayoutManager()).getSpanSizeLookup();
+
+            if (lookup.getSpanSize(position) >= spanCount) {
+                outRect.set(0, position > 0 ? spacing : 0, 0, 0);
+                return;
+            }
+
+            column = lookup.getSpanIndex(position, spanCount);
+            row = lookup.getSpanGroupIndex(position, spanCount);
+        }
 
         if (includeEdge) {
             outRect.left = spacing - column * spacing / spanCount; // spacing - column * ((1f / spanCount) * spacing)
             outRect.right = (column + 1) * spacing / spanCount; // (column + 1) * ((1f / spanCount) * spacing)
 
-            if (position < spanCount) { // top edge
+            if (row == 0) { // top edge
                 outRect.top = spacing;
             }
             outRect.bottom = spacing; // item bottom
         } else {
             outRect.left = column * spacing / spanCount; // column * ((1f / spanCount) * spacing)
             outRect.right = spacing - (column + 1) * spacing / spanCount; // spacing - (column + 1) * ((1f /    spanCount) * spacing)
-            if (position >= spanCount) {
+            if (row > 0) {
                 outRect.top = spacing; // item top
             }
         }
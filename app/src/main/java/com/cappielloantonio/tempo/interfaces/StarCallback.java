@@ -1,9 +0,0 @@
-package com.cappielloantonio.tempo.interfaces;
-
-import androidx.annotation.Keep;
-
-@Keep
-public interface StarCallback {
-    default void onError() {}
-    default void onSuccess() {}
-}
@@ -23,6 +23,9 @@ class Download(@PrimaryKey override val id: String) : Child(id) {
     @ColumnInfo(name = "download_uri", defaultValue = "")
     var downloadUri: String? = null
 
+    @ColumnInfo(name = "auto_synced", defaultValue = "0")
+    var autoSynced: Boolean = false
+
     constructor(child: Child) : this(child.id) {
         parentId = child.parentId
         isDir = child.isDir
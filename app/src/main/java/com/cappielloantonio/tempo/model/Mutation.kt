@@ -0,0 +1,45 @@
+package com.cappielloantonio.tempo.model
+
+import androidx.annotation.Keep
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+@Keep
+@Entity(tableName = "mutation")
+data class Mutation(
+    @PrimaryKey
+    @ColumnInfo(name = "id")
+    val id: String,
+
+    @ColumnInfo(name = "server")
+    val server: String?,
+
+    @ColumnInfo(name = "type")
+    val type: String,
+
+    @ColumnInfo(name = "song_id")
+    val songId: String?,
+
+    @ColumnInfo(name = "album_id")
+    val albumId: String?,
+
+    @ColumnInfo(name = "artist_id")
+    val artistId: String?,
+
+    @ColumnInfo(name = "value")
+    val value: Int,
+
+    @ColumnInfo(name = "timestamp")
+    val timestamp: Long,
+
+    @ColumnInfo(name = "attempts", defaultValue = "0")
+    var attempts: Int = 0,
+) {
+    companion object {
+        const val STAR = "star"
+        const val RATING = "rating"
+        const val NOW_PLAYING = "now_playing"
+        const val SUBMISSION = "submission"
+    }
+}
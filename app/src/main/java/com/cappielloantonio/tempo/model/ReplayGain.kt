@@ -1,9 +1,14 @@
 package com.cappielloantonio.tempo.model
 
+import android.os.Parcelable
 import androidx.annotation.Keep
+import kotlinx.parcelize.Parcelize
 
 @Keep
+@Parcelize
 data class ReplayGain(
     var trackGain: Float = 0f,
     var albumGain: Float = 0f,
-)
\ No newline at end of file
+    var trackPeak: Float = 0f,
+    var albumPeak: Float = 0f,
+) : Parcelable
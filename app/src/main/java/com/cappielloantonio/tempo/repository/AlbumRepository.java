@@ -6,15 +6,18 @@ import androidx.lifecycle.MutableLiveData;
 import com.cappielloantonio.tempo.App;
 import com.cappielloantonio.tempo.interfaces.DecadesCallback;
 import com.cappielloantonio.tempo.interfaces.MediaCallback;
+import com.cappielloantonio.tempo.service.MutationJournal;
 import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
 import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
 import com.cappielloantonio.tempo.subsonic.models.AlbumInfo;
 import com.cappielloantonio.tempo.subsonic.models.Child;
+import com.cappielloantonio.tempo.util.RemoteLiveData;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 
 import retrofit2.Call;
@@ -22,8 +25,12 @@ import retrofit2.Callback;
 import retrofit2.Response;
 
 public class AlbumRepository {
-    public MutableLiveData<List<AlbumID3>> getAlbums(String type, int size, Integer fromYear, Integer toYear) {
-        MutableLiveData<List<AlbumID3>> listLiveAlbums = new MutableLiveData<>(new ArrayList<>());
+    private static final int RECENTLY_RELEASED_MONTHS = 6;
+    private static final int RECENTLY_RELEASED_PAGE_FACTOR = 5;
+    private static final int RECENTLY_RELEASED_PAGES = 2;
+
+    public RemoteLiveData<List<AlbumID3>> getAlbums(String type, int size, Integer fromYear, Integer toYear) {
+        RemoteLiveData<List<AlbumID3>> listLiveAlbums = new RemoteLiveData<>(new ArrayList<>());
 
         App.getSubsonicClientInstance(false)
                 .getAlbumSongListClient()
@@ -33,20 +40,103 @@ public class AlbumRepository {
                     public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
                         if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getAlbumList2() != null && response.body().getSubsonicResponse().getAlbumList2().getAlbums() != null) {
                             listLiveAlbums.setValue(response.body().getSubsonicResponse().getAlbumList2().getAlbums());
+                        } else {
+                            listLiveAlbums.fail();
                         }
                     }
 
                     @Override
                     public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
+                        listLiveAlbums.fail();
                     }
                 });
 
         return listLiveAlbums;
     }
 
-    public MutableLiveData<List<AlbumID3>> getStarredAlbums(boolean random, int size) {
-        MutableLiveData<List<AlbumID3>> starredAlbums = new MutableLiveData<>(new ArrayList<>());
+    /**
+     * The albums released in the last months, most recently added first.
+     * <p>
+     * The albums are scanned from the most recently added ones until the list is full, an album added
+     * before the window is reached or a couple of pages have been read, instead of loading every album of
+     * the year to keep the latest ones. A release is only dated by its year, so the window starts with
+     * the year it falls in.
+     */
+    public RemoteLiveData<List<AlbumID3>> getRecentlyReleasedAlbums(int size) {
+        RemoteLiveData<List<AlbumID3>> recentlyReleased = new RemoteLiveData<>(new ArrayList<>());
+
+        Calendar since = Calendar.getInstance();
+        since.add(Calendar.MONTH, -RECENTLY_RELEASED_MONTHS);
+
+        loadRecentlyReleasedAlbums(since.getTime(), since.get(Calendar.YEAR), size, 0, new ArrayList<>(), recentlyReleased);
+
+        return recentlyReleased;
+    }
+
+    private void loadRecentlyReleasedAlbums(Date since, int sinceYear, int size, int offset, List<AlbumID3> releases, RemoteLiveData<List<AlbumID3>> recentlyReleased) {
+        int pageSize = size * RECENTLY_RELEASED_PAGE_FACTOR;
+
+        App.getSubsonicClientInstance(false)
+                .getAlbumSongListClient()
+                .getAlbumList2("newest", pageSize, offset, null, null)
+                .enqueue(new Callback<ApiResponse>() {
+                    @Override
+                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
+                        List<AlbumID3> albums = null;
+
+                        if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getAlbumList2() != null) {
+                            albums = response.body().getSubsonicResponse().getAlbumList2().getAlbums();
+                        }
+
+                        if (albums == null) {
+                            endRecentlyReleasedAlbums(releases, recentlyReleased);
+                            return;
+                        }
+
+                        boolean scanned = albums.size() < pageSize || offset + pageSize >= pageSize * RECENTLY_RELEASED_PAGES;
+
+                        for (AlbumID3 album : albums) {
+                            // The albums come newest first, the ones after are older than the window too
+                            if (album.getCreated() != null && album.getCreated().before(since)) {
+                                scanned = true;
+                                break;
+                            }
+
+                            if (album.getYear() >= sinceYear && releases.size() < size) releases.add(album);
+                        }
+
+                        if (releases.size() >= size || scanned) {
+                            publishRecentlyReleasedAlbums(releases, recentlyReleased);
+                        } else {
+                            loadRecentlyReleasedAlbums(since, sinceYear, size, offset + pageSize, releases, recentlyReleased);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
+                        endRecentlyReleasedAlbums(releases, recentlyReleased);
+                    }
+                });
+    }
+
+    /*
+     * A scan cut short by an error keeps what it found, and only fails when it found nothing.
+     */
+    private void endRecentlyReleasedAlbums(List<AlbumID3> releases, RemoteLiveData<List<AlbumID3>> recentlyReleased) {
+        if (releases.isEmpty()) {
+            recentlyReleased.fail();
+        } else {
+            publishRecentlyReleasedAlbums(releases, recentlyReleased);
+        }
+    }
+
+    private void publishRecentlyReleasedAlbums(List<AlbumID3> releases, RemoteLiveData<List<AlbumID3>> recentlyReleased) {
+        releases.sort(Comparator.comparing(AlbumID3::getCreated, Comparator.nullsLast(Comparator.reverseOrder())));
+        recentlyReleased.setValue(releases);
+    }
+
+    public RemoteLiveData<List<AlbumID3>> getStarredAlbums(boolean random, int size) {
+        RemoteLiveData<List<AlbumID3>> starredAlbums = new RemoteLiveData<>(new ArrayList<>());
 
         App.getSubsonicClientInstance(false)
                 .getAlbumSongListClient()
@@ -65,12 +155,14 @@ public class AlbumRepository {
                                     starredAlbums.setValue(albums);
                                 }
                             }
+                        } else {
+                            starredAlbums.fail();
                         }
                     }
 
                     @Override
                     public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
+                        starredAlbums.fail();
                     }
                 });
 
@@ -78,20 +170,7 @@ public class AlbumRepository {
     }
 
     public void setRating(String id, int rating) {
-        App.getSubsonicClientInstance(false)
-                .getMediaAnnotationClient()
-                .setRating(id, rating)
-                .enqueue(new Callback<ApiResponse>() {
-                    @Override
-                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
-
-                    }
-
-                    @Override
-                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
-                    }
-                });
+        MutationJournal.rate(id, rating);
     }
 
     public MutableLiveData<List<Child>> getAlbumTracks(String id) {
@@ -218,8 +297,8 @@ public class AlbumRepository {
                 });
     }
 
-    public MutableLiveData<List<Integer>> getDecades() {
-        MutableLiveData<List<Integer>> decades = new MutableLiveData<>();
+    public RemoteLiveData<List<Integer>> getDecades() {
+        RemoteLiveData<List<Integer>> decades = new RemoteLiveData<>();
 
         getFirstAlbum(new DecadesCallback() {
             @Override
@@ -239,6 +318,8 @@ public class AlbumRepository {
                             }
 
                             decades.setValue(decadeList);
+                        } else {
+                            decades.fail();
                         }
                     }
                 });
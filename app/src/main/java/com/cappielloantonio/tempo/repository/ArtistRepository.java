@@ -4,11 +4,13 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.MutableLiveData;
 
 import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.service.MutationJournal;
 import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
 import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
 import com.cappielloantonio.tempo.subsonic.models.ArtistInfo2;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.subsonic.models.IndexID3;
+import com.cappielloantonio.tempo.util.RemoteLiveData;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -19,8 +21,8 @@ import retrofit2.Callback;
 import retrofit2.Response;
 
 public class ArtistRepository {
-    public MutableLiveData<List<ArtistID3>> getStarredArtists(boolean random, int size) {
-        MutableLiveData<List<ArtistID3>> starredArtists = new MutableLiveData<>(new ArrayList<>());
+    public RemoteLiveData<List<ArtistID3>> getStarredArtists(boolean random, int size) {
+        RemoteLiveData<List<ArtistID3>> starredArtists = new RemoteLiveData<>(new ArrayList<>());
 
         App.getSubsonicClientInstance(false)
                 .getAlbumSongListClient()
@@ -39,12 +41,14 @@ public class ArtistRepository {
                                     getArtistInfo(artists.subList(0, Math.min(size, artists.size())), starredArtists);
                                 }
                             }
+                        } else {
+                            starredArtists.fail();
                         }
                     }
 
                     @Override
                     public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
+                        starredArtists.fail();
                     }
                 });
 
@@ -93,8 +97,11 @@ public class ArtistRepository {
      */
     public void getArtistInfo(List<ArtistID3> artists, MutableLiveData<List<ArtistID3>> list) {
         List<ArtistID3> liveArtists = list.getValue();
-        if (liveArtists == null) liveArtists = new ArrayList<>();
-        list.setValue(liveArtists);
+
+        // The artists are added as they arrive, an empty list is only an answer when there are none
+        if (liveArtists == null || artists.isEmpty()) {
+            list.setValue(liveArtists != null ? liveArtists : new ArrayList<>());
+        }
 
         for (ArtistID3 artist : artists) {
             App.getSubsonicClientInstance(false)
@@ -163,20 +170,7 @@ public class ArtistRepository {
     }
 
     public void setRating(String id, int rating) {
-        App.getSubsonicClientInstance(false)
-                .getMediaAnnotationClient()
-                .setRating(id, rating)
-                .enqueue(new Callback<ApiResponse>() {
-                    @Override
-                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
-
-                    }
-
-                    @Override
-                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
-                    }
-                });
+        MutationJournal.rate(id, rating);
     }
 
     public MutableLiveData<ArtistID3> getArtist(String id) {
@@ -4,9 +4,7 @@ import androidx.lifecycle.LiveData;
 
 import com.cappielloantonio.tempo.database.AppDatabase;
 import com.cappielloantonio.tempo.database.dao.DownloadDao;
-import com.cappielloantonio.tempo.database.dao.FavoriteDao;
 import com.cappielloantonio.tempo.model.Download;
-import com.cappielloantonio.tempo.model.Favorite;
 
 import java.util.ArrayList;
 import java.util.List;
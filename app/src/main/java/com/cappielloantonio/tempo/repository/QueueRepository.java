@@ -1,25 +1,16 @@
 package com.cappielloantonio.tempo.repository;
 
-import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
-import com.cappielloantonio.tempo.App;
 import com.cappielloantonio.tempo.database.AppDatabase;
 import com.cappielloantonio.tempo.database.dao.QueueDao;
 import com.cappielloantonio.tempo.model.Queue;
-import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
 import com.cappielloantonio.tempo.subsonic.models.Child;
-import com.cappielloantonio.tempo.subsonic.models.PlayQueue;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class QueueRepository {
     private static final String TAG = "QueueRepository";
 
@@ -49,46 +40,6 @@ public class QueueRepository {
         return media;
     }
 
-    public MutableLiveData<PlayQueue> getPlayQueue() {
-        MutableLiveData<PlayQueue> playQueue = new MutableLiveData<>();
-
-        App.getSubsonicClientInstance(false)
-                .getBookmarksClient()
-                .getPlayQueue()
-                .enqueue(new Callback<ApiResponse>() {
-                    @Override
-                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
-                        if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getPlayQueue() != null) {
-                            playQueue.setValue(response.body().getSubsonicResponse().getPlayQueue());
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-                        playQueue.setValue(null);
-                    }
-                });
-
-        return playQueue;
-    }
-
-    public void savePlayQueue(List<String> ids, String current, long position) {
-        App.getSubsonicClientInstance(false)
-                .getBookmarksClient()
-                .savePlayQueue(ids, current, position)
-                .enqueue(new Callback<ApiResponse>() {
-                    @Override
-                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
-
-                    }
-
-                    @Override
-                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
-                    }
-                });
-    }
-
     public void insert(Child media, boolean reset, int afterIndex) {
         try {
             List<Queue> mediaList = new ArrayList<>();
@@ -6,6 +6,7 @@ import androidx.lifecycle.MutableLiveData;
 import com.cappielloantonio.tempo.App;
 import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
 import com.cappielloantonio.tempo.subsonic.models.Share;
+import com.cappielloantonio.tempo.util.RemoteLiveData;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,8 +16,8 @@ import retrofit2.Callback;
 import retrofit2.Response;
 
 public class SharingRepository {
-    public MutableLiveData<List<Share>> getShares() {
-        MutableLiveData<List<Share>> shares = new MutableLiveData<>(new ArrayList<>());
+    public RemoteLiveData<List<Share>> getShares() {
+        RemoteLiveData<List<Share>> shares = new RemoteLiveData<>(new ArrayList<>());
 
         App.getSubsonicClientInstance(false)
                 .getSharingClient()
@@ -26,12 +27,14 @@ public class SharingRepository {
                     public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
                         if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getShares() != null && response.body().getSubsonicResponse().getShares().getShares() != null) {
                             shares.setValue(response.body().getSubsonicResponse().getShares().getShares());
+                        } else {
+                            shares.fail();
                         }
                     }
 
                     @Override
                     public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
+                        shares.fail();
                     }
                 });
 
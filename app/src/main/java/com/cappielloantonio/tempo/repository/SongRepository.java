@@ -4,8 +4,10 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.MutableLiveData;
 
 import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.service.MutationJournal;
 import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
 import com.cappielloantonio.tempo.subsonic.models.Child;
+import com.cappielloantonio.tempo.util.RemoteLiveData;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -18,8 +20,8 @@ import retrofit2.Response;
 public class SongRepository {
     private static final String TAG = "SongRepository";
 
-    public MutableLiveData<List<Child>> getStarredSongs(boolean random, int size) {
-        MutableLiveData<List<Child>> starredSongs = new MutableLiveData<>(Collections.emptyList());
+    public RemoteLiveData<List<Child>> getStarredSongs(boolean random, int size) {
+        RemoteLiveData<List<Child>> starredSongs = new RemoteLiveData<>(Collections.emptyList());
 
         App.getSubsonicClientInstance(false)
                 .getAlbumSongListClient()
@@ -38,18 +40,23 @@ public class SongRepository {
                                     starredSongs.setValue(songs.subList(0, Math.min(size, songs.size())));
                                 }
                             }
+                        } else {
+                            starredSongs.fail();
                         }
                     }
 
                     @Override
                     public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
+                        starredSongs.fail();
                     }
                 });
 
         return starredSongs;
     }
 
+    /**
+     * The similar songs, an empty list when there are none, or null when the request failed.
+     */
     public MutableLiveData<List<Child>> getInstantMix(String id, int count) {
         MutableLiveData<List<Child>> instantMix = new MutableLiveData<>();
 
@@ -59,8 +66,12 @@ public class SongRepository {
                 .enqueue(new Callback<ApiResponse>() {
                     @Override
                     public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
+                        // No similar songs is an empty mix, a response without the list is a failure
                         if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getSimilarSongs2() != null) {
-                            instantMix.setValue(response.body().getSubsonicResponse().getSimilarSongs2().getSongs());
+                            List<Child> songs = response.body().getSubsonicResponse().getSimilarSongs2().getSongs();
+                            instantMix.setValue(songs != null ? songs : new ArrayList<>());
+                        } else {
+                            instantMix.setValue(null);
                         }
                     }
 
@@ -73,8 +84,8 @@ public class SongRepository {
         return instantMix;
     }
 
-    public MutableLiveData<List<Child>> getRandomSample(int number, Integer fromYear, Integer toYear) {
-        MutableLiveData<List<Child>> randomSongsSample = new MutableLiveData<>();
+    public RemoteLiveData<List<Child>> getRandomSample(int number, Integer fromYear, Integer toYear) {
+        RemoteLiveData<List<Child>> randomSongsSample = new RemoteLiveData<>();
 
         App.getSubsonicClientInstance(false)
                 .getAlbumSongListClient()
@@ -93,7 +104,7 @@ public class SongRepository {
 
                     @Override
                     public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
+                        randomSongsSample.fail();
                     }
                 });
 
@@ -101,37 +112,11 @@ public class SongRepository {
     }
 
     public void scrobble(String id, boolean submission) {
-        App.getSubsonicClientInstance(false)
-                .getMediaAnnotationClient()
-                .scrobble(id, submission)
-                .enqueue(new Callback<ApiResponse>() {
-                    @Override
-                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
-
-                    }
-
-                    @Override
-                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
-                    }
-                });
+        MutationJournal.scrobble(id, submission);
     }
 
     public void setRating(String id, int rating) {
-        App.getSubsonicClientInstance(false)
-                .getMediaAnnotationClient()
-                .setRating(id, rating)
-                .enqueue(new Callback<ApiResponse>() {
-                    @Override
-                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
-
-                    }
-
-                    @Override
-                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-
-                    }
-                });
+        MutationJournal.rate(id, rating);
     }
 
     public MutableLiveData<List<Child>> getSongsByGenre(String id, int page) {
@@ -0,0 +1,112 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+
+import com.cappielloantonio.tempo.util.AdaptiveBitrateUtil;
+import com.cappielloantonio.tempo.util.DownloadUtil;
+
+/**
+ * Reports the rebuffers of the service player to {@link AdaptiveBitrateUtil}, which lowers the bitrate
+ * requested for the next tracks. When the current track rebuffers again within a minute, it is reopened
+ * at the lower bitrate from the same position, provided the stream is seekable.
+ */
+@UnstableApi
+public class AdaptiveBitrateManager implements Player.Listener {
+    private static final String TAG = "AdaptiveBitrateManager";
+
+    private static final long DISCONTINUITY_GRACE = 1000;
+    private static final long REPEAT_WINDOW = 60 * 1000;
+    private static final long MIN_REMAINING = 30 * 1000;
+
+    private final Context context;
+    private final ExoPlayer player;
+
+    private int lastState = Player.STATE_IDLE;
+    private long lastDiscontinuity = 0;
+    private String rebufferedId;
+    private long rebufferedAt = 0;
+
+    public AdaptiveBitrateManager(Context context, ExoPlayer player) {
+        this.context = context.getApplicationContext();
+        this.player = player;
+
+        player.addListener(this);
+    }
+
+    public void release() {
+        player.removeListener(this);
+    }
+
+    @Override
+    public void onMediaItemTransition(@Nullable MediaItem mediaItem, int reason) {
+        lastDiscontinuity = SystemClock.elapsedRealtime();
+        rebufferedId = null;
+    }
+
+    @Override
+    public void onPositionDiscontinuity(@NonNull Player.PositionInfo oldPosition, @NonNull Player.PositionInfo newPosition, int reason) {
+        lastDiscontinuity = SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public void onPlaybackStateChanged(int playbackState) {
+        // Buffering right after a seek or a track change is expected, only a stall while playing counts
+        if (playbackState == Player.STATE_BUFFERING
+                && lastState == Player.STATE_READY
+                && player.getPlayWhenReady()
+                && SystemClock.elapsedRealtime() - lastDiscontinuity > DISCONTINUITY_GRACE) {
+            onRebuffer();
+        }
+
+        lastState = playbackState;
+    }
+
+    private void onRebuffer() {
+        MediaItem mediaItem = player.getCurrentMediaItem();
+        if (mediaItem == null) return;
+
+        AdaptiveBitrateUtil.onRebuffer();
+
+        if (!AdaptiveBitrateUtil.isEnabled()) return;
+
+        long now = SystemClock.elapsedRealtime();
+        boolean repeated = mediaItem.mediaId.equals(rebufferedId) && now - rebufferedAt < REPEAT_WINDOW;
+
+        rebufferedId = mediaItem.mediaId;
+        rebufferedAt = now;
+
+        if (repeated) reopen(mediaItem);
+    }
+
+    private void reopen(MediaItem mediaItem) {
+        if (mediaItem.localConfiguration == null || !AdaptiveBitrateUtil.isStreamUri(mediaItem.localConfiguration.uri)) return;
+        if (!player.isCurrentMediaItemSeekable() || DownloadUtil.isServedFromDisk(context, mediaItem)) return;
+
+        long duration = player.getDuration();
+        long position = player.getCurrentPosition();
+
+        if (duration == C.TIME_UNSET || duration - position < MIN_REMAINING) return;
+
+        Uri uri = AdaptiveBitrateUtil.withCurrentBitrate(mediaItem.localConfiguration.uri);
+        int index = player.getCurrentMediaItemIndex();
+
+        Log.d(TAG, "Reopening " + mediaItem.mediaId + " at " + uri.getQueryParameter("maxBitRate") + " kbps");
+
+        // A different cache key makes the player build a new media source, which opens the stream again
+        player.replaceMediaItem(index, mediaItem.buildUpon().setCustomCacheKey(AdaptiveBitrateUtil.getCacheKey(uri)).build());
+        player.seekTo(index, position);
+
+        rebufferedId = null;
+    }
+}
@@ -0,0 +1,291 @@
+package com.cappielloantonio.tempo.service;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.Player;
+import androidx.media3.common.Timeline;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.common.util.Util;
+import androidx.media3.exoplayer.DefaultLoadControl;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.upstream.DefaultAllocator;
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
+
+import com.cappielloantonio.tempo.util.DownloadUtil;
+import com.cappielloantonio.tempo.util.Preferences;
+import com.cappielloantonio.tempo.util.RadioAwareMediaSourceFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Load control switching its buffer targets while playing, depending on where the loading track comes from.
+ * <p>
+ * Tracks served from disk only keep a few seconds ahead and live radio stays close to the live edge,
+ * starting quickly. Streams buffer more on metered networks than on unmetered ones, and the most when
+ * the link looks congested: the player rebuffered recently or the measured bandwidth leaves little
+ * headroom over the track bitrate. Streaming durations are scaled by the buffering strategy setting and byte budgets are
+ * capped on low RAM devices.
+ */
+@UnstableApi
+public class AdaptiveLoadControl extends DefaultLoadControl implements Player.Listener {
+    private static final String TAG = "AdaptiveLoadControl";
+
+    private static final Profile LOCAL = new Profile("local", 5000, 15000, 500, 1000, 4 * 1024 * 1024, false);
+    private static final Profile RADIO = new Profile("radio", 10000, 30000, 1000, 2500, 4 * 1024 * 1024, false);
+    private static final Profile UNMETERED = new Profile("unmetered", 30000, 90000, 1500, 3000, 32 * 1024 * 1024, true);
+    private static final Profile METERED = new Profile("metered", 60000, 180000, 2500, 5000, 32 * 1024 * 1024, true);
+    private static final Profile CONGESTED = new Profile("congested", 120000, 600000, 5000, 10000, 64 * 1024 * 1024, true);
+
+    private static final int LOW_RAM_TARGET_BUFFER_BYTES = 8 * 1024 * 1024;
+    private static final int DEFAULT_BITRATE = 320;
+    private static final int BANDWIDTH_MARGIN = 3;
+    private static final long MAX_BANDWIDTH_HEADROOM = 640 * 1000;
+    private static final double CONGESTION_RECOVERY = 1.25;
+    private static final long REBUFFER_MEMORY = 10 * 60 * 1000;
+
+    private final Context context;
+    private final DefaultBandwidthMeter bandwidthMeter;
+    private final boolean lowRam;
+    private final Timeline.Period period = new Timeline.Period();
+    private final Timeline.Window window = new Timeline.Window();
+
+    private ExoPlayer player;
+    private ConnectivityManager.NetworkCallback networkCallback;
+
+    private volatile Set<String> localIds = new HashSet<>();
+    private volatile boolean metered = true;
+    private volatile double multiplier = 1;
+    private volatile long lastRebuffer = 0;
+
+    private Profile lastProfile;
+    private boolean loading = false;
+    private boolean slowLink = false;
+
+    public AdaptiveLoadControl(Context context) {
+        super(
+                new DefaultAllocator(true, C.DEFAULT_BUFFER_SEGMENT_SIZE),
+                DEFAULT_MIN_BUFFER_MS,
+                DEFAULT_MAX_BUFFER_MS,
+                DEFAULT_BUFFER_FOR_PLAYBACK_MS,
+                DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS,
+                DEFAULT_TARGET_BUFFER_BYTES,
+                DEFAULT_PRIORITIZE_TIME_OVER_SIZE_THRESHOLDS,
+                DEFAULT_BACK_BUFFER_DURATION_MS,
+                DEFAULT_RETAIN_BACK_BUFFER_FROM_KEYFRAME
+        );
+
+        this.context = context.getApplicationContext();
+        this.bandwidthMeter = DefaultBandwidthMeter.getSingletonInstance(this.context);
+
+        ActivityManager activityManager = (ActivityManager) this.context.getSystemService(Context.ACTIVITY_SERVICE);
+        this.lowRam = activityManager != null && activityManager.isLowRamDevice();
+    }
+
+    public void attach(ExoPlayer player) {
+        this.player = player;
+
+        player.addListener(this);
+        registerNetworkCallback();
+        update();
+    }
+
+    public void release() {
+        if (player != null) player.removeListener(this);
+
+        if (networkCallback != null) {
+            ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (connectivityManager != null) connectivityManager.unregisterNetworkCallback(networkCallback);
+            networkCallback = null;
+        }
+    }
+
+    @Override
+    public void onEvents(@NonNull Player player, @NonNull Player.Events events) {
+        if (events.containsAny(Player.EVENT_TIMELINE_CHANGED, Player.EVENT_MEDIA_ITEM_TRANSITION)) {
+            update();
+        }
+    }
+
+    /*
+     * Neither decision is delegated to the default load control: its buffer bounds are fixed when it is
+     * built, while these follow the profile of the loading track. Its hysteresis and byte budget are
+     * reproduced with the bounds of the profile instead. Its allocator is still the one in use, and is
+     * still trimmed by it when tracks are selected or the player stops.
+     */
+    @Override
+    public boolean shouldContinueLoading(Parameters parameters) {
+        Profile profile = getProfile(parameters);
+        long minBufferUs = profile.getMinBufferUs(multiplier);
+        long maxBufferUs = profile.getMaxBufferUs(multiplier);
+
+        if (parameters.playbackSpeed > 1) {
+            minBufferUs = Math.min(Util.getMediaDurationForPlayoutDuration(minBufferUs, parameters.playbackSpeed), maxBufferUs);
+        }
+
+        boolean overBudget = getAllocator().getTotalBytesAllocated() >= getTargetBufferBytes(profile);
+
+        // Same hysteresis as the default load control, with the bounds of the current profile
+        if (parameters.bufferedDurationUs < Math.max(minBufferUs, 500000)) {
+            loading = !overBudget;
+        } else if (parameters.bufferedDurationUs >= maxBufferUs || overBudget) {
+            loading = false;
+        }
+
+        return loading;
+    }
+
+    @Override
+    public boolean shouldStartPlayback(Parameters parameters) {
+        if (parameters.rebuffering) lastRebuffer = SystemClock.elapsedRealtime();
+
+        Profile profile = getProfile(parameters);
+        long bufferedDurationUs = Util.getPlayoutDurationForMediaDuration(parameters.bufferedDurationUs, parameters.playbackSpeed);
+        long minBufferDurationUs = parameters.rebuffering ? profile.bufferForPlaybackAfterRebufferUs : profile.bufferForPlaybackUs;
+
+        if (parameters.targetLiveOffsetUs != C.TIME_UNSET) {
+            minBufferDurationUs = Math.min(parameters.targetLiveOffsetUs / 2, minBufferDurationUs);
+        }
+
+        return minBufferDurationUs <= 0
+                || bufferedDurationUs >= minBufferDurationUs
+                || getAllocator().getTotalBytesAllocated() >= getTargetBufferBytes(profile);
+    }
+
+    /*
+     * Called on the main thread: whether the current and next tracks are read from disk is looked up
+     * here, as the download index and the caches are not meant to be queried from the playback thread.
+     */
+    private void update() {
+        multiplier = Preferences.getBufferingStrategy();
+
+        Set<String> ids = new HashSet<>();
+
+        addIfServedFromDisk(ids, player.getCurrentMediaItemIndex());
+        addIfServedFromDisk(ids, player.getNextMediaItemIndex());
+
+        localIds = ids;
+    }
+
+    private void addIfServedFromDisk(Set<String> ids, int index) {
+        if (index == C.INDEX_UNSET || index >= player.getMediaItemCount()) return;
+
+        MediaItem mediaItem = player.getMediaItemAt(index);
+        if (DownloadUtil.isServedFromDisk(context, mediaItem)) ids.add(mediaItem.mediaId);
+    }
+
+    private void registerNetworkCallback() {
+        ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) return;
+
+        metered = connectivityManager.isActiveNetworkMetered();
+
+        networkCallback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities networkCapabilities) {
+                metered = !networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+            }
+        };
+
+        connectivityManager.registerDefaultNetworkCallback(networkCallback);
+    }
+
+    private Profile getProfile(Parameters parameters) {
+        MediaItem mediaItem = getMediaItem(parameters);
+        Profile current;
+
+        if (mediaItem != null && RadioAwareMediaSourceFactory.isRadio(mediaItem)) {
+            current = RADIO;
+        } else if (mediaItem != null && localIds.contains(mediaItem.mediaId)) {
+            current = LOCAL;
+        } else if (isCongested(mediaItem)) {
+            current = CONGESTED;
+        } else {
+            current = metered ? METERED : UNMETERED;
+        }
+
+        if (current != lastProfile) {
+            Log.d(TAG, "Buffering profile: " + current.name);
+            lastProfile = current;
+        }
+
+        return current;
+    }
+
+    /*
+     * The bandwidth needed is the track bitrate with a headroom of twice that bitrate, capped so that lossless
+     * tracks are not held to three times their bitrate. A congested link only counts as recovered once the
+     * estimate clears that need by a further margin, so that it does not flip between profiles.
+     */
+    private boolean isCongested(MediaItem mediaItem) {
+        if (lastRebuffer != 0 && SystemClock.elapsedRealtime() - lastRebuffer < REBUFFER_MEMORY) return true;
+
+        int bitrate = DEFAULT_BITRATE;
+
+        if (mediaItem != null && mediaItem.mediaMetadata.extras != null && mediaItem.mediaMetadata.extras.getInt("bitrate") > 0) {
+            bitrate = mediaItem.mediaMetadata.extras.getInt("bitrate");
+        }
+
+        long bitrateBps = (long) bitrate * 1000;
+        long needed = bitrateBps + Math.min(bitrateBps * (BANDWIDTH_MARGIN - 1), MAX_BANDWIDTH_HEADROOM);
+
+        if (slowLink) needed = (long) (needed * CONGESTION_RECOVERY);
+
+        slowLink = bandwidthMeter.getBitrateEstimate() < needed;
+        return slowLink;
+    }
+
+    /*
+     * The media item the player is loading, which may already be the next one in the queue.
+     */
+    private MediaItem getMediaItem(Parameters parameters) {
+        if (parameters.timeline.isEmpty()) return null;
+
+        int periodIndex = parameters.timeline.getIndexOfPeriod(parameters.mediaPeriodId.periodUid);
+        if (periodIndex == C.INDEX_UNSET) return null;
+
+        parameters.timeline.getPeriod(periodIndex, period);
+        return parameters.timeline.getWindow(period.windowIndex, window).mediaItem;
+    }
+
+    private int getTargetBufferBytes(Profile profile) {
+        return lowRam ? Math.min(profile.targetBufferBytes, LOW_RAM_TARGET_BUFFER_BYTES) : profile.targetBufferBytes;
+    }
+
+    private static class Profile {
+        private final String name;
+        private final long minBufferUs;
+        private final long maxBufferUs;
+        private final long bufferForPlaybackUs;
+        private final long bufferForPlaybackAfterRebufferUs;
+        private final int targetBufferBytes;
+        private final boolean scaled;
+
+        private Profile(String name, int minBufferMs, int maxBufferMs, int bufferForPlaybackMs, int bufferForPlaybackAfterRebufferMs, int targetBufferBytes, boolean scaled) {
+            this.name = name;
+            this.minBufferUs = Util.msToUs(minBufferMs);
+            this.maxBufferUs = Util.msToUs(maxBufferMs);
+            this.bufferForPlaybackUs = Util.msToUs(bufferForPlaybackMs);
+            this.bufferForPlaybackAfterRebufferUs = Util.msToUs(bufferForPlaybackAfterRebufferMs);
+            this.targetBufferBytes = targetBufferBytes;
+            this.scaled = scaled;
+        }
+
+        private long getMinBufferUs(double multiplier) {
+            return scaled ? (long) (minBufferUs * multiplier) : minBufferUs;
+        }
+
+        private long getMaxBufferUs(double multiplier) {
+            return scaled ? Math.max((long) (maxBufferUs * multiplier), getMinBufferUs(multiplier)) : maxBufferUs;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.PlaybackParameters;
+import androidx.media3.common.Player;
+import androidx.media3.common.TrackSelectionParameters;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+
+import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DownloadUtil;
+import com.cappielloantonio.tempo.util.Preferences;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Enables audio offload while the current track is a downloaded or fully cached MP3/AAC/FLAC/Opus file,
+ * leaving the decoding to the audio DSP so that the application processor can sleep between buffers.
+ * <p>
+ * Offload bypasses the audio processors, so it is turned off while ReplayGain is enabled or the playback
+ * speed is changed, and it is only requested when the device can also play the queue gaplessly.
+ * Whether a given format is actually offloaded is left to the device support checks done by the player.
+ */
+@UnstableApi
+public class AudioOffloadManager implements Player.Listener, ExoPlayer.AudioOffloadListener {
+    private static final String TAG = "AudioOffloadManager";
+
+    private static final Set<String> OFFLOAD_SUFFIXES = new HashSet<>(Arrays.asList("mp3", "aac", "m4a", "flac", "opus"));
+
+    private final Context context;
+    private final ExoPlayer player;
+
+    private boolean playing = false;
+    private boolean offloaded = false;
+    private long segmentStart = 0;
+    private long playingTime = 0;
+    private long offloadedTime = 0;
+
+    public AudioOffloadManager(Context context, ExoPlayer player) {
+        this.context = context.getApplicationContext();
+        this.player = player;
+
+        player.addListener(this);
+        player.addAudioOffloadListener(this);
+    }
+
+    public void release() {
+        player.removeListener(this);
+        player.removeAudioOffloadListener(this);
+
+        closeSegment();
+        report();
+    }
+
+    @Override
+    public void onEvents(@NonNull Player player, @NonNull Player.Events events) {
+        if (events.containsAny(Player.EVENT_MEDIA_ITEM_TRANSITION, Player.EVENT_PLAYBACK_PARAMETERS_CHANGED)) {
+            update();
+        }
+    }
+
+    @Override
+    public void onIsPlayingChanged(boolean isPlaying) {
+        closeSegment();
+        playing = isPlaying;
+
+        if (!isPlaying) report();
+    }
+
+    @Override
+    public void onOffloadedPlayback(boolean isOffloadedPlayback) {
+        closeSegment();
+        offloaded = isOffloadedPlayback;
+
+        Log.d(TAG, "Offloaded playback " + (isOffloadedPlayback ? "started" : "stopped"));
+    }
+
+    private void update() {
+        int mode = canOffload()
+                ? TrackSelectionParameters.AudioOffloadPreferences.AUDIO_OFFLOAD_MODE_ENABLED
+                : TrackSelectionParameters.AudioOffloadPreferences.AUDIO_OFFLOAD_MODE_DISABLED;
+
+        TrackSelectionParameters parameters = player.getTrackSelectionParameters();
+        if (parameters.audioOffloadPreferences.audioOffloadMode == mode) return;
+
+        player.setTrackSelectionParameters(parameters.buildUpon()
+                .setAudioOffloadPreferences(new TrackSelectionParameters.AudioOffloadPreferences.Builder()
+                        .setAudioOffloadMode(mode)
+                        .setIsGaplessSupportRequired(true)
+                        .build())
+                .build());
+    }
+
+    private boolean canOffload() {
+        if (!Preferences.isAudioOffloadEnabled() || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) return false;
+        if (!Objects.equals(Preferences.getReplayGainMode(), "disabled")) return false;
+        if (!player.getPlaybackParameters().equals(PlaybackParameters.DEFAULT)) return false;
+
+        MediaItem mediaItem = player.getCurrentMediaItem();
+        if (mediaItem == null || mediaItem.mediaMetadata.extras == null) return false;
+
+        String type = mediaItem.mediaMetadata.extras.getString("type");
+        String suffix = mediaItem.mediaMetadata.extras.getString("transcodedSuffix", mediaItem.mediaMetadata.extras.getString("suffix"));
+
+        return Objects.equals(type, Constants.MEDIA_TYPE_MUSIC)
+                && suffix != null
+                && OFFLOAD_SUFFIXES.contains(suffix.toLowerCase())
+                && DownloadUtil.isServedFromDisk(context, mediaItem);
+    }
+
+    private void closeSegment() {
+        long now = SystemClock.elapsedRealtime();
+
+        if (playing) {
+            long elapsed = now - segmentStart;
+
+            playingTime += elapsed;
+            if (offloaded) offloadedTime += elapsed;
+        }
+
+        segmentStart = now;
+    }
+
+    private void report() {
+        if (playingTime == 0) return;
+
+        Log.i(TAG, "Offloaded " + offloadedTime / 1000 + "s of " + playingTime / 1000 + "s of playback (" + offloadedTime * 100 / playingTime + "%)");
+    }
+}
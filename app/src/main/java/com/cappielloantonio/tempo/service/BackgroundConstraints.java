@@ -0,0 +1,104 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.BatteryManager;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Tells when the device is charging on an unmetered network, the conditions under which the service
+ * fetches content ahead of time. The listener is called from the main thread or a binder thread
+ * whenever either condition changes.
+ */
+public class BackgroundConstraints {
+    public interface Listener {
+        void onConstraintsChanged(boolean met);
+    }
+
+    private final Context context;
+    private final Listener listener;
+
+    private ConnectivityManager.NetworkCallback networkCallback;
+    private BroadcastReceiver powerReceiver;
+
+    private volatile boolean unmetered = false;
+    private volatile boolean charging = false;
+
+    public BackgroundConstraints(Context context, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.listener = listener;
+
+        registerPowerReceiver();
+        registerNetworkCallback();
+    }
+
+    public boolean isMet() {
+        return unmetered && charging;
+    }
+
+    public void release() {
+        if (powerReceiver != null) {
+            context.unregisterReceiver(powerReceiver);
+            powerReceiver = null;
+        }
+
+        if (networkCallback != null) {
+            ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (connectivityManager != null) connectivityManager.unregisterNetworkCallback(networkCallback);
+            networkCallback = null;
+        }
+    }
+
+    private void registerPowerReceiver() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_POWER_CONNECTED);
+        filter.addAction(Intent.ACTION_POWER_DISCONNECTED);
+
+        powerReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                charging = Intent.ACTION_POWER_CONNECTED.equals(intent.getAction());
+                listener.onConstraintsChanged(isMet());
+            }
+        };
+
+        context.registerReceiver(powerReceiver, filter);
+
+        // The battery status is a sticky broadcast, read once for the initial state
+        Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        charging = battery != null && battery.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+    }
+
+    private void registerNetworkCallback() {
+        ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) return;
+
+        unmetered = !connectivityManager.isActiveNetworkMetered();
+
+        networkCallback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities networkCapabilities) {
+                boolean notMetered = networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+
+                if (notMetered != unmetered) {
+                    unmetered = notMetered;
+                    listener.onConstraintsChanged(isMet());
+                }
+            }
+
+            @Override
+            public void onLost(@NonNull Network network) {
+                unmetered = false;
+                listener.onConstraintsChanged(isMet());
+            }
+        };
+
+        connectivityManager.registerDefaultNetworkCallback(networkCallback);
+    }
+}
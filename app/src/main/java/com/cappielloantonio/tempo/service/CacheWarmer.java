@@ -0,0 +1,112 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSpec;
+
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.database.AppDatabase;
+import com.cappielloantonio.tempo.model.Chronology;
+import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
+import com.cappielloantonio.tempo.subsonic.models.Child;
+import com.cappielloantonio.tempo.util.DownloadUtil;
+import com.cappielloantonio.tempo.util.MappingUtil;
+import com.cappielloantonio.tempo.util.Preferences;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Response;
+
+/**
+ * Fills part of the streaming cache with the songs the user plays the most, so that they start from disk.
+ * <p>
+ * When enabled, the most played songs of the chronology and then the starred songs are cached whole
+ * while the device is charging on an unmetered network, at most twice a day. Their cache keys are pinned,
+ * which keeps them out of the least recently used eviction as long as they fit in the warming budget.
+ */
+@UnstableApi
+public class CacheWarmer extends PinnedPrefetcher {
+    private static final String TAG = "CacheWarmer";
+
+    private static final int MOST_PLAYED_COUNT = 100;
+    private static final long WARMING_INTERVAL = TimeUnit.HOURS.toMillis(12);
+
+    public CacheWarmer(Context context) {
+        super(context, TAG, DownloadUtil.PINNED_BY_CACHE_WARMING, Preferences.CACHE_WARMING, WARMING_INTERVAL);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return Preferences.isCacheWarmingEnabled();
+    }
+
+    @Override
+    protected Set<String> getPinnedKeys() {
+        return Preferences.getCacheWarmingKeys();
+    }
+
+    @Override
+    protected void setPinnedKeys(Set<String> keys) {
+        Preferences.setCacheWarmingKeys(keys);
+    }
+
+    @Override
+    protected long getLastRun() {
+        return Preferences.getLastCacheWarming();
+    }
+
+    @Override
+    protected void setLastRun() {
+        Preferences.setLastCacheWarming();
+    }
+
+    @Override
+    protected List<Stream> getStreams() {
+        List<Stream> streams = new ArrayList<>();
+
+        for (Child song : getCandidates()) {
+            if (DownloadUtil.getDownloadTracker(context).isDownloaded(song.getId())) continue;
+
+            DataSpec dataSpec = DownloadUtil.buildStreamDataSpec(MappingUtil.mapMediaItem(song), C.LENGTH_UNSET);
+            streams.add(new Stream(song.getId(), dataSpec, song.getSize(), song.getDuration()));
+        }
+
+        return streams;
+    }
+
+    /*
+     * Most played songs first, then the starred ones, without duplicates.
+     */
+    private List<Child> getCandidates() {
+        Map<String, Child> songs = new LinkedHashMap<>();
+
+        for (Chronology chronology : AppDatabase.getInstance().chronologyDao().getMostPlayed(Preferences.getServerId(), MOST_PLAYED_COUNT)) {
+            songs.put(chronology.getId(), chronology);
+        }
+
+        try {
+            Response<ApiResponse> response = App.getSubsonicClientInstance(false).getAlbumSongListClient().getStarred2().execute();
+
+            if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getStarred2() != null) {
+                List<Child> starred = response.body().getSubsonicResponse().getStarred2().getSongs();
+
+                if (starred != null) {
+                    for (Child song : starred) songs.putIfAbsent(song.getId(), song);
+                }
+            }
+        } catch (IOException exception) {
+            Log.w(TAG, "Unable to get the starred songs", exception);
+        }
+
+        return new ArrayList<>(songs.values());
+    }
+}
@@ -0,0 +1,185 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.Player;
+import androidx.media3.common.Timeline;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+
+import com.cappielloantonio.tempo.repository.QueueRepository;
+import com.cappielloantonio.tempo.repository.SongRepository;
+import com.cappielloantonio.tempo.subsonic.models.Child;
+import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DownloadUtil;
+import com.cappielloantonio.tempo.util.MappingUtil;
+import com.cappielloantonio.tempo.util.Preferences;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Extends the queue with an instant mix of its last track before playback reaches the end of it.
+ * <p>
+ * The mix is requested once the remaining queue time drops below {@link Preferences#getContinuousPlayWindow()},
+ * appended straight to the service player so that the transition stays gapless, and the beginning of
+ * its first tracks is read into the streaming cache.
+ */
+@UnstableApi
+public class ContinuousPlayManager implements Player.Listener {
+    private static final String TAG = "ContinuousPlayManager";
+
+    private static final int INSTANT_MIX_SIZE = 10;
+    private static final int PRE_CACHED_ITEMS = 2;
+    private static final long PRE_CACHED_BYTES = 512 * 1024;
+
+    private final Context context;
+    private final ExoPlayer player;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable check = this::check;
+
+    private String requestedTailId;
+
+    public ContinuousPlayManager(Context context, ExoPlayer player) {
+        this.context = context.getApplicationContext();
+        this.player = player;
+
+        player.addListener(this);
+    }
+
+    public void release() {
+        handler.removeCallbacks(check);
+        player.removeListener(this);
+    }
+
+    @Override
+    public void onEvents(@NonNull Player player, @NonNull Player.Events events) {
+        if (events.containsAny(
+                Player.EVENT_TIMELINE_CHANGED,
+                Player.EVENT_MEDIA_ITEM_TRANSITION,
+                Player.EVENT_POSITION_DISCONTINUITY,
+                Player.EVENT_IS_PLAYING_CHANGED,
+                Player.EVENT_SHUFFLE_MODE_ENABLED_CHANGED,
+                Player.EVENT_REPEAT_MODE_CHANGED,
+                Player.EVENT_PLAYBACK_PARAMETERS_CHANGED
+        )) {
+            check();
+        }
+    }
+
+    private void check() {
+        handler.removeCallbacks(check);
+
+        if (!Preferences.isContinuousPlayEnabled() || player.getRepeatMode() != Player.REPEAT_MODE_OFF) return;
+
+        int tailIndex = getTailIndex();
+        if (tailIndex == C.INDEX_UNSET) return;
+
+        MediaItem tail = player.getMediaItemAt(tailIndex);
+        if (tail.mediaMetadata.extras == null || !Objects.equals(tail.mediaMetadata.extras.getString("type"), Constants.MEDIA_TYPE_MUSIC)) return;
+        if (Objects.equals(tail.mediaId, requestedTailId)) return;
+
+        long remaining = getRemainingTime(tailIndex);
+        long window = Preferences.getContinuousPlayWindow() * 1000;
+
+        if (remaining <= window) {
+            requestInstantMix(tail);
+        } else if (player.isPlaying()) {
+            float speed = player.getPlaybackParameters().speed;
+            handler.postDelayed(check, (long) ((remaining - window) / speed));
+        }
+    }
+
+    private void requestInstantMix(MediaItem tail) {
+        requestedTailId = tail.mediaId;
+
+        Log.d(TAG, "Requesting the instant mix of " + tail.mediaId);
+
+        LiveData<List<Child>> instantMix = new SongRepository().getInstantMix(tail.mediaId, INSTANT_MIX_SIZE);
+        instantMix.observeForever(new Observer<List<Child>>() {
+            @Override
+            public void onChanged(List<Child> media) {
+                instantMix.removeObserver(this);
+
+                if (media == null) {
+                    // Allow a new attempt on the next playback event
+                    requestedTailId = null;
+                    return;
+                }
+
+                if (media.isEmpty() || !Objects.equals(tail.mediaId, getTailId())) return;
+
+                append(media);
+            }
+        });
+    }
+
+    private void append(List<Child> media) {
+        Set<String> queued = new HashSet<>();
+
+        for (int i = 0; i < player.getMediaItemCount(); i++) {
+            queued.add(player.getMediaItemAt(i).mediaId);
+        }
+
+        List<Child> toAdd = new ArrayList<>();
+
+        for (Child child : media) {
+            if (queued.add(child.getId())) toAdd.add(child);
+        }
+
+        if (toAdd.isEmpty()) return;
+
+        List<MediaItem> mediaItems = MappingUtil.mapMediaItems(toAdd);
+
+        new QueueRepository().insertAll(toAdd, false, player.getMediaItemCount());
+        player.addMediaItems(mediaItems);
+
+        for (int i = 0; i < Math.min(PRE_CACHED_ITEMS, mediaItems.size()); i++) {
+            DownloadUtil.preCache(context, mediaItems.get(i), PRE_CACHED_BYTES);
+        }
+    }
+
+    private int getTailIndex() {
+        Timeline timeline = player.getCurrentTimeline();
+        if (timeline.isEmpty()) return C.INDEX_UNSET;
+
+        return timeline.getLastWindowIndex(player.getShuffleModeEnabled());
+    }
+
+    private String getTailId() {
+        int tailIndex = getTailIndex();
+        return tailIndex != C.INDEX_UNSET ? player.getMediaItemAt(tailIndex).mediaId : null;
+    }
+
+    private long getRemainingTime(int tailIndex) {
+        Timeline timeline = player.getCurrentTimeline();
+        boolean shuffle = player.getShuffleModeEnabled();
+        int index = player.getCurrentMediaItemIndex();
+
+        long duration = player.getDuration();
+        long remaining = duration != C.TIME_UNSET ? Math.max(duration - player.getCurrentPosition(), 0) : getDuration(player.getCurrentMediaItem());
+
+        while (index != tailIndex && index != C.INDEX_UNSET) {
+            index = timeline.getNextWindowIndex(index, Player.REPEAT_MODE_OFF, shuffle);
+            if (index != C.INDEX_UNSET) remaining += getDuration(player.getMediaItemAt(index));
+        }
+
+        return remaining;
+    }
+
+    private static long getDuration(MediaItem mediaItem) {
+        if (mediaItem == null || mediaItem.mediaMetadata.extras == null) return 0;
+        return mediaItem.mediaMetadata.extras.getInt("duration") * 1000L;
+    }
+}
@@ -0,0 +1,66 @@
+package com.cappielloantonio.tempo.service;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DecoderCounters;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reports, for each audio decoder used by the player, how long it has been active and how much CPU time
+ * the app process spent meanwhile. Platform decoders run out of process, so the figure mostly shows the
+ * cost of the decoders running inside the app, such as the FFmpeg extension.
+ */
+@UnstableApi
+public class DecoderStatsListener implements AnalyticsListener {
+    private static final String TAG = "DecoderStatsListener";
+
+    private final Map<String, long[]> stats = new HashMap<>();
+
+    private String decoderName;
+    private long startCpuTime;
+    private long startTime;
+
+    @Override
+    public void onAudioDecoderInitialized(@NonNull EventTime eventTime, @NonNull String decoderName, long initializedTimestampMs, long initializationDurationMs) {
+        stop();
+
+        this.decoderName = decoderName;
+        this.startCpuTime = Process.getElapsedCpuTime();
+        this.startTime = SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public void onAudioDecoderReleased(@NonNull EventTime eventTime, @NonNull String decoderName) {
+        stop();
+    }
+
+    @Override
+    public void onAudioDisabled(@NonNull EventTime eventTime, @NonNull DecoderCounters decoderCounters) {
+        stop();
+    }
+
+    private void stop() {
+        if (decoderName == null) return;
+
+        long[] decoderStats = stats.get(decoderName);
+
+        if (decoderStats == null) {
+            decoderStats = new long[2];
+            stats.put(decoderName, decoderStats);
+        }
+
+        decoderStats[0] += Process.getElapsedCpuTime() - startCpuTime;
+        decoderStats[1] += SystemClock.elapsedRealtime() - startTime;
+
+        Log.i(TAG, decoderName + ": " + decoderStats[0] + "ms of process CPU time in " + decoderStats[1] / 1000 + "s of use");
+
+        decoderName = null;
+    }
+}
@@ -4,7 +4,6 @@ import android.app.Notification
 import android.app.NotificationChannel
 import android.app.NotificationManager
 import android.app.Service
-import android.content.ComponentName
 import android.content.Context
 import android.content.Intent
 import android.graphics.PixelFormat
@@ -22,14 +21,16 @@ import android.widget.TextView
 import androidx.annotation.OptIn
 import androidx.core.app.NotificationCompat
 import androidx.media3.common.MediaItem
+import androidx.media3.common.Player
 import androidx.media3.common.util.UnstableApi
+import androidx.media3.session.MediaBrowser
 import androidx.media3.session.MediaController
-import androidx.media3.session.SessionToken
 import com.cappielloantonio.tempo.R
 import com.cappielloantonio.tempo.repository.SongRepository
 import com.cappielloantonio.tempo.subsonic.models.LyricsList
 import com.cappielloantonio.tempo.subsonic.models.Line
 import com.cappielloantonio.tempo.subsonic.models.StructuredLyrics
+import com.cappielloantonio.tempo.util.LyricsLineScheduler
 import com.cappielloantonio.tempo.util.Preferences
 import com.google.common.util.concurrent.ListenableFuture
 import com.google.common.util.concurrent.MoreExecutors
@@ -50,13 +51,11 @@ class DesktopLyricsService : Service() {
     }
 
     private var mediaController: MediaController? = null
-    private var mediaControllerFuture: ListenableFuture<MediaController>? = null
+    private var mediaControllerFuture: ListenableFuture<MediaBrowser>? = null
     private var currentLyrics: LyricsList? = null
     private var currentLineIndex = -1
     private val lyricHandler = Handler(Looper.getMainLooper())
     private var isLyricTickerActive = false
-    private var lastUpdatePosition: Long = -1
-    private val positionThreshold: Long = 50 // Only update if position changes by more than 50ms
     private val openRepository = com.cappielloantonio.tempo.repository.OpenRepository()
     
     // Flag to indicate if we're using self-driven lyrics mode
@@ -67,9 +66,10 @@ class DesktopLyricsService : Service() {
     
     // Store current song ID to ensure we load lyrics for the current song when re-enabling
     private var currentSongId: String? = null
-    
-    // Cache the current line index to avoid repeated searches
-    private var cachedCurrentLineIndex = -1
+
+    // Synced lines of the current lyrics and their start times, searched when the position changes
+    private var lines: List<Line> = emptyList()
+    private var lineStarts = LongArray(0)
 
     private lateinit var windowManager: WindowManager
     private lateinit var lyricsView: View
@@ -159,7 +159,7 @@ class DesktopLyricsService : Service() {
                             } else {
                                 // If no lyrics data or song ID provided, just ensure ticker is active if needed
                                 if (isSelfDrivenMode && !isLyricTickerActive) {
-                                    startLyricTicker()
+                                    syncLyrics()
                                 }
                             }
                         }
@@ -199,7 +199,7 @@ class DesktopLyricsService : Service() {
                             } else {
                                 // If no current song ID is known, just start the ticker if needed
                                 if (!isLyricTickerActive && isSelfDrivenMode) {
-                                    startLyricTicker()
+                                    syncLyrics()
                                 }
                             }
                         } else {
@@ -210,8 +210,8 @@ class DesktopLyricsService : Service() {
                             currentLyrics = null
                             lastLyric = null
                             currentLineIndex = -1
-                            cachedCurrentLineIndex = -1
-                            lastUpdatePosition = -1
+                            lines = emptyList()
+                            lineStarts = LongArray(0)
                             
                             // Explicitly hide the entire lyrics view
                             if (::lyricsView.isInitialized) {
@@ -262,8 +262,8 @@ class DesktopLyricsService : Service() {
         // Clear lyrics state completely
         currentLineIndex = -1
         currentLyrics = null
-        cachedCurrentLineIndex = -1 // Reset cached index for new song
-        lastUpdatePosition = -1 // Reset position tracking for new song
+        lines = emptyList()
+        lineStarts = LongArray(0)
         lastLyric = null // Reset last lyric to ensure proper refresh
 
         // Clear the display and reset the internal lastLyric state by calling update with null
@@ -292,8 +292,8 @@ class DesktopLyricsService : Service() {
         // Clear lyrics state completely (but don't update UI)
         currentLineIndex = -1
         currentLyrics = null
-        cachedCurrentLineIndex = -1 // Reset cached index for new song
-        lastUpdatePosition = -1 // Reset position tracking for new song
+        lines = emptyList()
+        lineStarts = LongArray(0)
         lastLyric = null // Reset last lyric to ensure proper refresh
     }
     
@@ -312,8 +312,8 @@ class DesktopLyricsService : Service() {
         // Clear lyrics state completely
         currentLineIndex = -1
         currentLyrics = null
-        cachedCurrentLineIndex = -1 // Reset cached index for new song
-        lastUpdatePosition = -1 // Reset position tracking for new song
+        lines = emptyList()
+        lineStarts = LongArray(0)
         lastLyric = null // Reset last lyric to ensure proper refresh
 
         // Clear the display and reset the internal lastLyric state by calling update with null
@@ -334,10 +334,12 @@ class DesktopLyricsService : Service() {
         lyricHandler.removeCallbacksAndMessages(null)
         
         // Release MediaController
+        mediaController?.removeListener(playerListener)
+
         try {
             val future = mediaControllerFuture
             if (future != null) {
-                MediaController.releaseFuture(future)
+                MediaBrowserManager.release(future, playerListener)
                 mediaController = null
                 mediaControllerFuture = null
             }
@@ -351,9 +353,6 @@ class DesktopLyricsService : Service() {
         // Reset desktop lyrics enabled flag
         desktopLyricsEnabled = false
         
-        // Reset cached indices and positions
-        cachedCurrentLineIndex = -1
-        lastUpdatePosition = -1
         lastLyric = null
 
         try {
@@ -379,11 +378,12 @@ class DesktopLyricsService : Service() {
     @OptIn(UnstableApi::class)
     private fun initializeMediaController() {
         try {
-            val sessionToken = SessionToken(this, ComponentName(this, MediaService::class.java))
-            mediaControllerFuture = MediaController.Builder(this, sessionToken).buildAsync()
+            mediaControllerFuture = MediaBrowserManager.acquire()
             mediaControllerFuture?.addListener({
                 try {
                     mediaController = mediaControllerFuture?.get()
+                    mediaController?.addListener(playerListener)
+                    syncLyrics()
                 } catch (e: Exception) {
                     Log.e(TAG, "Failed to create media controller", e)
                 }
@@ -399,96 +399,34 @@ class DesktopLyricsService : Service() {
             currentLyrics = lyricsList
             // Reset state when new lyrics are loaded
             currentLineIndex = -1
-            // Start the ticker after a delay to allow Media3 timeline to stabilize
-            lyricHandler.postDelayed(lyricRunnable, 300)
+            lines = lyricsList?.structuredLyrics?.firstOrNull()?.line?.filter { it.start != null }.orEmpty()
+            lineStarts = LongArray(lines.size) { lines[it].start!!.toLong() }
+            syncLyrics()
         }
     }
 
-    private fun findLineForPosition(positionMs: Long): Line? {
-        val lyrics = currentLyrics?.structuredLyrics?.firstOrNull()?.line
-        if (lyrics.isNullOrEmpty()) return null
-
-        // Optimized search: start from cached index if available and nearby, otherwise use binary search
-        if (cachedCurrentLineIndex >= 0 && cachedCurrentLineIndex < lyrics.size) {
-            val cachedLine = lyrics[cachedCurrentLineIndex]
-            val cachedStart = cachedLine.start
-            if (cachedStart != null) {
-                val cachedStartTime = cachedStart.toLong()
-                
-                // If we're close to the cached position, search incrementally from there
-                if (kotlin.math.abs(cachedStartTime - positionMs) < 5000) { // Within 5 seconds
-                    // Search forward if current position is ahead of cached
-                    if (positionMs >= cachedStartTime) {
-                        for (i in cachedCurrentLineIndex until lyrics.size) {
-                            val line = lyrics[i]
-                            val lineStart = line.start
-                            if (lineStart != null) {
-                                val startTime = lineStart.toLong()
-                                if (startTime > positionMs) {
-                                    return if (i > 0) lyrics[i - 1] else null
-                                }
-                            }
-                        }
-                        // If we reached the end, return the last line
-                        return lyrics.lastOrNull()
-                    } 
-                    // Search backward if current position is behind cached
-                    else {
-                        for (i in cachedCurrentLineIndex downTo 0) {
-                            val line = lyrics[i]
-                            val lineStart = line.start
-                            if (lineStart != null) {
-                                val startTime = lineStart.toLong()
-                                if (startTime <= positionMs) {
-                                    return line
-                                }
-                            }
-                        }
-                        // If we reached the beginning, return the first line if it's within bounds
-                        val firstLine = lyrics[0]
-                        val firstLineStart = firstLine.start
-                        if (lyrics.isNotEmpty() && firstLineStart != null && firstLineStart.toLong() <= positionMs) {
-                            return firstLine
-                        }
-                    }
-                }
-            }
-        }
-        
-        // Fallback to binary search if incremental search wasn't applicable
-        var left = 0
-        var right = lyrics.size - 1
-        var bestMatchIndex = -1
-        
-        while (left <= right) {
-            val mid = (left + right) / 2
-            if (mid >= lyrics.size) break // Safety check
-            
-            val midLine = lyrics[mid]
-            val midStart = midLine.start
-            
-            if (midStart != null) {
-                val startTime = midStart.toLong()
-                
-                if (startTime <= positionMs) {
-                    bestMatchIndex = mid
-                    left = mid + 1 // Look for a later match
-                } else {
-                    right = mid - 1 // Look for an earlier match
-                }
-            } else {
-                // Skip lines without start time
-                left++
-            }
-        }
-        
-        return if (bestMatchIndex != -1) lyrics[bestMatchIndex] else null
-    }
+    /**
+     * Shows the line at the current position and, while playing, sets a single timer for the start of
+     * the next one. Nothing is scheduled while paused, hidden or without synced lyrics: the player
+     * listener calls this again when playback resumes, seeks or changes speed.
+     */
+    private fun syncLyrics() {
+        lineScheduler.cancel()
+        isLyricTickerActive = false
 
-    private fun startLyricTicker() {
-        if (!isLyricTickerActive) {
-            lyricHandler.postDelayed(lyricRunnable, 300)
-            isLyricTickerActive = true
+        val controller = mediaController ?: return
+        if (!desktopLyricsEnabled || !controller.isConnected || lineStarts.isEmpty()) return
+
+        try {
+            val index = lineScheduler.sync(controller, lineStarts)
+            isLyricTickerActive = lineScheduler.isScheduled
+
+            if (index != currentLineIndex) {
+                currentLineIndex = index
+                if (index >= 0) updateLyricsFromTicker(lines[index].value, lines.getOrNull(index + 1)?.value)
+            }
+        } catch (e: Exception) {
+            Log.e(TAG, "Error updating lyrics", e)
         }
     }
 
@@ -517,60 +455,24 @@ class DesktopLyricsService : Service() {
         // Clear the current lyrics state
         currentLyrics = null
         currentLineIndex = -1
-        cachedCurrentLineIndex = -1
-        lastUpdatePosition = -1
+        lines = emptyList()
+        lineStarts = LongArray(0)
         lastLyric = null
     }
 
-    private val lyricRunnable = object : Runnable {
-        override fun run() {
-            val controller = mediaController ?: return
-            if (!controller.isConnected) return
-
-            try {
-                // Check if player is playing - only update if playing
-                if (controller.playbackState == androidx.media3.common.Player.STATE_READY && controller.isPlaying) {
-                    val position = controller.currentPosition
-                    val line = findLineForPosition(position)
-
-                    if (line != null) {
-                        // Update cached index when we find a valid line
-                         val lyrics = currentLyrics?.structuredLyrics?.firstOrNull()?.line
-                         if (lyrics != null) {
-                             // Find the index of the current line in the lyrics array
-                             val lineStart = line.start
-                             val lineValue = line.value
-                             val foundIndex = lyrics.indexOfFirst { 
-                                 val itStart = it.start 
-                                 val itValue = it.value
-                                 itStart != null && lineStart != null && itStart == lineStart && itValue == lineValue 
-                             }
-                             if (foundIndex != -1) {
-                                 cachedCurrentLineIndex = foundIndex
-                             }
-                         }
-                         
-                        // Access the original lastLyric from the updateLyrics method context
-                        // We need to call updateLyrics with the current line
-                        // But we need to check if it's different from the current display
-                        updateLyricsFromTicker(line.value, getNextLine(line)?.value)
-                    }
-                    // Update last position for the next cycle
-                    lastUpdatePosition = position
-                } else {
-                    // If player is paused/stopped, reduce update frequency to save resources
-                    // Also reset the lastUpdatePosition so when playback resumes, we update immediately
-                    lastUpdatePosition = -1
-                    // Continue the ticker but with longer interval when not playing
-                    lyricHandler.postDelayed(this, 1000) // Check every second when not playing
-                    return
-                }
-            } catch (e: Exception) {
-                Log.e(TAG, "Error updating lyrics", e)
+    private val lyricRunnable = Runnable { syncLyrics() }
+    private val lineScheduler = LyricsLineScheduler(lyricHandler, lyricRunnable)
+
+    private val playerListener = object : Player.Listener {
+        override fun onEvents(player: Player, events: Player.Events) {
+            if (events.containsAny(
+                    Player.EVENT_IS_PLAYING_CHANGED,
+                    Player.EVENT_POSITION_DISCONTINUITY,
+                    Player.EVENT_PLAYBACK_PARAMETERS_CHANGED
+                )
+            ) {
+                syncLyrics()
             }
-
-            // Continue the ticker with optimized interval
-            lyricHandler.postDelayed(this, 300) // Reduced from 500ms to 300ms for better responsiveness while still optimizing
         }
     }
 
@@ -583,19 +485,6 @@ class DesktopLyricsService : Service() {
         updateLyrics(null, currentLyric, nextLyric)
     }
 
-    private fun getNextLine(currentLine: Line): Line? {
-        val lyrics = currentLyrics?.structuredLyrics?.firstOrNull()?.line
-        if (lyrics.isNullOrEmpty()) return null
-        
-        // Fallback to the original search method
-        for (i in lyrics.indices) {
-            if (lyrics[i] === currentLine) {  // Using reference equality for performance
-                return if (i < lyrics.size - 1) lyrics[i + 1] else null
-            }
-        }
-        return null
-    }
-
     private fun createNotificationChannel() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             val channel = NotificationChannel(
@@ -0,0 +1,217 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.media3.common.util.Log;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.offline.Download;
+
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.database.AppDatabase;
+import com.cappielloantonio.tempo.model.Chronology;
+import com.cappielloantonio.tempo.util.Preferences;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the downloads within the quota set in {@link Preferences#getDownloadQuota()}.
+ * <p>
+ * Only auto-synced downloads can be evicted; they are kept ordered by their value, computed from the
+ * play count and the last play time found in the chronology. The value does not depend on the current
+ * time, so the ordering is updated one entry at a time and an eviction pass only touches the entries it removes.
+ * <p>
+ * The entries are kept on a background thread, while the downloads are removed from the main thread, where
+ * the rest of the app reads them.
+ */
+@UnstableApi
+public class DownloadQuotaEvictor implements SharedPreferences.OnSharedPreferenceChangeListener {
+    private static final String TAG = "DownloadQuotaEvictor";
+
+    private static final double HALF_LIFE_MS = 30d * 24 * 60 * 60 * 1000;
+
+    private final DownloaderManager downloaderManager;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> evictionOrder = new TreeSet<>(Comparator
+            .comparingDouble((Entry entry) -> entry.value)
+            .thenComparing(entry -> entry.id));
+    private final Map<String, Long> downloadedBytes = new HashMap<>();
+
+    private long totalBytes = 0;
+
+    public DownloadQuotaEvictor(DownloaderManager downloaderManager, Collection<Download> downloads) {
+        this.downloaderManager = downloaderManager;
+
+        List<Download> completed = new ArrayList<>();
+
+        for (Download download : downloads) {
+            if (download.state == Download.STATE_COMPLETED) completed.add(download);
+        }
+
+        executor.execute(() -> load(completed));
+
+        App.getInstance().getPreferences().registerOnSharedPreferenceChangeListener(this);
+    }
+
+    @Override
+    public void onSharedPreferenceChanged(SharedPreferences preferences, String key) {
+        if (Preferences.DOWNLOAD_QUOTA.equals(key)) executor.execute(this::enforce);
+    }
+
+    /**
+     * @param completedAt the time the download completed, which ranks it until it is played.
+     */
+    public void onDownloadCompleted(String id, long bytes, long completedAt) {
+        executor.execute(() -> {
+            setBytes(id, bytes);
+
+            com.cappielloantonio.tempo.model.Download download = AppDatabase.getInstance().downloadDao().getOne(id);
+
+            if (download != null && download.getAutoSynced() && !entries.containsKey(id)) {
+                add(new Entry(id, download.getCoverArtId(), value(download.getPlayCount(), completedAt)));
+            }
+
+            enforce();
+        });
+    }
+
+    public void onDownloadRemoved(String id) {
+        executor.execute(() -> {
+            setBytes(id, 0);
+            remove(id);
+        });
+    }
+
+    public void onPlayed(String id, long playCount, long timestamp) {
+        executor.execute(() -> {
+            Entry entry = entries.get(id);
+            if (entry == null) return;
+
+            evictionOrder.remove(entry);
+            entry.value = value(playCount, timestamp);
+            evictionOrder.add(entry);
+        });
+    }
+
+    public void clear() {
+        executor.execute(() -> {
+            entries.clear();
+            evictionOrder.clear();
+            downloadedBytes.clear();
+            totalBytes = 0;
+        });
+    }
+
+    /*
+     * A download is at least as recent as its completion, otherwise a song synced and not played yet would
+     * be the first one evicted, and synced again right after.
+     */
+    private void load(List<Download> completed) {
+        Map<String, Long> completedAt = new HashMap<>();
+
+        for (Download download : completed) {
+            setBytes(download.request.id, download.getBytesDownloaded());
+            completedAt.put(download.request.id, download.updateTimeMs);
+        }
+
+        Map<String, Chronology> plays = new HashMap<>();
+
+        for (Chronology chronology : AppDatabase.getInstance().chronologyDao().getAutoSyncedDownloads(Preferences.getServerId())) {
+            plays.put(chronology.getId(), chronology);
+        }
+
+        for (com.cappielloantonio.tempo.model.Download download : AppDatabase.getInstance().downloadDao().getAutoSynced()) {
+            Chronology chronology = plays.get(download.getId());
+            Long completion = completedAt.get(download.getId());
+
+            long lastPlayed = Math.max(chronology != null ? chronology.getTimestamp() : 0, completion != null ? completion : 0);
+            Long playCount = chronology != null ? chronology.getPlayCount() : download.getPlayCount();
+
+            double value = value(playCount, lastPlayed);
+
+            add(new Entry(download.getId(), download.getCoverArtId(), value));
+        }
+
+        enforce();
+    }
+
+    private void enforce() {
+        long quota = Preferences.getDownloadQuota() * 1024 * 1024;
+        if (quota <= 0 || totalBytes <= quota) return;
+
+        List<com.cappielloantonio.tempo.model.Download> toEvict = new ArrayList<>();
+        long bytes = totalBytes;
+
+        while (bytes > quota && !evictionOrder.isEmpty()) {
+            Entry entry = evictionOrder.pollFirst();
+            entries.remove(entry.id);
+
+            Long size = downloadedBytes.remove(entry.id);
+            if (size != null) {
+                bytes -= size;
+                totalBytes -= size;
+            }
+
+            com.cappielloantonio.tempo.model.Download download = new com.cappielloantonio.tempo.model.Download(entry.id);
+            download.setCoverArtId(entry.coverArtId);
+            toEvict.add(download);
+        }
+
+        if (bytes > quota) {
+            Log.w(TAG, "Download quota exceeded by manual downloads only");
+        }
+
+        if (!toEvict.isEmpty()) {
+            Log.d(TAG, "Evicting " + toEvict.size() + " auto-synced downloads");
+            mainHandler.post(() -> downloaderManager.evict(toEvict));
+        }
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id, entry);
+        evictionOrder.add(entry);
+    }
+
+    private void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) evictionOrder.remove(entry);
+    }
+
+    private void setBytes(String id, long bytes) {
+        Long previous = bytes > 0 ? downloadedBytes.put(id, bytes) : downloadedBytes.remove(id);
+        totalBytes += bytes - (previous != null ? previous : 0);
+    }
+
+    /*
+     * log2 of (1 + ln(1 + playCount)) * 2^((lastPlayed - now) / halfLife), without the "now" term,
+     * which is the same for every entry and does not change their ordering.
+     */
+    private static double value(Long playCount, long lastPlayed) {
+        long count = playCount != null ? Math.max(playCount, 0) : 0;
+        return Math.log(1 + Math.log1p(count)) / Math.log(2) + lastPlayed / HALF_LIFE_MS;
+    }
+
+    private static final class Entry {
+        private final String id;
+        private final String coverArtId;
+        private double value;
+
+        private Entry(String id, String coverArtId, double value) {
+            this.id = id;
+            this.coverArtId = coverArtId;
+            this.value = value;
+        }
+    }
+}
@@ -19,9 +19,11 @@ import androidx.media3.exoplayer.offline.DownloadRequest;
 import androidx.media3.exoplayer.offline.DownloadService;
 
 import com.cappielloantonio.tempo.repository.DownloadRepository;
+import com.cappielloantonio.tempo.util.ArtworkUtil;
 import com.cappielloantonio.tempo.util.DownloadUtil;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
@@ -34,6 +36,7 @@ public class DownloaderManager {
     private final DownloadIndex downloadIndex;
 
     private static HashMap<String, Download> downloads;
+    private static DownloadQuotaEvictor quotaEvictor;
 
     public DownloaderManager(Context context, DataSource.Factory dataSourceFactory, DownloadManager downloadManager) {
         this.context = context.getApplicationContext();
@@ -43,6 +46,9 @@ public class DownloaderManager {
         downloadIndex = downloadManager.getDownloadIndex();
 
         loadDownloads();
+        ArtworkUtil.prune();
+
+        quotaEvictor = new DownloadQuotaEvictor(this, downloads.values());
     }
 
     private DownloadRequest buildDownloadRequest(MediaItem mediaItem) {
@@ -74,6 +80,7 @@ public class DownloaderManager {
 
         DownloadService.sendAddDownload(context, DownloaderService.class, buildDownloadRequest(mediaItem), false);
         insertDatabase(download);
+        ArtworkUtil.pin(context, download);
     }
 
     public void download(List<MediaItem> mediaItems, List<com.cappielloantonio.tempo.model.Download> downloads) {
@@ -83,21 +90,46 @@ public class DownloaderManager {
     }
 
     public void remove(MediaItem mediaItem, com.cappielloantonio.tempo.model.Download download) {
-        DownloadService.sendRemoveDownload(context, DownloaderService.class, buildDownloadRequest(mediaItem).id, false);
-        deleteDatabase(download.getId());
-        downloads.remove(download.getId());
+        removeDownload(mediaItem, download);
+        ArtworkUtil.release(Collections.singletonList(download));
     }
 
     public void remove(List<MediaItem> mediaItems, List<com.cappielloantonio.tempo.model.Download> downloads) {
         for (int counter = 0; counter < mediaItems.size(); counter++) {
-            remove(mediaItems.get(counter), downloads.get(counter));
+            removeDownload(mediaItems.get(counter), downloads.get(counter));
         }
+
+        ArtworkUtil.release(downloads);
     }
 
     public void removeAll() {
         DownloadService.sendRemoveAllDownloads(context, DownloaderService.class, false);
         deleteAllDatabase();
         DownloadUtil.eraseDownloadFolder(context);
+        ArtworkUtil.eraseArtworkFolder(context);
+        quotaEvictor.clear();
+    }
+
+    public void evict(List<com.cappielloantonio.tempo.model.Download> toEvict) {
+        for (com.cappielloantonio.tempo.model.Download download : toEvict) {
+            DownloadService.sendRemoveDownload(context, DownloaderService.class, download.getId(), false);
+            deleteDatabase(download.getId());
+            downloads.remove(download.getId());
+        }
+
+        ArtworkUtil.release(toEvict);
+    }
+
+    public void onPlayed(MediaItem mediaItem) {
+        if (mediaItem.mediaMetadata.extras != null) {
+            quotaEvictor.onPlayed(mediaItem.mediaId, mediaItem.mediaMetadata.extras.getLong("playCount"), System.currentTimeMillis());
+        }
+    }
+
+    private void removeDownload(MediaItem mediaItem, com.cappielloantonio.tempo.model.Download download) {
+        DownloadService.sendRemoveDownload(context, DownloaderService.class, buildDownloadRequest(mediaItem).id, false);
+        deleteDatabase(download.getId());
+        downloads.remove(download.getId());
     }
 
     private void loadDownloads() {
@@ -119,11 +151,13 @@ public class DownloaderManager {
     public static void updateRequestDownload(Download download) {
         updateDatabase(download.request.id);
         downloads.put(download.request.id, download);
+        if (quotaEvictor != null) quotaEvictor.onDownloadCompleted(download.request.id, download.getBytesDownloaded(), download.updateTimeMs);
     }
 
     public static void removeRequestDownload(Download download) {
         deleteDatabase(download.request.id);
         downloads.remove(download.request.id);
+        if (quotaEvictor != null) quotaEvictor.onDownloadRemoved(download.request.id);
     }
 
     private static DownloadRepository getDownloadRepository() {
@@ -0,0 +1,117 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.media3.common.Player;
+import androidx.media3.session.MediaBrowser;
+import androidx.media3.session.SessionToken;
+
+import com.cappielloantonio.tempo.App;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares a single connection to {@link MediaService} across the screens and services of the process.
+ * <p>
+ * Every user acquires the browser when it starts and releases it when it stops, instead of building its
+ * own. The session then sends each player event once, and a screen that opens while the browser is
+ * connected can use it right away. The connection is closed a few seconds after the last user released
+ * it, so that moving from a screen to the next one does not connect again.
+ * <p>
+ * Since the browser is shared, the listeners added to it must be removed by whoever added them, and the
+ * browser itself must never be released directly. Must be called from the main thread.
+ */
+public class MediaBrowserManager {
+    private static final long RELEASE_DELAY = TimeUnit.SECONDS.toMillis(5);
+
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+    private static final Runnable closing = MediaBrowserManager::close;
+
+    private static ListenableFuture<MediaBrowser> browserFuture;
+    private static int users = 0;
+
+    public static ListenableFuture<MediaBrowser> acquire() {
+        handler.removeCallbacks(closing);
+
+        if (browserFuture != null && isLost(browserFuture)) close();
+        if (browserFuture == null) browserFuture = connect();
+
+        users++;
+        return browserFuture;
+    }
+
+    /**
+     * Returns the browser a user acquired if it is still the shared one, or else releases it and acquires
+     * the one that replaced it. Users holding the browser for long call it on each use rather than keeping
+     * the browser itself, which may have been lost since.
+     */
+    public static ListenableFuture<MediaBrowser> renew(ListenableFuture<MediaBrowser> future) {
+        if (future != null && future == browserFuture && !isLost(future)) return future;
+
+        release(future);
+        return acquire();
+    }
+
+    /**
+     * Releasing a browser that has already been closed, or twice, does nothing.
+     */
+    public static void release(ListenableFuture<MediaBrowser> future) {
+        if (future == null || future != browserFuture || users == 0) return;
+
+        if (--users == 0) handler.postDelayed(closing, RELEASE_DELAY);
+    }
+
+    /**
+     * Removes a listener from the browser once it is connected, then releases it.
+     */
+    public static void release(ListenableFuture<MediaBrowser> future, Player.Listener listener) {
+        if (future == null) return;
+
+        future.addListener(() -> {
+            try {
+                Futures.getDone(future).removeListener(listener);
+            } catch (Exception ignored) {
+                // The browser never connected, so the listener was never added
+            }
+        }, MoreExecutors.directExecutor());
+
+        release(future);
+    }
+
+    private static ListenableFuture<MediaBrowser> connect() {
+        Context context = App.getContext();
+        SessionToken token = new SessionToken(context, new ComponentName(context, MediaService.class));
+
+        return new MediaBrowser.Builder(context, token).buildAsync();
+    }
+
+    /*
+     * A browser whose connection failed, or was dropped because the service died, is replaced for the
+     * users that come next. The users still holding it get the same answer they would have got from a
+     * browser of their own.
+     */
+    private static boolean isLost(ListenableFuture<MediaBrowser> future) {
+        if (!future.isDone()) return false;
+
+        try {
+            return future.isCancelled() || !Futures.getDone(future).isConnected();
+        } catch (Exception exception) {
+            return true;
+        }
+    }
+
+    private static void close() {
+        handler.removeCallbacks(closing);
+
+        if (browserFuture != null) MediaBrowser.releaseFuture(browserFuture);
+
+        browserFuture = null;
+        users = 0;
+    }
+}
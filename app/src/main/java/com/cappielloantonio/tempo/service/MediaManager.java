@@ -1,14 +1,9 @@
 package com.cappielloantonio.tempo.service;
 
-import android.content.ComponentName;
-
 import androidx.annotation.OptIn;
-import androidx.lifecycle.LiveData;
-import androidx.lifecycle.Observer;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 
 import com.cappielloantonio.tempo.App;
 import com.cappielloantonio.tempo.interfaces.MediaIndexCallback;
@@ -19,6 +14,7 @@ import com.cappielloantonio.tempo.repository.SongRepository;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.subsonic.models.InternetRadioStation;
 import com.cappielloantonio.tempo.subsonic.models.PodcastEpisode;
+import com.cappielloantonio.tempo.util.DownloadUtil;
 import com.cappielloantonio.tempo.util.MappingUtil;
 import com.cappielloantonio.tempo.util.Preferences;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -308,32 +304,10 @@ public class MediaManager {
     }
 
     @OptIn(markerClass = UnstableApi.class)
-    public static void continuousPlay(MediaItem mediaItem) {
-        if (mediaItem != null && Preferences.isContinuousPlayEnabled() && Preferences.isInstantMixUsable()) {
-            Preferences.setLastInstantMix();
-
-            LiveData<List<Child>> instantMix = getSongRepository().getInstantMix(mediaItem.mediaId, 10);
-            instantMix.observeForever(new Observer<List<Child>>() {
-                @Override
-                public void onChanged(List<Child> media) {
-                    if (media != null) {
-                        ListenableFuture<MediaBrowser> mediaBrowserListenableFuture = new MediaBrowser.Builder(
-                                App.getContext(),
-                                new SessionToken(App.getContext(), new ComponentName(App.getContext(), MediaService.class))
-                        ).buildAsync();
-
-                        enqueue(mediaBrowserListenableFuture, media, true);
-                    }
-
-                    instantMix.removeObserver(this);
-                }
-            });
-        }
-    }
-
     public static void saveChronology(MediaItem mediaItem) {
         if (mediaItem != null) {
             getChronologyRepository().insert(new Chronology(mediaItem));
+            DownloadUtil.getDownloadTracker(App.getContext()).onPlayed(mediaItem);
         }
     }
 
@@ -0,0 +1,206 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.database.AppDatabase;
+import com.cappielloantonio.tempo.database.dao.MutationDao;
+import com.cappielloantonio.tempo.model.Mutation;
+import com.cappielloantonio.tempo.subsonic.api.mediaannotation.MediaAnnotationClient;
+import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
+import com.cappielloantonio.tempo.util.NetworkUtil;
+import com.cappielloantonio.tempo.util.Preferences;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Write-behind journal for the annotations sent to the server: stars, ratings and scrobbles.
+ * <p>
+ * Every change is stored in the mutation table and sent in the background, so callers never wait on the
+ * network. Changes to the same target are coalesced (the last star or rating wins and only the latest "now
+ * playing" is kept), pending entries are replayed in order once the network comes back and failed flushes
+ * are retried with an exponential backoff.
+ */
+public class MutationJournal {
+    private static final String TAG = "MutationJournal";
+
+    private static final long NOW_PLAYING_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final long NOW_PLAYING_EXPIRATION = TimeUnit.MINUTES.toMillis(10);
+    private static final long SUBMISSION_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+    private static final long MIN_BACKOFF = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_BACKOFF = TimeUnit.MINUTES.toMillis(15);
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private static final MutationDao mutationDao = AppDatabase.getInstance().mutationDao();
+
+    private static boolean initialized = false;
+    private static ScheduledFuture<?> scheduledFlush;
+    private static int failures = 0;
+
+    private static String lastNowPlayingId;
+    private static long lastNowPlayingTimestamp;
+    private static String lastSubmissionId;
+    private static long lastSubmissionTimestamp;
+
+    public static void star(String id, String albumId, String artistId, boolean toStar) {
+        long timestamp = System.currentTimeMillis();
+
+        enqueue(new Mutation(getStarId(id, albumId, artistId), Preferences.getServerId(), Mutation.STAR, id, albumId, artistId, toStar ? 1 : 0, timestamp, 0));
+    }
+
+    public static void rate(String id, int rating) {
+        long timestamp = System.currentTimeMillis();
+
+        enqueue(new Mutation(Mutation.RATING + ":" + id, Preferences.getServerId(), Mutation.RATING, id, null, null, rating, timestamp, 0));
+    }
+
+    public static synchronized void scrobble(String id, boolean submission) {
+        long timestamp = System.currentTimeMillis();
+
+        if (submission) {
+            // The end of a track can be reported by more than one player callback
+            if (Objects.equals(id, lastSubmissionId) && timestamp - lastSubmissionTimestamp < SUBMISSION_INTERVAL) return;
+
+            lastSubmissionId = id;
+            lastSubmissionTimestamp = timestamp;
+
+            enqueue(new Mutation(Mutation.SUBMISSION + ":" + id + ":" + timestamp, Preferences.getServerId(), Mutation.SUBMISSION, id, null, null, 1, timestamp, 0));
+        } else {
+            // Track changes and resumes both report the track being played, the server only needs it once
+            if (Objects.equals(id, lastNowPlayingId) && timestamp - lastNowPlayingTimestamp < NOW_PLAYING_INTERVAL) return;
+
+            lastNowPlayingId = id;
+            lastNowPlayingTimestamp = timestamp;
+
+            enqueue(new Mutation(Mutation.NOW_PLAYING, Preferences.getServerId(), Mutation.NOW_PLAYING, id, null, null, 0, timestamp, 0));
+        }
+    }
+
+    /*
+     * Sends what is left from the previous sessions, then follows the network to send what fails now.
+     */
+    public static void start() {
+        initialize();
+        executor.execute(MutationJournal::flushPending);
+    }
+
+    private static void enqueue(Mutation mutation) {
+        initialize();
+
+        executor.execute(() -> {
+            mutationDao.insert(mutation);
+            if (scheduledFlush == null) flushPending();
+        });
+    }
+
+    private static synchronized void initialize() {
+        if (initialized) return;
+        initialized = true;
+
+        ConnectivityManager connectivityManager = (ConnectivityManager) App.getContext().getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        if (connectivityManager != null) {
+            connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(@NonNull Network network) {
+                    executor.execute(() -> {
+                        failures = 0;
+                        flushPending();
+                    });
+                }
+            });
+        }
+    }
+
+    /*
+     * Songs, albums and artists may share ids, the kind of item is part of the key a star is coalesced on.
+     */
+    private static String getStarId(String id, String albumId, String artistId) {
+        if (id != null) return Mutation.STAR + ":song:" + id;
+        if (albumId != null) return Mutation.STAR + ":album:" + albumId;
+        return Mutation.STAR + ":artist:" + artistId;
+    }
+
+    private static void flushPending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+
+        if (NetworkUtil.isOffline()) return;
+
+        List<Mutation> mutations = mutationDao.getAll(Preferences.getServerId());
+
+        for (Mutation mutation : mutations) {
+            if (mutation.getType().equals(Mutation.NOW_PLAYING) && System.currentTimeMillis() - mutation.getTimestamp() > NOW_PLAYING_EXPIRATION) {
+                mutationDao.delete(mutation);
+                continue;
+            }
+
+            try {
+                Response<ApiResponse> response = buildCall(mutation).execute();
+
+                if (response.isSuccessful() && response.body() != null && "ok".equals(response.body().getSubsonicResponse().getStatus())) {
+                    mutationDao.delete(mutation);
+                    failures = 0;
+                    continue;
+                }
+
+                mutation.setAttempts(mutation.getAttempts() + 1);
+
+                if (response.isSuccessful() || mutation.getAttempts() >= MAX_ATTEMPTS) {
+                    // Rejected by the server, sending it again will not change the outcome
+                    Log.w(TAG, "Dropping " + mutation.getId() + " rejected by the server");
+                    mutationDao.delete(mutation);
+                    continue;
+                }
+
+                mutationDao.update(mutation);
+            } catch (IOException exception) {
+                Log.w(TAG, "Unable to send " + mutation.getId(), exception);
+            }
+
+            scheduleRetry();
+            return;
+        }
+    }
+
+    private static void scheduleRetry() {
+        long delay = Math.min(MAX_BACKOFF, MIN_BACKOFF << Math.min(failures, 16));
+        failures++;
+
+        scheduledFlush = executor.schedule(MutationJournal::flushPending, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static Call<ApiResponse> buildCall(Mutation mutation) {
+        MediaAnnotationClient client = App.getSubsonicClientInstance(false).getMediaAnnotationClient();
+
+        switch (mutation.getType()) {
+            case Mutation.STAR:
+                return mutation.getValue() == 1
+                        ? client.star(mutation.getSongId(), mutation.getAlbumId(), mutation.getArtistId())
+                        : client.unstar(mutation.getSongId(), mutation.getAlbumId(), mutation.getArtistId());
+            case Mutation.RATING:
+                return client.setRating(mutation.getSongId(), mutation.getValue());
+            case Mutation.SUBMISSION:
+                return client.scrobble(mutation.getSongId(), true, mutation.getTimestamp());
+            default:
+                return client.scrobble(mutation.getSongId(), false, null);
+        }
+    }
+}
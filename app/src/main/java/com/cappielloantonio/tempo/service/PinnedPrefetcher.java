@@ -0,0 +1,206 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.cache.CacheWriter;
+
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.util.DownloadUtil;
+import com.cappielloantonio.tempo.util.Preferences;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes streams to the streaming cache ahead of time and pins them there, within the share of the pinned
+ * budget of the feature.
+ * <p>
+ * A run starts while the device is charging on an unmetered network, at most once per interval, and
+ * caches the streams picked by the feature in order until the budget is used. It stops as soon as the
+ * charger or the unmetered network goes away, and the streams are unpinned as soon as the feature is
+ * switched off.
+ */
+@UnstableApi
+public abstract class PinnedPrefetcher implements SharedPreferences.OnSharedPreferenceChangeListener {
+    /**
+     * A stream to cache, with the size of the file and the duration its length is estimated from.
+     */
+    protected static class Stream {
+        private final String id;
+        private final DataSpec dataSpec;
+        private final Long size;
+        private final Integer duration;
+
+        protected Stream(String id, DataSpec dataSpec, Long size, Integer duration) {
+            this.id = id;
+            this.dataSpec = dataSpec;
+            this.size = size;
+            this.duration = duration;
+        }
+    }
+
+    protected final Context context;
+
+    private final String tag;
+    private final String owner;
+    private final String preference;
+    private final long interval;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final BackgroundConstraints constraints;
+
+    private Future<?> running;
+    private volatile CacheWriter cacheWriter;
+
+    /**
+     * @param owner      the name the streams are pinned under, see {@link DownloadUtil#setPinnedStreamKeys}.
+     * @param preference the key of the preference switching the feature.
+     */
+    protected PinnedPrefetcher(Context context, String tag, String owner, String preference, long interval) {
+        this.context = context.getApplicationContext();
+        this.tag = tag;
+        this.owner = owner;
+        this.preference = preference;
+        this.interval = interval;
+        this.constraints = new BackgroundConstraints(this.context, met -> evaluate());
+
+        App.getInstance().getPreferences().registerOnSharedPreferenceChangeListener(this);
+        evaluate();
+    }
+
+    public void release() {
+        App.getInstance().getPreferences().unregisterOnSharedPreferenceChangeListener(this);
+        constraints.release();
+
+        cancel();
+        executor.shutdown();
+    }
+
+    @Override
+    public void onSharedPreferenceChanged(SharedPreferences preferences, String key) {
+        if (preference.equals(key)) evaluate();
+    }
+
+    protected abstract boolean isEnabled();
+
+    protected abstract Set<String> getPinnedKeys();
+
+    protected abstract void setPinnedKeys(Set<String> keys);
+
+    protected abstract long getLastRun();
+
+    protected abstract void setLastRun();
+
+    /**
+     * The streams to cache, most wanted first, or null when they cannot be listed. Called on a background
+     * thread.
+     */
+    protected abstract List<Stream> getStreams();
+
+    private boolean canRun() {
+        return constraints.isMet() && isEnabled() && Preferences.getStreamingCacheSize() > 0;
+    }
+
+    private synchronized void evaluate() {
+        if (!isEnabled()) {
+            cancel();
+            executor.execute(this::unpin);
+            return;
+        }
+
+        if (!canRun()) {
+            cancel();
+            return;
+        }
+
+        if (running != null && !running.isDone()) return;
+        if (System.currentTimeMillis() - getLastRun() < interval) return;
+
+        running = executor.submit(this::run);
+    }
+
+    private synchronized void cancel() {
+        CacheWriter writer = cacheWriter;
+        if (writer != null) writer.cancel();
+
+        if (running != null) {
+            running.cancel(false);
+            running = null;
+        }
+    }
+
+    private void run() {
+        List<Stream> streams = getStreams();
+        if (streams == null) return;
+
+        long budget = DownloadUtil.getPinnedStreamBudget();
+        long cachedBytes = 0;
+
+        // The streams pinned by the previous run stay protected until this one completes
+        Set<String> pinnedKeys = new HashSet<>(getPinnedKeys());
+        Set<String> cachedKeys = new HashSet<>();
+
+        for (Stream stream : streams) {
+            if (!canRun()) return;
+
+            DataSpec dataSpec = stream.dataSpec;
+
+            // A stream is only fetched when it fits in what is left of the budget
+            long expectedLength = DownloadUtil.getStreamLength(context, dataSpec, stream.size, stream.duration);
+
+            if (expectedLength == C.LENGTH_UNSET) continue;
+            if (cachedBytes + expectedLength - dataSpec.position > budget) break;
+
+            long[] length = {C.LENGTH_UNSET};
+
+            // Already cached parts are not fetched again, a complete entry only reports its length
+            cacheWriter = DownloadUtil.buildStreamingCacheWriter(context, dataSpec, (requestLength, bytesCached, newBytesCached) -> length[0] = requestLength);
+
+            try {
+                cacheWriter.cache();
+            } catch (IOException exception) {
+                if (!canRun()) return;
+
+                Log.w(tag, "Unable to cache " + stream.id, exception);
+                continue;
+            } finally {
+                cacheWriter = null;
+            }
+
+            if (length[0] == C.LENGTH_UNSET) continue;
+
+            // An estimated length may fall short, the stream is then left to the least recently used eviction
+            if (cachedBytes + length[0] > budget) break;
+
+            cachedBytes += length[0];
+            cachedKeys.add(dataSpec.key);
+            pinnedKeys.add(dataSpec.key);
+
+            DownloadUtil.setPinnedStreamKeys(context, owner, pinnedKeys);
+        }
+
+        setPinnedKeys(cachedKeys);
+        setLastRun();
+        DownloadUtil.setPinnedStreamKeys(context, owner, cachedKeys);
+
+        Log.d(tag, "Cached " + cachedKeys.size() + " streams, " + cachedBytes / (1024 * 1024) + " MiB");
+    }
+
+    private void unpin() {
+        if (getPinnedKeys().isEmpty()) return;
+
+        setPinnedKeys(Collections.emptySet());
+        DownloadUtil.setPinnedStreamKeys(context, owner, Collections.emptySet());
+    }
+}
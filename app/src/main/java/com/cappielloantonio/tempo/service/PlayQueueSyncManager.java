@@ -0,0 +1,203 @@
+package com.cappielloantonio.tempo.service;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.repository.QueueRepository;
+import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
+import com.cappielloantonio.tempo.subsonic.models.Child;
+import com.cappielloantonio.tempo.subsonic.models.PlayQueue;
+import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.MappingUtil;
+import com.cappielloantonio.tempo.util.Preferences;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Keeps the server play queue in sync with the service player.
+ * <p>
+ * Queue and position changes are uploaded once they have settled for {@link Preferences#getSyncCountdownTimer()}
+ * seconds, and only when they differ from the last state sent or received. When a controller connects
+ * while nothing is playing, the server queue is applied if it was changed after the last one seen here.
+ * Only the dates of the server are stored, so that the clock of the device is never compared to them.
+ */
+@UnstableApi
+public class PlayQueueSyncManager implements Player.Listener {
+    private static final String TAG = "PlayQueueSyncManager";
+
+    private static final long PULL_INTERVAL = 30000;
+
+    private final ExoPlayer player;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable upload = this::upload;
+
+    private String lastState;
+    private long lastPull;
+    private boolean pulling = false;
+
+    public PlayQueueSyncManager(ExoPlayer player) {
+        this.player = player;
+
+        player.addListener(this);
+    }
+
+    public void release() {
+        handler.removeCallbacks(upload);
+        player.removeListener(this);
+    }
+
+    @Override
+    public void onEvents(@NonNull Player player, @NonNull Player.Events events) {
+        if (!Preferences.isSyncronizationEnabled()) return;
+
+        if (events.containsAny(
+                Player.EVENT_TIMELINE_CHANGED,
+                Player.EVENT_MEDIA_ITEM_TRANSITION,
+                Player.EVENT_POSITION_DISCONTINUITY,
+                Player.EVENT_IS_PLAYING_CHANGED
+        )) {
+            handler.removeCallbacks(upload);
+            handler.postDelayed(upload, Preferences.getSyncCountdownTimer() * 1000L);
+        }
+    }
+
+    public void pull() {
+        if (!Preferences.isSyncronizationEnabled() || pulling) return;
+        if (lastPull != 0 && SystemClock.elapsedRealtime() - lastPull < PULL_INTERVAL) return;
+
+        pulling = true;
+        lastPull = SystemClock.elapsedRealtime();
+
+        App.getSubsonicClientInstance(false)
+                .getBookmarksClient()
+                .getPlayQueue()
+                .enqueue(new Callback<ApiResponse>() {
+                    @Override
+                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
+                        pulling = false;
+
+                        if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getPlayQueue() != null) {
+                            apply(response.body().getSubsonicResponse().getPlayQueue());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
+                        pulling = false;
+                    }
+                });
+    }
+
+    private void apply(PlayQueue playQueue) {
+        List<Child> entries = playQueue.getEntries();
+        if (entries == null || entries.isEmpty() || playQueue.getChanged() == null) return;
+
+        long changed = playQueue.getChanged().getTime();
+        if (changed <= Preferences.getPlayQueueChanged()) return;
+
+        List<String> ids = new ArrayList<>();
+        int index = 0;
+
+        for (int i = 0; i < entries.size(); i++) {
+            ids.add(entries.get(i).getId());
+            if (entries.get(i).getId().equals(playQueue.getCurrent())) index = i;
+        }
+
+        long position = playQueue.getPosition() != null ? playQueue.getPosition() : 0;
+        String state = getState(ids, playQueue.getCurrent(), position);
+
+        // Either the queue this device uploaded last or one already playing here
+        if (state.equals(lastState) || (ids.equals(getQueuedIds()) && Objects.equals(playQueue.getCurrent(), getCurrentId()))) {
+            lastState = state;
+            Preferences.setPlayQueueChanged(changed);
+            return;
+        }
+
+        // Left for a later pull, once playback stops
+        if (player.isPlaying()) return;
+
+        Log.d(TAG, "Applying the play queue saved by " + playQueue.getChangedBy());
+
+        new QueueRepository().insertAll(entries, true, 0);
+        player.setMediaItems(MappingUtil.mapMediaItems(entries), index, position);
+        player.prepare();
+
+        lastState = state;
+        Preferences.setPlayQueueChanged(changed);
+    }
+
+    private void upload() {
+        String current = getCurrentId();
+        List<String> ids = getQueuedIds();
+
+        if (current == null || ids.isEmpty()) return;
+
+        long position = player.getCurrentPosition();
+        String state = getState(ids, current, position);
+
+        if (state.equals(lastState)) return;
+
+        App.getSubsonicClientInstance(false)
+                .getBookmarksClient()
+                .savePlayQueue(ids, current, position)
+                .enqueue(new Callback<ApiResponse>() {
+                    @Override
+                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
+                        if (response.isSuccessful() && response.body() != null && "ok".equals(response.body().getSubsonicResponse().getStatus())) {
+                            // The server dates the queue itself, the next pull recognizes it and keeps its date
+                            lastState = state;
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
+                        Log.w(TAG, "Unable to save the play queue", t);
+                    }
+                });
+    }
+
+    /*
+     * Only songs can be part of the server play queue.
+     */
+    private List<String> getQueuedIds() {
+        List<String> ids = new ArrayList<>();
+
+        for (int i = 0; i < player.getMediaItemCount(); i++) {
+            MediaItem mediaItem = player.getMediaItemAt(i);
+            if (isMusic(mediaItem)) ids.add(mediaItem.mediaId);
+        }
+
+        return ids;
+    }
+
+    private String getCurrentId() {
+        MediaItem mediaItem = player.getCurrentMediaItem();
+        return mediaItem != null && isMusic(mediaItem) ? mediaItem.mediaId : null;
+    }
+
+    private static boolean isMusic(MediaItem mediaItem) {
+        return mediaItem.mediaMetadata.extras != null && Objects.equals(mediaItem.mediaMetadata.extras.getString("type"), Constants.MEDIA_TYPE_MUSIC);
+    }
+
+    /*
+     * Positions are compared to the second, as the server does not need finer updates.
+     */
+    private static String getState(List<String> ids, String current, long position) {
+        return String.join(",", ids) + "|" + current + "|" + position / 1000;
+    }
+}
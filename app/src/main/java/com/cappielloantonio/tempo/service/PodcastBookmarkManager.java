@@ -0,0 +1,169 @@
+package com.cappielloantonio.tempo.service;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
+import com.cappielloantonio.tempo.subsonic.models.Bookmark;
+import com.cappielloantonio.tempo.util.Constants;
+
+import java.util.List;
+import java.util.Objects;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Keeps the listening position of podcast episodes in the server bookmarks, so that it follows the user
+ * across devices.
+ * <p>
+ * The position is saved when an episode is paused or left, and an episode started from its beginning
+ * resumes from its bookmark. An episode played to its end is bookmarked at its end, which marks it as
+ * listened for the prefetcher.
+ */
+@UnstableApi
+public class PodcastBookmarkManager implements Player.Listener {
+    private static final String TAG = "PodcastBookmarkManager";
+
+    private static final long RESUME_THRESHOLD = 5000;
+    private static final long LISTENED_MARGIN = 30000;
+
+    private final ExoPlayer player;
+
+    public PodcastBookmarkManager(ExoPlayer player) {
+        this.player = player;
+
+        player.addListener(this);
+    }
+
+    public void release() {
+        player.removeListener(this);
+
+        MediaItem mediaItem = player.getCurrentMediaItem();
+        if (isPodcast(mediaItem)) save(mediaItem, player.getCurrentPosition());
+    }
+
+    public static boolean isListened(long position, long duration) {
+        return duration > 0 && position >= duration - Math.min(LISTENED_MARGIN, duration / 20);
+    }
+
+    @Override
+    public void onIsPlayingChanged(boolean isPlaying) {
+        MediaItem mediaItem = player.getCurrentMediaItem();
+
+        if (!isPlaying && isPodcast(mediaItem) && player.getPlaybackState() == Player.STATE_READY) {
+            save(mediaItem, player.getCurrentPosition());
+        }
+    }
+
+    @Override
+    public void onPlaybackStateChanged(int playbackState) {
+        MediaItem mediaItem = player.getCurrentMediaItem();
+
+        if (playbackState == Player.STATE_ENDED && isPodcast(mediaItem)) {
+            save(mediaItem, getDuration(mediaItem));
+        }
+    }
+
+    /*
+     * Called before the media item transition, while the position in the previous episode is still known.
+     */
+    @Override
+    public void onPositionDiscontinuity(@NonNull Player.PositionInfo oldPosition, @NonNull Player.PositionInfo newPosition, int reason) {
+        MediaItem mediaItem = oldPosition.mediaItem;
+        if (!isPodcast(mediaItem) || newPosition.mediaItem == null || Objects.equals(mediaItem.mediaId, newPosition.mediaItem.mediaId)) return;
+
+        save(mediaItem, reason == Player.DISCONTINUITY_REASON_AUTO_TRANSITION ? getDuration(mediaItem) : oldPosition.positionMs);
+    }
+
+    @Override
+    public void onMediaItemTransition(@Nullable MediaItem mediaItem, int reason) {
+        if (isPodcast(mediaItem) && player.getCurrentPosition() < RESUME_THRESHOLD) resume(mediaItem);
+    }
+
+    private void save(MediaItem mediaItem, long position) {
+        String id = getStreamId(mediaItem);
+        if (id == null || position < RESUME_THRESHOLD) return;
+
+        App.getSubsonicClientInstance(false)
+                .getBookmarksClient()
+                .createBookmark(id, position)
+                .enqueue(new Callback<ApiResponse>() {
+                    @Override
+                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
+
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
+                        Log.w(TAG, "Unable to save the bookmark of " + id, t);
+                    }
+                });
+    }
+
+    private void resume(MediaItem mediaItem) {
+        String id = getStreamId(mediaItem);
+        if (id == null) return;
+
+        App.getSubsonicClientInstance(false)
+                .getBookmarksClient()
+                .getBookmarks()
+                .enqueue(new Callback<ApiResponse>() {
+                    @Override
+                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
+                        if (!response.isSuccessful() || response.body() == null || response.body().getSubsonicResponse().getBookmarks() == null) return;
+
+                        List<Bookmark> bookmarks = response.body().getSubsonicResponse().getBookmarks().getBookmarks();
+                        if (bookmarks == null) return;
+
+                        for (Bookmark bookmark : bookmarks) {
+                            if (bookmark.getEntry() == null || !id.equals(bookmark.getEntry().getId())) continue;
+
+                            // The user may have moved on while the bookmarks were loading
+                            MediaItem current = player.getCurrentMediaItem();
+                            if (current == null || !current.mediaId.equals(mediaItem.mediaId) || player.getCurrentPosition() >= RESUME_THRESHOLD) return;
+
+                            if (!isListened(bookmark.getPosition(), getDuration(mediaItem))) {
+                                player.seekTo(bookmark.getPosition());
+                            }
+
+                            return;
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
+
+                    }
+                });
+    }
+
+    private static boolean isPodcast(MediaItem mediaItem) {
+        return mediaItem != null && mediaItem.mediaMetadata.extras != null && Constants.MEDIA_TYPE_PODCAST.equals(mediaItem.mediaMetadata.extras.getString("type"));
+    }
+
+    private static long getDuration(MediaItem mediaItem) {
+        return mediaItem.mediaMetadata.extras != null ? mediaItem.mediaMetadata.extras.getInt("duration") * 1000L : 0;
+    }
+
+    /*
+     * Bookmarks refer to the media file of the episode, which is also the id of its stream.
+     */
+    private static String getStreamId(MediaItem mediaItem) {
+        String streamId = mediaItem.mediaMetadata.extras != null ? mediaItem.mediaMetadata.extras.getString("streamId") : null;
+
+        if (streamId == null && mediaItem.localConfiguration != null) {
+            streamId = mediaItem.localConfiguration.uri.getQueryParameter("id");
+        }
+
+        return streamId;
+    }
+}
@@ -0,0 +1,176 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSpec;
+
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
+import com.cappielloantonio.tempo.subsonic.models.Bookmark;
+import com.cappielloantonio.tempo.subsonic.models.PodcastChannel;
+import com.cappielloantonio.tempo.subsonic.models.PodcastEpisode;
+import com.cappielloantonio.tempo.util.DownloadUtil;
+import com.cappielloantonio.tempo.util.MappingUtil;
+import com.cappielloantonio.tempo.util.Preferences;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Response;
+
+/**
+ * Caches the newest episodes of every podcast channel ahead of time, from where the user left them.
+ * <p>
+ * While the device is charging on an unmetered network, the newest episodes already downloaded by the
+ * server are written to the streaming cache starting a little before their bookmark, and pinned there
+ * within their share of the pinned budget. Episodes bookmarked at their end are listened: they are not
+ * fetched and are removed from the streaming cache.
+ */
+@UnstableApi
+public class PodcastPrefetcher extends PinnedPrefetcher {
+    private static final String TAG = "PodcastPrefetcher";
+
+    private static final int EPISODES_PER_CHANNEL = 2;
+    private static final long PREFETCH_INTERVAL = TimeUnit.HOURS.toMillis(6);
+    private static final long REWIND = 10000;
+
+    public PodcastPrefetcher(Context context) {
+        super(context, TAG, DownloadUtil.PINNED_BY_PODCAST_PREFETCH, Preferences.PODCAST_PREFETCH, PREFETCH_INTERVAL);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return Preferences.isPodcastPrefetchEnabled();
+    }
+
+    @Override
+    protected Set<String> getPinnedKeys() {
+        return Preferences.getPodcastPrefetchKeys();
+    }
+
+    @Override
+    protected void setPinnedKeys(Set<String> keys) {
+        Preferences.setPodcastPrefetchKeys(keys);
+    }
+
+    @Override
+    protected long getLastRun() {
+        return Preferences.getLastPodcastPrefetch();
+    }
+
+    @Override
+    protected void setLastRun() {
+        Preferences.setLastPodcastPrefetch();
+    }
+
+    @Override
+    protected List<Stream> getStreams() {
+        List<PodcastEpisode> episodes = getNewestEpisodes();
+        Map<String, Long> bookmarks = getBookmarks();
+
+        if (episodes == null || bookmarks == null) return null;
+
+        List<Stream> streams = new ArrayList<>();
+        int listened = 0;
+
+        for (PodcastEpisode episode : episodes) {
+            DataSpec dataSpec = DownloadUtil.buildStreamDataSpec(MappingUtil.mapMediaItem(episode), C.LENGTH_UNSET);
+            Long bookmark = bookmarks.get(episode.getStreamId());
+            long position = bookmark != null ? bookmark : 0;
+
+            if (PodcastBookmarkManager.isListened(position, getDuration(episode))) {
+                DownloadUtil.removeFromStreamingCache(context, dataSpec.key);
+                listened++;
+                continue;
+            }
+
+            if (DownloadUtil.getDownloadTracker(context).isDownloaded(episode.getStreamId())) continue;
+
+            streams.add(new Stream(episode.getId(), dataSpec.subrange(getByteOffset(episode, dataSpec, position)), episode.getSize(), episode.getDuration()));
+        }
+
+        if (listened > 0) Log.d(TAG, "Pruned " + listened + " listened episodes");
+        return streams;
+    }
+
+    /*
+     * Only episodes the server has finished downloading can be streamed.
+     */
+    private List<PodcastEpisode> getNewestEpisodes() {
+        try {
+            Response<ApiResponse> response = App.getSubsonicClientInstance(false).getPodcastClient().getPodcasts(true, null).execute();
+
+            if (!response.isSuccessful() || response.body() == null || response.body().getSubsonicResponse().getPodcasts() == null) return null;
+
+            List<PodcastEpisode> newest = new ArrayList<>();
+            List<PodcastChannel> channels = response.body().getSubsonicResponse().getPodcasts().getChannels();
+
+            if (channels == null) return newest;
+
+            for (PodcastChannel channel : channels) {
+                if (channel.getEpisodes() == null) continue;
+
+                List<PodcastEpisode> episodes = new ArrayList<>();
+
+                for (PodcastEpisode episode : channel.getEpisodes()) {
+                    if ("completed".equals(episode.getStatus()) && episode.getStreamId() != null) episodes.add(episode);
+                }
+
+                episodes.sort(Comparator.comparingLong((PodcastEpisode episode) -> episode.getPublishDate() != null ? episode.getPublishDate().getTime() : 0).reversed());
+                newest.addAll(episodes.subList(0, Math.min(EPISODES_PER_CHANNEL, episodes.size())));
+            }
+
+            return newest;
+        } catch (IOException exception) {
+            Log.w(TAG, "Unable to get the podcast channels", exception);
+            return null;
+        }
+    }
+
+    private Map<String, Long> getBookmarks() {
+        try {
+            Response<ApiResponse> response = App.getSubsonicClientInstance(false).getBookmarksClient().getBookmarks().execute();
+
+            if (!response.isSuccessful() || response.body() == null) return null;
+
+            Map<String, Long> positions = new HashMap<>();
+
+            if (response.body().getSubsonicResponse().getBookmarks() != null && response.body().getSubsonicResponse().getBookmarks().getBookmarks() != null) {
+                for (Bookmark bookmark : response.body().getSubsonicResponse().getBookmarks().getBookmarks()) {
+                    if (bookmark.getEntry() != null) positions.put(bookmark.getEntry().getId(), bookmark.getPosition());
+                }
+            }
+
+            return positions;
+        } catch (IOException exception) {
+            Log.w(TAG, "Unable to get the bookmarks", exception);
+            return null;
+        }
+    }
+
+    private static long getDuration(PodcastEpisode episode) {
+        return episode.getDuration() != null ? episode.getDuration() * 1000L : 0;
+    }
+
+    /*
+     * Where the player will read from when seeking to the bookmark, assuming a constant bitrate.
+     */
+    private long getByteOffset(PodcastEpisode episode, DataSpec dataSpec, long position) {
+        long duration = getDuration(episode);
+        position = Math.max(position - REWIND, 0);
+
+        if (position == 0 || duration == 0) return 0;
+
+        long length = DownloadUtil.getStreamLength(context, dataSpec, episode.getSize(), episode.getDuration());
+        return length != C.LENGTH_UNSET ? length * position / duration : 0;
+    }
+}
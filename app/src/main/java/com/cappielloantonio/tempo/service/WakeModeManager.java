@@ -0,0 +1,114 @@
+package com.cappielloantonio.tempo.service;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+
+import com.cappielloantonio.tempo.util.DownloadUtil;
+
+/**
+ * Holds the Wi-Fi lock only when playback may need the network.
+ * <p>
+ * The wake mode drops to {@link C#WAKE_MODE_LOCAL} while both the current and the next track are
+ * downloaded or fully cached, and goes back to {@link C#WAKE_MODE_NETWORK} as soon as the queue changes
+ * so that one of them has to be fetched, before the player starts loading it. The share of playback
+ * time spent without the Wi-Fi lock is logged when playback stops.
+ */
+@UnstableApi
+public class WakeModeManager implements Player.Listener {
+    private static final String TAG = "WakeModeManager";
+
+    private final Context context;
+    private final ExoPlayer player;
+
+    private @C.WakeMode int wakeMode = C.WAKE_MODE_NETWORK;
+    private boolean playing = false;
+    private long segmentStart = 0;
+    private long playingTime = 0;
+    private long localTime = 0;
+
+    public WakeModeManager(Context context, ExoPlayer player) {
+        this.context = context.getApplicationContext();
+        this.player = player;
+
+        player.addListener(this);
+    }
+
+    public void release() {
+        player.removeListener(this);
+
+        closeSegment();
+        report();
+    }
+
+    @Override
+    public void onEvents(@NonNull Player player, @NonNull Player.Events events) {
+        if (events.containsAny(
+                Player.EVENT_TIMELINE_CHANGED,
+                Player.EVENT_MEDIA_ITEM_TRANSITION,
+                Player.EVENT_SHUFFLE_MODE_ENABLED_CHANGED,
+                Player.EVENT_REPEAT_MODE_CHANGED
+        )) {
+            update();
+        }
+    }
+
+    @Override
+    public void onIsPlayingChanged(boolean isPlaying) {
+        closeSegment();
+        playing = isPlaying;
+
+        if (!isPlaying) report();
+    }
+
+    private void update() {
+        @C.WakeMode int mode = isServedFromDisk(player.getCurrentMediaItemIndex()) && isServedFromDisk(player.getNextMediaItemIndex())
+                ? C.WAKE_MODE_LOCAL
+                : C.WAKE_MODE_NETWORK;
+
+        if (mode == wakeMode) return;
+
+        closeSegment();
+        wakeMode = mode;
+        player.setWakeMode(mode);
+
+        Log.d(TAG, "Wake mode " + (mode == C.WAKE_MODE_LOCAL ? "local" : "network"));
+    }
+
+    /*
+     * An index past the end of the queue needs nothing, and so does not require the network.
+     */
+    private boolean isServedFromDisk(int index) {
+        if (index == C.INDEX_UNSET) return true;
+        if (index >= player.getMediaItemCount()) return false;
+
+        MediaItem mediaItem = player.getMediaItemAt(index);
+        return mediaItem.localConfiguration != null && DownloadUtil.isServedFromDisk(context, mediaItem);
+    }
+
+    private void closeSegment() {
+        long now = SystemClock.elapsedRealtime();
+
+        if (playing) {
+            long elapsed = now - segmentStart;
+
+            playingTime += elapsed;
+            if (wakeMode == C.WAKE_MODE_LOCAL) localTime += elapsed;
+        }
+
+        segmentStart = now;
+    }
+
+    private void report() {
+        if (playingTime == 0) return;
+
+        Log.i(TAG, "Played " + localTime / 1000 + "s of " + playingTime / 1000 + "s without the Wi-Fi lock (" + localTime * 100 / playingTime + "%)");
+    }
+}
@@ -30,4 +30,14 @@ public class BookmarksClient {
         Log.d(TAG, "savePlayQueue()");
         return bookmarksService.savePlayQueue(subsonic.getParams(), ids, current, position);
     }
+
+    public Call<ApiResponse> getBookmarks() {
+        Log.d(TAG, "getBookmarks()");
+        return bookmarksService.getBookmarks(subsonic.getParams());
+    }
+
+    public Call<ApiResponse> createBookmark(String id, long position) {
+        Log.d(TAG, "createBookmark()");
+        return bookmarksService.createBookmark(subsonic.getParams(), id, position);
+    }
 }
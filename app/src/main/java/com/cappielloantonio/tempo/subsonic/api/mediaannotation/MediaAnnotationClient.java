@@ -34,8 +34,8 @@ public class MediaAnnotationClient {
         return mediaAnnotationService.setRating(subsonic.getParams(), id, rating);
     }
 
-    public Call<ApiResponse> scrobble(String id, boolean submission) {
+    public Call<ApiResponse> scrobble(String id, boolean submission, Long time) {
         Log.d(TAG, "scrobble()");
-        return mediaAnnotationService.scrobble(subsonic.getParams(), id, submission);
+        return mediaAnnotationService.scrobble(subsonic.getParams(), id, submission, time);
     }
 }
@@ -1,8 +1,10 @@
 package com.cappielloantonio.tempo.subsonic.models
 
 import androidx.annotation.Keep
+import com.google.gson.annotations.SerializedName
 
 @Keep
 class Bookmarks {
+    @SerializedName("bookmark")
     var bookmarks: List<Bookmark>? = null
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package com.cappielloantonio.tempo.subsonic.models
 import android.os.Parcelable
 import androidx.annotation.Keep
 import androidx.room.ColumnInfo
+import androidx.room.Ignore
 import androidx.room.PrimaryKey
+import com.cappielloantonio.tempo.model.ReplayGain
 import com.google.gson.annotations.SerializedName
 import kotlinx.parcelize.Parcelize
 import java.util.*
@@ -78,5 +80,7 @@ open class Child(
     @ColumnInfo(name = "original_width")
     var originalWidth: Int? = null,
     @ColumnInfo(name = "original_height")
-    var originalHeight: Int? = null
+    var originalHeight: Int? = null,
+    @Ignore
+    var replayGain: ReplayGain? = null
 ) : Parcelable
\ No newline at end of file
@@ -8,13 +8,16 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 
 import androidx.annotation.NonNull;
 import androidx.core.splashscreen.SplashScreen;
 import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.media3.common.Player;
 import androidx.media3.common.util.UnstableApi;
+import androidx.media3.session.MediaBrowser;
 import androidx.navigation.NavController;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.navigation.ui.NavigationUI;
@@ -34,11 +37,13 @@ import com.cappielloantonio.tempo.ui.dialog.ServerUnreachableDialog;
 import com.cappielloantonio.tempo.ui.fragment.PlayerBottomSheetFragment;
 import com.cappielloantonio.tempo.util.Constants;
 import com.cappielloantonio.tempo.util.Preferences;
+import com.cappielloantonio.tempo.util.StartupTracer;
 import com.cappielloantonio.tempo.viewmodel.MainViewModel;
 import java.util.concurrent.ExecutionException;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.bottomsheet.BottomSheetBehavior;
 import com.google.android.material.color.DynamicColors;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 
 import java.util.Objects;
@@ -59,11 +64,24 @@ public class MainActivity extends BaseActivity {
 
     ConnectivityStatusBroadcastReceiver connectivityStatusBroadcastReceiver;
 
+    private boolean firstFrameDrawn = false;
+
+    private final Player.Listener playerListener = new Player.Listener() {
+        @Override
+        public void onIsPlayingChanged(boolean isPlaying) {
+            if (isPlaying && bottomSheetBehavior.getState() == BottomSheetBehavior.STATE_HIDDEN) {
+                setBottomSheetInPeek(true);
+            }
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         SplashScreen.installSplashScreen(this);
         DynamicColors.applyToActivityIfAvailable(this);
 
+        StartupTracer.beginSection("MainActivity.onCreate");
+
         super.onCreate(savedInstanceState);
 
         bind = ActivityMainBinding.inflate(getLayoutInflater());
@@ -76,9 +94,10 @@ public class MainActivity extends BaseActivity {
         connectivityStatusReceiverManager(true);
 
         init();
-        checkConnectionType();
-        getOpenSubsonicExtensions();
-        checkTempoUpdate();
+        deferUntilFirstFrame(view);
+
+        StartupTracer.endSection();
+        StartupTracer.mark(StartupTracer.ACTIVITY_CREATED);
     }
 
     @Override
@@ -87,10 +106,16 @@ public class MainActivity extends BaseActivity {
         initService();
     }
 
+    @Override
+    protected void onStop() {
+        releaseService();
+        super.onStop();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
-        pingServer();
+        if (firstFrameDrawn) pingServer();
     }
 
     @Override
@@ -121,6 +146,48 @@ public class MainActivity extends BaseActivity {
         }
     }
 
+    /*
+     * Only the navigation and the player are needed to draw the first frame. The checks that may show a
+     * dialog, the calls to the server and the random songs played on a cold start wait for it.
+     */
+    private void deferUntilFirstFrame(View view) {
+        view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+
+                // Posted, so that both run once the frame is drawn
+                view.post(() -> {
+                    StartupTracer.mark(StartupTracer.FIRST_FRAME);
+                    runDeferredStartup();
+                });
+
+                return true;
+            }
+        });
+    }
+
+    private void runDeferredStartup() {
+        if (bind == null) return;
+
+        StartupTracer.beginSection("MainActivity.deferredStartup");
+
+        firstFrameDrawn = true;
+
+        checkConnectionType();
+        pingServer();
+        getOpenSubsonicExtensions();
+        checkTempoUpdate();
+        startColdStartPlayback();
+
+        StartupTracer.endSection();
+        StartupTracer.mark(StartupTracer.DEFERRED_DONE);
+
+        if (getMediaBrowserListenableFuture() != null) {
+            getMediaBrowserListenableFuture().addListener(StartupTracer::finish, MoreExecutors.directExecutor());
+        }
+    }
+
     // BOTTOM SHEET/NAVIGATION
     private void initBottomSheet() {
         bottomSheetBehavior = BottomSheetBehavior.from(findViewById(R.id.player_bottom_sheet));
@@ -253,49 +320,61 @@ public class MainActivity extends BaseActivity {
 
         getMediaBrowserListenableFuture().addListener(() -> {
             try {
-                // Only auto-start random play on cold start (first app launch after process creation)
-                if (App.consumeColdStart()) {
-                    // Auto start random play on app launch
-                    SongRepository songRepository = new SongRepository();
-                    songRepository.getRandomSample(20, null, null).observe(MainActivity.this, songs -> {
-                        try {
-                            if (songs != null && !songs.isEmpty()) {
-                                // Check if music is already playing
-                                boolean isPlaying = false;
-                                if (getMediaBrowserListenableFuture() != null && getMediaBrowserListenableFuture().isDone()) {
-                                    isPlaying = Objects.requireNonNull(getMediaBrowserListenableFuture().get()).isPlaying();
-                                }
-                                
-                                // Only start random play if music is not already playing
-                                if (!isPlaying) {
-                                    MediaManager.init(getMediaBrowserListenableFuture(), songs);
-                                    if (getMediaBrowserListenableFuture() != null && getMediaBrowserListenableFuture().isDone()) {
-                                        // Force seek to beginning to avoid inheriting old position from previous session
-                                        Objects.requireNonNull(getMediaBrowserListenableFuture().get()).seekToDefaultPosition();
-                                        Objects.requireNonNull(getMediaBrowserListenableFuture().get()).play();
-                                    }
-                                }
-                            }
-                        } catch (ExecutionException | InterruptedException e) {
-                            e.printStackTrace();
-                        }
-                    });
-                }
+                StartupTracer.mark(StartupTracer.MEDIA_CONNECTED);
 
-                Objects.requireNonNull(getMediaBrowserListenableFuture().get()).addListener(new Player.Listener() {
-                    @Override
-                    public void onIsPlayingChanged(boolean isPlaying) {
-                        if (isPlaying && bottomSheetBehavior.getState() == BottomSheetBehavior.STATE_HIDDEN) {
-                            setBottomSheetInPeek(true);
-                        }
-                    }
-                });
+                Objects.requireNonNull(getMediaBrowserListenableFuture().get()).addListener(playerListener);
             } catch (ExecutionException | InterruptedException e) {
                 e.printStackTrace();
             }
         }, MoreExecutors.directExecutor());
     }
 
+    /*
+     * The browser is shared with the rest of the app and outlives the activity, the listener is removed
+     * before the activity releases it.
+     */
+    private void releaseService() {
+        ListenableFuture<MediaBrowser> mediaBrowserListenableFuture = getMediaBrowserListenableFuture();
+
+        mediaBrowserListenableFuture.addListener(() -> {
+            try {
+                Objects.requireNonNull(mediaBrowserListenableFuture.get()).removeListener(playerListener);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void startColdStartPlayback() {
+        // Only auto-start random play on cold start (first app launch after process creation)
+        if (!App.consumeColdStart()) return;
+
+        // Auto start random play on app launch, the songs are requested while the browser connects
+        SongRepository songRepository = new SongRepository();
+        songRepository.getRandomSample(20, null, null).observe(MainActivity.this, songs -> {
+            if (songs == null || songs.isEmpty() || getMediaBrowserListenableFuture() == null) return;
+
+            ListenableFuture<MediaBrowser> mediaBrowserListenableFuture = getMediaBrowserListenableFuture();
+
+            mediaBrowserListenableFuture.addListener(() -> {
+                // The activity was left before the browser connected, the shared browser outlives it
+                if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) return;
+
+                try {
+                    // Only start random play if music is not already playing
+                    if (!Objects.requireNonNull(mediaBrowserListenableFuture.get()).isPlaying()) {
+                        MediaManager.init(mediaBrowserListenableFuture, songs);
+                        // Force seek to beginning to avoid inheriting old position from previous session
+                        Objects.requireNonNull(mediaBrowserListenableFuture.get()).seekToDefaultPosition();
+                        Objects.requireNonNull(mediaBrowserListenableFuture.get()).play();
+                    }
+                } catch (ExecutionException | InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }, MoreExecutors.directExecutor());
+        });
+    }
+
     private void goToLogin() {
         bottomSheetBehavior.setState(BottomSheetBehavior.STATE_HIDDEN);
         setBottomNavigationBarVisibility(false);
@@ -1,7 +1,6 @@
 package com.cappielloantonio.tempo.ui.activity.base;
 
 import android.Manifest;
-import android.content.ComponentName;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
@@ -15,10 +14,9 @@ import androidx.core.content.ContextCompat;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.offline.DownloadService;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 
 import com.cappielloantonio.tempo.service.DownloaderService;
-import com.cappielloantonio.tempo.service.MediaService;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.ui.dialog.BatteryOptimizationDialog;
 import com.cappielloantonio.tempo.util.Flavors;
 import com.cappielloantonio.tempo.util.Preferences;
@@ -86,11 +84,11 @@ public class BaseActivity extends AppCompatActivity {
     }
 
     private void initializeBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(this, new SessionToken(this, new ComponentName(this, MediaService.class))).buildAsync();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
 
     private void releaseBrowser() {
-        MediaBrowser.releaseFuture(mediaBrowserListenableFuture);
+        MediaBrowserManager.release(mediaBrowserListenableFuture);
     }
 
     public ListenableFuture<MediaBrowser> getMediaBrowserListenableFuture() {
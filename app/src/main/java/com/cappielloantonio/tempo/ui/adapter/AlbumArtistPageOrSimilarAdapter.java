@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryArtistPageOrSimilarAlbumBinding;
@@ -12,19 +13,20 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class AlbumArtistPageOrSimilarAdapter extends RecyclerView.Adapter<AlbumArtistPageOrSimilarAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<AlbumID3> albums;
+    private final AsyncListDiffer<AlbumID3> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.ALBUM);
 
     public AlbumArtistPageOrSimilarAdapter(ClickCallback click) {
         this.click = click;
-        this.albums = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -36,7 +38,7 @@ public class AlbumArtistPageOrSimilarAdapter extends RecyclerView.Adapter<AlbumA
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        AlbumID3 album = albums.get(position);
+        AlbumID3 album = getItem(position);
 
         holder.item.albumNameLabel.setText(album.getName());
         holder.item.artistNameLabel.setText(album.getArtist());
@@ -49,16 +51,20 @@ public class AlbumArtistPageOrSimilarAdapter extends RecyclerView.Adapter<AlbumA
 
     @Override
     public int getItemCount() {
-        return albums.size();
+        return differ.getCurrentList().size();
     }
 
     public AlbumID3 getItem(int position) {
-        return albums.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<AlbumID3> albums) {
-        this.albums = albums;
-        notifyDataSetChanged();
+        differ.submitList(albums);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -78,14 +84,14 @@ public class AlbumArtistPageOrSimilarAdapter extends RecyclerView.Adapter<AlbumA
 
         private void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ALBUM_OBJECT, albums.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ALBUM_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onAlbumClick(bundle);
         }
 
         private boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ALBUM_OBJECT, albums.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ALBUM_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onAlbumLongClick(bundle);
 
@@ -4,69 +4,35 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Filter;
-import android.widget.Filterable;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryCatalogueAlbumBinding;
 import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
+import com.cappielloantonio.tempo.util.CatalogueFilter;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
-public class AlbumCatalogueAdapter extends RecyclerView.Adapter<AlbumCatalogueAdapter.ViewHolder> implements Filterable {
+public class AlbumCatalogueAdapter extends RecyclerView.Adapter<AlbumCatalogueAdapter.ViewHolder> {
     private final ClickCallback click;
-    private String currentFilter;
     private boolean showArtist;
 
-    private final Filter filtering = new Filter() {
-        @Override
-        protected FilterResults performFiltering(CharSequence constraint) {
-            List<AlbumID3> filteredList = new ArrayList<>();
-
-            if (constraint == null || constraint.length() == 0) {
-                filteredList.addAll(albumsFull);
-            } else {
-                String filterPattern = constraint.toString().toLowerCase().trim();
-                currentFilter = filterPattern;
-
-                for (AlbumID3 item : albumsFull) {
-                    if (item.getName().toLowerCase().contains(filterPattern)) {
-                        filteredList.add(item);
-                    }
-                }
-            }
-
-            FilterResults results = new FilterResults();
-            results.values = filteredList;
-
-            return results;
-        }
-
-        @Override
-        protected void publishResults(CharSequence constraint, FilterResults results) {
-            albums = (List<AlbumID3>) results.values;
-            notifyDataSetChanged();
-        }
-    };
-
-    private List<AlbumID3> albums;
-    private List<AlbumID3> albumsFull;
+    private final AsyncListDiffer<AlbumID3> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.ALBUM);
+    private final CatalogueFilter<AlbumID3> filtering = new CatalogueFilter<>(differ::submitList, AlbumID3::getName, AlbumID3::getArtist);
 
     public AlbumCatalogueAdapter(ClickCallback click, boolean showArtist) {
         this.click = click;
-        this.albums = Collections.emptyList();
-        this.albumsFull = Collections.emptyList();
-        this.currentFilter = "";
         this.showArtist = showArtist;
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -78,7 +44,7 @@ public class AlbumCatalogueAdapter extends RecyclerView.Adapter<AlbumCatalogueAd
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        AlbumID3 album = albums.get(position);
+        AlbumID3 album = getItem(position);
 
         holder.item.albumNameLabel.setText(album.getName());
         holder.item.artistNameLabel.setText(album.getArtist());
@@ -92,31 +58,28 @@ public class AlbumCatalogueAdapter extends RecyclerView.Adapter<AlbumCatalogueAd
 
     @Override
     public int getItemCount() {
-        return albums.size();
+        return differ.getCurrentList().size();
     }
 
     public AlbumID3 getItem(int position) {
-        return albums.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<AlbumID3> albums) {
-        this.albumsFull = new ArrayList<>(albums);
-        filtering.filter(currentFilter);
+        filtering.setItems(albums);
     }
 
-    @Override
-    public int getItemViewType(int position) {
-        return position;
+    public boolean appendItems(int offset, List<AlbumID3> albums) {
+        return filtering.appendItems(offset, albums);
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
-    @Override
-    public Filter getFilter() {
-        return filtering;
+    public void filter(String query) {
+        filtering.filter(query);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -136,14 +99,14 @@ public class AlbumCatalogueAdapter extends RecyclerView.Adapter<AlbumCatalogueAd
 
         private void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ALBUM_OBJECT, albums.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ALBUM_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onAlbumClick(bundle);
         }
 
         private boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ALBUM_OBJECT, albums.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ALBUM_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onAlbumLongClick(bundle);
 
@@ -154,31 +117,26 @@ public class AlbumCatalogueAdapter extends RecyclerView.Adapter<AlbumCatalogueAd
     public void sort(String order) {
         switch (order) {
             case Constants.ALBUM_ORDER_BY_NAME:
-                albums.sort(Comparator.comparing(AlbumID3::getName));
+                filtering.sort(CatalogueFilter.byKey(0));
                 break;
             case Constants.ALBUM_ORDER_BY_ARTIST:
-                albums.sort(Comparator.comparing(AlbumID3::getArtist));
+                filtering.sort(CatalogueFilter.byKey(1));
                 break;
             case Constants.ALBUM_ORDER_BY_YEAR:
-                albums.sort(Comparator.comparing(AlbumID3::getYear));
+                filtering.sort(CatalogueFilter.byItem(Comparator.comparingInt(AlbumID3::getYear)));
                 break;
             case Constants.ALBUM_ORDER_BY_RANDOM:
-                Collections.shuffle(albums);
+                filtering.sort(CatalogueFilter.shuffled());
                 break;
             case Constants.ALBUM_ORDER_BY_RECENTLY_ADDED:
-                albums.sort(Comparator.comparing(AlbumID3::getCreated));
-                Collections.reverse(albums);
+                filtering.sort(CatalogueFilter.byItem(Comparator.comparing(AlbumID3::getCreated, Comparator.nullsLast(Comparator.reverseOrder()))));
                 break;
             case Constants.ALBUM_ORDER_BY_RECENTLY_PLAYED:
-                albums.sort(Comparator.comparing(AlbumID3::getPlayed));
-                Collections.reverse(albums);
+                filtering.sort(CatalogueFilter.byItem(Comparator.comparing(AlbumID3::getPlayed, Comparator.nullsLast(Comparator.reverseOrder()))));
                 break;
             case Constants.ALBUM_ORDER_BY_MOST_PLAYED:
-                albums.sort(Comparator.comparing(AlbumID3::getPlayCount));
-                Collections.reverse(albums);
+                filtering.sort(CatalogueFilter.byItem(Comparator.comparing(AlbumID3::getPlayCount, Comparator.nullsLast(Comparator.reverseOrder()))));
                 break;
         }
-
-        notifyDataSetChanged();
     }
-}
\ No newline at end of file
+}
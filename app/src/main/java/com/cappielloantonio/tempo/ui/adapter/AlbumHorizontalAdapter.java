@@ -7,6 +7,7 @@ import android.widget.Filter;
 import android.widget.Filterable;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHorizontalAlbumBinding;
@@ -15,6 +16,7 @@ import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
 import java.util.ArrayList;
@@ -27,7 +29,7 @@ public class AlbumHorizontalAdapter extends RecyclerView.Adapter<AlbumHorizontal
     private final boolean isOffline;
 
     private List<AlbumID3> albumsFull;
-    private List<AlbumID3> albums;
+    private final AsyncListDiffer<AlbumID3> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.ALBUM);
     private String currentFilter;
 
     private final Filter filtering = new Filter() {
@@ -56,17 +58,17 @@ public class AlbumHorizontalAdapter extends RecyclerView.Adapter<AlbumHorizontal
 
         @Override
         protected void publishResults(CharSequence constraint, FilterResults results) {
-            albums = (List<AlbumID3>) results.values;
-            notifyDataSetChanged();
+            differ.submitList((List<AlbumID3>) results.values);
         }
     };
 
     public AlbumHorizontalAdapter(ClickCallback click, boolean isOffline) {
         this.click = click;
         this.isOffline = isOffline;
-        this.albums = Collections.emptyList();
         this.albumsFull = Collections.emptyList();
         this.currentFilter = "";
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -78,7 +80,7 @@ public class AlbumHorizontalAdapter extends RecyclerView.Adapter<AlbumHorizontal
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        AlbumID3 album = albums.get(position);
+        AlbumID3 album = getItem(position);
 
         holder.item.albumTitleTextView.setText(album.getName());
         holder.item.albumArtistTextView.setText(album.getArtist());
@@ -91,13 +93,12 @@ public class AlbumHorizontalAdapter extends RecyclerView.Adapter<AlbumHorizontal
 
     @Override
     public int getItemCount() {
-        return albums.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<AlbumID3> albums) {
         this.albumsFull = albums != null ? albums : Collections.emptyList();
         filtering.filter(currentFilter);
-        notifyDataSetChanged();
     }
 
     @Override
@@ -106,7 +107,12 @@ public class AlbumHorizontalAdapter extends RecyclerView.Adapter<AlbumHorizontal
     }
 
     public AlbumID3 getItem(int id) {
-        return albums.get(id);
+        return differ.getCurrentList().get(id);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -127,14 +133,14 @@ public class AlbumHorizontalAdapter extends RecyclerView.Adapter<AlbumHorizontal
 
         private void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ALBUM_OBJECT, albums.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ALBUM_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onAlbumClick(bundle);
         }
 
         private boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ALBUM_OBJECT, albums.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ALBUM_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onAlbumLongClick(bundle);
 
@@ -143,19 +149,20 @@ public class AlbumHorizontalAdapter extends RecyclerView.Adapter<AlbumHorizontal
     }
 
     public void sort(String order) {
+        List<AlbumID3> sorted = new ArrayList<>(differ.getCurrentList());
+
         switch (order) {
             case Constants.ALBUM_ORDER_BY_NAME:
-                albums.sort(Comparator.comparing(AlbumID3::getName));
+                sorted.sort(Comparator.comparing(AlbumID3::getName));
                 break;
             case Constants.ALBUM_ORDER_BY_MOST_RECENTLY_STARRED:
-                albums.sort(Comparator.comparing(AlbumID3::getStarred, Comparator.nullsLast(Comparator.reverseOrder())));
+                sorted.sort(Comparator.comparing(AlbumID3::getStarred, Comparator.nullsLast(Comparator.reverseOrder())));
                 break;
             case Constants.ALBUM_ORDER_BY_LEAST_RECENTLY_STARRED:
-                albums.sort(Comparator.comparing(AlbumID3::getStarred, Comparator.nullsLast(Comparator.naturalOrder())));
-
+                sorted.sort(Comparator.comparing(AlbumID3::getStarred, Comparator.nullsLast(Comparator.naturalOrder())));
                 break;
         }
 
-        notifyDataSetChanged();
+        differ.submitList(sorted);
     }
 }
@@ -6,6 +6,7 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.media3.common.util.UnstableApi;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryArtistBinding;
@@ -13,9 +14,9 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 @UnstableApi
@@ -24,13 +25,14 @@ public class ArtistAdapter extends RecyclerView.Adapter<ArtistAdapter.ViewHolder
     private final boolean mix;
     private final boolean bestOf;
 
-    private List<ArtistID3> artists;
+    private final AsyncListDiffer<ArtistID3> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.ARTIST);
 
     public ArtistAdapter(ClickCallback click, Boolean mix, Boolean bestOf) {
         this.click = click;
         this.mix = mix;
         this.bestOf = bestOf;
-        this.artists = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -42,7 +44,7 @@ public class ArtistAdapter extends RecyclerView.Adapter<ArtistAdapter.ViewHolder
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        ArtistID3 artist = artists.get(position);
+        ArtistID3 artist = getItem(position);
 
         holder.item.artistNameLabel.setText(artist.getName());
 
@@ -54,26 +56,20 @@ public class ArtistAdapter extends RecyclerView.Adapter<ArtistAdapter.ViewHolder
 
     @Override
     public int getItemCount() {
-        return artists.size();
+        return differ.getCurrentList().size();
     }
 
     public ArtistID3 getItem(int position) {
-        return artists.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<ArtistID3> artists) {
-        this.artists = artists;
-        notifyDataSetChanged();
-    }
-
-    @Override
-    public int getItemViewType(int position) {
-        return position;
+        differ.submitList(artists);
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -92,7 +88,7 @@ public class ArtistAdapter extends RecyclerView.Adapter<ArtistAdapter.ViewHolder
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ARTIST_OBJECT, artists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ARTIST_OBJECT, getItem(getBindingAdapterPosition()));
             bundle.putBoolean(Constants.MEDIA_MIX, mix);
             bundle.putBoolean(Constants.MEDIA_BEST_OF, bestOf);
 
@@ -101,7 +97,7 @@ public class ArtistAdapter extends RecyclerView.Adapter<ArtistAdapter.ViewHolder
 
         public boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ARTIST_OBJECT, artists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ARTIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onArtistLongClick(bundle);
 
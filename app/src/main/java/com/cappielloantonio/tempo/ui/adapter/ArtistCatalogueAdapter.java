@@ -3,113 +3,202 @@ package com.cappielloantonio.tempo.ui.adapter;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
-import android.widget.Filter;
-import android.widget.Filterable;
+import android.widget.SectionIndexer;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryCatalogueArtistBinding;
+import com.cappielloantonio.tempo.databinding.ItemLibraryCatalogueArtistSectionBinding;
 import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
+import com.cappielloantonio.tempo.subsonic.models.IndexID3;
+import com.cappielloantonio.tempo.util.CatalogueFilter;
 import com.cappielloantonio.tempo.util.Constants;
-import com.cappielloantonio.tempo.util.MusicUtil;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
-
-public class ArtistCatalogueAdapter extends RecyclerView.Adapter<ArtistCatalogueAdapter.ViewHolder> implements Filterable {
-    private final ClickCallback click;
-
-    private final Filter filtering = new Filter() {
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shows the artists in the index sections sent by the server, each one under its header.
+ * <p>
+ * The first row of every section is known when the list is submitted, so that jumping to a section and
+ * finding the section of a row never walk the list.
+ */
+public class ArtistCatalogueAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> implements SectionIndexer {
+    private static final int VIEW_TYPE_SECTION = 0;
+    private static final int VIEW_TYPE_ARTIST = 1;
+
+    private static final DiffUtil.ItemCallback<Row> ROW = new DiffUtil.ItemCallback<Row>() {
         @Override
-        protected FilterResults performFiltering(CharSequence constraint) {
-            List<ArtistID3> filteredList = new ArrayList<>();
-
-            if (constraint == null || constraint.length() == 0) {
-                filteredList.addAll(artistFull);
-            } else {
-                String filterPattern = constraint.toString().toLowerCase().trim();
-
-                for (ArtistID3 item : artistFull) {
-                    if (item.getName().toLowerCase().contains(filterPattern)) {
-                        filteredList.add(item);
-                    }
-                }
-            }
-
-            FilterResults results = new FilterResults();
-            results.values = filteredList;
+        public boolean areItemsTheSame(@NonNull Row oldItem, @NonNull Row newItem) {
+            if (oldItem.artist == null || newItem.artist == null) return oldItem.artist == newItem.artist && Objects.equals(oldItem.section, newItem.section);
+            return DiffCallbackUtil.ARTIST.areItemsTheSame(oldItem.artist, newItem.artist);
+        }
 
-            return results;
+        @Override
+        public boolean areContentsTheSame(@NonNull Row oldItem, @NonNull Row newItem) {
+            return oldItem.artist == null || DiffCallbackUtil.ARTIST.areContentsTheSame(oldItem.artist, newItem.artist);
         }
 
         @Override
-        protected void publishResults(CharSequence constraint, FilterResults results) {
-            artists.clear();
-            if (results.count > 0) artists.addAll((List) results.values);
-            notifyDataSetChanged();
+        public Object getChangePayload(@NonNull Row oldItem, @NonNull Row newItem) {
+            return oldItem.artist != null ? DiffCallbackUtil.ARTIST.getChangePayload(oldItem.artist, newItem.artist) : null;
         }
     };
 
-    private List<ArtistID3> artists;
-    private List<ArtistID3> artistFull;
+    private final ClickCallback click;
+
+    private final AsyncListDiffer<Row> differ = new AsyncListDiffer<>(this, ROW);
+    private final CatalogueFilter<ArtistID3> filtering = new CatalogueFilter<>(this::submitArtists, ArtistID3::getName);
+
+    private final Map<ArtistID3, String> sectionOfArtist = new IdentityHashMap<>();
+    private boolean sectioned = true;
+
+    private String[] sections = new String[0];
+    private int[] sectionPositions = new int[0];
 
     public ArtistCatalogueAdapter(ClickCallback click) {
         this.click = click;
-        this.artists = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
     @Override
-    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (viewType == VIEW_TYPE_SECTION) {
+            ItemLibraryCatalogueArtistSectionBinding view = ItemLibraryCatalogueArtistSectionBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false);
+            return new SectionViewHolder(view);
+        }
+
         ItemLibraryCatalogueArtistBinding view = ItemLibraryCatalogueArtistBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false);
         return new ViewHolder(view);
     }
 
     @Override
-    public void onBindViewHolder(ViewHolder holder, int position) {
-        ArtistID3 artist = artists.get(position);
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        Row row = differ.getCurrentList().get(position);
 
-        holder.item.artistNameLabel.setText(artist.getName());
+        if (holder instanceof SectionViewHolder) {
+            ((SectionViewHolder) holder).item.sectionTitleTextView.setText(row.section);
+            return;
+        }
+
+        ViewHolder artistHolder = (ViewHolder) holder;
+
+        artistHolder.item.artistNameLabel.setText(row.artist.getName());
 
         CustomGlideRequest.Builder
-                .from(holder.itemView.getContext(), artist.getCoverArtId(), CustomGlideRequest.ResourceType.Artist)
+                .from(holder.itemView.getContext(), row.artist.getCoverArtId(), CustomGlideRequest.ResourceType.Artist)
                 .build()
-                .into(holder.item.artistCatalogueCoverImageView);
+                .into(artistHolder.item.artistCatalogueCoverImageView);
     }
 
     @Override
     public int getItemCount() {
-        return artists.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return isSection(position) ? VIEW_TYPE_SECTION : VIEW_TYPE_ARTIST;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        Row row = differ.getCurrentList().get(position);
+        return DiffCallbackUtil.getItemId(row.artist != null ? row.artist.getId() : "section:" + row.section);
+    }
+
+    public boolean isSection(int position) {
+        return differ.getCurrentList().get(position).artist == null;
     }
 
     public ArtistID3 getItem(int position) {
-        return artists.get(position);
+        return differ.getCurrentList().get(position).artist;
     }
 
     public void setItems(List<ArtistID3> artists) {
-        this.artists = artists;
-        this.artistFull = new ArrayList<>(artists);
-        notifyDataSetChanged();
+        sectionOfArtist.clear();
+        filtering.setItems(artists);
+    }
+
+    public void setIndex(List<IndexID3> indices) {
+        List<ArtistID3> artists = new ArrayList<>();
+
+        sectionOfArtist.clear();
+
+        if (indices != null) {
+            for (IndexID3 index : indices) {
+                if (index == null || index.getArtists() == null) continue;
+
+                for (ArtistID3 artist : index.getArtists()) {
+                    sectionOfArtist.put(artist, index.getName());
+                    artists.add(artist);
+                }
+            }
+        }
+
+        filtering.setItems(artists);
+    }
+
+    public void filter(String query) {
+        filtering.filter(query);
     }
 
     @Override
-    public int getItemViewType(int position) {
-        return position;
+    public Object[] getSections() {
+        return sections;
     }
 
     @Override
-    public long getItemId(int position) {
-        return position;
+    public int getPositionForSection(int sectionIndex) {
+        if (sectionPositions.length == 0) return 0;
+        return sectionPositions[Math.max(0, Math.min(sectionIndex, sectionPositions.length - 1))];
     }
 
     @Override
-    public Filter getFilter() {
-        return filtering;
+    public int getSectionForPosition(int position) {
+        int index = Arrays.binarySearch(sectionPositions, position);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    /*
+     * The filter keeps the order of the server, so the artists of a section stay next to each other.
+     */
+    private void submitArtists(List<ArtistID3> artists) {
+        List<Row> rows = new ArrayList<>(artists.size());
+        List<String> names = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+
+        String current = null;
+
+        for (ArtistID3 artist : artists) {
+            String section = sectioned ? sectionOfArtist.get(artist) : null;
+
+            if (section != null && !section.equals(current)) {
+                current = section;
+                names.add(section);
+                positions.add(rows.size());
+                rows.add(new Row(section, null));
+            }
+
+            rows.add(new Row(section, artist));
+        }
+
+        differ.submitList(rows, () -> {
+            sections = names.toArray(new String[0]);
+            sectionPositions = positions.stream().mapToInt(Integer::intValue).toArray();
+        });
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -128,14 +217,14 @@ public class ArtistCatalogueAdapter extends RecyclerView.Adapter<ArtistCatalogue
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ARTIST_OBJECT, artists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ARTIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onArtistClick(bundle);
         }
 
         public boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ARTIST_OBJECT, artists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ARTIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onArtistLongClick(bundle);
 
@@ -143,16 +232,36 @@ public class ArtistCatalogueAdapter extends RecyclerView.Adapter<ArtistCatalogue
         }
     }
 
+    public static class SectionViewHolder extends RecyclerView.ViewHolder {
+        ItemLibraryCatalogueArtistSectionBinding item;
+
+        SectionViewHolder(ItemLibraryCatalogueArtistSectionBinding item) {
+            super(item.getRoot());
+
+            this.item = item;
+        }
+    }
+
+    private static class Row {
+        private final String section;
+        private final ArtistID3 artist;
+
+        private Row(String section, ArtistID3 artist) {
+            this.section = section;
+            this.artist = artist;
+        }
+    }
+
     public void sort(String order) {
         switch (order) {
             case Constants.ARTIST_ORDER_BY_NAME:
-                artists.sort(Comparator.comparing(ArtistID3::getName));
+                sectioned = true;
+                filtering.sort(null);
                 break;
             case Constants.ARTIST_ORDER_BY_RANDOM:
-                Collections.shuffle(artists);
+                sectioned = false;
+                filtering.sort(CatalogueFilter.shuffled());
                 break;
         }
-
-        notifyDataSetChanged();
     }
 }
@@ -8,6 +8,7 @@ import android.widget.Filter;
 import android.widget.Filterable;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHorizontalArtistBinding;
@@ -16,6 +17,7 @@ import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
 import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
 import java.util.ArrayList;
@@ -27,7 +29,7 @@ public class ArtistHorizontalAdapter extends RecyclerView.Adapter<ArtistHorizont
     private final ClickCallback click;
 
     private List<ArtistID3> artistsFull;
-    private List<ArtistID3> artists;
+    private final AsyncListDiffer<ArtistID3> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.ARTIST);
     private String currentFilter;
 
     private final Filter filtering = new Filter() {
@@ -56,16 +58,16 @@ public class ArtistHorizontalAdapter extends RecyclerView.Adapter<ArtistHorizont
 
         @Override
         protected void publishResults(CharSequence constraint, FilterResults results) {
-            artists = (List<ArtistID3>) results.values;
-            notifyDataSetChanged();
+            differ.submitList((List<ArtistID3>) results.values);
         }
     };
 
     public ArtistHorizontalAdapter(ClickCallback click) {
         this.click = click;
-        this.artists = Collections.emptyList();
         this.artistsFull = Collections.emptyList();
         this.currentFilter = "";
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -77,12 +79,13 @@ public class ArtistHorizontalAdapter extends RecyclerView.Adapter<ArtistHorizont
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        ArtistID3 artist = artists.get(position);
+        ArtistID3 artist = getItem(position);
 
         holder.item.artistNameTextView.setText(artist.getName());
 
         if (artist.getAlbumCount() > 0) {
             holder.item.artistInfoTextView.setText("Album count: " + artist.getAlbumCount());
+            holder.item.artistInfoTextView.setVisibility(View.VISIBLE);
         } else {
             holder.item.artistInfoTextView.setVisibility(View.GONE);
         }
@@ -95,13 +98,12 @@ public class ArtistHorizontalAdapter extends RecyclerView.Adapter<ArtistHorizont
 
     @Override
     public int getItemCount() {
-        return artists.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<ArtistID3> artists) {
         this.artistsFull = artists != null ? artists : Collections.emptyList();
         filtering.filter(currentFilter);
-        notifyDataSetChanged();
     }
 
     @Override
@@ -110,17 +112,12 @@ public class ArtistHorizontalAdapter extends RecyclerView.Adapter<ArtistHorizont
     }
 
     public ArtistID3 getItem(int id) {
-        return artists.get(id);
-    }
-
-    @Override
-    public int getItemViewType(int position) {
-        return position;
+        return differ.getCurrentList().get(id);
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -141,14 +138,14 @@ public class ArtistHorizontalAdapter extends RecyclerView.Adapter<ArtistHorizont
 
         private void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ARTIST_OBJECT, artists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ARTIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onArtistClick(bundle);
         }
 
         public boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ARTIST_OBJECT, artists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ARTIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onArtistLongClick(bundle);
 
@@ -157,19 +154,20 @@ public class ArtistHorizontalAdapter extends RecyclerView.Adapter<ArtistHorizont
     }
 
     public void sort(String order) {
+        List<ArtistID3> sorted = new ArrayList<>(differ.getCurrentList());
+
         switch (order) {
             case Constants.ARTIST_ORDER_BY_NAME:
-                artists.sort(Comparator.comparing(ArtistID3::getName));
+                sorted.sort(Comparator.comparing(ArtistID3::getName));
                 break;
             case Constants.ARTIST_ORDER_BY_MOST_RECENTLY_STARRED:
-                artists.sort(Comparator.comparing(ArtistID3::getStarred, Comparator.nullsLast(Comparator.reverseOrder())));
+                sorted.sort(Comparator.comparing(ArtistID3::getStarred, Comparator.nullsLast(Comparator.reverseOrder())));
                 break;
             case Constants.ARTIST_ORDER_BY_LEAST_RECENTLY_STARRED:
-                artists.sort(Comparator.comparing(ArtistID3::getStarred, Comparator.nullsLast(Comparator.naturalOrder())));
-
+                sorted.sort(Comparator.comparing(ArtistID3::getStarred, Comparator.nullsLast(Comparator.naturalOrder())));
                 break;
         }
 
-        notifyDataSetChanged();
+        differ.submitList(sorted);
     }
 }
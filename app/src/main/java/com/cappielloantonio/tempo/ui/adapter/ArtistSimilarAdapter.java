@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibrarySimilarArtistBinding;
@@ -12,19 +13,20 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.SimilarArtistID3;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class ArtistSimilarAdapter extends RecyclerView.Adapter<ArtistSimilarAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<SimilarArtistID3> artists;
+    private final AsyncListDiffer<SimilarArtistID3> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.SIMILAR_ARTIST);
 
     public ArtistSimilarAdapter(ClickCallback click) {
         this.click = click;
-        this.artists = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -36,7 +38,7 @@ public class ArtistSimilarAdapter extends RecyclerView.Adapter<ArtistSimilarAdap
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        SimilarArtistID3 artist = artists.get(position);
+        SimilarArtistID3 artist = getItem(position);
 
         holder.item.artistNameLabel.setText(artist.getName());
 
@@ -48,26 +50,20 @@ public class ArtistSimilarAdapter extends RecyclerView.Adapter<ArtistSimilarAdap
 
     @Override
     public int getItemCount() {
-        return artists.size();
+        return differ.getCurrentList().size();
     }
 
     public SimilarArtistID3 getItem(int position) {
-        return artists.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<SimilarArtistID3> artists) {
-        this.artists = artists;
-        notifyDataSetChanged();
-    }
-
-    @Override
-    public int getItemViewType(int position) {
-        return position;
+        differ.submitList(artists);
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -86,14 +82,14 @@ public class ArtistSimilarAdapter extends RecyclerView.Adapter<ArtistSimilarAdap
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ARTIST_OBJECT, artists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ARTIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onArtistClick(bundle);
         }
 
         public boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.ARTIST_OBJECT, artists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.ARTIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onArtistLongClick(bundle);
 
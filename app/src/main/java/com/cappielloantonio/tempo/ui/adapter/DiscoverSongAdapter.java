@@ -6,6 +6,7 @@ import android.view.ViewGroup;
 import android.view.animation.AccelerateDecelerateInterpolator;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHomeDiscoverSongBinding;
@@ -13,19 +14,18 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class DiscoverSongAdapter extends RecyclerView.Adapter<DiscoverSongAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Child> songs;
+    private final AsyncListDiffer<Child> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.CHILD);
 
     public DiscoverSongAdapter(ClickCallback click) {
         this.click = click;
-        this.songs = Collections.emptyList();
     }
 
     @NonNull
@@ -37,7 +37,7 @@ public class DiscoverSongAdapter extends RecyclerView.Adapter<DiscoverSongAdapte
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Child song = songs.get(position);
+        Child song = getItem(position);
 
         holder.item.titleDiscoverSongLabel.setText(song.getTitle());
         holder.item.albumDiscoverSongLabel.setText(song.getAlbum());
@@ -56,12 +56,15 @@ public class DiscoverSongAdapter extends RecyclerView.Adapter<DiscoverSongAdapte
 
     @Override
     public int getItemCount() {
-        return songs.size();
+        return differ.getCurrentList().size();
+    }
+
+    public Child getItem(int position) {
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<Child> songs) {
-        this.songs = songs;
-        notifyDataSetChanged();
+        differ.submitList(songs);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -77,7 +80,7 @@ public class DiscoverSongAdapter extends RecyclerView.Adapter<DiscoverSongAdapte
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.TRACK_OBJECT, songs.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.TRACK_OBJECT, getItem(getBindingAdapterPosition()));
             bundle.putBoolean(Constants.MEDIA_MIX, true);
 
             click.onMediaClick(bundle);
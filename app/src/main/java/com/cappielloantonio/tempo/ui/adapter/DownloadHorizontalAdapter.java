@@ -7,6 +7,7 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.media3.common.util.UnstableApi;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.R;
@@ -15,38 +16,46 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
+import com.cappielloantonio.tempo.util.DownloadIndex;
 import com.cappielloantonio.tempo.util.MusicUtil;
-import com.cappielloantonio.tempo.util.Util;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @UnstableApi
 public class DownloadHorizontalAdapter extends RecyclerView.Adapter<DownloadHorizontalAdapter.ViewHolder> {
+    private static final String PAYLOAD_GROUP = "payload_group";
+
+    private static final int VIEW_TYPE_TRACK = 0;
+    private static final int VIEW_TYPE_GROUP = 1;
+    private static final int VIEW_TYPE_GROUP_WITHOUT_COVER = 2;
+
     private final ClickCallback click;
+    private final AsyncListDiffer<Child> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.CHILD);
 
     private String view;
     private String filterKey;
     private String filterValue;
 
-    private List<Child> songs;
-    private List<Child> shuffling;
-    private List<Child> grouped;
+    private DownloadIndex index;
 
     public DownloadHorizontalAdapter(ClickCallback click) {
         this.click = click;
         this.view = Constants.DOWNLOAD_TYPE_TRACK;
-        this.songs = Collections.emptyList();
-        this.grouped = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         ItemHorizontalDownloadBinding view = ItemHorizontalDownloadBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false);
+
+        view.itemCoverImageView.setVisibility(viewType != VIEW_TYPE_GROUP_WITHOUT_COVER ? View.VISIBLE : View.GONE);
+
         return new ViewHolder(view);
     }
 
@@ -69,121 +78,110 @@ public class DownloadHorizontalAdapter extends RecyclerView.Adapter<DownloadHori
                 initYearLayout(holder, position);
                 break;
         }
+
+        bindGroup(holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_GROUP)) {
+            bindGroup(holder, position);
+        } else {
+            onBindViewHolder(holder, position);
+        }
     }
 
     @Override
     public int getItemCount() {
-        return grouped.size();
+        return differ.getCurrentList().size();
     }
 
-    public void setItems(String view, String filterKey, String filterValue, List<Child> songs) {
+    public void setItems(String view, String filterKey, String filterValue, DownloadIndex index) {
+        String previousView = this.view;
+        String previousFilterValue = this.filterValue;
+
         this.view = filterValue != null ? view : filterKey;
         this.filterKey = filterKey;
         this.filterValue = filterValue;
+        this.index = index;
 
-        this.songs = songs;
-        this.grouped = groupSong(songs);
-        this.shuffling = shufflingSong(new ArrayList<>(songs));
+        // The same songs represent different rows in another grouping
+        if (!Objects.equals(previousView, this.view) || !Objects.equals(previousFilterValue, filterValue)) {
+            differ.submitList(null);
+        }
 
-        notifyDataSetChanged();
+        differ.submitList(index.getRows(this.view, filterKey, filterValue), this::refreshGroups);
     }
 
     public Child getItem(int id) {
-        return grouped.get(id);
+        return differ.getCurrentList().get(id);
     }
 
     public List<Child> getShuffling() {
-        return shuffling;
+        return index != null ? index.getSongs(filterKey, filterValue) : new ArrayList<>();
     }
 
     @Override
     public int getItemViewType(int position) {
-        return position;
+        switch (view) {
+            case Constants.DOWNLOAD_TYPE_ALBUM:
+            case Constants.DOWNLOAD_TYPE_ARTIST:
+                return VIEW_TYPE_GROUP;
+            case Constants.DOWNLOAD_TYPE_GENRE:
+            case Constants.DOWNLOAD_TYPE_YEAR:
+                return VIEW_TYPE_GROUP_WITHOUT_COVER;
+            default:
+                return VIEW_TYPE_TRACK;
+        }
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
-    }
+        Child song = getItem(position);
 
-    private List<Child> groupSong(List<Child> songs) {
         switch (view) {
-            case Constants.DOWNLOAD_TYPE_TRACK:
-                return filterSong(filterKey, filterValue, songs.stream().filter(song -> Objects.nonNull(song.getId())).filter(Util.distinctByKey(Child::getId)).collect(Collectors.toList()));
             case Constants.DOWNLOAD_TYPE_ALBUM:
-                return filterSong(filterKey, filterValue, songs.stream().filter(song -> Objects.nonNull(song.getAlbumId())).filter(Util.distinctByKey(Child::getAlbumId)).collect(Collectors.toList()));
+                return DiffCallbackUtil.getItemId(song.getAlbumId());
             case Constants.DOWNLOAD_TYPE_ARTIST:
-                return filterSong(filterKey, filterValue, songs.stream().filter(song -> Objects.nonNull(song.getArtistId())).filter(Util.distinctByKey(Child::getArtistId)).collect(Collectors.toList()));
+                return DiffCallbackUtil.getItemId(song.getArtistId());
             case Constants.DOWNLOAD_TYPE_GENRE:
-                return filterSong(filterKey, filterValue, songs.stream().filter(song -> Objects.nonNull(song.getGenre())).filter(Util.distinctByKey(Child::getGenre)).collect(Collectors.toList()));
+                return DiffCallbackUtil.getItemId(song.getGenre());
             case Constants.DOWNLOAD_TYPE_YEAR:
-                return filterSong(filterKey, filterValue, songs.stream().filter(song -> Objects.nonNull(song.getYear())).filter(Util.distinctByKey(Child::getYear)).collect(Collectors.toList()));
+                return song.getYear() != null ? song.getYear() : RecyclerView.NO_ID;
+            default:
+                return DiffCallbackUtil.getItemId(song.getId());
         }
-
-        return Collections.emptyList();
     }
 
-    private List<Child> filterSong(String filterKey, String filterValue, List<Child> songs) {
-        if (filterValue != null) {
-            switch (filterKey) {
-                case Constants.DOWNLOAD_TYPE_TRACK:
-                    return songs.stream().filter(child -> child.getId().equals(filterValue)).collect(Collectors.toList());
-                case Constants.DOWNLOAD_TYPE_ALBUM:
-                    return songs.stream().filter(child -> Objects.equals(child.getAlbumId(), filterValue)).collect(Collectors.toList());
-                case Constants.DOWNLOAD_TYPE_GENRE:
-                    return songs.stream().filter(child -> Objects.equals(child.getGenre(), filterValue)).collect(Collectors.toList());
-                case Constants.DOWNLOAD_TYPE_YEAR:
-                    return songs.stream().filter(child -> Objects.equals(child.getYear(), Integer.valueOf(filterValue))).collect(Collectors.toList());
-                case Constants.DOWNLOAD_TYPE_ARTIST:
-                    return songs.stream().filter(child -> Objects.equals(child.getArtistId(), filterValue)).collect(Collectors.toList());
-            }
-        }
-
-        return songs;
+    /*
+     * The song counts of the groups and the dividers between albums depend on the other songs, which the
+     * diff does not compare.
+     */
+    private void refreshGroups() {
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_GROUP);
     }
 
-    private List<Child> shufflingSong(List<Child> songs) {
-        if (filterValue == null) {
-            return songs;
-        }
-
-        switch (filterKey) {
-            case Constants.DOWNLOAD_TYPE_TRACK:
-                return songs.stream().filter(child -> child.getId().equals(filterValue)).collect(Collectors.toList());
+    private String getGroupKey(Child song) {
+        switch (view) {
             case Constants.DOWNLOAD_TYPE_ALBUM:
-                return songs.stream().filter(child -> Objects.equals(child.getAlbumId(), filterValue)).collect(Collectors.toList());
+                return song.getAlbumId();
+            case Constants.DOWNLOAD_TYPE_ARTIST:
+                return song.getArtistId();
             case Constants.DOWNLOAD_TYPE_GENRE:
-                return songs.stream().filter(child -> Objects.equals(child.getGenre(), filterValue)).collect(Collectors.toList());
+                return song.getGenre();
             case Constants.DOWNLOAD_TYPE_YEAR:
-                return songs.stream().filter(child -> Objects.equals(child.getYear(), Integer.valueOf(filterValue))).collect(Collectors.toList());
-            case Constants.DOWNLOAD_TYPE_ARTIST:
-                return songs.stream().filter(child -> Objects.equals(child.getArtistId(), filterValue)).collect(Collectors.toList());
+                return song.getYear() != null ? song.getYear().toString() : null;
             default:
-                return songs;
+                return song.getId();
         }
     }
 
-    private String countSong(String filterKey, String filterValue, List<Child> songs) {
-        if (filterValue != null) {
-            switch (filterKey) {
-                case Constants.DOWNLOAD_TYPE_TRACK:
-                    return String.valueOf(songs.stream().filter(child -> child.getId().equals(filterValue)).count());
-                case Constants.DOWNLOAD_TYPE_ALBUM:
-                    return String.valueOf(songs.stream().filter(child -> Objects.equals(child.getAlbumId(), filterValue)).count());
-                case Constants.DOWNLOAD_TYPE_GENRE:
-                    return String.valueOf(songs.stream().filter(child -> Objects.equals(child.getGenre(), filterValue)).count());
-                case Constants.DOWNLOAD_TYPE_YEAR:
-                    return String.valueOf(songs.stream().filter(child -> Objects.equals(child.getYear(), Integer.valueOf(filterValue))).count());
-                case Constants.DOWNLOAD_TYPE_ARTIST:
-                    return String.valueOf(songs.stream().filter(child -> Objects.equals(child.getArtistId(), filterValue)).count());
-            }
-        }
-
-        return "0";
+    private String countSong(Child song) {
+        return String.valueOf(index.count(view, getGroupKey(song)));
     }
 
     private void initTrackLayout(ViewHolder holder, int position) {
-        Child song = grouped.get(position);
+        Child song = getItem(position);
 
         holder.item.downloadedItemTitleTextView.setText(song.getTitle());
         holder.item.downloadedItemSubtitleTextView.setText(
@@ -201,77 +199,77 @@ public class DownloadHorizontalAdapter extends RecyclerView.Adapter<DownloadHori
                 .from(holder.itemView.getContext(), song.getCoverArtId(), CustomGlideRequest.ResourceType.Song)
                 .build()
                 .into(holder.item.itemCoverImageView);
-
-        holder.item.itemCoverImageView.setVisibility(View.VISIBLE);
-        holder.item.downloadedItemMoreButton.setVisibility(View.VISIBLE);
-        holder.item.divider.setVisibility(View.VISIBLE);
-
-        if (position > 0 && grouped.get(position - 1) != null && !Objects.equals(grouped.get(position - 1).getAlbum(), grouped.get(position).getAlbum())) {
-            holder.item.divider.setPadding(0, (int) holder.itemView.getContext().getResources().getDimension(R.dimen.downloaded_item_padding), 0, 0);
-        } else {
-            if (position > 0) holder.item.divider.setVisibility(View.GONE);
-        }
     }
 
     private void initAlbumLayout(ViewHolder holder, int position) {
-        Child song = grouped.get(position);
+        Child song = getItem(position);
 
         holder.item.downloadedItemTitleTextView.setText(song.getAlbum());
-        holder.item.downloadedItemSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.download_item_single_subtitle_formatter, countSong(Constants.DOWNLOAD_TYPE_ALBUM, song.getAlbumId(), songs)));
         holder.item.downloadedItemPreTextView.setText(song.getArtist());
 
         CustomGlideRequest.Builder
                 .from(holder.itemView.getContext(), song.getCoverArtId(), CustomGlideRequest.ResourceType.Song)
                 .build()
                 .into(holder.item.itemCoverImageView);
-
-        holder.item.itemCoverImageView.setVisibility(View.VISIBLE);
-        holder.item.downloadedItemMoreButton.setVisibility(View.VISIBLE);
-        holder.item.divider.setVisibility(View.VISIBLE);
-
-        if (position > 0 && grouped.get(position - 1) != null && !Objects.equals(grouped.get(position - 1).getArtist(), grouped.get(position).getArtist())) {
-            holder.item.divider.setPadding(0, (int) holder.itemView.getContext().getResources().getDimension(R.dimen.downloaded_item_padding), 0, 0);
-        } else {
-            if (position > 0) holder.item.divider.setVisibility(View.GONE);
-        }
     }
 
     private void initArtistLayout(ViewHolder holder, int position) {
-        Child song = grouped.get(position);
+        Child song = getItem(position);
 
         holder.item.downloadedItemTitleTextView.setText(song.getArtist());
-        holder.item.downloadedItemSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.download_item_single_subtitle_formatter, countSong(Constants.DOWNLOAD_TYPE_ARTIST, song.getArtistId(), songs)));
 
         CustomGlideRequest.Builder
                 .from(holder.itemView.getContext(), song.getCoverArtId(), CustomGlideRequest.ResourceType.Song)
                 .build()
                 .into(holder.item.itemCoverImageView);
-
-        holder.item.itemCoverImageView.setVisibility(View.VISIBLE);
-        holder.item.downloadedItemMoreButton.setVisibility(View.VISIBLE);
-        holder.item.divider.setVisibility(View.GONE);
     }
 
     private void initGenreLayout(ViewHolder holder, int position) {
-        Child song = grouped.get(position);
+        Child song = getItem(position);
 
         holder.item.downloadedItemTitleTextView.setText(song.getGenre());
-        holder.item.downloadedItemSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.download_item_single_subtitle_formatter, countSong(Constants.DOWNLOAD_TYPE_GENRE, song.getGenre(), songs)));
-
-        holder.item.itemCoverImageView.setVisibility(View.GONE);
-        holder.item.downloadedItemMoreButton.setVisibility(View.VISIBLE);
-        holder.item.divider.setVisibility(View.GONE);
     }
 
     private void initYearLayout(ViewHolder holder, int position) {
-        Child song = grouped.get(position);
+        Child song = getItem(position);
 
         holder.item.downloadedItemTitleTextView.setText(String.valueOf(song.getYear()));
-        holder.item.downloadedItemSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.download_item_single_subtitle_formatter, countSong(Constants.DOWNLOAD_TYPE_YEAR, song.getYear().toString(), songs)));
+    }
+
+    private void bindGroup(ViewHolder holder, int position) {
+        Child song = getItem(position);
+
+        switch (view) {
+            case Constants.DOWNLOAD_TYPE_TRACK:
+                bindDivider(holder, position, Child::getAlbum);
+                break;
+            case Constants.DOWNLOAD_TYPE_ALBUM:
+                holder.item.downloadedItemSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.download_item_single_subtitle_formatter, countSong(song)));
+                bindDivider(holder, position, Child::getArtist);
+                break;
+            case Constants.DOWNLOAD_TYPE_ARTIST:
+                holder.item.downloadedItemSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.download_item_single_subtitle_formatter, countSong(song)));
+                holder.item.divider.setVisibility(View.GONE);
+                break;
+            case Constants.DOWNLOAD_TYPE_GENRE:
+                holder.item.downloadedItemSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.download_item_single_subtitle_formatter, countSong(song)));
+                holder.item.divider.setVisibility(View.GONE);
+                break;
+            case Constants.DOWNLOAD_TYPE_YEAR:
+                holder.item.downloadedItemSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.download_item_single_subtitle_formatter, countSong(song)));
+                holder.item.divider.setVisibility(View.GONE);
+                break;
+        }
+    }
+
+    /*
+     * Holders are recycled between the first row and the following ones, so the padding is always set.
+     */
+    private void bindDivider(ViewHolder holder, int position, Function<Child, String> section) {
+        boolean newSection = position > 0 && !Objects.equals(section.apply(getItem(position - 1)), section.apply(getItem(position)));
 
-        holder.item.itemCoverImageView.setVisibility(View.GONE);
-        holder.item.downloadedItemMoreButton.setVisibility(View.VISIBLE);
-        holder.item.divider.setVisibility(View.GONE);
+        holder.item.divider.setVisibility(position == 0 || newSection ? View.VISIBLE : View.GONE);
+        holder.item.divider.setPadding(0, newSection ? (int) holder.itemView.getContext().getResources().getDimension(R.dimen.downloaded_item_padding) : 0, 0, 0);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -296,54 +294,38 @@ public class DownloadHorizontalAdapter extends RecyclerView.Adapter<DownloadHori
 
             switch (view) {
                 case Constants.DOWNLOAD_TYPE_TRACK:
-                    bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(grouped));
+                    bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(differ.getCurrentList()));
                     bundle.putInt(Constants.ITEM_POSITION, getBindingAdapterPosition());
                     click.onMediaClick(bundle);
                     break;
                 case Constants.DOWNLOAD_TYPE_ALBUM:
-                    bundle.putString(Constants.DOWNLOAD_TYPE_ALBUM, grouped.get(getBindingAdapterPosition()).getAlbumId());
+                    bundle.putString(Constants.DOWNLOAD_TYPE_ALBUM, getItem(getBindingAdapterPosition()).getAlbumId());
                     click.onAlbumClick(bundle);
                     break;
                 case Constants.DOWNLOAD_TYPE_ARTIST:
-                    bundle.putString(Constants.DOWNLOAD_TYPE_ARTIST, grouped.get(getBindingAdapterPosition()).getArtistId());
+                    bundle.putString(Constants.DOWNLOAD_TYPE_ARTIST, getItem(getBindingAdapterPosition()).getArtistId());
                     click.onArtistClick(bundle);
                     break;
                 case Constants.DOWNLOAD_TYPE_GENRE:
-                    bundle.putString(Constants.DOWNLOAD_TYPE_GENRE, grouped.get(getBindingAdapterPosition()).getGenre());
+                    bundle.putString(Constants.DOWNLOAD_TYPE_GENRE, getItem(getBindingAdapterPosition()).getGenre());
                     click.onGenreClick(bundle);
                     break;
                 case Constants.DOWNLOAD_TYPE_YEAR:
-                    bundle.putString(Constants.DOWNLOAD_TYPE_YEAR, grouped.get(getBindingAdapterPosition()).getYear().toString());
+                    bundle.putString(Constants.DOWNLOAD_TYPE_YEAR, getItem(getBindingAdapterPosition()).getYear().toString());
                     click.onYearClick(bundle);
                     break;
             }
         }
 
         private boolean onLongClick() {
-            ArrayList<Child> filteredSongs = new ArrayList<>();
+            Child song = getItem(getBindingAdapterPosition());
 
-            Bundle bundle = new Bundle();
-
-            switch (view) {
-                case Constants.DOWNLOAD_TYPE_TRACK:
-                    filteredSongs.add(grouped.get(getBindingAdapterPosition()));
-                    break;
-                case Constants.DOWNLOAD_TYPE_ALBUM:
-                    filteredSongs.addAll(filterSong(Constants.DOWNLOAD_TYPE_ALBUM, grouped.get(getBindingAdapterPosition()).getAlbumId(), songs));
-                    break;
-                case Constants.DOWNLOAD_TYPE_ARTIST:
-                    filteredSongs.addAll(filterSong(Constants.DOWNLOAD_TYPE_ARTIST, grouped.get(getBindingAdapterPosition()).getArtistId(), songs));
-                    break;
-                case Constants.DOWNLOAD_TYPE_GENRE:
-                    filteredSongs.addAll(filterSong(Constants.DOWNLOAD_TYPE_GENRE, grouped.get(getBindingAdapterPosition()).getGenre(), songs));
-                    break;
-                case Constants.DOWNLOAD_TYPE_YEAR:
-                    filteredSongs.addAll(filterSong(Constants.DOWNLOAD_TYPE_YEAR, grouped.get(getBindingAdapterPosition()).getYear().toString(), songs));
-                    break;
-            }
+            List<Child> filteredSongs = index.getSongs(view, getGroupKey(song));
 
             if (filteredSongs.isEmpty()) return false;
 
+            Bundle bundle = new Bundle();
+
             bundle.putParcelableArrayList(Constants.DOWNLOAD_GROUP, new ArrayList<>(filteredSongs));
             bundle.putString(Constants.DOWNLOAD_GROUP_TITLE, item.downloadedItemTitleTextView.getText().toString());
             bundle.putString(Constants.DOWNLOAD_GROUP_SUBTITLE, item.downloadedItemSubtitleTextView.getText().toString());
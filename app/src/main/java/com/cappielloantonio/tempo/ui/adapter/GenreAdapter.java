@@ -5,25 +5,27 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryGenreBinding;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Genre;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class GenreAdapter extends RecyclerView.Adapter<GenreAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Genre> genres;
+    private final AsyncListDiffer<Genre> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.GENRE);
 
     public GenreAdapter(ClickCallback click) {
         this.click = click;
-        this.genres = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -35,23 +37,27 @@ public class GenreAdapter extends RecyclerView.Adapter<GenreAdapter.ViewHolder>
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Genre genre = genres.get(position);
+        Genre genre = getItem(position);
 
         holder.item.genreLabel.setText(genre.getGenre());
     }
 
     @Override
     public int getItemCount() {
-        return genres.size();
+        return differ.getCurrentList().size();
     }
 
     public Genre getItem(int position) {
-        return genres.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<Genre> genres) {
-        this.genres = genres;
-        notifyDataSetChanged();
+        differ.submitList(genres);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getGenre());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -68,7 +74,7 @@ public class GenreAdapter extends RecyclerView.Adapter<GenreAdapter.ViewHolder>
         private void onClick() {
             Bundle bundle = new Bundle();
             bundle.putString(Constants.MEDIA_BY_GENRE, Constants.MEDIA_BY_GENRE);
-            bundle.putParcelable(Constants.GENRE_OBJECT, genres.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.GENRE_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onGenreClick(bundle);
         }
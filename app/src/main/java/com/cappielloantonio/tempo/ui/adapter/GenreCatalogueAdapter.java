@@ -3,62 +3,30 @@ package com.cappielloantonio.tempo.ui.adapter;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
-import android.widget.Filter;
-import android.widget.Filterable;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryCatalogueGenreBinding;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Genre;
+import com.cappielloantonio.tempo.util.CatalogueFilter;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
-public class GenreCatalogueAdapter extends RecyclerView.Adapter<GenreCatalogueAdapter.ViewHolder> implements Filterable {
+public class GenreCatalogueAdapter extends RecyclerView.Adapter<GenreCatalogueAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private final Filter filtering = new Filter() {
-        @Override
-        protected FilterResults performFiltering(CharSequence constraint) {
-            List<Genre> filteredList = new ArrayList<>();
-
-            if (constraint == null || constraint.length() == 0) {
-                filteredList.addAll(genresFull);
-            } else {
-                String filterPattern = constraint.toString().toLowerCase().trim();
-
-                for (Genre item : genresFull) {
-                    if (item.getGenre().toLowerCase().contains(filterPattern)) {
-                        filteredList.add(item);
-                    }
-                }
-            }
-
-            FilterResults results = new FilterResults();
-            results.values = filteredList;
-
-            return results;
-        }
-
-        @Override
-        protected void publishResults(CharSequence constraint, FilterResults results) {
-            genres.clear();
-            if (results.count > 0) genres.addAll((List) results.values);
-            notifyDataSetChanged();
-        }
-    };
-
-    private List<Genre> genres;
-    private List<Genre> genresFull;
+    private final AsyncListDiffer<Genre> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.GENRE);
+    private final CatalogueFilter<Genre> filtering = new CatalogueFilter<>(differ::submitList, Genre::getGenre);
 
     public GenreCatalogueAdapter(ClickCallback click) {
         this.click = click;
-        this.genres = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -70,29 +38,31 @@ public class GenreCatalogueAdapter extends RecyclerView.Adapter<GenreCatalogueAd
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Genre genre = genres.get(position);
+        Genre genre = getItem(position);
 
         holder.item.genreLabel.setText(genre.getGenre());
     }
 
     @Override
     public int getItemCount() {
-        return genres.size();
+        return differ.getCurrentList().size();
     }
 
     public Genre getItem(int position) {
-        return genres.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<Genre> genres) {
-        this.genres = genres;
-        this.genresFull = new ArrayList<>(genres);
-        notifyDataSetChanged();
+        filtering.setItems(genres);
+    }
+
+    public void filter(String query) {
+        filtering.filter(query);
     }
 
     @Override
-    public Filter getFilter() {
-        return filtering;
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getGenre());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -106,7 +76,7 @@ public class GenreCatalogueAdapter extends RecyclerView.Adapter<GenreCatalogueAd
             itemView.setOnClickListener(v -> {
                 Bundle bundle = new Bundle();
                 bundle.putString(Constants.MEDIA_BY_GENRE, Constants.MEDIA_BY_GENRE);
-                bundle.putParcelable(Constants.GENRE_OBJECT, genres.get(getBindingAdapterPosition()));
+                bundle.putParcelable(Constants.GENRE_OBJECT, getItem(getBindingAdapterPosition()));
 
                 click.onGenreClick(bundle);
             });
@@ -116,13 +86,11 @@ public class GenreCatalogueAdapter extends RecyclerView.Adapter<GenreCatalogueAd
     public void sort(String order) {
         switch (order) {
             case Constants.GENRE_ORDER_BY_NAME:
-                genres.sort(Comparator.comparing(Genre::getGenre));
+                filtering.sort(CatalogueFilter.byKey(0));
                 break;
             case Constants.GENRE_ORDER_BY_RANDOM:
-                Collections.shuffle(genres);
+                filtering.sort(CatalogueFilter.shuffled());
                 break;
         }
-
-        notifyDataSetChanged();
     }
 }
@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHomeGridTrackBinding;
@@ -12,19 +13,18 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.model.Chronology;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class GridTrackAdapter extends RecyclerView.Adapter<GridTrackAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Chronology> items;
+    private final AsyncListDiffer<Chronology> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.CHRONOLOGY);
 
     public GridTrackAdapter(ClickCallback click) {
         this.click = click;
-        this.items = Collections.emptyList();
     }
 
     @NonNull
@@ -36,7 +36,7 @@ public class GridTrackAdapter extends RecyclerView.Adapter<GridTrackAdapter.View
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Chronology item = items.get(position);
+        Chronology item = getItem(position);
 
         CustomGlideRequest.Builder
                 .from(holder.itemView.getContext(), item.getCoverArtId(), CustomGlideRequest.ResourceType.Song)
@@ -46,16 +46,15 @@ public class GridTrackAdapter extends RecyclerView.Adapter<GridTrackAdapter.View
 
     @Override
     public int getItemCount() {
-        return items.size();
+        return differ.getCurrentList().size();
     }
 
     public Chronology getItem(int position) {
-        return items.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<Chronology> items) {
-        this.items = items;
-        notifyDataSetChanged();
+        differ.submitList(items);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -71,7 +70,7 @@ public class GridTrackAdapter extends RecyclerView.Adapter<GridTrackAdapter.View
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(items));
+            bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(differ.getCurrentList()));
             bundle.putBoolean(Constants.MEDIA_CHRONOLOGY, true);
             bundle.putInt(Constants.ITEM_POSITION, getBindingAdapterPosition());
 
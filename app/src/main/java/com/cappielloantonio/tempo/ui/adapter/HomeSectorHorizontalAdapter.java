@@ -13,17 +13,14 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.model.HomeSector;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
+import com.cappielloantonio.tempo.util.MutableListDiffer;
 
-import java.util.Collections;
 import java.util.List;
 
 public class HomeSectorHorizontalAdapter extends RecyclerView.Adapter<HomeSectorHorizontalAdapter.ViewHolder> {
-    private List<HomeSector> sectors;
-
-    public HomeSectorHorizontalAdapter() {
-        this.sectors = Collections.emptyList();
-    }
+    private final MutableListDiffer<HomeSector> differ = new MutableListDiffer<>(this, DiffCallbackUtil.HOME_SECTOR);
 
     @NonNull
     @Override
@@ -34,7 +31,7 @@ public class HomeSectorHorizontalAdapter extends RecyclerView.Adapter<HomeSector
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        HomeSector sector = sectors.get(position);
+        HomeSector sector = getItem(position);
 
         holder.item.homeSectorTitleCheckBox.setText(sector.getSectorTitle());
         holder.item.homeSectorTitleCheckBox.setChecked(sector.isVisible());
@@ -42,20 +39,19 @@ public class HomeSectorHorizontalAdapter extends RecyclerView.Adapter<HomeSector
 
     @Override
     public int getItemCount() {
-        return sectors.size();
+        return differ.getCurrentList().size();
     }
 
     public List<HomeSector> getItems() {
-        return this.sectors;
+        return differ.getCurrentList();
     }
 
     public void setItems(List<HomeSector> sectors) {
-        this.sectors = sectors;
-        notifyDataSetChanged();
+        differ.submitList(sectors);
     }
 
     public HomeSector getItem(int id) {
-        return sectors.get(id);
+        return differ.getCurrentList().get(id);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -70,7 +66,7 @@ public class HomeSectorHorizontalAdapter extends RecyclerView.Adapter<HomeSector
         }
 
         private void onCheck(boolean isChecked) {
-            sectors.get(getBindingAdapterPosition()).setVisible(isChecked);
+            getItem(getBindingAdapterPosition()).setVisible(isChecked);
         }
     }
 }
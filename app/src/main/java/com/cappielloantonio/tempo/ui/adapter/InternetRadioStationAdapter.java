@@ -6,6 +6,7 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.media3.common.util.UnstableApi;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHomeInternetRadioStationBinding;
@@ -13,19 +14,20 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.InternetRadioStation;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 @UnstableApi
 public class InternetRadioStationAdapter extends RecyclerView.Adapter<InternetRadioStationAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<InternetRadioStation> internetRadioStations;
+    private final AsyncListDiffer<InternetRadioStation> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.INTERNET_RADIO_STATION);
 
     public InternetRadioStationAdapter(ClickCallback click) {
         this.click = click;
-        this.internetRadioStations = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -37,7 +39,7 @@ public class InternetRadioStationAdapter extends RecyclerView.Adapter<InternetRa
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        InternetRadioStation internetRadioStation = internetRadioStations.get(position);
+        InternetRadioStation internetRadioStation = getItem(position);
 
         holder.item.internetRadioStationTitleTextView.setText(internetRadioStation.getName());
         holder.item.internetRadioStationSubtitleTextView.setText(internetRadioStation.getStreamUrl());
@@ -50,16 +52,20 @@ public class InternetRadioStationAdapter extends RecyclerView.Adapter<InternetRa
 
     @Override
     public int getItemCount() {
-        return internetRadioStations.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<InternetRadioStation> internetRadioStations) {
-        this.internetRadioStations = internetRadioStations;
-        notifyDataSetChanged();
+        differ.submitList(internetRadioStations);
     }
 
     public InternetRadioStation getItem(int position) {
-        return internetRadioStations.get(position);
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -81,14 +87,14 @@ public class InternetRadioStationAdapter extends RecyclerView.Adapter<InternetRa
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.INTERNET_RADIO_STATION_OBJECT, internetRadioStations.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.INTERNET_RADIO_STATION_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onInternetRadioStationClick(bundle);
         }
 
         private boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.INTERNET_RADIO_STATION_OBJECT, internetRadioStations.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.INTERNET_RADIO_STATION_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onInternetRadioStationLongClick(bundle);
 
@@ -7,6 +7,7 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.media3.common.util.UnstableApi;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryMusicDirectoryBinding;
@@ -14,20 +15,21 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 @UnstableApi
 public class MusicDirectoryAdapter extends RecyclerView.Adapter<MusicDirectoryAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Child> children;
+    private final AsyncListDiffer<Child> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.CHILD);
 
     public MusicDirectoryAdapter(ClickCallback click) {
         this.click = click;
-        this.children = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -39,7 +41,7 @@ public class MusicDirectoryAdapter extends RecyclerView.Adapter<MusicDirectoryAd
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Child child = children.get(position);
+        Child child = getItem(position);
 
         holder.item.musicDirectoryTitleTextView.setText(child.getTitle());
 
@@ -58,12 +60,20 @@ public class MusicDirectoryAdapter extends RecyclerView.Adapter<MusicDirectoryAd
 
     @Override
     public int getItemCount() {
-        return children.size();
+        return differ.getCurrentList().size();
+    }
+
+    public Child getItem(int position) {
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<Child> children) {
-        this.children = children != null ? children : Collections.emptyList();
-        notifyDataSetChanged();
+        differ.submitList(children);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -85,20 +95,20 @@ public class MusicDirectoryAdapter extends RecyclerView.Adapter<MusicDirectoryAd
         public void onClick() {
             Bundle bundle = new Bundle();
 
-            if (children.get(getBindingAdapterPosition()).isDir()) {
-                bundle.putString(Constants.MUSIC_DIRECTORY_ID, children.get(getBindingAdapterPosition()).getId());
+            if (getItem(getBindingAdapterPosition()).isDir()) {
+                bundle.putString(Constants.MUSIC_DIRECTORY_ID, getItem(getBindingAdapterPosition()).getId());
                 click.onMusicDirectoryClick(bundle);
             } else {
-                bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(children));
+                bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(differ.getCurrentList()));
                 bundle.putInt(Constants.ITEM_POSITION, getBindingAdapterPosition());
                 click.onMediaClick(bundle);
             }
         }
 
         private boolean onLongClick() {
-            if (!children.get(getBindingAdapterPosition()).isDir()) {
+            if (!getItem(getBindingAdapterPosition()).isDir()) {
                 Bundle bundle = new Bundle();
-                bundle.putParcelable(Constants.TRACK_OBJECT, children.get(getBindingAdapterPosition()));
+                bundle.putParcelable(Constants.TRACK_OBJECT, getItem(getBindingAdapterPosition()));
 
                 click.onMediaLongClick(bundle);
 
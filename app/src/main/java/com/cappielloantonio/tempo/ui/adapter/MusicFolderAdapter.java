@@ -6,6 +6,7 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.media3.common.util.UnstableApi;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryMusicFolderBinding;
@@ -13,19 +14,20 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.MusicFolder;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 @UnstableApi
 public class MusicFolderAdapter extends RecyclerView.Adapter<MusicFolderAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<MusicFolder> musicFolders;
+    private final AsyncListDiffer<MusicFolder> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.MUSIC_FOLDER);
 
     public MusicFolderAdapter(ClickCallback click) {
         this.click = click;
-        this.musicFolders = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -37,7 +39,7 @@ public class MusicFolderAdapter extends RecyclerView.Adapter<MusicFolderAdapter.
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        MusicFolder musicFolder = musicFolders.get(position);
+        MusicFolder musicFolder = getItem(position);
 
         holder.item.musicFolderTitleTextView.setText(musicFolder.getName());
 
@@ -49,16 +51,20 @@ public class MusicFolderAdapter extends RecyclerView.Adapter<MusicFolderAdapter.
 
     @Override
     public int getItemCount() {
-        return musicFolders.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<MusicFolder> musicFolders) {
-        this.musicFolders = musicFolders;
-        notifyDataSetChanged();
+        differ.submitList(musicFolders);
     }
 
     public MusicFolder getItem(int position) {
-        return musicFolders.get(position);
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -78,7 +84,7 @@ public class MusicFolderAdapter extends RecyclerView.Adapter<MusicFolderAdapter.
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.MUSIC_FOLDER_OBJECT, musicFolders.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.MUSIC_FOLDER_OBJECT, getItem(getBindingAdapterPosition()));
             click.onMusicFolderClick(bundle);
         }
     }
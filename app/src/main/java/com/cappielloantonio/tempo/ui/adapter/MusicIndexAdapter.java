@@ -6,6 +6,7 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.media3.common.util.UnstableApi;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLibraryMusicIndexBinding;
@@ -14,8 +15,8 @@ import com.cappielloantonio.tempo.helper.recyclerview.FastScrollbar;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Artist;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -23,11 +24,12 @@ import java.util.Objects;
 public class MusicIndexAdapter extends RecyclerView.Adapter<MusicIndexAdapter.ViewHolder> implements FastScrollbar.BubbleTextGetter {
     private final ClickCallback click;
 
-    private List<Artist> artists;
+    private final AsyncListDiffer<Artist> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.INDEX_ARTIST);
 
     public MusicIndexAdapter(ClickCallback click) {
         this.click = click;
-        this.artists = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -39,7 +41,7 @@ public class MusicIndexAdapter extends RecyclerView.Adapter<MusicIndexAdapter.Vi
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Artist artist = artists.get(position);
+        Artist artist = getItem(position);
 
         holder.item.musicIndexTitleTextView.setText(artist.getName());
 
@@ -51,17 +53,25 @@ public class MusicIndexAdapter extends RecyclerView.Adapter<MusicIndexAdapter.Vi
 
     @Override
     public int getItemCount() {
-        return artists.size();
+        return differ.getCurrentList().size();
+    }
+
+    public Artist getItem(int position) {
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<Artist> artists) {
-        this.artists = artists;
-        notifyDataSetChanged();
+        differ.submitList(artists);
     }
 
     @Override
     public String getTextToShowInBubble(int pos) {
-        return artists != null && !artists.isEmpty() ? Character.toString(Objects.requireNonNull(artists.get(pos).getName().toUpperCase()).charAt(0)) : null;
+        return !differ.getCurrentList().isEmpty() ? Character.toString(Objects.requireNonNull(getItem(pos).getName().toUpperCase()).charAt(0)) : null;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -80,7 +90,7 @@ public class MusicIndexAdapter extends RecyclerView.Adapter<MusicIndexAdapter.Vi
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putString(Constants.MUSIC_DIRECTORY_ID, artists.get(getBindingAdapterPosition()).getId());
+            bundle.putString(Constants.MUSIC_DIRECTORY_ID, getItem(getBindingAdapterPosition()).getId());
             click.onMusicIndexClick(bundle);
         }
     }
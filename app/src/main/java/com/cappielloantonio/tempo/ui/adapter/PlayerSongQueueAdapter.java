@@ -18,23 +18,23 @@ import com.cappielloantonio.tempo.interfaces.MediaIndexCallback;
 import com.cappielloantonio.tempo.service.MediaManager;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
+import com.cappielloantonio.tempo.util.MutableListDiffer;
 import com.cappielloantonio.tempo.util.Preferences;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class PlayerSongQueueAdapter extends RecyclerView.Adapter<PlayerSongQueueAdapter.ViewHolder> {
     private final ClickCallback click;
 
     private ListenableFuture<MediaBrowser> mediaBrowserListenableFuture;
-    private List<Child> songs;
+    private final MutableListDiffer<Child> differ = new MutableListDiffer<>(this, DiffCallbackUtil.CHILD);
 
     public PlayerSongQueueAdapter(ClickCallback click) {
         this.click = click;
-        this.songs = Collections.emptyList();
     }
 
     @NonNull
@@ -46,7 +46,7 @@ public class PlayerSongQueueAdapter extends RecyclerView.Adapter<PlayerSongQueue
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Child song = songs.get(position);
+        Child song = getItem(position);
 
         holder.item.queueSongTitleTextView.setText(song.getTitle());
         holder.item.queueSongSubtitleTextView.setText(
@@ -63,6 +63,22 @@ public class PlayerSongQueueAdapter extends RecyclerView.Adapter<PlayerSongQueue
                 .build()
                 .into(holder.item.queueSongCoverImageView);
 
+        bindPlayingState(holder, position);
+        bindRating(holder, song);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        if (payloads.contains(DiffCallbackUtil.PAYLOAD_PLAYING)) bindPlayingState(holder, position);
+        if (payloads.contains(DiffCallbackUtil.PAYLOAD_STARRED)) bindRating(holder, getItem(position));
+    }
+
+    private void bindPlayingState(ViewHolder holder, int position) {
         MediaManager.getCurrentIndex(mediaBrowserListenableFuture, new MediaIndexCallback() {
             @Override
             public void onRecovery(int index) {
@@ -77,11 +93,11 @@ public class PlayerSongQueueAdapter extends RecyclerView.Adapter<PlayerSongQueue
                 }
             }
         });
+    }
 
+    private void bindRating(ViewHolder holder, Child song) {
         if (Preferences.showItemRating()) {
-            if (song.getStarred() == null && song.getUserRating() == null) {
-                holder.item.ratingIndicatorImageView.setVisibility(View.GONE);
-            }
+            holder.item.ratingIndicatorImageView.setVisibility(song.getStarred() == null && song.getUserRating() == null ? View.GONE : View.VISIBLE);
 
             holder.item.preferredIcon.setVisibility(song.getStarred() != null ? View.VISIBLE : View.GONE);
             holder.item.ratingBarLayout.setVisibility(song.getUserRating() != null ? View.VISIBLE : View.GONE);
@@ -99,25 +115,23 @@ public class PlayerSongQueueAdapter extends RecyclerView.Adapter<PlayerSongQueue
     }
 
     public List<Child> getItems() {
-        return this.songs;
+        return differ.getCurrentList();
     }
 
     public void setItems(List<Child> songs) {
-        this.songs = songs;
-        notifyDataSetChanged();
+        differ.submitList(songs);
     }
 
     @Override
     public int getItemCount() {
-        if (songs == null) {
-            return 0;
-        }
-        return songs.size();
+        return differ.getCurrentList().size();
     }
 
-    @Override
-    public long getItemId(int position) {
-        return position;
+    /*
+     * Only fades the songs before the current one again, without rebinding their covers.
+     */
+    public void notifyPlayingStateChanged() {
+        notifyItemRangeChanged(0, getItemCount(), DiffCallbackUtil.PAYLOAD_PLAYING);
     }
 
     public void setMediaBrowserListenableFuture(ListenableFuture<MediaBrowser> mediaBrowserListenableFuture) {
@@ -125,7 +139,7 @@ public class PlayerSongQueueAdapter extends RecyclerView.Adapter<PlayerSongQueue
     }
 
     public Child getItem(int id) {
-        return songs.get(id);
+        return differ.getCurrentList().get(id);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -144,7 +158,7 @@ public class PlayerSongQueueAdapter extends RecyclerView.Adapter<PlayerSongQueue
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(songs));
+            bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(differ.getCurrentList()));
             bundle.putInt(Constants.ITEM_POSITION, getBindingAdapterPosition());
 
             click.onMediaClick(bundle);
@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.R;
@@ -12,19 +13,20 @@ import com.cappielloantonio.tempo.databinding.ItemHorizontalPlaylistDialogBindin
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Playlist;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class PlaylistDialogHorizontalAdapter extends RecyclerView.Adapter<PlaylistDialogHorizontalAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Playlist> playlists;
+    private final AsyncListDiffer<Playlist> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.PLAYLIST);
 
     public PlaylistDialogHorizontalAdapter(ClickCallback click) {
         this.click = click;
-        this.playlists = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -36,7 +38,7 @@ public class PlaylistDialogHorizontalAdapter extends RecyclerView.Adapter<Playli
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Playlist playlist = playlists.get(position);
+        Playlist playlist = getItem(position);
 
         holder.item.playlistDialogTitleTextView.setText(playlist.getName());
         holder.item.playlistDialogCountTextView.setText(holder.itemView.getContext().getString(R.string.playlist_counted_tracks, playlist.getSongCount(), MusicUtil.getReadableDurationString(playlist.getDuration(), false)));
@@ -44,16 +46,20 @@ public class PlaylistDialogHorizontalAdapter extends RecyclerView.Adapter<Playli
 
     @Override
     public int getItemCount() {
-        return playlists.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<Playlist> playlists) {
-        this.playlists = playlists;
-        notifyDataSetChanged();
+        differ.submitList(playlists);
     }
 
     public Playlist getItem(int id) {
-        return playlists.get(id);
+        return differ.getCurrentList().get(id);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -71,7 +77,7 @@ public class PlaylistDialogHorizontalAdapter extends RecyclerView.Adapter<Playli
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.PLAYLIST_OBJECT, playlists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.PLAYLIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onPlaylistClick(bundle);
         }
@@ -9,17 +9,14 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.cappielloantonio.tempo.databinding.ItemHorizontalPlaylistDialogTrackBinding;
 import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.subsonic.models.Child;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
+import com.cappielloantonio.tempo.util.MutableListDiffer;
 
-import java.util.Collections;
 import java.util.List;
 
 public class PlaylistDialogSongHorizontalAdapter extends RecyclerView.Adapter<PlaylistDialogSongHorizontalAdapter.ViewHolder> {
-    private List<Child> songs;
-
-    public PlaylistDialogSongHorizontalAdapter() {
-        this.songs = Collections.emptyList();
-    }
+    private final MutableListDiffer<Child> differ = new MutableListDiffer<>(this, DiffCallbackUtil.CHILD);
 
     @NonNull
     @Override
@@ -30,7 +27,7 @@ public class PlaylistDialogSongHorizontalAdapter extends RecyclerView.Adapter<Pl
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Child song = songs.get(position);
+        Child song = getItem(position);
 
         holder.item.playlistDialogSongTitleTextView.setText(song.getTitle());
         holder.item.playlistDialogAlbumArtistTextView.setText(song.getArtist());
@@ -44,20 +41,19 @@ public class PlaylistDialogSongHorizontalAdapter extends RecyclerView.Adapter<Pl
 
     @Override
     public int getItemCount() {
-        return songs.size();
+        return differ.getCurrentList().size();
     }
 
     public List<Child> getItems() {
-        return this.songs;
+        return differ.getCurrentList();
     }
 
     public void setItems(List<Child> songs) {
-        this.songs = songs;
-        notifyDataSetChanged();
+        differ.submitList(songs);
     }
 
     public Child getItem(int id) {
-        return songs.get(id);
+        return differ.getCurrentList().get(id);
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -3,10 +3,9 @@ package com.cappielloantonio.tempo.ui.adapter;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
-import android.widget.Filter;
-import android.widget.Filterable;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.R;
@@ -14,54 +13,23 @@ import com.cappielloantonio.tempo.databinding.ItemHorizontalPlaylistBinding;
 import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Playlist;
+import com.cappielloantonio.tempo.util.CatalogueFilter;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
-public class PlaylistHorizontalAdapter extends RecyclerView.Adapter<PlaylistHorizontalAdapter.ViewHolder> implements Filterable {
+public class PlaylistHorizontalAdapter extends RecyclerView.Adapter<PlaylistHorizontalAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Playlist> playlists;
-    private List<Playlist> playlistsFull;
-
-    private final Filter filtering = new Filter() {
-        @Override
-        protected FilterResults performFiltering(CharSequence constraint) {
-            List<Playlist> filteredList = new ArrayList<>();
-
-            if (constraint == null || constraint.length() == 0) {
-                filteredList.addAll(playlistsFull);
-            } else {
-                String filterPattern = constraint.toString().toLowerCase().trim();
-
-                for (Playlist item : playlistsFull) {
-                    if (item.getName().toLowerCase().contains(filterPattern)) {
-                        filteredList.add(item);
-                    }
-                }
-            }
-
-            FilterResults results = new FilterResults();
-            results.values = filteredList;
-
-            return results;
-        }
-
-        @Override
-        protected void publishResults(CharSequence constraint, FilterResults results) {
-            playlists.clear();
-            if (results.count > 0) playlists.addAll((List) results.values);
-            notifyDataSetChanged();
-        }
-    };
+    private final AsyncListDiffer<Playlist> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.PLAYLIST);
+    private final CatalogueFilter<Playlist> filtering = new CatalogueFilter<>(differ::submitList, Playlist::getName);
 
     public PlaylistHorizontalAdapter(ClickCallback click) {
         this.click = click;
-        this.playlists = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -73,7 +41,7 @@ public class PlaylistHorizontalAdapter extends RecyclerView.Adapter<PlaylistHori
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Playlist playlist = playlists.get(position);
+        Playlist playlist = getItem(position);
 
         holder.item.playlistTitleTextView.setText(playlist.getName());
         holder.item.playlistSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.playlist_counted_tracks, playlist.getSongCount(), MusicUtil.getReadableDurationString(playlist.getDuration(), false)));
@@ -86,22 +54,24 @@ public class PlaylistHorizontalAdapter extends RecyclerView.Adapter<PlaylistHori
 
     @Override
     public int getItemCount() {
-        return playlists.size();
+        return differ.getCurrentList().size();
     }
 
     public Playlist getItem(int id) {
-        return playlists.get(id);
+        return differ.getCurrentList().get(id);
     }
 
     public void setItems(List<Playlist> playlists) {
-        this.playlists = playlists;
-        this.playlistsFull = new ArrayList<>(playlists);
-        notifyDataSetChanged();
+        filtering.setItems(playlists);
+    }
+
+    public void filter(String query) {
+        filtering.filter(query);
     }
 
     @Override
-    public Filter getFilter() {
-        return filtering;
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -121,14 +91,14 @@ public class PlaylistHorizontalAdapter extends RecyclerView.Adapter<PlaylistHori
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.PLAYLIST_OBJECT, playlists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.PLAYLIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onPlaylistClick(bundle);
         }
 
         public boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.PLAYLIST_OBJECT, playlists.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.PLAYLIST_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onPlaylistLongClick(bundle);
 
@@ -139,13 +109,11 @@ public class PlaylistHorizontalAdapter extends RecyclerView.Adapter<PlaylistHori
     public void sort(String order) {
         switch (order) {
             case Constants.PLAYLIST_ORDER_BY_NAME:
-                playlists.sort(Comparator.comparing(Playlist::getName));
+                filtering.sort(CatalogueFilter.byKey(0));
                 break;
             case Constants.PLAYLIST_ORDER_BY_RANDOM:
-                Collections.shuffle(playlists);
+                filtering.sort(CatalogueFilter.shuffled());
                 break;
         }
-
-        notifyDataSetChanged();
     }
 }
@@ -7,6 +7,7 @@ import android.widget.Filter;
 import android.widget.Filterable;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHomeCataloguePodcastChannelBinding;
@@ -14,6 +15,7 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.PodcastChannel;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
 import java.util.ArrayList;
@@ -47,18 +49,18 @@ public class PodcastChannelCatalogueAdapter extends RecyclerView.Adapter<Podcast
 
         @Override
         protected void publishResults(CharSequence constraint, FilterResults results) {
-            podcastChannels.clear();
-            if (results.count > 0) podcastChannels.addAll((List) results.values);
-            notifyDataSetChanged();
+            differ.submitList((List<PodcastChannel>) results.values);
         }
     };
 
-    private List<PodcastChannel> podcastChannels;
+    private final AsyncListDiffer<PodcastChannel> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.PODCAST_CHANNEL);
     private List<PodcastChannel> podcastChannelsFull;
 
     public PodcastChannelCatalogueAdapter(ClickCallback click) {
         this.click = click;
-        this.podcastChannels = Collections.emptyList();
+        this.podcastChannelsFull = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -70,7 +72,7 @@ public class PodcastChannelCatalogueAdapter extends RecyclerView.Adapter<Podcast
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        PodcastChannel podcastChannel = podcastChannels.get(position);
+        PodcastChannel podcastChannel = getItem(position);
 
         holder.item.podcastChannelTitleLabel.setText(podcastChannel.getTitle());
 
@@ -82,27 +84,21 @@ public class PodcastChannelCatalogueAdapter extends RecyclerView.Adapter<Podcast
 
     @Override
     public int getItemCount() {
-        return podcastChannels.size();
+        return differ.getCurrentList().size();
     }
 
     public PodcastChannel getItem(int position) {
-        return podcastChannels.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<PodcastChannel> podcastChannels) {
-        this.podcastChannels = podcastChannels;
         this.podcastChannelsFull = new ArrayList<>(podcastChannels);
-        notifyDataSetChanged();
-    }
-
-    @Override
-    public int getItemViewType(int position) {
-        return position;
+        differ.submitList(podcastChannels);
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     @Override
@@ -126,14 +122,14 @@ public class PodcastChannelCatalogueAdapter extends RecyclerView.Adapter<Podcast
 
         private void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.PODCAST_CHANNEL_OBJECT, podcastChannels.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.PODCAST_CHANNEL_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onPodcastChannelClick(bundle);
         }
 
         private boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.PODCAST_CHANNEL_OBJECT, podcastChannels.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.PODCAST_CHANNEL_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onPodcastChannelLongClick(bundle);
 
@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHorizontalPodcastChannelBinding;
@@ -12,19 +13,20 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.PodcastChannel;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class PodcastChannelHorizontalAdapter extends RecyclerView.Adapter<PodcastChannelHorizontalAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<PodcastChannel> podcastChannels;
+    private final AsyncListDiffer<PodcastChannel> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.PODCAST_CHANNEL);
 
     public PodcastChannelHorizontalAdapter(ClickCallback click) {
         this.click = click;
-        this.podcastChannels = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -36,7 +38,7 @@ public class PodcastChannelHorizontalAdapter extends RecyclerView.Adapter<Podcas
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        PodcastChannel podcastChannel = podcastChannels.get(position);
+        PodcastChannel podcastChannel = getItem(position);
 
         holder.item.podcastChannelTitleTextView.setText(podcastChannel.getTitle());
         holder.item.podcastChannelDescriptionTextView.setText(MusicUtil.getReadableString(podcastChannel.getDescription()));
@@ -49,16 +51,20 @@ public class PodcastChannelHorizontalAdapter extends RecyclerView.Adapter<Podcas
 
     @Override
     public int getItemCount() {
-        return podcastChannels.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<PodcastChannel> podcastChannels) {
-        this.podcastChannels = podcastChannels;
-        notifyDataSetChanged();
+        differ.submitList(podcastChannels);
     }
 
     public PodcastChannel getItem(int id) {
-        return podcastChannels.get(id);
+        return differ.getCurrentList().get(id);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -80,14 +86,14 @@ public class PodcastChannelHorizontalAdapter extends RecyclerView.Adapter<Podcas
 
         private void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.PODCAST_CHANNEL_OBJECT, podcastChannels.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.PODCAST_CHANNEL_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onPodcastChannelClick(bundle);
         }
 
         private boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.PODCAST_CHANNEL_OBJECT, podcastChannels.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.PODCAST_CHANNEL_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onPodcastChannelLongClick(bundle);
 
@@ -6,6 +6,7 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.R;
@@ -14,6 +15,7 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.PodcastEpisode;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
 import java.text.SimpleDateFormat;
@@ -25,12 +27,14 @@ import java.util.stream.Collectors;
 public class PodcastEpisodeAdapter extends RecyclerView.Adapter<PodcastEpisodeAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<PodcastEpisode> podcastEpisodes;
+    private final AsyncListDiffer<PodcastEpisode> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.PODCAST_EPISODE);
     private List<PodcastEpisode> podcastEpisodesFull;
 
     public PodcastEpisodeAdapter(ClickCallback click) {
         this.click = click;
-        this.podcastEpisodes = Collections.emptyList();
+        this.podcastEpisodesFull = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -42,7 +46,7 @@ public class PodcastEpisodeAdapter extends RecyclerView.Adapter<PodcastEpisodeAd
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        PodcastEpisode podcastEpisode = podcastEpisodes.get(position);
+        PodcastEpisode podcastEpisode = getItem(position);
         SimpleDateFormat simpleDateFormat = new SimpleDateFormat("MMM d");
 
         holder.item.podcastTitleLabel.setText(podcastEpisode.getTitle());
@@ -62,23 +66,21 @@ public class PodcastEpisodeAdapter extends RecyclerView.Adapter<PodcastEpisodeAd
 
     @Override
     public int getItemCount() {
-        return podcastEpisodes.size();
+        return differ.getCurrentList().size();
     }
 
-    public void setItems(List<PodcastEpisode> podcastEpisodes) {
-        this.podcastEpisodesFull = podcastEpisodes;
-        this.podcastEpisodes = podcastEpisodesFull.stream().filter(podcastEpisode -> Objects.equals(podcastEpisode.getStatus(), "completed")).collect(Collectors.toList());
-        notifyDataSetChanged();
+    public PodcastEpisode getItem(int position) {
+        return differ.getCurrentList().get(position);
     }
 
-    @Override
-    public int getItemViewType(int position) {
-        return position;
+    public void setItems(List<PodcastEpisode> podcastEpisodes) {
+        this.podcastEpisodesFull = podcastEpisodes;
+        differ.submitList(podcastEpisodesFull.stream().filter(podcastEpisode -> Objects.equals(podcastEpisode.getStatus(), "completed")).collect(Collectors.toList()));
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -98,22 +100,22 @@ public class PodcastEpisodeAdapter extends RecyclerView.Adapter<PodcastEpisodeAd
         }
 
         public void onClick() {
-            PodcastEpisode podcastEpisode = podcastEpisodes.get(getBindingAdapterPosition());
+            PodcastEpisode podcastEpisode = getItem(getBindingAdapterPosition());
 
             if (podcastEpisode.getStatus().equals("completed")) {
                 Bundle bundle = new Bundle();
-                bundle.putParcelable(Constants.PODCAST_OBJECT, podcastEpisodes.get(getBindingAdapterPosition()));
+                bundle.putParcelable(Constants.PODCAST_OBJECT, getItem(getBindingAdapterPosition()));
 
                 click.onPodcastEpisodeClick(bundle);
             }
         }
 
         private boolean openMore() {
-            PodcastEpisode podcastEpisode = podcastEpisodes.get(getBindingAdapterPosition());
+            PodcastEpisode podcastEpisode = getItem(getBindingAdapterPosition());
 
             if (podcastEpisode.getStatus().equals("completed")) {
                 Bundle bundle = new Bundle();
-                bundle.putParcelable(Constants.PODCAST_OBJECT, podcastEpisodes.get(getBindingAdapterPosition()));
+                bundle.putParcelable(Constants.PODCAST_OBJECT, getItem(getBindingAdapterPosition()));
 
                 click.onPodcastEpisodeLongClick(bundle);
 
@@ -124,11 +126,11 @@ public class PodcastEpisodeAdapter extends RecyclerView.Adapter<PodcastEpisodeAd
         }
 
         public void requestDownload() {
-            PodcastEpisode podcastEpisode = podcastEpisodes.get(getBindingAdapterPosition());
+            PodcastEpisode podcastEpisode = getItem(getBindingAdapterPosition());
 
             if (!podcastEpisode.getStatus().equals("completed")) {
                 Bundle bundle = new Bundle();
-                bundle.putParcelable(Constants.PODCAST_OBJECT, podcastEpisodes.get(getBindingAdapterPosition()));
+                bundle.putParcelable(Constants.PODCAST_OBJECT, getItem(getBindingAdapterPosition()));
 
                 click.onPodcastEpisodeAltClick(bundle);
             }
@@ -138,13 +140,11 @@ public class PodcastEpisodeAdapter extends RecyclerView.Adapter<PodcastEpisodeAd
     public void sort(String order) {
         switch (order) {
             case Constants.PODCAST_FILTER_BY_DOWNLOAD:
-                podcastEpisodes = podcastEpisodesFull.stream().filter(podcastEpisode -> Objects.equals(podcastEpisode.getStatus(), "completed")).collect(Collectors.toList());
+                differ.submitList(podcastEpisodesFull.stream().filter(podcastEpisode -> Objects.equals(podcastEpisode.getStatus(), "completed")).collect(Collectors.toList()));
                 break;
             case Constants.PODCAST_FILTER_BY_ALL:
-                podcastEpisodes = podcastEpisodesFull;
+                differ.submitList(podcastEpisodesFull);
                 break;
         }
-
-        notifyDataSetChanged();
     }
 }
\ No newline at end of file
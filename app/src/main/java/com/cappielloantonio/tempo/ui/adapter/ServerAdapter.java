@@ -5,23 +5,25 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemLoginServerBinding;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.model.Server;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ServerAdapter extends RecyclerView.Adapter<ServerAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Server> servers;
+    private final AsyncListDiffer<Server> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.SERVER);
 
     public ServerAdapter(ClickCallback click) {
         this.click = click;
-        this.servers = new ArrayList<>();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -33,7 +35,7 @@ public class ServerAdapter extends RecyclerView.Adapter<ServerAdapter.ViewHolder
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Server server = servers.get(position);
+        Server server = getItem(position);
 
         holder.item.serverNameTextView.setText(server.getServerName());
         holder.item.serverAddressTextView.setText(server.getAddress());
@@ -41,16 +43,20 @@ public class ServerAdapter extends RecyclerView.Adapter<ServerAdapter.ViewHolder
 
     @Override
     public int getItemCount() {
-        return servers.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<Server> servers) {
-        this.servers = servers;
-        notifyDataSetChanged();
+        differ.submitList(servers);
     }
 
     public Server getItem(int id) {
-        return servers.get(id);
+        return differ.getCurrentList().get(id);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getServerId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -69,14 +75,14 @@ public class ServerAdapter extends RecyclerView.Adapter<ServerAdapter.ViewHolder
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable("server_object", servers.get(getBindingAdapterPosition()));
+            bundle.putParcelable("server_object", getItem(getBindingAdapterPosition()));
 
             click.onServerClick(bundle);
         }
 
         public boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable("server_object", servers.get(getBindingAdapterPosition()));
+            bundle.putParcelable("server_object", getItem(getBindingAdapterPosition()));
 
             click.onServerLongClick(bundle);
 
@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.R;
@@ -13,20 +14,21 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Share;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 import com.cappielloantonio.tempo.util.UIUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class ShareHorizontalAdapter extends RecyclerView.Adapter<ShareHorizontalAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Share> shares;
+    private final AsyncListDiffer<Share> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.SHARE);
 
     public ShareHorizontalAdapter(ClickCallback click) {
         this.click = click;
-        this.shares = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -38,7 +40,7 @@ public class ShareHorizontalAdapter extends RecyclerView.Adapter<ShareHorizontal
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Share share = shares.get(position);
+        Share share = getItem(position);
 
         holder.item.shareTitleTextView.setText(share.getDescription());
         holder.item.shareSubtitleTextView.setText(holder.itemView.getContext().getString(R.string.share_subtitle_item, UIUtil.getReadableDate(share.getExpires())));
@@ -51,16 +53,20 @@ public class ShareHorizontalAdapter extends RecyclerView.Adapter<ShareHorizontal
 
     @Override
     public int getItemCount() {
-        return shares.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<Share> shares) {
-        this.shares = shares;
-        notifyDataSetChanged();
+        differ.submitList(shares);
     }
 
     public Share getItem(int id) {
-        return shares.get(id);
+        return differ.getCurrentList().get(id);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return DiffCallbackUtil.getItemId(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -82,14 +88,14 @@ public class ShareHorizontalAdapter extends RecyclerView.Adapter<ShareHorizontal
 
         private void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.SHARE_OBJECT, shares.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.SHARE_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onShareClick(bundle);
         }
 
         private boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.SHARE_OBJECT, shares.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.SHARE_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onShareLongClick(bundle);
 
@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHomeSimilarTrackBinding;
@@ -12,19 +13,18 @@ import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class SimilarTrackAdapter extends RecyclerView.Adapter<SimilarTrackAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Child> songs;
+    private final AsyncListDiffer<Child> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.CHILD);
 
     public SimilarTrackAdapter(ClickCallback click) {
         this.click = click;
-        this.songs = Collections.emptyList();
     }
 
     @NonNull
@@ -36,7 +36,7 @@ public class SimilarTrackAdapter extends RecyclerView.Adapter<SimilarTrackAdapte
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Child song = songs.get(position);
+        Child song = getItem(position);
 
         holder.item.titleTrackLabel.setText(song.getTitle());
 
@@ -48,16 +48,15 @@ public class SimilarTrackAdapter extends RecyclerView.Adapter<SimilarTrackAdapte
 
     @Override
     public int getItemCount() {
-        return songs.size();
+        return differ.getCurrentList().size();
     }
 
     public Child getItem(int position) {
-        return songs.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<Child> songs) {
-        this.songs = songs;
-        notifyDataSetChanged();
+        differ.submitList(songs);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -74,7 +73,7 @@ public class SimilarTrackAdapter extends RecyclerView.Adapter<SimilarTrackAdapte
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.TRACK_OBJECT, songs.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.TRACK_OBJECT, getItem(getBindingAdapterPosition()));
             bundle.putBoolean(Constants.MEDIA_MIX, true);
 
             click.onMediaClick(bundle);
@@ -82,7 +81,7 @@ public class SimilarTrackAdapter extends RecyclerView.Adapter<SimilarTrackAdapte
 
         public boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.TRACK_OBJECT, songs.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.TRACK_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onMediaLongClick(bundle);
 
@@ -10,6 +10,7 @@ import android.widget.Filterable;
 import androidx.annotation.NonNull;
 import androidx.appcompat.content.res.AppCompatResources;
 import androidx.media3.common.util.UnstableApi;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.R;
@@ -20,6 +21,7 @@ import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.subsonic.models.DiscTitle;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 import com.cappielloantonio.tempo.util.DownloadUtil;
 import com.cappielloantonio.tempo.util.MusicUtil;
 import com.cappielloantonio.tempo.util.Preferences;
@@ -33,13 +35,15 @@ import java.util.Optional;
 
 @UnstableApi
 public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAdapter.ViewHolder> implements Filterable {
+    private static final String PAYLOAD_DISC_DIVIDER = "payload_disc_divider";
+
     private final ClickCallback click;
     private final boolean showCoverArt;
     private final boolean showAlbum;
     private final AlbumID3 album;
 
     private List<Child> songsFull;
-    private List<Child> songs;
+    private final AsyncListDiffer<Child> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.CHILD);
     private String currentFilter;
 
     private final Filter filtering = new Filter() {
@@ -68,8 +72,7 @@ public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAd
 
         @Override
         protected void publishResults(CharSequence constraint, FilterResults results) {
-            songs = (List<Child>) results.values;
-            notifyDataSetChanged();
+            differ.submitList((List<Child>) results.values, SongHorizontalAdapter.this::refreshDiscDividers);
         }
     };
 
@@ -77,7 +80,6 @@ public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAd
         this.click = click;
         this.showCoverArt = showCoverArt;
         this.showAlbum = showAlbum;
-        this.songs = Collections.emptyList();
         this.songsFull = Collections.emptyList();
         this.currentFilter = "";
         this.album = album;
@@ -92,7 +94,7 @@ public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAd
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        Child song = songs.get(position);
+        Child song = getItem(position);
 
         holder.item.searchResultSongTitleTextView.setText(song.getTitle());
 
@@ -123,34 +125,52 @@ public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAd
         holder.item.trackNumberTextView.setVisibility(showCoverArt ? View.INVISIBLE : View.VISIBLE);
         holder.item.songCoverImageView.setVisibility(showCoverArt ? View.VISIBLE : View.INVISIBLE);
 
+        bindDiscDivider(holder, position);
+        bindRating(holder, song);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        if (payloads.contains(PAYLOAD_DISC_DIVIDER)) bindDiscDivider(holder, position);
+        if (payloads.contains(DiffCallbackUtil.PAYLOAD_STARRED)) bindRating(holder, getItem(position));
+    }
+
+    private void bindDiscDivider(ViewHolder holder, int position) {
         if (!showCoverArt &&
                 (position == 0 ||
-                        (position > 0 && songs.get(position - 1) != null &&
-                                songs.get(position - 1).getDiscNumber() != null &&
-                                songs.get(position).getDiscNumber() != null &&
-                                songs.get(position - 1).getDiscNumber() < songs.get(position).getDiscNumber()
+                        (position > 0 && getItem(position - 1) != null &&
+                                getItem(position - 1).getDiscNumber() != null &&
+                                getItem(position).getDiscNumber() != null &&
+                                getItem(position - 1).getDiscNumber() < getItem(position).getDiscNumber()
                         )
                 )
         ) {
             holder.item.differentDiskDividerSector.setVisibility(View.VISIBLE);
 
-            if (songs.get(position).getDiscNumber() != null && !Objects.requireNonNull(songs.get(position).getDiscNumber()).toString().isBlank()) {
-                holder.item.discTitleTextView.setText(holder.itemView.getContext().getString(R.string.disc_titleless, songs.get(position).getDiscNumber().toString()));
+            if (getItem(position).getDiscNumber() != null && !Objects.requireNonNull(getItem(position).getDiscNumber()).toString().isBlank()) {
+                holder.item.discTitleTextView.setText(holder.itemView.getContext().getString(R.string.disc_titleless, getItem(position).getDiscNumber().toString()));
             }
 
             if (album.getDiscTitles() != null) {
-                Optional<DiscTitle> discTitle = album.getDiscTitles().stream().filter(title -> Objects.equals(title.getDisc(), songs.get(position).getDiscNumber())).findFirst();
+                Optional<DiscTitle> discTitle = album.getDiscTitles().stream().filter(title -> Objects.equals(title.getDisc(), getItem(position).getDiscNumber())).findFirst();
 
                 if (discTitle.isPresent() && discTitle.get().getDisc() != null && discTitle.get().getTitle() != null && !discTitle.get().getTitle().isEmpty()) {
                     holder.item.discTitleTextView.setText(holder.itemView.getContext().getString(R.string.disc_titlefull, discTitle.get().getDisc().toString() , discTitle.get().getTitle()));
                 }
             }
+        } else {
+            holder.item.differentDiskDividerSector.setVisibility(View.GONE);
         }
+    }
 
+    private void bindRating(ViewHolder holder, Child song) {
         if (Preferences.showItemRating()) {
-            if (song.getStarred() == null && song.getUserRating() == null) {
-                holder.item.ratingIndicatorImageView.setVisibility(View.GONE);
-            }
+            holder.item.ratingIndicatorImageView.setVisibility(song.getStarred() == null && song.getUserRating() == null ? View.GONE : View.VISIBLE);
 
             holder.item.preferredIcon.setVisibility(song.getStarred() != null ? View.VISIBLE : View.GONE);
             holder.item.ratingBarLayout.setVisibility(song.getUserRating() != null ? View.VISIBLE : View.GONE);
@@ -169,23 +189,12 @@ public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAd
 
     @Override
     public int getItemCount() {
-        return songs.size();
+        return differ.getCurrentList().size();
     }
 
     public void setItems(List<Child> songs) {
         this.songsFull = songs != null ? songs : Collections.emptyList();
         filtering.filter(currentFilter);
-        notifyDataSetChanged();
-    }
-
-    @Override
-    public int getItemViewType(int position) {
-        return position;
-    }
-
-    @Override
-    public long getItemId(int position) {
-        return position;
     }
 
     @Override
@@ -194,7 +203,7 @@ public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAd
     }
 
     public Child getItem(int id) {
-        return songs.get(id);
+        return differ.getCurrentList().get(id);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -216,15 +225,15 @@ public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAd
 
         public void onClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(MusicUtil.limitPlayableMedia(songs, getBindingAdapterPosition())));
-            bundle.putInt(Constants.ITEM_POSITION, MusicUtil.getPlayableMediaPosition(songs, getBindingAdapterPosition()));
+            bundle.putParcelableArrayList(Constants.TRACKS_OBJECT, new ArrayList<>(MusicUtil.limitPlayableMedia(differ.getCurrentList(), getBindingAdapterPosition())));
+            bundle.putInt(Constants.ITEM_POSITION, MusicUtil.getPlayableMediaPosition(differ.getCurrentList(), getBindingAdapterPosition()));
 
             click.onMediaClick(bundle);
         }
 
         private boolean onLongClick() {
             Bundle bundle = new Bundle();
-            bundle.putParcelable(Constants.TRACK_OBJECT, songs.get(getBindingAdapterPosition()));
+            bundle.putParcelable(Constants.TRACK_OBJECT, getItem(getBindingAdapterPosition()));
 
             click.onMediaLongClick(bundle);
 
@@ -233,18 +242,27 @@ public class SongHorizontalAdapter extends RecyclerView.Adapter<SongHorizontalAd
     }
 
     public void sort(String order) {
+        List<Child> sorted = new ArrayList<>(differ.getCurrentList());
+
         switch (order) {
             case Constants.MEDIA_BY_TITLE:
-                songs.sort(Comparator.comparing(Child::getTitle));
+                sorted.sort(Comparator.comparing(Child::getTitle));
                 break;
             case Constants.MEDIA_MOST_RECENTLY_STARRED:
-                songs.sort(Comparator.comparing(Child::getStarred, Comparator.nullsLast(Comparator.reverseOrder())));
+                sorted.sort(Comparator.comparing(Child::getStarred, Comparator.nullsLast(Comparator.reverseOrder())));
                 break;
             case Constants.MEDIA_LEAST_RECENTLY_STARRED:
-                songs.sort(Comparator.comparing(Child::getStarred, Comparator.nullsLast(Comparator.naturalOrder())));
+                sorted.sort(Comparator.comparing(Child::getStarred, Comparator.nullsLast(Comparator.naturalOrder())));
                 break;
         }
 
-        notifyDataSetChanged();
+        differ.submitList(sorted, this::refreshDiscDividers);
+    }
+
+    /*
+     * The divider of a row depends on the row before it, which the diff does not know about.
+     */
+    private void refreshDiscDividers() {
+        if (!showCoverArt) notifyItemRangeChanged(0, getItemCount(), PAYLOAD_DISC_DIVIDER);
     }
 }
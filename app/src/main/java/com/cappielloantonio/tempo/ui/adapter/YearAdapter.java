@@ -5,23 +5,25 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.ItemHomeYearBinding;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DiffCallbackUtil;
 
-import java.util.Collections;
 import java.util.List;
 
 public class YearAdapter extends RecyclerView.Adapter<YearAdapter.ViewHolder> {
     private final ClickCallback click;
 
-    private List<Integer> years;
+    private final AsyncListDiffer<Integer> differ = new AsyncListDiffer<>(this, DiffCallbackUtil.YEAR);
 
     public YearAdapter(ClickCallback click) {
         this.click = click;
-        this.years = Collections.emptyList();
+
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -33,23 +35,27 @@ public class YearAdapter extends RecyclerView.Adapter<YearAdapter.ViewHolder> {
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        int year = years.get(position);
+        int year = getItem(position);
 
         holder.item.yearLabel.setText(Integer.toString(year));
     }
 
     @Override
     public int getItemCount() {
-        return years.size();
+        return differ.getCurrentList().size();
     }
 
     public Integer getItem(int position) {
-        return years.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     public void setItems(List<Integer> years) {
-        this.years = years;
-        notifyDataSetChanged();
+        differ.submitList(years);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -66,7 +72,7 @@ public class YearAdapter extends RecyclerView.Adapter<YearAdapter.ViewHolder> {
         public void onClick() {
             Bundle bundle = new Bundle();
             bundle.putString(Constants.MEDIA_BY_YEAR, Constants.MEDIA_BY_YEAR);
-            bundle.putInt("year_object", years.get(getBindingAdapterPosition()));
+            bundle.putInt("year_object", getItem(getBindingAdapterPosition()));
 
             click.onYearClick(bundle);
         }
@@ -26,6 +26,7 @@ import com.cappielloantonio.tempo.util.Preferences;
 import com.cappielloantonio.tempo.viewmodel.PlaylistEditorViewModel;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Objects;
 
@@ -159,7 +160,7 @@ public class PlaylistEditorDialog extends DialogFragment {
                  * Qui vado a riscivere tutta la table Queue, quando teoricamente potrei solo swappare l'ordine degli elementi interessati
                  * Nel caso la coda contenesse parecchi brani, potrebbero verificarsi rallentamenti pesanti
                  */
-                playlistEditorViewModel.orderPlaylistSongLiveListAfterSwap(playlistDialogSongHorizontalAdapter.getItems());
+                playlistEditorViewModel.orderPlaylistSongLiveListAfterSwap(new ArrayList<>(playlistDialogSongHorizontalAdapter.getItems()));
 
                 originalPosition = -1;
                 fromPosition = -1;
@@ -169,7 +170,6 @@ public class PlaylistEditorDialog extends DialogFragment {
             @Override
             public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
                 playlistEditorViewModel.removeFromPlaylistSongLiveList(viewHolder.getBindingAdapterPosition());
-                Objects.requireNonNull(bind.playlistSongRecyclerView.getAdapter()).notifyItemRemoved(viewHolder.getBindingAdapterPosition());
             }
         }
         ).attachToRecyclerView(bind.playlistSongRecyclerView);
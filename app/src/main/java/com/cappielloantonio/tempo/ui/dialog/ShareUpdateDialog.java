@@ -128,6 +128,6 @@ public class ShareUpdateDialog extends DialogFragment {
 
     private void updateShare() {
         shareBottomSheetViewModel.updateShare(descriptionTextView, expiration);
-        homeViewModel.refreshShares(requireActivity());
+        homeViewModel.refreshShares();
     }
 }
@@ -14,12 +14,15 @@ import androidx.media3.common.util.UnstableApi;
 import com.cappielloantonio.tempo.R;
 import com.cappielloantonio.tempo.databinding.DialogStarredSyncBinding;
 import com.cappielloantonio.tempo.model.Download;
+import com.cappielloantonio.tempo.service.DownloaderManager;
+import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.util.DownloadUtil;
 import com.cappielloantonio.tempo.util.MappingUtil;
 import com.cappielloantonio.tempo.util.Preferences;
 import com.cappielloantonio.tempo.viewmodel.StarredSyncViewModel;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @OptIn(markerClass = UnstableApi.class)
@@ -56,9 +59,15 @@ public class StarredSyncDialog extends DialogFragment {
             positiveButton.setOnClickListener(v -> {
                 starredSyncViewModel.getStarredTracks(requireActivity()).observe(requireActivity(), songs -> {
                     if (songs != null) {
-                        DownloadUtil.getDownloadTracker(context).download(
-                                MappingUtil.mapDownloads(songs),
-                                songs.stream().map(Download::new).collect(Collectors.toList())
+                        DownloaderManager manager = DownloadUtil.getDownloadTracker(context);
+
+                        List<Child> toSync = songs.stream()
+                                .filter(song -> !manager.isDownloaded(song.getId()))
+                                .collect(Collectors.toList());
+
+                        manager.download(
+                                MappingUtil.mapDownloads(toSync),
+                                toSync.stream().map(this::buildAutoSyncedDownload).collect(Collectors.toList())
                         );
                     }
 
@@ -79,4 +88,10 @@ public class StarredSyncDialog extends DialogFragment {
             });
         }
     }
+
+    private Download buildAutoSyncedDownload(Child song) {
+        Download download = new Download(song);
+        download.setAutoSynced(true);
+        return download;
+    }
 }
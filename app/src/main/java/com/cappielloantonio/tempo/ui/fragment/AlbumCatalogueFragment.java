@@ -115,7 +115,12 @@ public class AlbumCatalogueFragment extends Fragment implements ClickCallback {
         albumAdapter = new AlbumCatalogueAdapter(this, true);
         albumAdapter.setStateRestorationPolicy(RecyclerView.Adapter.StateRestorationPolicy.PREVENT_WHEN_EMPTY);
         bind.albumCatalogueRecyclerView.setAdapter(albumAdapter);
-        albumCatalogueViewModel.getAlbumList().observe(getViewLifecycleOwner(), albums -> albumAdapter.setItems(albums));
+        albumCatalogueViewModel.getAlbumPages().observe(getViewLifecycleOwner(), page -> {
+            // A page that does not follow the albums shown, after a new view or a reload, brings them all
+            if (!albumAdapter.appendItems(page.getOffset(), page.getItems())) {
+                albumAdapter.setItems(albumCatalogueViewModel.getAlbums());
+            }
+        });
 
         bind.albumCatalogueRecyclerView.setOnTouchListener((v, event) -> {
             hideKeyboard(v);
@@ -154,7 +159,7 @@ public class AlbumCatalogueFragment extends Fragment implements ClickCallback {
 
             @Override
             public boolean onQueryTextChange(String newText) {
-                albumAdapter.getFilter().filter(newText);
+                albumAdapter.filter(newText);
                 return false;
             }
         });
@@ -100,14 +100,34 @@ public class ArtistCatalogueFragment extends Fragment implements ClickCallback {
 
     @SuppressLint("ClickableViewAccessibility")
     private void initArtistCatalogueView() {
-        bind.artistCatalogueRecyclerView.setLayoutManager(new GridLayoutManager(requireContext(), 2));
-        bind.artistCatalogueRecyclerView.addItemDecoration(new GridItemDecoration(2, 20, false));
-        bind.artistCatalogueRecyclerView.setHasFixedSize(true);
-
         artistAdapter = new ArtistCatalogueAdapter(this);
         artistAdapter.setStateRestorationPolicy(RecyclerView.Adapter.StateRestorationPolicy.PREVENT_WHEN_EMPTY);
+
+        GridLayoutManager layoutManager = new GridLayoutManager(requireContext(), 2);
+        layoutManager.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
+            @Override
+            public int getSpanSize(int position) {
+                return artistAdapter.isSection(position) ? 2 : 1;
+            }
+        });
+        layoutManager.getSpanSizeLookup().setSpanIndexCacheEnabled(true);
+        layoutManager.getSpanSizeLookup().setSpanGroupIndexCacheEnabled(true);
+
+        bind.artistCatalogueRecyclerView.setLayoutManager(layoutManager);
+        bind.artistCatalogueRecyclerView.addItemDecoration(new GridItemDecoration(2, 20, false));
+        bind.artistCatalogueRecyclerView.setHasFixedSize(true);
         bind.artistCatalogueRecyclerView.setAdapter(artistAdapter);
-        artistCatalogueViewModel.getArtistList().observe(getViewLifecycleOwner(), artistList -> artistAdapter.setItems(artistList));
+        bind.artistCatalogueRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                updateStickySection(layoutManager);
+            }
+        });
+
+        bind.fastScrollbar.setRecyclerView(bind.artistCatalogueRecyclerView);
+        bind.fastScrollbar.setViewsToUse(R.layout.layout_fast_scrollbar, R.id.fastscroller_bubble, R.id.fastscroller_handle);
+
+        artistCatalogueViewModel.getArtistIndex().observe(getViewLifecycleOwner(), indices -> artistAdapter.setIndex(indices));
 
         bind.artistCatalogueRecyclerView.setOnTouchListener((v, event) -> {
             hideKeyboard(v);
@@ -117,6 +137,37 @@ public class ArtistCatalogueFragment extends Fragment implements ClickCallback {
         bind.artistListSortImageView.setOnClickListener(view -> showPopupMenu(view, R.menu.sort_artist_popup_menu));
     }
 
+    /*
+     * The header of the section at the top stays pinned, and is pushed up by the header of the next one.
+     */
+    private void updateStickySection(GridLayoutManager layoutManager) {
+        int firstPosition = layoutManager.findFirstVisibleItemPosition();
+
+        View firstView = layoutManager.findViewByPosition(firstPosition);
+
+        // A header still fully in place needs no copy over it
+        if (firstPosition == RecyclerView.NO_POSITION || artistAdapter.getSections().length == 0 || (artistAdapter.isSection(firstPosition) && firstView != null && firstView.getTop() >= 0)) {
+            bind.artistCatalogueStickySectionTextView.setVisibility(View.GONE);
+            return;
+        }
+
+        int section = artistAdapter.getSectionForPosition(firstPosition);
+        float translation = 0;
+
+        if (section + 1 < artistAdapter.getSections().length) {
+            View nextHeader = layoutManager.findViewByPosition(artistAdapter.getPositionForSection(section + 1));
+            int stickyHeight = bind.artistCatalogueStickySectionTextView.getHeight();
+
+            if (nextHeader != null && nextHeader.getTop() < stickyHeight) {
+                translation = nextHeader.getTop() - stickyHeight;
+            }
+        }
+
+        bind.artistCatalogueStickySectionTextView.setText(String.valueOf(artistAdapter.getSections()[section]));
+        bind.artistCatalogueStickySectionTextView.setTranslationY(translation);
+        bind.artistCatalogueStickySectionTextView.setVisibility(View.VISIBLE);
+    }
+
     @Override
     public void onCreateOptionsMenu(@NonNull Menu menu, @NonNull MenuInflater inflater) {
         inflater.inflate(R.menu.toolbar_menu, menu);
@@ -134,7 +185,7 @@ public class ArtistCatalogueFragment extends Fragment implements ClickCallback {
 
             @Override
             public boolean onQueryTextChange(String newText) {
-                artistAdapter.getFilter().filter(newText);
+                artistAdapter.filter(newText);
                 return false;
             }
         });
@@ -1,6 +1,5 @@
 package com.cappielloantonio.tempo.ui.fragment;
 
-import android.content.ComponentName;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -14,7 +13,6 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
@@ -22,12 +20,13 @@ import com.cappielloantonio.tempo.R;
 import com.cappielloantonio.tempo.databinding.FragmentDownloadBinding;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
 import com.cappielloantonio.tempo.model.DownloadStack;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.service.MediaManager;
-import com.cappielloantonio.tempo.service.MediaService;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.ui.activity.MainActivity;
 import com.cappielloantonio.tempo.ui.adapter.DownloadHorizontalAdapter;
 import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.DownloadIndex;
 import com.cappielloantonio.tempo.util.Preferences;
 import com.cappielloantonio.tempo.viewmodel.DownloadViewModel;
 import com.google.android.material.appbar.MaterialToolbar;
@@ -46,6 +45,7 @@ public class DownloadFragment extends Fragment implements ClickCallback {
     private DownloadViewModel downloadViewModel;
 
     private DownloadHorizontalAdapter downloadHorizontalAdapter;
+    private DownloadIndex downloadIndex;
 
     private ListenableFuture<MediaBrowser> mediaBrowserListenableFuture;
 
@@ -100,14 +100,17 @@ public class DownloadFragment extends Fragment implements ClickCallback {
     }
 
     private void initDownloadedView() {
+        bind.downloadedRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         bind.downloadedRecyclerView.setHasFixedSize(true);
 
         downloadHorizontalAdapter = new DownloadHorizontalAdapter(this);
         bind.downloadedRecyclerView.setAdapter(downloadHorizontalAdapter);
 
-        downloadViewModel.getDownloadedTracks(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), songs -> {
-            if (songs != null) {
-                if (songs.isEmpty()) {
+        downloadViewModel.getDownloadedTracks(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), index -> {
+            if (index != null) {
+                downloadIndex = index;
+
+                if (index.isEmpty()) {
                     if (bind != null) {
                         bind.emptyDownloadLayout.setVisibility(View.VISIBLE);
                         bind.fragmentDownloadNestedScrollView.setVisibility(View.GONE);
@@ -121,7 +124,7 @@ public class DownloadFragment extends Fragment implements ClickCallback {
                         bind.downloadDownloadedSector.setVisibility(View.VISIBLE);
                         bind.downloadedGroupByImageView.setVisibility(View.VISIBLE);
 
-                        finishDownloadView(songs);
+                        finishDownloadView(index, downloadViewModel.getViewStack().getValue());
                     }
                 }
 
@@ -129,39 +132,41 @@ public class DownloadFragment extends Fragment implements ClickCallback {
             }
         });
 
-        bind.downloadedGroupByImageView.setOnClickListener(view -> showPopupMenu(view, R.menu.download_popup_menu));
-        bind.downloadedGoBackImageView.setOnClickListener(view -> downloadViewModel.popViewStack());
-    }
-
-    private void finishDownloadView(List<Child> songs) {
         downloadViewModel.getViewStack().observe(getViewLifecycleOwner(), stack -> {
-            bind.downloadedRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
-
-            DownloadStack lastLevel = stack.get(stack.size() - 1);
-
-            switch (lastLevel.getId()) {
-                case Constants.DOWNLOAD_TYPE_TRACK:
-                    downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_TRACK, lastLevel.getId(), lastLevel.getView(), songs);
-                    break;
-                case Constants.DOWNLOAD_TYPE_ALBUM:
-                    downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_TRACK, lastLevel.getId(), lastLevel.getView(), songs);
-                    break;
-                case Constants.DOWNLOAD_TYPE_ARTIST:
-                    downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_ALBUM, lastLevel.getId(), lastLevel.getView(), songs);
-                    break;
-                case Constants.DOWNLOAD_TYPE_GENRE:
-                    downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_TRACK, lastLevel.getId(), lastLevel.getView(), songs);
-                    break;
-                case Constants.DOWNLOAD_TYPE_YEAR:
-                    downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_TRACK, lastLevel.getId(), lastLevel.getView(), songs);
-                    break;
-            }
+            if (downloadIndex != null && !downloadIndex.isEmpty()) finishDownloadView(downloadIndex, stack);
 
             bind.downloadedGoBackImageView.setVisibility(stack.size() > 1 ? View.VISIBLE : View.GONE);
 
             setupBackPressing(stack.size());
             setupShuffleButton();
         });
+
+        bind.downloadedGroupByImageView.setOnClickListener(view -> showPopupMenu(view, R.menu.download_popup_menu));
+        bind.downloadedGoBackImageView.setOnClickListener(view -> downloadViewModel.popViewStack());
+    }
+
+    private void finishDownloadView(DownloadIndex index, List<DownloadStack> stack) {
+        if (stack == null || stack.isEmpty()) return;
+
+        DownloadStack lastLevel = stack.get(stack.size() - 1);
+
+        switch (lastLevel.getId()) {
+            case Constants.DOWNLOAD_TYPE_TRACK:
+                downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_TRACK, lastLevel.getId(), lastLevel.getView(), index);
+                break;
+            case Constants.DOWNLOAD_TYPE_ALBUM:
+                downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_TRACK, lastLevel.getId(), lastLevel.getView(), index);
+                break;
+            case Constants.DOWNLOAD_TYPE_ARTIST:
+                downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_ALBUM, lastLevel.getId(), lastLevel.getView(), index);
+                break;
+            case Constants.DOWNLOAD_TYPE_GENRE:
+                downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_TRACK, lastLevel.getId(), lastLevel.getView(), index);
+                break;
+            case Constants.DOWNLOAD_TYPE_YEAR:
+                downloadHorizontalAdapter.setItems(Constants.DOWNLOAD_TYPE_TRACK, lastLevel.getId(), lastLevel.getView(), index);
+                break;
+        }
     }
 
     private void setupShuffleButton() {
@@ -225,11 +230,11 @@ public class DownloadFragment extends Fragment implements ClickCallback {
     }
 
     private void initializeMediaBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(requireContext(), new SessionToken(requireContext(), new ComponentName(requireContext(), MediaService.class))).buildAsync();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
 
     private void releaseMediaBrowser() {
-        MediaBrowser.releaseFuture(mediaBrowserListenableFuture);
+        MediaBrowserManager.release(mediaBrowserListenableFuture);
     }
 
     @Override
@@ -132,7 +132,7 @@ public class GenreCatalogueFragment extends Fragment implements ClickCallback {
 
             @Override
             public boolean onQueryTextChange(String newText) {
-                genreCatalogueAdapter.getFilter().filter(newText);
+                genreCatalogueAdapter.filter(newText);
                 return false;
             }
         });
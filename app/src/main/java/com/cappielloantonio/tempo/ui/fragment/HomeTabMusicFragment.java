@@ -1,6 +1,5 @@
 package com.cappielloantonio.tempo.ui.fragment;
 
-import android.content.ComponentName;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
@@ -19,7 +18,6 @@ import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -36,8 +34,8 @@ import com.cappielloantonio.tempo.interfaces.PlaylistCallback;
 import com.cappielloantonio.tempo.model.Download;
 import com.cappielloantonio.tempo.model.HomeSector;
 import com.cappielloantonio.tempo.service.DownloaderManager;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.service.MediaManager;
-import com.cappielloantonio.tempo.service.MediaService;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.subsonic.models.Share;
 import com.cappielloantonio.tempo.ui.activity.MainActivity;
@@ -159,7 +157,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
     private void init() {
         bind.discoveryTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshDiscoverySongSample(getViewLifecycleOwner());
+            homeViewModel.refreshDiscoverySongSample();
             return true;
         });
 
@@ -176,17 +174,17 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
         });
 
         bind.similarTracksTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshSimilarSongSample(getViewLifecycleOwner());
+            homeViewModel.refreshSimilarSongSample();
             return true;
         });
 
         bind.radioArtistTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshRadioArtistSample(getViewLifecycleOwner());
+            homeViewModel.refreshRadioArtistSample();
             return true;
         });
 
         bind.bestOfArtistTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshBestOfArtist(getViewLifecycleOwner());
+            homeViewModel.refreshBestOfArtist();
             return true;
         });
 
@@ -227,37 +225,37 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
         });
 
         bind.starredTracksTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshStarredTracks(getViewLifecycleOwner());
+            homeViewModel.refreshStarredTracks();
             return true;
         });
 
         bind.starredAlbumsTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshStarredAlbums(getViewLifecycleOwner());
+            homeViewModel.refreshStarredAlbums();
             return true;
         });
 
         bind.starredArtistsTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshStarredArtists(getViewLifecycleOwner());
+            homeViewModel.refreshStarredArtists();
             return true;
         });
 
         bind.recentlyPlayedAlbumsTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshRecentlyPlayedAlbumList(getViewLifecycleOwner());
+            homeViewModel.refreshRecentlyPlayedAlbumList();
             return true;
         });
 
         bind.mostPlayedAlbumsTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshMostPlayedAlbums(getViewLifecycleOwner());
+            homeViewModel.refreshMostPlayedAlbums();
             return true;
         });
 
         bind.recentlyAddedAlbumsTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshMostRecentlyAddedAlbums(getViewLifecycleOwner());
+            homeViewModel.refreshMostRecentlyAddedAlbums();
             return true;
         });
 
         bind.sharesTextViewRefreshable.setOnLongClickListener(v -> {
-            homeViewModel.refreshShares(getViewLifecycleOwner());
+            homeViewModel.refreshShares();
             return true;
         });
 
@@ -303,7 +301,9 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
                             for (Child song : songs) {
                                 if (!manager.isDownloaded(song.getId())) {
-                                    manager.download(MappingUtil.mapDownload(song), new Download(song));
+                                    Download download = new Download(song);
+                                    download.setAutoSynced(true);
+                                    manager.download(MappingUtil.mapDownload(song), download);
                                 }
                             }
                         }
@@ -324,7 +324,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
         discoverSongAdapter = new DiscoverSongAdapter(this);
         bind.discoverSongViewPager.setAdapter(discoverSongAdapter);
         bind.discoverSongViewPager.setOffscreenPageLimit(1);
-        homeViewModel.getDiscoverSongSample(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), songs -> {
+        homeViewModel.getDiscoverSongSample().observe(getViewLifecycleOwner(), songs -> {
             MusicUtil.ratingFilter(songs);
 
             if (songs == null) {
@@ -348,7 +348,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         similarMusicAdapter = new SimilarTrackAdapter(this);
         bind.similarTracksRecyclerView.setAdapter(similarMusicAdapter);
-        homeViewModel.getStarredTracksSample(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), songs -> {
+        homeViewModel.getStarredTracksSample().observe(getViewLifecycleOwner(), songs -> {
             MusicUtil.ratingFilter(songs);
 
             if (songs == null) {
@@ -373,7 +373,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         bestOfArtistAdapter = new ArtistAdapter(this, false, true);
         bind.bestOfArtistRecyclerView.setAdapter(bestOfArtistAdapter);
-        homeViewModel.getBestOfArtists(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), artists -> {
+        homeViewModel.getBestOfArtists().observe(getViewLifecycleOwner(), artists -> {
             if (artists == null) {
                 if (bind != null) bind.homeBestOfArtistSector.setVisibility(View.GONE);
             } else {
@@ -396,7 +396,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         radioArtistAdapter = new ArtistAdapter(this, true, false);
         bind.radioArtistRecyclerView.setAdapter(radioArtistAdapter);
-        homeViewModel.getStarredArtistsSample(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), artists -> {
+        homeViewModel.getStarredArtistsSample().observe(getViewLifecycleOwner(), artists -> {
             if (artists == null) {
                 if (bind != null) bind.homeRadioArtistSector.setVisibility(View.GONE);
             } else {
@@ -458,7 +458,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         starredSongAdapter = new SongHorizontalAdapter(this, true, false, null);
         bind.starredTracksRecyclerView.setAdapter(starredSongAdapter);
-        homeViewModel.getStarredTracks(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), songs -> {
+        homeViewModel.getStarredTracks().observe(getViewLifecycleOwner(), songs -> {
             if (songs == null) {
                 if (bind != null) bind.starredTracksSector.setVisibility(View.GONE);
             } else {
@@ -491,7 +491,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         starredAlbumAdapter = new AlbumHorizontalAdapter(this, false);
         bind.starredAlbumsRecyclerView.setAdapter(starredAlbumAdapter);
-        homeViewModel.getStarredAlbums(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), albums -> {
+        homeViewModel.getStarredAlbums().observe(getViewLifecycleOwner(), albums -> {
             if (albums == null) {
                 if (bind != null) bind.starredAlbumsSector.setVisibility(View.GONE);
             } else {
@@ -524,7 +524,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         starredArtistAdapter = new ArtistHorizontalAdapter(this);
         bind.starredArtistsRecyclerView.setAdapter(starredArtistAdapter);
-        homeViewModel.getStarredArtists(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), artists -> {
+        homeViewModel.getStarredArtists().observe(getViewLifecycleOwner(), artists -> {
             if (artists == null) {
                 if (bind != null) bind.starredArtistsSector.setVisibility(View.GONE);
             } else {
@@ -559,7 +559,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         newReleasesAlbumAdapter = new AlbumHorizontalAdapter(this, false);
         bind.newReleasesRecyclerView.setAdapter(newReleasesAlbumAdapter);
-        homeViewModel.getRecentlyReleasedAlbums(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), albums -> {
+        homeViewModel.getRecentlyReleasedAlbums().observe(getViewLifecycleOwner(), albums -> {
             if (albums == null) {
                 if (bind != null) bind.homeNewReleasesSector.setVisibility(View.GONE);
             } else {
@@ -593,7 +593,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         yearAdapter = new YearAdapter(this);
         bind.yearsRecyclerView.setAdapter(yearAdapter);
-        homeViewModel.getYearList(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), years -> {
+        homeViewModel.getYearList().observe(getViewLifecycleOwner(), years -> {
             if (years == null) {
                 if (bind != null) bind.homeFlashbackSector.setVisibility(View.GONE);
             } else {
@@ -616,7 +616,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         mostPlayedAlbumAdapter = new AlbumAdapter(this);
         bind.mostPlayedAlbumsRecyclerView.setAdapter(mostPlayedAlbumAdapter);
-        homeViewModel.getMostPlayedAlbums(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), albums -> {
+        homeViewModel.getMostPlayedAlbums().observe(getViewLifecycleOwner(), albums -> {
             if (albums == null) {
                 if (bind != null) bind.homeMostPlayedAlbumsSector.setVisibility(View.GONE);
             } else {
@@ -639,7 +639,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         recentlyPlayedAlbumAdapter = new AlbumAdapter(this);
         bind.recentlyPlayedAlbumsRecyclerView.setAdapter(recentlyPlayedAlbumAdapter);
-        homeViewModel.getRecentlyPlayedAlbumList(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), albums -> {
+        homeViewModel.getRecentlyPlayedAlbumList().observe(getViewLifecycleOwner(), albums -> {
             if (albums == null) {
                 if (bind != null) bind.homeRecentlyPlayedAlbumsSector.setVisibility(View.GONE);
             } else {
@@ -662,7 +662,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
 
         recentlyAddedAlbumAdapter = new AlbumAdapter(this);
         bind.recentlyAddedAlbumsRecyclerView.setAdapter(recentlyAddedAlbumAdapter);
-        homeViewModel.getMostRecentlyAddedAlbums(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), albums -> {
+        homeViewModel.getMostRecentlyAddedAlbums().observe(getViewLifecycleOwner(), albums -> {
             if (albums == null) {
                 if (bind != null) bind.homeRecentlyAddedAlbumsSector.setVisibility(View.GONE);
             } else {
@@ -705,7 +705,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
         shareHorizontalAdapter = new ShareHorizontalAdapter(this);
         bind.sharesRecyclerView.setAdapter(shareHorizontalAdapter);
         if (Preferences.isSharingEnabled()) {
-            homeViewModel.getShares(getViewLifecycleOwner()).observe(getViewLifecycleOwner(), shares -> {
+            homeViewModel.getShares().observe(getViewLifecycleOwner(), shares -> {
                 if (shares == null) {
                     if (bind != null) bind.sharesSector.setVisibility(View.GONE);
                 } else {
@@ -749,7 +749,7 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
         final Handler handler = new Handler();
         final Runnable runnable = () -> {
             if (getView() != null && bind != null && Preferences.isSharingEnabled()) {
-                homeViewModel.refreshShares(getViewLifecycleOwner());
+                homeViewModel.refreshShares();
             }
         };
         handler.postDelayed(runnable, 100);
@@ -867,11 +867,11 @@ public class HomeTabMusicFragment extends Fragment implements ClickCallback {
     }
 
     private void initializeMediaBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(requireContext(), new SessionToken(requireContext(), new ComponentName(requireContext(), MediaService.class))).buildAsync();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
 
     private void releaseMediaBrowser() {
-        MediaBrowser.releaseFuture(mediaBrowserListenableFuture);
+        MediaBrowserManager.release(mediaBrowserListenableFuture);
     }
 
     /**
@@ -1,6 +1,5 @@
 package com.cappielloantonio.tempo.ui.fragment;
 
-import android.content.ComponentName;
 import android.os.Bundle;
 import android.os.Handler;
 import android.view.LayoutInflater;
@@ -11,34 +10,27 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.OptIn;
 import androidx.fragment.app.Fragment;
-import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.media3.common.MediaMetadata;
 import androidx.media3.common.Player;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.MediaController;
-import androidx.media3.session.SessionToken;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.cappielloantonio.tempo.R;
 import com.cappielloantonio.tempo.databinding.FragmentPlayerBottomSheetBinding;
 import com.cappielloantonio.tempo.glide.CustomGlideRequest;
-import com.cappielloantonio.tempo.service.MediaManager;
-import com.cappielloantonio.tempo.service.MediaService;
-import com.cappielloantonio.tempo.subsonic.models.PlayQueue;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.ui.activity.MainActivity;
 import com.cappielloantonio.tempo.ui.fragment.pager.PlayerControllerVerticalPager;
 import com.cappielloantonio.tempo.util.Constants;
 import com.cappielloantonio.tempo.util.MusicUtil;
-import com.cappielloantonio.tempo.util.Preferences;
 import com.cappielloantonio.tempo.viewmodel.PlayerBottomSheetViewModel;
 import com.google.android.material.elevation.SurfaceColors;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 
 import java.util.Objects;
-import java.util.stream.IntStream;
 
 @OptIn(markerClass = UnstableApi.class)
 public class PlayerBottomSheetFragment extends Fragment {
@@ -46,10 +38,35 @@ public class PlayerBottomSheetFragment extends Fragment {
 
     private PlayerBottomSheetViewModel playerBottomSheetViewModel;
     private ListenableFuture<MediaBrowser> mediaBrowserListenableFuture;
+    private MediaBrowser mediaBrowser;
 
     private Handler progressBarHandler;
     private Runnable progressBarRunnable;
 
+    private final Player.Listener playerListener = new Player.Listener() {
+        @Override
+        public void onMediaMetadataChanged(@NonNull MediaMetadata mediaMetadata) {
+            setMediaControllerUI(mediaBrowser);
+            setMetadata(mediaMetadata);
+            setContentDuration(mediaBrowser.getContentDuration());
+        }
+
+        @Override
+        public void onIsPlayingChanged(boolean isPlaying) {
+            setPlayingState(isPlaying);
+        }
+
+        @Override
+        public void onSkipSilenceEnabledChanged(boolean skipSilenceEnabled) {
+            Player.Listener.super.onSkipSilenceEnabledChanged(skipSilenceEnabled);
+        }
+
+        @Override
+        public void onEvents(Player player, Player.Events events) {
+            setHeaderNextButtonState(mediaBrowser.hasNextMediaItem());
+        }
+    };
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
@@ -61,7 +78,6 @@ public class PlayerBottomSheetFragment extends Fragment {
         customizeBottomSheetBackground();
         customizeBottomSheetAction();
         initViewPager();
-        setHeaderBookmarksButton();
 
         return view;
     }
@@ -100,11 +116,11 @@ public class PlayerBottomSheetFragment extends Fragment {
     }
 
     private void initializeMediaBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(requireContext(), new SessionToken(requireContext(), new ComponentName(requireContext(), MediaService.class))).buildAsync();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
 
     private void releaseMediaBrowser() {
-        MediaController.releaseFuture(mediaBrowserListenableFuture);
+        MediaBrowserManager.release(mediaBrowserListenableFuture, playerListener);
     }
 
     private void bindMediaController() {
@@ -120,6 +136,8 @@ public class PlayerBottomSheetFragment extends Fragment {
     }
 
     private void setMediaControllerListener(MediaBrowser mediaBrowser) {
+        this.mediaBrowser = mediaBrowser;
+
         defineProgressBarHandler(mediaBrowser);
         setMediaControllerUI(mediaBrowser);
         setMetadata(mediaBrowser.getMediaMetadata());
@@ -128,29 +146,7 @@ public class PlayerBottomSheetFragment extends Fragment {
         setHeaderMediaController();
         setHeaderNextButtonState(mediaBrowser.hasNextMediaItem());
 
-        mediaBrowser.addListener(new Player.Listener() {
-            @Override
-            public void onMediaMetadataChanged(@NonNull MediaMetadata mediaMetadata) {
-                setMediaControllerUI(mediaBrowser);
-                setMetadata(mediaMetadata);
-                setContentDuration(mediaBrowser.getContentDuration());
-            }
-
-            @Override
-            public void onIsPlayingChanged(boolean isPlaying) {
-                setPlayingState(isPlaying);
-            }
-
-            @Override
-            public void onSkipSilenceEnabledChanged(boolean skipSilenceEnabled) {
-                Player.Listener.super.onSkipSilenceEnabledChanged(skipSilenceEnabled);
-            }
-
-            @Override
-            public void onEvents(Player player, Player.Events events) {
-                setHeaderNextButtonState(mediaBrowser.hasNextMediaItem());
-            }
-        });
+        mediaBrowser.addListener(playerListener);
     }
 
     private void setMetadata(MediaMetadata mediaMetadata) {
@@ -270,42 +266,4 @@ public class PlayerBottomSheetFragment extends Fragment {
             progressBarHandler.removeCallbacks(progressBarRunnable);
         }
     }
-
-    private void setHeaderBookmarksButton() {
-        if (Preferences.isSyncronizationEnabled()) {
-            playerBottomSheetViewModel.getPlayQueue().observeForever(new Observer<PlayQueue>() {
-                @Override
-                public void onChanged(PlayQueue playQueue) {
-                    playerBottomSheetViewModel.getPlayQueue().removeObserver(this);
-
-                    if (bind == null) return;
-
-                    if (playQueue != null && !playQueue.getEntries().isEmpty()) {
-                        int index = IntStream.range(0, playQueue.getEntries().size()).filter(ix -> playQueue.getEntries().get(ix).getId().equals(playQueue.getCurrent())).findFirst().orElse(-1);
-
-                        if (index != -1) {
-                            bind.playerHeaderLayout.playerHeaderBookmarkMediaButton.setVisibility(View.VISIBLE);
-                            bind.playerHeaderLayout.playerHeaderBookmarkMediaButton.setOnClickListener(v -> {
-                                MediaManager.startQueue(mediaBrowserListenableFuture, playQueue.getEntries(), index);
-                                bind.playerHeaderLayout.playerHeaderBookmarkMediaButton.setVisibility(View.GONE);
-                            });
-                        }
-                    } else {
-                        bind.playerHeaderLayout.playerHeaderBookmarkMediaButton.setVisibility(View.GONE);
-                        bind.playerHeaderLayout.playerHeaderBookmarkMediaButton.setOnClickListener(null);
-                    }
-                }
-            });
-
-            bind.playerHeaderLayout.playerHeaderBookmarkMediaButton.setOnLongClickListener(v -> {
-                bind.playerHeaderLayout.playerHeaderBookmarkMediaButton.setVisibility(View.GONE);
-                return true;
-            });
-
-            new Handler().postDelayed(() -> {
-                if (bind != null)
-                    bind.playerHeaderLayout.playerHeaderBookmarkMediaButton.setVisibility(View.GONE);
-            }, Preferences.getSyncCountdownTimer() * 1000L);
-        }
-    }
 }
@@ -1,6 +1,5 @@
 package com.cappielloantonio.tempo.ui.fragment;
 
-import android.content.ComponentName;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -20,13 +19,12 @@ import androidx.media3.common.Player;
 import androidx.media3.common.util.RepeatModeUtil;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.cappielloantonio.tempo.R;
 import com.cappielloantonio.tempo.databinding.InnerFragmentPlayerControllerBinding;
-import com.cappielloantonio.tempo.service.MediaService;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.ui.activity.MainActivity;
 import com.cappielloantonio.tempo.ui.dialog.RatingDialog;
 import com.cappielloantonio.tempo.ui.dialog.TrackInfoDialog;
@@ -62,6 +60,16 @@ public class PlayerControllerFragment extends Fragment {
     private MainActivity activity;
     private PlayerBottomSheetViewModel playerBottomSheetViewModel;
     private ListenableFuture<MediaBrowser> mediaBrowserListenableFuture;
+    private MediaBrowser mediaBrowser;
+
+    private final Player.Listener playerListener = new Player.Listener() {
+        @Override
+        public void onMediaMetadataChanged(@NonNull MediaMetadata mediaMetadata) {
+            setMediaControllerUI(mediaBrowser);
+            setMetadata(mediaMetadata);
+            setMediaInfo(mediaMetadata);
+        }
+    };
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -127,11 +135,18 @@ public class PlayerControllerFragment extends Fragment {
     }
 
     private void initializeBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(requireContext(), new SessionToken(requireContext(), new ComponentName(requireContext(), MediaService.class))).buildAsync();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
 
     private void releaseBrowser() {
-        MediaBrowser.releaseFuture(mediaBrowserListenableFuture);
+        ListenableFuture<MediaBrowser> future = mediaBrowserListenableFuture;
+
+        // The browser outlives this screen, the controls stop following it
+        future.addListener(() -> {
+            if (bind != null) bind.nowPlayingMediaControllerView.setPlayer(null);
+        }, MoreExecutors.directExecutor());
+
+        MediaBrowserManager.release(future, playerListener);
     }
 
     private void bindMediaController() {
@@ -149,18 +164,13 @@ public class PlayerControllerFragment extends Fragment {
     }
 
     private void setMediaControllerListener(MediaBrowser mediaBrowser) {
+        this.mediaBrowser = mediaBrowser;
+
         setMediaControllerUI(mediaBrowser);
         setMetadata(mediaBrowser.getMediaMetadata());
         setMediaInfo(mediaBrowser.getMediaMetadata());
 
-        mediaBrowser.addListener(new Player.Listener() {
-            @Override
-            public void onMediaMetadataChanged(@NonNull MediaMetadata mediaMetadata) {
-                setMediaControllerUI(mediaBrowser);
-                setMetadata(mediaMetadata);
-                setMediaInfo(mediaMetadata);
-            }
-        });
+        mediaBrowser.addListener(playerListener);
     }
 
     private void setMetadata(MediaMetadata mediaMetadata) {
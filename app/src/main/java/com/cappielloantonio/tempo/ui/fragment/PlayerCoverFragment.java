@@ -1,6 +1,5 @@
 package com.cappielloantonio.tempo.ui.fragment;
 
-import android.content.ComponentName;
 import android.os.Bundle;
 import android.os.Handler;
 import android.transition.Fade;
@@ -17,20 +16,17 @@ import androidx.media3.common.MediaMetadata;
 import androidx.media3.common.Player;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 
 import com.cappielloantonio.tempo.databinding.InnerFragmentPlayerCoverBinding;
 import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.model.Download;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.service.MediaManager;
-import com.cappielloantonio.tempo.service.MediaService;
 import com.cappielloantonio.tempo.ui.dialog.PlaylistChooserDialog;
 import com.cappielloantonio.tempo.util.Constants;
 import com.cappielloantonio.tempo.util.DownloadUtil;
 import com.cappielloantonio.tempo.util.MappingUtil;
-import com.cappielloantonio.tempo.util.Preferences;
 import com.cappielloantonio.tempo.viewmodel.PlayerBottomSheetViewModel;
-import com.google.android.material.snackbar.Snackbar;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 
@@ -42,6 +38,14 @@ public class PlayerCoverFragment extends Fragment {
 
     private final Handler handler = new Handler();
 
+    private final Player.Listener playerListener = new Player.Listener() {
+        @Override
+        public void onMediaMetadataChanged(@NonNull MediaMetadata mediaMetadata) {
+            setCover(mediaMetadata);
+            toggleOverlayVisibility(false);
+        }
+    };
+
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         bind = InnerFragmentPlayerCoverBinding.inflate(inflater, container, false);
@@ -102,9 +106,6 @@ public class PlayerCoverFragment extends Fragment {
         bind.nowPlayingSongCoverButtonGroup.setVisibility(isVisible ? View.VISIBLE : View.GONE);
         bind.nowPlayingTapButton.setVisibility(isVisible ? View.GONE : View.VISIBLE);
 
-        bind.innerButtonBottomRight.setVisibility(Preferences.isSyncronizationEnabled() ? View.VISIBLE : View.GONE);
-        bind.innerButtonBottomRightAlternative.setVisibility(Preferences.isSyncronizationEnabled() ? View.GONE : View.VISIBLE);
-
         if (!isVisible) initTapButtonHideTransition();
     }
 
@@ -134,12 +135,6 @@ public class PlayerCoverFragment extends Fragment {
                     });
                 });
 
-                bind.innerButtonBottomRight.setOnClickListener(view -> {
-                    if (playerBottomSheetViewModel.savePlayQueue()) {
-                        Snackbar.make(requireView(), "Salvato", Snackbar.LENGTH_LONG).show();
-                    }
-                });
-
                 bind.innerButtonBottomRightAlternative.setOnClickListener(view -> {
                     if (getActivity() != null) {
                         PlayerBottomSheetFragment playerBottomSheetFragment = (PlayerBottomSheetFragment) requireActivity().getSupportFragmentManager().findFragmentByTag("PlayerBottomSheet");
@@ -153,11 +148,11 @@ public class PlayerCoverFragment extends Fragment {
     }
 
     private void initializeBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(requireContext(), new SessionToken(requireContext(), new ComponentName(requireContext(), MediaService.class))).buildAsync();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
 
     private void releaseBrowser() {
-        MediaBrowser.releaseFuture(mediaBrowserListenableFuture);
+        MediaBrowserManager.release(mediaBrowserListenableFuture, playerListener);
     }
 
     private void bindMediaController() {
@@ -174,13 +169,7 @@ public class PlayerCoverFragment extends Fragment {
     private void setMediaBrowserListener(MediaBrowser mediaBrowser) {
         setCover(mediaBrowser.getMediaMetadata());
 
-        mediaBrowser.addListener(new Player.Listener() {
-            @Override
-            public void onMediaMetadataChanged(@NonNull MediaMetadata mediaMetadata) {
-                setCover(mediaMetadata);
-                toggleOverlayVisibility(false);
-            }
-        });
+        mediaBrowser.addListener(playerListener);
     }
 
     private void setCover(MediaMetadata mediaMetadata) {
@@ -1,37 +1,38 @@
 package com.cappielloantonio.tempo.ui.fragment;
 
-import android.annotation.SuppressLint;
-import android.content.ComponentName;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.text.Layout;
 import android.text.Spannable;
-import android.text.SpannableString;
 import android.text.style.ForegroundColorSpan;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.OptIn;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.media3.common.Player;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 
 import com.cappielloantonio.tempo.R;
 import com.cappielloantonio.tempo.databinding.InnerFragmentPlayerLyricsBinding;
-import com.cappielloantonio.tempo.service.MediaService;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.subsonic.models.Line;
 import com.cappielloantonio.tempo.subsonic.models.LyricsList;
+import com.cappielloantonio.tempo.util.LyricsLineScheduler;
 import com.cappielloantonio.tempo.util.MusicUtil;
 import com.cappielloantonio.tempo.util.OpenSubsonicExtensionsUtil;
 import com.cappielloantonio.tempo.viewmodel.PlayerBottomSheetViewModel;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -43,8 +44,25 @@ public class PlayerLyricsFragment extends Fragment {
     private PlayerBottomSheetViewModel playerBottomSheetViewModel;
     private ListenableFuture<MediaBrowser> mediaBrowserListenableFuture;
     private MediaBrowser mediaBrowser;
-    private Handler syncLyricsHandler;
-    private Runnable syncLyricsRunnable;
+    private LyricsLineScheduler lineScheduler;
+
+    // Built once per song: the synced lines, in order, with their start times and their offsets in the text
+    private Spannable syncedLyricsText;
+    private long[] syncedLineStarts = new long[0];
+    private int[] syncedLineOffsets = new int[0];
+    private int[] syncedLineEnds = new int[0];
+    private ForegroundColorSpan shadowSpan;
+    private ForegroundColorSpan highlightSpan;
+    private int highlightedLine = -1;
+
+    private final Player.Listener playerListener = new Player.Listener() {
+        @Override
+        public void onEvents(@NonNull Player player, @NonNull Player.Events events) {
+            if (events.containsAny(Player.EVENT_IS_PLAYING_CHANGED, Player.EVENT_POSITION_DISCONTINUITY, Player.EVENT_PLAYBACK_PARAMETERS_CHANGED)) {
+                syncLyrics();
+            }
+        }
+    };
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -103,18 +121,22 @@ public class PlayerLyricsFragment extends Fragment {
     }
 
     private void initializeBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(requireContext(), new SessionToken(requireContext(), new ComponentName(requireContext(), MediaService.class))).buildAsync();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
 
     private void releaseHandler() {
-        if (syncLyricsHandler != null) {
-            syncLyricsHandler.removeCallbacks(syncLyricsRunnable);
-            syncLyricsHandler = null;
+        if (lineScheduler != null) {
+            lineScheduler.cancel();
+            lineScheduler = null;
+        }
+
+        if (mediaBrowser != null) {
+            mediaBrowser.removeListener(playerListener);
         }
     }
 
     private void releaseBrowser() {
-        MediaBrowser.releaseFuture(mediaBrowserListenableFuture);
+        MediaBrowserManager.release(mediaBrowserListenableFuture, playerListener);
     }
 
     private void bindMediaController() {
@@ -144,6 +166,7 @@ public class PlayerLyricsFragment extends Fragment {
         playerBottomSheetViewModel.getLiveDescription().observe(getViewLifecycleOwner(), description -> {
             if (bind != null) {
                 bind.nowPlayingSongLyricsSrollView.smoothScrollTo(0, 0);
+                syncedLyricsText = null;
 
                 if (lyrics != null && !lyrics.trim().equals("")) {
                     bind.nowPlayingSongLyricsTextView.setText(MusicUtil.getReadableLyrics(lyrics));
@@ -173,118 +196,97 @@ public class PlayerLyricsFragment extends Fragment {
         });
     }
 
-    @SuppressLint("DefaultLocale")
     private void setSyncLirics(LyricsList lyricsList) {
         if (lyricsList.getStructuredLyrics() != null && !lyricsList.getStructuredLyrics().isEmpty() && lyricsList.getStructuredLyrics().get(0).getLine() != null) {
             StringBuilder lyricsBuilder = new StringBuilder();
             List<Line> lines = lyricsList.getStructuredLyrics().get(0).getLine();
+            boolean synced = lyricsList.getStructuredLyrics().get(0).getSynced();
 
-            if (lines != null) {
-                for (Line line : lines) {
-                    lyricsBuilder.append(line.getValue().trim()).append("\n");
-                }
-            }
-
-            bind.nowPlayingSongLyricsTextView.setText(lyricsBuilder.toString());
-        }
-    }
-
-    private void defineProgressHandler() {
-        playerBottomSheetViewModel.getLiveLyricsList().observe(getViewLifecycleOwner(), lyricsList -> {
-            if (lyricsList != null) {
+            List<Long> starts = new ArrayList<>();
+            List<Integer> offsets = new ArrayList<>();
 
-                if (lyricsList.getStructuredLyrics() != null && lyricsList.getStructuredLyrics().get(0) != null && !lyricsList.getStructuredLyrics().get(0).getSynced()) {
-                    releaseHandler();
-                    return;
+            for (Line line : lines) {
+                if (synced && line.getStart() != null) {
+                    starts.add((long) line.getStart());
+                    offsets.add(lyricsBuilder.length());
                 }
 
-                syncLyricsHandler = new Handler();
-                syncLyricsRunnable = () -> {
-                    if (syncLyricsHandler != null) {
-                        if (bind != null) {
-                            displaySyncedLyrics();
-                        }
+                lyricsBuilder.append(line.getValue().trim()).append("\n");
+            }
 
-                        syncLyricsHandler.postDelayed(syncLyricsRunnable, 250);
-                    }
-                };
+            syncedLineStarts = new long[starts.size()];
+            syncedLineOffsets = new int[offsets.size()];
+            syncedLineEnds = new int[offsets.size()];
 
-                syncLyricsHandler.postDelayed(syncLyricsRunnable, 250);
-            } else {
-                releaseHandler();
+            for (int i = 0; i < starts.size(); i++) {
+                syncedLineStarts[i] = starts.get(i);
+                syncedLineOffsets[i] = offsets.get(i);
+                syncedLineEnds[i] = lyricsBuilder.indexOf("\n", offsets.get(i));
             }
-        });
-    }
 
-    private void displaySyncedLyrics() {
-        LyricsList lyricsList = playerBottomSheetViewModel.getLiveLyricsList().getValue();
-        int timestamp = (int) (mediaBrowser.getCurrentPosition());
+            shadowSpan = new ForegroundColorSpan(requireContext().getResources().getColor(R.color.shadowsLyricsTextColor, null));
+            highlightSpan = new ForegroundColorSpan(requireContext().getResources().getColor(R.color.lyricsTextColor, null));
+            highlightedLine = -1;
 
-        if (lyricsList != null && lyricsList.getStructuredLyrics() != null && !lyricsList.getStructuredLyrics().isEmpty() && lyricsList.getStructuredLyrics().get(0).getLine() != null) {
-            StringBuilder lyricsBuilder = new StringBuilder();
-            List<Line> lines = lyricsList.getStructuredLyrics().get(0).getLine();
+            // Spans of a spannable text are moved in place, without setting the text again
+            bind.nowPlayingSongLyricsTextView.setText(lyricsBuilder.toString(), TextView.BufferType.SPANNABLE);
+            syncedLyricsText = synced ? (Spannable) bind.nowPlayingSongLyricsTextView.getText() : null;
 
-            if (lines == null || lines.isEmpty()) return;
+            syncLyrics();
+        }
+    }
 
-            for (Line line : lines) {
-                lyricsBuilder.append(line.getValue().trim()).append("\n");
-            }
+    private void defineProgressHandler() {
+        if (lineScheduler == null) {
+            lineScheduler = new LyricsLineScheduler(new Handler(Looper.getMainLooper()), this::syncLyrics);
+        }
 
-            Line toHighlight = lines.stream().filter(line -> line != null && line.getStart() != null && line.getStart() < timestamp).reduce((first, second) -> second).orElse(null);
+        mediaBrowser.addListener(playerListener);
+        syncLyrics();
+    }
 
-            if (toHighlight != null) {
-                String lyrics = lyricsBuilder.toString();
-                Spannable spannableString = new SpannableString(lyrics);
+    /*
+     * Highlights the line at the current position and, while playing, sets a single timer for the start
+     * of the next one. Playing, seeking and speed changes call it again through the player listener.
+     */
+    private void syncLyrics() {
+        if (lineScheduler == null) return;
 
-                int startingPosition = getStartPosition(lines, toHighlight);
-                int endingPosition = startingPosition + toHighlight.getValue().length();
+        lineScheduler.cancel();
 
-                spannableString.setSpan(new ForegroundColorSpan(requireContext().getResources().getColor(R.color.shadowsLyricsTextColor, null)), 0, lyrics.length(), Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
-                spannableString.setSpan(new ForegroundColorSpan(requireContext().getResources().getColor(R.color.lyricsTextColor, null)), startingPosition, endingPosition, Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
+        if (bind == null || mediaBrowser == null || syncedLyricsText == null || syncedLineStarts.length == 0) return;
 
-                bind.nowPlayingSongLyricsTextView.setText(spannableString);
+        int index = lineScheduler.sync(mediaBrowser, syncedLineStarts);
 
-                if (playerBottomSheetViewModel.getSyncLyricsState()) {
-                    bind.nowPlayingSongLyricsSrollView.smoothScrollTo(0, getScroll(lines, toHighlight));
-                }
-            }
+        if (index != highlightedLine) {
+            highlightedLine = index;
+            highlightLine(index);
         }
     }
 
-    private int getStartPosition(List<Line> lines, Line toHighlight) {
-        int start = 0;
-
-        for (Line line : lines) {
-            if (line != toHighlight) {
-                start = start + line.getValue().length() + 1;
-            } else {
-                break;
-            }
+    private void highlightLine(int index) {
+        if (index < 0) {
+            syncedLyricsText.removeSpan(shadowSpan);
+            syncedLyricsText.removeSpan(highlightSpan);
+            return;
         }
 
-        return start;
-    }
-
-    private int getLineCount(List<Line> lines, Line toHighlight) {
-        int start = 0;
+        syncedLyricsText.setSpan(shadowSpan, 0, syncedLyricsText.length(), Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
+        syncedLyricsText.setSpan(highlightSpan, syncedLineOffsets[index], syncedLineEnds[index], Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
 
-        for (Line line : lines) {
-            if (line != toHighlight) {
-                bind.tempLyricsLineTextView.setText(line.getValue());
-                start = start + bind.tempLyricsLineTextView.getLineCount();
-            } else {
-                break;
-            }
+        if (playerBottomSheetViewModel.getSyncLyricsState()) {
+            bind.nowPlayingSongLyricsSrollView.smoothScrollTo(0, getScroll(syncedLineOffsets[index]));
         }
-
-        return start;
     }
 
-    private int getScroll(List<Line> lines, Line toHighlight) {
+    private int getScroll(int offset) {
+        Layout layout = bind.nowPlayingSongLyricsTextView.getLayout();
+        if (layout == null) return 0;
+
         int lineHeight = bind.nowPlayingSongLyricsTextView.getLineHeight();
-        int lineCount = getLineCount(lines, toHighlight);
+        int lineTop = layout.getLineTop(layout.getLineForOffset(offset));
         int scrollViewHeight = bind.nowPlayingSongLyricsSrollView.getHeight();
 
-        return lineHeight * lineCount < scrollViewHeight / 2 ? 0 : lineHeight * lineCount - scrollViewHeight / 2 + lineHeight;
+        return lineTop < scrollViewHeight / 2 ? 0 : lineTop - scrollViewHeight / 2 + lineHeight;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,5 @@
 package com.cappielloantonio.tempo.ui.fragment;
 
-import android.content.ComponentName;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -11,15 +10,14 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cappielloantonio.tempo.databinding.InnerFragmentPlayerQueueBinding;
 import com.cappielloantonio.tempo.interfaces.ClickCallback;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.service.MediaManager;
-import com.cappielloantonio.tempo.service.MediaService;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.ui.adapter.PlayerSongQueueAdapter;
 import com.cappielloantonio.tempo.util.Constants;
@@ -81,11 +79,11 @@ public class PlayerQueueFragment extends Fragment implements ClickCallback {
     }
 
     private void initializeBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(requireContext(), new SessionToken(requireContext(), new ComponentName(requireContext(), MediaService.class))).buildAsync();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
 
     private void releaseBrowser() {
-        MediaBrowser.releaseFuture(mediaBrowserListenableFuture);
+        MediaBrowserManager.release(mediaBrowserListenableFuture);
     }
 
     private void bindMediaController() {
@@ -162,8 +160,17 @@ public class PlayerQueueFragment extends Fragment implements ClickCallback {
 
             @Override
             public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
-                MediaManager.remove(mediaBrowserListenableFuture, playerSongQueueAdapter.getItems(), viewHolder.getBindingAdapterPosition());
-                viewHolder.getBindingAdapter().notifyDataSetChanged();
+                int position = viewHolder.getBindingAdapterPosition();
+                int itemCount = playerSongQueueAdapter.getItemCount();
+
+                MediaManager.remove(mediaBrowserListenableFuture, playerSongQueueAdapter.getItems(), position);
+
+                // The playing song is not removed, its row is only swiped back
+                if (playerSongQueueAdapter.getItemCount() < itemCount) {
+                    playerSongQueueAdapter.notifyItemRemoved(position);
+                } else {
+                    playerSongQueueAdapter.notifyItemChanged(position);
+                }
             }
         }).attachToRecyclerView(bind.playerQueueRecyclerView);
     }
@@ -209,7 +216,7 @@ public class PlayerQueueFragment extends Fragment implements ClickCallback {
     }
 
     private void updateNowPlayingItem() {
-        playerSongQueueAdapter.notifyDataSetChanged();
+        playerSongQueueAdapter.notifyPlayingStateChanged();
     }
 
     @Override
@@ -137,7 +137,7 @@ public class PlaylistCatalogueFragment extends Fragment implements ClickCallback
 
             @Override
             public boolean onQueryTextChange(String newText) {
-                playlistHorizontalAdapter.getFilter().filter(newText);
+                playlistHorizontalAdapter.filter(newText);
                 return false;
             }
         });
@@ -101,7 +101,7 @@ public class ShareBottomSheetDialog extends BottomSheetDialogFragment implements
     }
 
     private void refreshShares() {
-        homeViewModel.refreshShares(getParentFragment());
+        homeViewModel.refreshShares();
     }
 
     private void deleteShare() {
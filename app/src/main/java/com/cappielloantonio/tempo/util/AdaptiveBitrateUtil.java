@@ -0,0 +1,134 @@
+package com.cappielloantonio.tempo.util;
+
+import android.net.Uri;
+import android.os.SystemClock;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
+
+import com.cappielloantonio.tempo.App;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Chooses the transcoding bitrate of each stream from the bandwidth measured by the player and the recent
+ * rebuffers, within the maximum bitrate set for the current network.
+ * <p>
+ * Bitrates are rounded to a few tiers, and the stream cache key only depends on the song, the format and
+ * the tier, so that a track cached at a given quality is found again whatever the request parameters.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class AdaptiveBitrateUtil {
+    private static final int[] TIERS = {64, 96, 128, 192, 256, 320};
+
+    private static final double BANDWIDTH_FRACTION = 0.5;
+    private static final long REBUFFER_MEMORY = 10 * 60 * 1000;
+
+    private static final Deque<Long> rebuffers = new ArrayDeque<>();
+
+    public static boolean isEnabled() {
+        return Preferences.isAdaptiveBitrateEnabled()
+                && !Preferences.isServerPrioritized()
+                && !MusicUtil.getTranscodingFormatPreference().equals("raw");
+    }
+
+    /*
+     * The returned bitrate never exceeds the maximum set for the network, "0" standing for no limit.
+     */
+    public static String getBitrate(String maxBitrate) {
+        int ceiling = parse(maxBitrate);
+        long estimate = DefaultBandwidthMeter.getSingletonInstance(App.getContext()).getBitrateEstimate();
+        long budget = (long) (estimate * BANDWIDTH_FRACTION / 1000);
+
+        int tier = 0;
+
+        while (tier + 1 < TIERS.length && TIERS[tier + 1] <= budget) {
+            tier++;
+        }
+
+        // Unlimited when the bandwidth has room for more than the highest tier and nothing went wrong lately
+        boolean unlimited = ceiling == 0 && budget > TIERS[TIERS.length - 1];
+
+        int penalty = getRecentRebuffers();
+        if (penalty > 0) unlimited = false;
+
+        tier = Math.max(tier - penalty, 0);
+
+        if (unlimited) return "0";
+        if (ceiling != 0 && TIERS[tier] > ceiling) return String.valueOf(ceiling);
+
+        return String.valueOf(TIERS[tier]);
+    }
+
+    public static synchronized void onRebuffer() {
+        rebuffers.addLast(SystemClock.elapsedRealtime());
+        while (rebuffers.size() > TIERS.length) rebuffers.removeFirst();
+    }
+
+    public static synchronized int getRecentRebuffers() {
+        long now = SystemClock.elapsedRealtime();
+
+        while (!rebuffers.isEmpty() && now - rebuffers.peekFirst() > REBUFFER_MEMORY) {
+            rebuffers.removeFirst();
+        }
+
+        return rebuffers.size();
+    }
+
+    public static boolean isStreamUri(Uri uri) {
+        return uri != null && "stream".equals(uri.getLastPathSegment()) && uri.getQueryParameter("id") != null;
+    }
+
+    /*
+     * Points a stream request to the current tier. The encoded query is edited as is, so that the
+     * authentication parameters are sent untouched.
+     */
+    public static Uri withCurrentBitrate(Uri uri) {
+        return with(uri, MusicUtil.getBitratePreference(), MusicUtil.getTranscodingFormatPreference());
+    }
+
+    public static Uri withBitrate(Uri uri, String maxBitRate) {
+        String format = uri.getQueryParameter("format");
+        return with(uri, maxBitRate, format != null ? format : "raw");
+    }
+
+    private static Uri with(Uri uri, String maxBitRate, String format) {
+        StringBuilder query = new StringBuilder();
+
+        if (uri.getEncodedQuery() != null) {
+            for (String parameter : uri.getEncodedQuery().split("&")) {
+                if (parameter.startsWith("maxBitRate=") || parameter.startsWith("format=")) continue;
+                query.append(parameter).append("&");
+            }
+        }
+
+        query.append("maxBitRate=").append(maxBitRate);
+        query.append("&format=").append(format);
+
+        return uri.buildUpon().encodedQuery(query.toString()).build();
+    }
+
+    public static String getCacheKey(Uri uri) {
+        String format = uri.getQueryParameter("format");
+        String maxBitRate = uri.getQueryParameter("maxBitRate");
+
+        return "stream/" + uri.getQueryParameter("id") + "/" + (format != null ? format : "raw") + "/" + (maxBitRate != null ? maxBitRate : "0");
+    }
+
+    /*
+     * The bitrate a stream was cached at, the last part of its key.
+     */
+    public static String getCachedBitrate(String cacheKey) {
+        return cacheKey.substring(cacheKey.lastIndexOf('/') + 1);
+    }
+
+    private static int parse(String bitrate) {
+        try {
+            return Integer.parseInt(bitrate);
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.cappielloantonio.tempo.util;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+
+import com.bumptech.glide.Glide;
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.database.AppDatabase;
+import com.cappielloantonio.tempo.database.dao.DownloadDao;
+import com.cappielloantonio.tempo.glide.CustomGlideRequest;
+import com.cappielloantonio.tempo.model.Download;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a pinned copy of the cover art of downloaded media next to the downloads, so that it
+ * survives the eviction of Glide's LRU disk cache and can be shown while offline.
+ * <p>
+ * A cover is fetched once per cover art id at the size the app requests it
+ * ({@link Preferences#getImageSize()}) and is deleted when the last download referencing it is removed.
+ * The views, the media items and the automotive browser all resolve covers through this class, so the
+ * pinned copy is used wherever the cover is shown, at any size, and scaled by Glide or the system.
+ * <p>
+ * The pinned covers are listed once, in the background, and then tracked in memory: the lookups made
+ * while binding the views touch neither the disk nor the folder. Until the listing is done, the covers
+ * are loaded from the server URL.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public final class ArtworkUtil {
+    private static final String TAG = "ArtworkUtil";
+
+    private static final String SIZE_SEPARATOR = "_";
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Map<String, File> pinnedArtworks = new ConcurrentHashMap<>();
+
+    static {
+        // Queued first, the tasks that follow see the complete list
+        executor.execute(ArtworkUtil::loadPinnedArtworks);
+    }
+
+    @Nullable
+    public static File getPinnedArtwork(String coverArtId) {
+        if (coverArtId == null) return null;
+
+        return pinnedArtworks.get(coverArtId);
+    }
+
+    public static Uri getArtworkUri(String coverArtId) {
+        File artwork = getPinnedArtwork(coverArtId);
+
+        return artwork != null
+                ? Uri.fromFile(artwork)
+                : Uri.parse(CustomGlideRequest.createUrl(coverArtId, Preferences.getImageSize()));
+    }
+
+    public static void pin(Context context, Download download) {
+        String coverArtId = download.getCoverArtId();
+        if (coverArtId == null) return;
+
+        Context appContext = context.getApplicationContext();
+        int size = Preferences.getImageSize();
+
+        executor.execute(() -> {
+            if (getPinnedArtwork(coverArtId) != null) return;
+
+            try {
+                File source = Glide.with(appContext)
+                        .downloadOnly()
+                        .load(CustomGlideRequest.createUrl(coverArtId, size))
+                        .submit()
+                        .get();
+
+                File target = new File(DownloadUtil.getPinnedArtworkDirectory(appContext), getFileName(coverArtId, size));
+                File temp = new File(target.getPath() + ".tmp");
+
+                copy(source, temp);
+
+                if (temp.renameTo(target)) {
+                    pinnedArtworks.put(coverArtId, target);
+                } else {
+                    temp.delete();
+                }
+            } catch (Exception exception) {
+                Log.w(TAG, "Unable to pin artwork " + coverArtId, exception);
+            }
+        });
+    }
+
+    public static void release(List<Download> removed) {
+        List<String> removedIds = new ArrayList<>();
+        Set<String> coverArtIds = new HashSet<>();
+
+        for (Download download : removed) {
+            removedIds.add(download.getId());
+            if (download.getCoverArtId() != null) coverArtIds.add(download.getCoverArtId());
+        }
+
+        if (coverArtIds.isEmpty()) return;
+
+        executor.execute(() -> {
+            DownloadDao downloadDao = AppDatabase.getInstance().downloadDao();
+
+            for (String coverArtId : coverArtIds) {
+                if (downloadDao.countByCoverArt(coverArtId, removedIds) == 0) {
+                    delete(coverArtId);
+                }
+            }
+        });
+    }
+
+    public static void prune() {
+        executor.execute(() -> {
+            Set<String> referenced = new HashSet<>(AppDatabase.getInstance().downloadDao().getCoverArtIds());
+
+            for (String coverArtId : new ArrayList<>(pinnedArtworks.keySet())) {
+                if (!referenced.contains(coverArtId)) {
+                    delete(coverArtId);
+                }
+            }
+        });
+    }
+
+    public static void eraseArtworkFolder(Context context) {
+        Context appContext = context.getApplicationContext();
+
+        executor.execute(() -> {
+            File[] files = DownloadUtil.getPinnedArtworkDirectory(appContext).listFiles();
+
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+
+            pinnedArtworks.clear();
+        });
+    }
+
+    private static void delete(String coverArtId) {
+        File artwork = pinnedArtworks.remove(coverArtId);
+        if (artwork != null) artwork.delete();
+    }
+
+    private static void loadPinnedArtworks() {
+        File[] files = DownloadUtil.getPinnedArtworkDirectory(App.getContext()).listFiles();
+        if (files == null) return;
+
+        for (File file : files) {
+            String coverArtId = getCoverArtId(file.getName());
+            if (coverArtId != null) pinnedArtworks.put(coverArtId, file);
+        }
+    }
+
+    private static String getFileName(String coverArtId, int size) {
+        return Uri.encode(coverArtId) + SIZE_SEPARATOR + size;
+    }
+
+    @Nullable
+    private static String getCoverArtId(String fileName) {
+        int separator = fileName.lastIndexOf(SIZE_SEPARATOR);
+        if (separator <= 0 || fileName.endsWith(".tmp")) return null;
+
+        return Uri.decode(fileName.substring(0, separator));
+    }
+
+    private static void copy(File source, File target) throws IOException {
+        try (InputStream in = new FileInputStream(source); OutputStream out = new FileOutputStream(target)) {
+            byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+}
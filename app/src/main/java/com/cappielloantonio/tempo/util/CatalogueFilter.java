@@ -0,0 +1,278 @@
+package com.cappielloantonio.tempo.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Filters and sorts the items of a catalogue on a background thread.
+ * <p>
+ * The search key and the collation keys of an item are computed once, the first time the item is loaded,
+ * and reused by every query and every sort. The search key is lower case and without accents, so that
+ * "beyonce" finds "Beyoncé". A new query or order cancels the work still running for the previous one,
+ * and only the latest result is published. A catalogue loaded page by page is appended with
+ * {@link #appendItems(int, List)}, which only filters and sorts the new items and merges them into the
+ * result.
+ */
+public class CatalogueFilter<T> {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    public interface Listener<T> {
+        void onFiltered(List<T> items);
+    }
+
+    private final Listener<T> listener;
+    private final Function<T, String>[] keys;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Only used on the executor
+    private final Collator collator = Collator.getInstance();
+    private Map<T, Entry<T>> index = new IdentityHashMap<>();
+    private List<Entry<T>> entries = new ArrayList<>();
+    private List<Entry<T>> matches;
+    private String matchedQuery;
+    private Comparator<Entry<T>> matchedOrder;
+
+    private int size = 0;
+    private String query = "";
+    private Comparator<Entry<T>> order;
+
+    private volatile int generation = 0;
+    private Future<?> pending;
+
+    /**
+     * @param keys the texts the items are sorted by, the first one is also the text queries are matched
+     *             against.
+     */
+    @SafeVarargs
+    public CatalogueFilter(Listener<T> listener, Function<T, String>... keys) {
+        this.listener = listener;
+        this.keys = keys;
+
+        collator.setStrength(Collator.PRIMARY);
+    }
+
+    public void setItems(List<T> items) {
+        List<T> copy = items != null ? new ArrayList<>(items) : Collections.emptyList();
+        size = copy.size();
+
+        EXECUTOR.execute(() -> setEntries(copy));
+        update();
+    }
+
+    /**
+     * Appends items found at the given offset of the catalogue. The items are not taken when the ones
+     * already held do not end at that offset, for instance when a page was missed or the catalogue is
+     * loaded again: the caller then sets the whole catalogue.
+     *
+     * @return whether the items were appended.
+     */
+    public boolean appendItems(int offset, List<T> items) {
+        if (offset != size) return false;
+        if (items.isEmpty()) return true;
+
+        List<T> appended = new ArrayList<>(items);
+        size += appended.size();
+
+        int request = ++generation;
+        String query = this.query;
+        Comparator<Entry<T>> order = this.order;
+
+        EXECUTOR.execute(() -> {
+            List<Entry<T>> added = addEntries(appended);
+
+            if (query.equals(matchedQuery) && order == matchedOrder) {
+                publish(request, query, order, merge(matches, match(added, query, order), order));
+            } else if (request == generation) {
+                publish(request, query, order, match(entries, query, order));
+            }
+        });
+
+        return true;
+    }
+
+    public void filter(CharSequence query) {
+        this.query = query != null ? normalize(query.toString()) : "";
+        update();
+    }
+
+    public void sort(Comparator<Entry<T>> order) {
+        this.order = order;
+        update();
+    }
+
+    /**
+     * Orders the items by one of the keys given to the constructor, ignoring case and accents.
+     */
+    public static <T> Comparator<Entry<T>> byKey(int key) {
+        return (first, second) -> compareKeys(first.collationKeys[key], second.collationKeys[key]);
+    }
+
+    public static <T> Comparator<Entry<T>> byItem(Comparator<T> comparator) {
+        return (first, second) -> comparator.compare(first.item, second.item);
+    }
+
+    /**
+     * A random order that stays the same while the query changes.
+     */
+    public static <T> Comparator<Entry<T>> shuffled() {
+        long seed = System.nanoTime();
+        return Comparator.comparingLong(entry -> mix(seed + System.identityHashCode(entry.item)));
+    }
+
+    public static String normalize(String text) {
+        if (text == null) return "";
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private void update() {
+        int request = ++generation;
+
+        String query = this.query;
+        Comparator<Entry<T>> order = this.order;
+
+        if (pending != null) pending.cancel(false);
+
+        pending = EXECUTOR.submit(() -> {
+            if (request == generation) publish(request, query, order, match(entries, query, order));
+        });
+    }
+
+    /*
+     * The result is kept for the pages appended next, even when a newer request already replaced it on
+     * screen, since it still matches every item loaded so far.
+     */
+    private void publish(int request, String query, Comparator<Entry<T>> order, List<Entry<T>> found) {
+        matches = found;
+        matchedQuery = query;
+        matchedOrder = order;
+
+        if (request != generation) return;
+
+        List<T> filtered = new ArrayList<>(found.size());
+        for (Entry<T> entry : found) filtered.add(entry.item);
+
+        mainHandler.post(() -> {
+            if (request == generation) listener.onFiltered(filtered);
+        });
+    }
+
+    /*
+     * Items already indexed keep their keys, so that setting a list that mostly holds the same items only
+     * indexes the new ones.
+     */
+    private void setEntries(List<T> items) {
+        Map<T, Entry<T>> updated = new IdentityHashMap<>(items.size());
+        List<Entry<T>> indexed = new ArrayList<>(items.size());
+
+        for (T item : items) {
+            Entry<T> entry = index.get(item);
+            if (entry == null) entry = new Entry<>(item, keys, collator);
+
+            updated.put(item, entry);
+            indexed.add(entry);
+        }
+
+        index = updated;
+        entries = indexed;
+        matches = null;
+        matchedQuery = null;
+    }
+
+    private List<Entry<T>> addEntries(List<T> items) {
+        List<Entry<T>> added = new ArrayList<>(items.size());
+
+        for (T item : items) {
+            Entry<T> entry = new Entry<>(item, keys, collator);
+
+            index.put(item, entry);
+            added.add(entry);
+        }
+
+        entries.addAll(added);
+        return added;
+    }
+
+    private static <T> List<Entry<T>> match(List<Entry<T>> entries, String query, Comparator<Entry<T>> order) {
+        List<Entry<T>> found = new ArrayList<>();
+
+        for (Entry<T> entry : entries) {
+            if (query.isEmpty() || entry.searchKey.contains(query)) found.add(entry);
+        }
+
+        if (order != null) found.sort(order);
+        return found;
+    }
+
+    /*
+     * Merging two sorted runs gives the same order a full sort would, since the sort is stable and the
+     * items loaded first win the ties.
+     */
+    private static <T> List<Entry<T>> merge(List<Entry<T>> first, List<Entry<T>> second, Comparator<Entry<T>> order) {
+        List<Entry<T>> merged = new ArrayList<>(first.size() + second.size());
+
+        if (order == null) {
+            merged.addAll(first);
+            merged.addAll(second);
+            return merged;
+        }
+
+        int i = 0, j = 0;
+
+        while (i < first.size() && j < second.size()) {
+            merged.add(order.compare(second.get(j), first.get(i)) < 0 ? second.get(j++) : first.get(i++));
+        }
+
+        merged.addAll(first.subList(i, first.size()));
+        merged.addAll(second.subList(j, second.size()));
+        return merged;
+    }
+
+    private static int compareKeys(CollationKey first, CollationKey second) {
+        if (first == null || second == null) return first == null ? (second == null ? 0 : 1) : -1;
+        return first.compareTo(second);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    public static class Entry<T> {
+        private final T item;
+        private final String searchKey;
+        private final CollationKey[] collationKeys;
+
+        private Entry(T item, Function<T, String>[] keys, Collator collator) {
+            this.item = item;
+            this.searchKey = normalize(keys[0].apply(item));
+            this.collationKeys = new CollationKey[keys.length];
+
+            for (int i = 0; i < keys.length; i++) {
+                String key = keys[i].apply(item);
+                collationKeys[i] = key != null ? collator.getCollationKey(key) : null;
+            }
+        }
+
+        public T getItem() {
+            return item;
+        }
+    }
+}
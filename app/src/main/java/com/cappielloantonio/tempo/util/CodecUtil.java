@@ -0,0 +1,112 @@
+package com.cappielloantonio.tempo.util;
+
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.MimeTypes;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.mediacodec.MediaCodecSelector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Probes once which audio formats the platform decoders can handle, so that the FFmpeg extension is only
+ * used for the MIME type, sample rate and bit depth combinations the device cannot decode on its own.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public final class CodecUtil {
+    private static final String TAG = "CodecUtil";
+
+    private static final Map<String, Boolean> capabilities = new HashMap<>();
+    private static MediaCodecInfo[] decoders;
+
+    /*
+     * Platform decoders first, hardware accelerated ones ahead of the software ones, keeping the
+     * default order otherwise.
+     */
+    public static final MediaCodecSelector HARDWARE_FIRST_SELECTOR = (mimeType, requiresSecureDecoder, requiresTunnelingDecoder) -> {
+        List<androidx.media3.exoplayer.mediacodec.MediaCodecInfo> infos = new ArrayList<>(MediaCodecSelector.DEFAULT.getDecoderInfos(mimeType, requiresSecureDecoder, requiresTunnelingDecoder));
+        infos.sort((first, second) -> Boolean.compare(second.hardwareAccelerated, first.hardwareAccelerated));
+        return infos;
+    };
+
+    public static boolean isSupported(Format format) {
+        if (format.sampleMimeType == null || !MimeTypes.isAudio(format.sampleMimeType) || MimeTypes.AUDIO_RAW.equals(format.sampleMimeType)) {
+            return true;
+        }
+
+        return isSupported(format.sampleMimeType, format.sampleRate, getBitDepth(format));
+    }
+
+    public static synchronized boolean isSupported(String mimeType, int sampleRate, int bitDepth) {
+        String key = mimeType + "/" + sampleRate + "/" + bitDepth;
+
+        Boolean supported = capabilities.get(key);
+
+        if (supported == null) {
+            supported = probe(mimeType, sampleRate, bitDepth);
+            capabilities.put(key, supported);
+
+            Log.d(TAG, key + (supported ? " decoded by the platform" : " not supported by the platform decoders"));
+        }
+
+        return supported;
+    }
+
+    private static boolean probe(String mimeType, int sampleRate, int bitDepth) {
+        // The platform decoders only output high resolution samples as float from Android 10
+        if (bitDepth > 16 && Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) return false;
+
+        for (MediaCodecInfo decoder : getDecoders()) {
+            for (String type : decoder.getSupportedTypes()) {
+                if (!type.equalsIgnoreCase(mimeType)) continue;
+
+                try {
+                    MediaCodecInfo.AudioCapabilities audioCapabilities = decoder.getCapabilitiesForType(type).getAudioCapabilities();
+
+                    if (audioCapabilities == null || sampleRate == Format.NO_VALUE || audioCapabilities.isSampleRateSupported(sampleRate)) {
+                        return true;
+                    }
+                } catch (IllegalArgumentException exception) {
+                    Log.w(TAG, "Unable to read the capabilities of " + decoder.getName(), exception);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static MediaCodecInfo[] getDecoders() {
+        if (decoders == null) {
+            List<MediaCodecInfo> infos = new ArrayList<>();
+
+            for (MediaCodecInfo info : new MediaCodecList(MediaCodecList.REGULAR_CODECS).getCodecInfos()) {
+                if (!info.isEncoder()) infos.add(info);
+            }
+
+            decoders = infos.toArray(new MediaCodecInfo[0]);
+        }
+
+        return decoders;
+    }
+
+    private static int getBitDepth(Format format) {
+        switch (format.pcmEncoding) {
+            case C.ENCODING_PCM_24BIT:
+                return 24;
+            case C.ENCODING_PCM_32BIT:
+            case C.ENCODING_PCM_FLOAT:
+                return 32;
+            default:
+                return 16;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.cappielloantonio.tempo.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cappielloantonio.tempo.model.Chronology;
+import com.cappielloantonio.tempo.model.HomeSector;
+import com.cappielloantonio.tempo.model.Server;
+import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
+import com.cappielloantonio.tempo.subsonic.models.Artist;
+import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
+import com.cappielloantonio.tempo.subsonic.models.Child;
+import com.cappielloantonio.tempo.subsonic.models.Genre;
+import com.cappielloantonio.tempo.subsonic.models.InternetRadioStation;
+import com.cappielloantonio.tempo.subsonic.models.MusicFolder;
+import com.cappielloantonio.tempo.subsonic.models.Playlist;
+import com.cappielloantonio.tempo.subsonic.models.PodcastChannel;
+import com.cappielloantonio.tempo.subsonic.models.PodcastEpisode;
+import com.cappielloantonio.tempo.subsonic.models.Share;
+import com.cappielloantonio.tempo.subsonic.models.SimilarArtistID3;
+
+import java.util.Objects;
+
+/**
+ * Item callbacks used by the adapters to diff their lists off the main thread.
+ * <p>
+ * Items are the same when they share their Subsonic id, and their contents are the same when every field
+ * shown in a row is equal. A change limited to the star or the rating is reported with
+ * {@link #PAYLOAD_STARRED}, so that the row only rebinds its rating views and keeps its cover.
+ */
+public class DiffCallbackUtil {
+    public static final String PAYLOAD_STARRED = "payload_starred";
+    public static final String PAYLOAD_PLAYING = "payload_playing";
+
+    public static final DiffUtil.ItemCallback<Child> CHILD = new SongItemCallback<>();
+    public static final DiffUtil.ItemCallback<Chronology> CHRONOLOGY = new SongItemCallback<>();
+
+    public static final DiffUtil.ItemCallback<AlbumID3> ALBUM = new DiffUtil.ItemCallback<AlbumID3>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull AlbumID3 oldItem, @NonNull AlbumID3 newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull AlbumID3 oldItem, @NonNull AlbumID3 newItem) {
+            return isSameAlbum(oldItem, newItem)
+                    && Objects.equals(oldItem.getStarred(), newItem.getStarred())
+                    && Objects.equals(oldItem.getUserRating(), newItem.getUserRating());
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull AlbumID3 oldItem, @NonNull AlbumID3 newItem) {
+            return isSameAlbum(oldItem, newItem) ? PAYLOAD_STARRED : null;
+        }
+
+        private boolean isSameAlbum(AlbumID3 oldItem, AlbumID3 newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getArtist(), newItem.getArtist())
+                    && Objects.equals(oldItem.getCoverArtId(), newItem.getCoverArtId())
+                    && Objects.equals(oldItem.getSongCount(), newItem.getSongCount())
+                    && Objects.equals(oldItem.getDuration(), newItem.getDuration())
+                    && oldItem.getYear() == newItem.getYear();
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<ArtistID3> ARTIST = new ArtistItemCallback<>();
+    public static final DiffUtil.ItemCallback<SimilarArtistID3> SIMILAR_ARTIST = new ArtistItemCallback<>();
+
+    public static final DiffUtil.ItemCallback<Artist> INDEX_ARTIST = new DiffUtil.ItemCallback<Artist>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Artist oldItem, @NonNull Artist newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Artist oldItem, @NonNull Artist newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<Genre> GENRE = new DiffUtil.ItemCallback<Genre>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Genre oldItem, @NonNull Genre newItem) {
+            return Objects.equals(oldItem.getGenre(), newItem.getGenre());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Genre oldItem, @NonNull Genre newItem) {
+            return oldItem.getSongCount() == newItem.getSongCount() && oldItem.getAlbumCount() == newItem.getAlbumCount();
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<Playlist> PLAYLIST = new DiffUtil.ItemCallback<Playlist>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Playlist oldItem, @NonNull Playlist newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Playlist oldItem, @NonNull Playlist newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getCoverArtId(), newItem.getCoverArtId())
+                    && oldItem.getSongCount() == newItem.getSongCount()
+                    && oldItem.getDuration() == newItem.getDuration()
+                    && Objects.equals(oldItem.getChanged(), newItem.getChanged());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<PodcastChannel> PODCAST_CHANNEL = new DiffUtil.ItemCallback<PodcastChannel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PodcastChannel oldItem, @NonNull PodcastChannel newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull PodcastChannel oldItem, @NonNull PodcastChannel newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getCoverArtId(), newItem.getCoverArtId())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<PodcastEpisode> PODCAST_EPISODE = new DiffUtil.ItemCallback<PodcastEpisode>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PodcastEpisode oldItem, @NonNull PodcastEpisode newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull PodcastEpisode oldItem, @NonNull PodcastEpisode newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getCoverArtId(), newItem.getCoverArtId())
+                    && Objects.equals(oldItem.getDuration(), newItem.getDuration())
+                    && Objects.equals(oldItem.getPublishDate(), newItem.getPublishDate())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<InternetRadioStation> INTERNET_RADIO_STATION = new DiffUtil.ItemCallback<InternetRadioStation>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull InternetRadioStation oldItem, @NonNull InternetRadioStation newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull InternetRadioStation oldItem, @NonNull InternetRadioStation newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getStreamUrl(), newItem.getStreamUrl())
+                    && Objects.equals(oldItem.getHomePageUrl(), newItem.getHomePageUrl());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<Share> SHARE = new DiffUtil.ItemCallback<Share>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Share oldItem, @NonNull Share newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Share oldItem, @NonNull Share newItem) {
+            return Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getUrl(), newItem.getUrl())
+                    && Objects.equals(oldItem.getExpires(), newItem.getExpires())
+                    && oldItem.getVisitCount() == newItem.getVisitCount();
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<MusicFolder> MUSIC_FOLDER = new DiffUtil.ItemCallback<MusicFolder>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull MusicFolder oldItem, @NonNull MusicFolder newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull MusicFolder oldItem, @NonNull MusicFolder newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<Server> SERVER = new DiffUtil.ItemCallback<Server>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Server oldItem, @NonNull Server newItem) {
+            return Objects.equals(oldItem.getServerId(), newItem.getServerId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Server oldItem, @NonNull Server newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<HomeSector> HOME_SECTOR = new DiffUtil.ItemCallback<HomeSector>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull HomeSector oldItem, @NonNull HomeSector newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull HomeSector oldItem, @NonNull HomeSector newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<Integer> YEAR = new DiffUtil.ItemCallback<Integer>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Integer oldItem, @NonNull Integer newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Integer oldItem, @NonNull Integer newItem) {
+            return true;
+        }
+    };
+
+    private static class SongItemCallback<T extends Child> extends DiffUtil.ItemCallback<T> {
+        @Override
+        public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+            return isSameSong(oldItem, newItem) && isSameRating(oldItem, newItem);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+            return isSameSong(oldItem, newItem) ? PAYLOAD_STARRED : null;
+        }
+
+        private boolean isSameSong(T oldItem, T newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getArtist(), newItem.getArtist())
+                    && Objects.equals(oldItem.getAlbum(), newItem.getAlbum())
+                    && Objects.equals(oldItem.getCoverArtId(), newItem.getCoverArtId())
+                    && Objects.equals(oldItem.getDuration(), newItem.getDuration())
+                    && Objects.equals(oldItem.getTrack(), newItem.getTrack())
+                    && Objects.equals(oldItem.getDiscNumber(), newItem.getDiscNumber())
+                    && Objects.equals(oldItem.getBitrate(), newItem.getBitrate())
+                    && Objects.equals(oldItem.getSuffix(), newItem.getSuffix());
+        }
+
+        private boolean isSameRating(T oldItem, T newItem) {
+            return Objects.equals(oldItem.getStarred(), newItem.getStarred())
+                    && Objects.equals(oldItem.getUserRating(), newItem.getUserRating());
+        }
+    }
+
+    private static class ArtistItemCallback<T extends ArtistID3> extends DiffUtil.ItemCallback<T> {
+        @Override
+        public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+            return isSameArtist(oldItem, newItem) && Objects.equals(oldItem.getStarred(), newItem.getStarred());
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+            return isSameArtist(oldItem, newItem) ? PAYLOAD_STARRED : null;
+        }
+
+        private boolean isSameArtist(T oldItem, T newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getCoverArtId(), newItem.getCoverArtId())
+                    && oldItem.getAlbumCount() == newItem.getAlbumCount();
+        }
+    }
+
+    /*
+     * Stable id of an item from its Subsonic id, a 64 bit FNV-1a hash so that ids of large libraries do not collide.
+     */
+    public static long getItemId(String id) {
+        if (id == null) return RecyclerView.NO_ID;
+
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+}
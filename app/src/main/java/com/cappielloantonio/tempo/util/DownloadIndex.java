@@ -0,0 +1,217 @@
+package com.cappielloantonio.tempo.util;
+
+import com.cappielloantonio.tempo.subsonic.models.Child;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Groups the downloaded songs by album, artist, genre and year, and keeps the groups up to date as songs
+ * are downloaded or removed.
+ * <p>
+ * Songs and groups are kept in the order of the download list, so that building the rows of a view only
+ * reads the groups, and the number of songs of a group is known without counting them. An update only
+ * moves the songs that were added or removed: the other ones keep their instance, which the diff of the
+ * adapter recognizes as unchanged.
+ */
+public class DownloadIndex {
+    // Same order as the download query: artist, album, disc number, track
+    private static final Comparator<Child> SONG_ORDER = Comparator
+            .comparing(Child::getArtist, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Child::getAlbum, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Child::getDiscNumber, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+            .thenComparing(Child::getTrack, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+            .thenComparing(Child::getId);
+
+    private static final Comparator<Group> GROUP_ORDER = (first, second) -> {
+        int order = SONG_ORDER.compare(first.songs.first(), second.songs.first());
+        return order != 0 ? order : first.key.compareTo(second.key);
+    };
+
+    private final Map<String, Child> songsById = new HashMap<>();
+    private final TreeSet<Child> songs = new TreeSet<>(SONG_ORDER);
+    private final Map<String, Grouping> groupings = new HashMap<>();
+
+    public DownloadIndex() {
+        groupings.put(Constants.DOWNLOAD_TYPE_ALBUM, new Grouping(Child::getAlbumId));
+        groupings.put(Constants.DOWNLOAD_TYPE_ARTIST, new Grouping(Child::getArtistId));
+        groupings.put(Constants.DOWNLOAD_TYPE_GENRE, new Grouping(Child::getGenre));
+        groupings.put(Constants.DOWNLOAD_TYPE_YEAR, new Grouping(song -> song.getYear() != null ? song.getYear().toString() : null));
+    }
+
+    /**
+     * @return whether songs were added or removed.
+     */
+    public boolean update(List<? extends Child> downloads) {
+        Set<String> ids = new HashSet<>(downloads.size());
+        boolean changed = false;
+
+        for (Child download : downloads) {
+            if (download.getId() == null || !ids.add(download.getId())) continue;
+
+            if (!songsById.containsKey(download.getId())) {
+                add(download);
+                changed = true;
+            }
+        }
+
+        if (ids.size() < songsById.size()) {
+            Iterator<Child> iterator = songsById.values().iterator();
+
+            while (iterator.hasNext()) {
+                Child song = iterator.next();
+
+                if (!ids.contains(song.getId())) {
+                    iterator.remove();
+                    remove(song);
+                    changed = true;
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    public boolean isEmpty() {
+        return songsById.isEmpty();
+    }
+
+    /**
+     * The rows of a view: the songs, or the first song of every group.
+     *
+     * @param filterKey   the grouping the rows are restricted to, if filterValue is not null.
+     * @param filterValue the group the rows are restricted to, or null for all of them.
+     */
+    public List<Child> getRows(String view, String filterKey, String filterValue) {
+        Collection<Child> rows = filterValue != null ? getGroupSongs(filterKey, filterValue) : songs;
+        Grouping grouping = groupings.get(view);
+
+        if (grouping == null) return new ArrayList<>(rows);
+        if (filterValue == null) return grouping.getFirstSongs();
+
+        List<Child> firstSongs = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+
+        for (Child song : rows) {
+            String key = grouping.key.apply(song);
+            if (key != null && keys.add(key)) firstSongs.add(song);
+        }
+
+        return firstSongs;
+    }
+
+    /**
+     * The songs of a group, or every song if the value is null.
+     */
+    public List<Child> getSongs(String groupBy, String value) {
+        return new ArrayList<>(value != null ? getGroupSongs(groupBy, value) : songs);
+    }
+
+    public int count(String groupBy, String value) {
+        return getGroupSongs(groupBy, value).size();
+    }
+
+    private Collection<Child> getGroupSongs(String groupBy, String value) {
+        if (Constants.DOWNLOAD_TYPE_TRACK.equals(groupBy)) {
+            Child song = songsById.get(value);
+            return song != null ? Collections.singleton(song) : Collections.emptySet();
+        }
+
+        Grouping grouping = groupings.get(groupBy);
+        Group group = grouping != null ? grouping.groups.get(value) : null;
+
+        return group != null ? group.songs : Collections.emptySet();
+    }
+
+    private void add(Child song) {
+        songsById.put(song.getId(), song);
+        songs.add(song);
+
+        for (Grouping grouping : groupings.values()) {
+            grouping.add(song);
+        }
+    }
+
+    private void remove(Child song) {
+        songs.remove(song);
+
+        for (Grouping grouping : groupings.values()) {
+            grouping.remove(song);
+        }
+    }
+
+    private static class Grouping {
+        private final Function<Child, String> key;
+        private final Map<String, Group> groups = new HashMap<>();
+        private final TreeSet<Group> orderedGroups = new TreeSet<>(GROUP_ORDER);
+
+        private Grouping(Function<Child, String> key) {
+            this.key = key;
+        }
+
+        /*
+         * The order of a group depends on its first song, so the group leaves the ordered set while its
+         * songs change.
+         */
+        private void add(Child song) {
+            String value = key.apply(song);
+            if (value == null) return;
+
+            Group group = groups.get(value);
+
+            if (group == null) {
+                group = new Group(value);
+                groups.put(value, group);
+            } else {
+                orderedGroups.remove(group);
+            }
+
+            group.songs.add(song);
+            orderedGroups.add(group);
+        }
+
+        private void remove(Child song) {
+            String value = key.apply(song);
+            Group group = value != null ? groups.get(value) : null;
+            if (group == null) return;
+
+            orderedGroups.remove(group);
+            group.songs.remove(song);
+
+            if (group.songs.isEmpty()) {
+                groups.remove(value);
+            } else {
+                orderedGroups.add(group);
+            }
+        }
+
+        private List<Child> getFirstSongs() {
+            List<Child> firstSongs = new ArrayList<>(orderedGroups.size());
+
+            for (Group group : orderedGroups) {
+                firstSongs.add(group.songs.first());
+            }
+
+            return firstSongs;
+        }
+    }
+
+    private static class Group {
+        private final String key;
+        private final TreeSet<Child> songs = new TreeSet<>(SONG_ORDER);
+
+        private Group(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -2,8 +2,16 @@ package com.cappielloantonio.tempo.util;
 
 import android.app.Notification;
 import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.util.Log;
 
+import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.audio.AudioProcessor;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.database.DatabaseProvider;
 import androidx.media3.database.StandaloneDatabaseProvider;
@@ -14,62 +22,147 @@ import androidx.media3.datasource.DefaultHttpDataSource;
 import androidx.media3.datasource.ResolvingDataSource;
 import androidx.media3.datasource.cache.Cache;
 import androidx.media3.datasource.cache.CacheDataSource;
-import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor;
+import androidx.media3.datasource.cache.CacheWriter;
+import androidx.media3.datasource.cache.ContentMetadata;
 import androidx.media3.datasource.cache.NoOpCacheEvictor;
 import androidx.media3.datasource.cache.SimpleCache;
 import androidx.media3.exoplayer.DefaultRenderersFactory;
+import androidx.media3.exoplayer.Renderer;
+import androidx.media3.exoplayer.RendererCapabilities;
 import androidx.media3.exoplayer.RenderersFactory;
+import androidx.media3.exoplayer.audio.AudioRendererEventListener;
+import androidx.media3.exoplayer.audio.AudioSink;
+import androidx.media3.exoplayer.audio.DefaultAudioSink;
+import androidx.media3.exoplayer.audio.ForwardingAudioSink;
+import androidx.media3.exoplayer.audio.MediaCodecAudioRenderer;
+import androidx.media3.exoplayer.mediacodec.MediaCodecSelector;
+import androidx.media3.exoplayer.mediacodec.MediaCodecUtil;
 import androidx.media3.exoplayer.offline.DownloadManager;
 import androidx.media3.exoplayer.offline.DownloadNotificationHelper;
 
+import com.cappielloantonio.tempo.App;
 import com.cappielloantonio.tempo.service.DownloaderManager;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.CookieHandler;
 import java.net.CookieManager;
 import java.net.CookiePolicy;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 @UnstableApi
 public final class DownloadUtil {
+    private static final String TAG = "DownloadUtil";
 
     public static final String DOWNLOAD_NOTIFICATION_CHANNEL_ID = "download_channel";
     public static final String DOWNLOAD_NOTIFICATION_SUCCESSFUL_GROUP = "com.cappielloantonio.tempo.SuccessfulDownload";
     public static final String DOWNLOAD_NOTIFICATION_FAILED_GROUP = "com.cappielloantonio.tempo.FailedDownload";
+    public static final String PINNED_BY_CACHE_WARMING = "cache_warming";
+    public static final String PINNED_BY_PODCAST_PREFETCH = "podcast_prefetch";
 
     private static final String STREAMING_CACHE_CONTENT_DIRECTORY = "streaming_cache";
     private static final String DOWNLOAD_CONTENT_DIRECTORY = "downloads";
+    private static final String PINNED_ARTWORK_DIRECTORY = "pinned_artwork";
+    private static final int RADIO_TIMEOUT_MS = 5000;
+    private static final int PINNED_FRACTION = 2;
 
     private static DataSource.Factory dataSourceFactory;
+    private static DataSource.Factory radioDataSourceFactory;
     private static DataSource.Factory httpDataSourceFactory;
     private static DatabaseProvider databaseProvider;
     private static File streamingCacheDirectory;
     private static File downloadDirectory;
     private static Cache downloadCache;
     private static SimpleCache streamingCache;
+    private static PinnedCacheEvictor streamingCacheEvictor;
+    private static final Map<String, Set<String>> pinnedStreamKeys = new HashMap<>();
     private static DownloadManager downloadManager;
     private static DownloaderManager downloaderManager;
     private static DownloadNotificationHelper downloadNotificationHelper;
+    private static ExecutorService preCacheExecutor;
+
+    // The stream the player last opened for each song, resumed streams keep its bitrate
+    private static final Map<String, Uri> playerStreamUris = new LinkedHashMap<String, Uri>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Uri> eldest) {
+            return size() > 16;
+        }
+    };
 
     public static boolean useExtensionRenderers() {
         return true;
     }
 
     public static RenderersFactory buildRenderersFactory(Context context, boolean preferExtensionRenderer) {
+        return buildRenderersFactory(context, preferExtensionRenderer, null);
+    }
+
+    /**
+     * @param replayGainAudioProcessor the processor applying the ReplayGain to the audio output, or null to
+     *                                 leave the audio sink as it is.
+     */
+    public static RenderersFactory buildRenderersFactory(Context context, boolean preferExtensionRenderer, @Nullable ReplayGainAudioProcessor replayGainAudioProcessor) {
         @DefaultRenderersFactory.ExtensionRendererMode int extensionRendererMode =
                 useExtensionRenderers()
                         ? (preferExtensionRenderer ? DefaultRenderersFactory.EXTENSION_RENDERER_MODE_PREFER : DefaultRenderersFactory.EXTENSION_RENDERER_MODE_ON)
                         : DefaultRenderersFactory.EXTENSION_RENDERER_MODE_OFF;
 
-        return new DefaultRenderersFactory(context.getApplicationContext()).setExtensionRendererMode(extensionRendererMode);
+        return new DefaultRenderersFactory(context.getApplicationContext()) {
+            @Override
+            protected void buildAudioRenderers(Context context, @ExtensionRendererMode int extensionRendererMode, MediaCodecSelector mediaCodecSelector, boolean enableDecoderFallback, AudioSink audioSink, Handler eventHandler, AudioRendererEventListener eventListener, ArrayList<Renderer> out) {
+                super.buildAudioRenderers(context, extensionRendererMode, mediaCodecSelector, enableDecoderFallback, audioSink, eventHandler, eventListener, out);
+
+                // Formats the platform cannot decode are left to the extension renderers that follow
+                for (int i = 0; i < out.size(); i++) {
+                    if (!(out.get(i) instanceof MediaCodecAudioRenderer)) continue;
+
+                    out.set(i, new MediaCodecAudioRenderer(context, getCodecAdapterFactory(), mediaCodecSelector, enableDecoderFallback, eventHandler, eventListener, audioSink) {
+                        @Override
+                        protected @Capabilities int supportsFormat(MediaCodecSelector mediaCodecSelector, Format format) throws MediaCodecUtil.DecoderQueryException {
+                            if (!CodecUtil.isSupported(format)) {
+                                return RendererCapabilities.create(C.FORMAT_EXCEEDS_CAPABILITIES);
+                            }
+
+                            return super.supportsFormat(mediaCodecSelector, format);
+                        }
+                    });
+                }
+            }
+
+            @Override
+            protected AudioSink buildAudioSink(Context context, boolean enableFloatOutput, boolean enableAudioTrackPlaybackParams) {
+                if (replayGainAudioProcessor == null) {
+                    return super.buildAudioSink(context, enableFloatOutput, enableAudioTrackPlaybackParams);
+                }
+
+                AudioSink audioSink = new DefaultAudioSink.Builder(context)
+                        .setEnableFloatOutput(enableFloatOutput)
+                        .setEnableAudioTrackPlaybackParams(enableAudioTrackPlaybackParams)
+                        .setAudioProcessors(new AudioProcessor[]{replayGainAudioProcessor})
+                        .build();
+
+                // A discontinuity is signalled when the renderer starts writing the samples of the next stream
+                return new ForwardingAudioSink(audioSink) {
+                    @Override
+                    public void handleDiscontinuity() {
+                        replayGainAudioProcessor.onStreamBoundary();
+                        super.handleDiscontinuity();
+                    }
+                };
+            }
+        }.setExtensionRendererMode(extensionRendererMode).setMediaCodecSelector(CodecUtil.HARDWARE_FIRST_SELECTOR);
     }
 
     public static synchronized DataSource.Factory getHttpDataSourceFactory() {
         if (httpDataSourceFactory == null) {
-            CookieManager cookieManager = new CookieManager();
-            cookieManager.setCookiePolicy(CookiePolicy.ACCEPT_ORIGINAL_SERVER);
-            CookieHandler.setDefault(cookieManager);
+            installCookieHandler();
             httpDataSourceFactory = new DefaultHttpDataSource
                     .Factory()
                     .setAllowCrossProtocolRedirects(true);
@@ -78,6 +171,18 @@ public final class DownloadUtil {
         return httpDataSourceFactory;
     }
 
+    /*
+     * The HTTP data sources keep the cookies of the server, sticky sessions of a load balancer for instance,
+     * through the default cookie handler of the process.
+     */
+    private static synchronized void installCookieHandler() {
+        if (CookieHandler.getDefault() != null) return;
+
+        CookieManager cookieManager = new CookieManager();
+        cookieManager.setCookiePolicy(CookiePolicy.ACCEPT_ORIGINAL_SERVER);
+        CookieHandler.setDefault(cookieManager);
+    }
+
     public static synchronized DataSource.Factory getDataSourceFactory(Context context) {
         if (dataSourceFactory == null) {
             context = context.getApplicationContext();
@@ -92,7 +197,7 @@ public final class DownloadUtil {
                 ResolvingDataSource.Factory resolvingFactory = new ResolvingDataSource.Factory(
                         new StreamingCacheDataSource.Factory(streamCacheFactory),
                         dataSpec -> {
-                            DataSpec.Builder builder = dataSpec.buildUpon();
+                            DataSpec.Builder builder = resolvePlayerDataSpec(dataSpec).buildUpon();
                             builder.setFlags(dataSpec.flags & ~DataSpec.FLAG_DONT_CACHE_IF_LENGTH_UNKNOWN);
                             return builder.build();
                         }
@@ -100,13 +205,35 @@ public final class DownloadUtil {
 
                 dataSourceFactory = buildReadOnlyCacheDataSource(resolvingFactory, getDownloadCache(context));
             } else {
-                dataSourceFactory = buildReadOnlyCacheDataSource(upstreamFactory, getDownloadCache(context));
+                ResolvingDataSource.Factory resolvingFactory = new ResolvingDataSource.Factory(upstreamFactory, DownloadUtil::resolvePlayerDataSpec);
+
+                dataSourceFactory = buildReadOnlyCacheDataSource(resolvingFactory, getDownloadCache(context));
             }
         }
 
         return dataSourceFactory;
     }
 
+    /*
+     * Live radio streams are neither cached nor looked up in the caches. Short timeouts let a connection
+     * left on a lost network fail fast, so that it is reopened on the new one.
+     */
+    public static synchronized DataSource.Factory getRadioDataSourceFactory(Context context) {
+        if (radioDataSourceFactory == null) {
+            installCookieHandler();
+
+            radioDataSourceFactory = new DefaultDataSource.Factory(
+                    context.getApplicationContext(),
+                    new DefaultHttpDataSource.Factory()
+                            .setAllowCrossProtocolRedirects(true)
+                            .setConnectTimeoutMs(RADIO_TIMEOUT_MS)
+                            .setReadTimeoutMs(RADIO_TIMEOUT_MS)
+            );
+        }
+
+        return radioDataSourceFactory;
+    }
+
     public static synchronized DownloadNotificationHelper getDownloadNotificationHelper(Context context) {
         if (downloadNotificationHelper == null) {
             downloadNotificationHelper = new DownloadNotificationHelper(context, DOWNLOAD_NOTIFICATION_CHANNEL_ID);
@@ -125,6 +252,213 @@ public final class DownloadUtil {
         return downloaderManager;
     }
 
+    public static boolean isServedFromDisk(Context context, MediaItem mediaItem) {
+        if (getDownloadTracker(context).isDownloaded(mediaItem)) return true;
+        if (Preferences.getStreamingCacheSize() <= 0 || mediaItem.localConfiguration == null) return false;
+
+        return isStreamCached(context, getStreamCacheKey(mediaItem));
+    }
+
+    public static boolean isStreamCached(Context context, String cacheKey) {
+        if (Preferences.getStreamingCacheSize() <= 0) return false;
+
+        return isStreamCached(getStreamingCache(context), cacheKey);
+    }
+
+    private static boolean isStreamCached(Cache cache, String cacheKey) {
+        // Partially cached streams are dropped on close, a known length means the stream is complete
+        long contentLength = ContentMetadata.getContentLength(cache.getContentMetadata(cacheKey));
+
+        return contentLength != C.LENGTH_UNSET && cache.isCached(cacheKey, 0, contentLength);
+    }
+
+    /*
+     * Reads the beginning of a stream into the streaming cache, so that its playback starts from disk.
+     */
+    public static void preCache(Context context, MediaItem mediaItem, long length) {
+        if (Preferences.getStreamingCacheSize() <= 0 || mediaItem.localConfiguration == null) return;
+        if (getDownloadTracker(context).isDownloaded(mediaItem)) return;
+
+        Context appContext = context.getApplicationContext();
+        DataSpec dataSpec = buildStreamDataSpec(mediaItem, length);
+
+        getPreCacheExecutor().execute(() -> {
+            try {
+                buildStreamingCacheWriter(appContext, dataSpec, null).cache();
+            } catch (IOException exception) {
+                Log.w(TAG, "Unable to pre-cache " + mediaItem.mediaId, exception);
+            }
+        });
+    }
+
+    /*
+     * The request a media item is read with from the streaming cache, its key being the one the item is cached under.
+     */
+    public static DataSpec buildStreamDataSpec(MediaItem mediaItem, long length) {
+        DataSpec dataSpec = resolveStreamDataSpec(new DataSpec.Builder()
+                .setUri(mediaItem.localConfiguration.uri)
+                .setKey(mediaItem.localConfiguration.customCacheKey)
+                .setLength(length)
+                .build());
+
+        return dataSpec.key != null ? dataSpec : dataSpec.buildUpon().setKey(dataSpec.uri.toString()).build();
+    }
+
+    /*
+     * Writes a request into the streaming cache when cache() is called, blocking until done or cancelled.
+     */
+    public static CacheWriter buildStreamingCacheWriter(Context context, DataSpec dataSpec, CacheWriter.ProgressListener progressListener) {
+        CacheDataSource dataSource = new CacheDataSource.Factory()
+                .setCache(getStreamingCache(context))
+                .setUpstreamDataSourceFactory(new DefaultDataSource.Factory(context, getHttpDataSourceFactory()))
+                .createDataSource();
+
+        return new CacheWriter(dataSource, dataSpec, null, progressListener);
+    }
+
+    /*
+     * The length of a stream known before fetching it: the one recorded with its cached data, or else an
+     * estimate from the requested bitrate when transcoded and from the size of the file otherwise.
+     * C.LENGTH_UNSET when neither is known.
+     */
+    public static long getStreamLength(Context context, DataSpec dataSpec, Long size, Integer duration) {
+        if (Preferences.getStreamingCacheSize() > 0) {
+            long cachedLength = ContentMetadata.getContentLength(getStreamingCache(context).getContentMetadata(dataSpec.key));
+            if (cachedLength != C.LENGTH_UNSET) return cachedLength;
+        }
+
+        String format = dataSpec.uri.getQueryParameter("format");
+        String maxBitRate = dataSpec.uri.getQueryParameter("maxBitRate");
+
+        if (format != null && !format.equals("raw") && maxBitRate != null && !maxBitRate.equals("0")) {
+            return duration != null ? duration * Long.parseLong(maxBitRate) * 1000 / 8 : C.LENGTH_UNSET;
+        }
+
+        return size != null ? size : C.LENGTH_UNSET;
+    }
+
+    /*
+     * Pinned streams take up to half of the streaming cache, shared equally when both features pin streams.
+     */
+    public static long getPinnedStreamBudget() {
+        boolean shared = Preferences.isCacheWarmingEnabled() && Preferences.isPodcastPrefetchEnabled();
+        return shared ? getPinnedStreamLimit() / 2 : getPinnedStreamLimit();
+    }
+
+    private static long getPinnedStreamLimit() {
+        return Preferences.getStreamingCacheSize() * 1024 * 1024 / PINNED_FRACTION;
+    }
+
+    /*
+     * Keys of streams kept out of the least recently used eviction, within the cache warming budget.
+     * Each feature pinning streams replaces its own set.
+     */
+    public static synchronized void setPinnedStreamKeys(Context context, String owner, Set<String> keys) {
+        if (Preferences.getStreamingCacheSize() <= 0) return;
+
+        getStreamingCache(context);
+        pinnedStreamKeys.put(owner, new HashSet<>(keys));
+        streamingCacheEvictor.setPinnedKeys(getPinnedStreamKeys());
+    }
+
+    public static synchronized void removeFromStreamingCache(Context context, String key) {
+        if (Preferences.getStreamingCacheSize() <= 0) return;
+
+        getStreamingCache(context).removeResource(key);
+    }
+
+    private static Set<String> getPinnedStreamKeys() {
+        Set<String> keys = new HashSet<>();
+
+        for (Set<String> ownerKeys : pinnedStreamKeys.values()) {
+            keys.addAll(ownerKeys);
+        }
+
+        return keys;
+    }
+
+    private static DataSpec resolveStreamDataSpec(DataSpec dataSpec) {
+        if (!AdaptiveBitrateUtil.isStreamUri(dataSpec.uri)) return dataSpec;
+
+        Uri uri = resolveStreamUri(dataSpec.uri, dataSpec.position);
+
+        return dataSpec.buildUpon()
+                .setUri(uri)
+                .setKey(AdaptiveBitrateUtil.getCacheKey(uri))
+                .build();
+    }
+
+    /*
+     * Only the streams opened by the player are recorded: the ones read by the pre-caching and prefetching
+     * jobs, possibly at another bitrate, must not change the bitrate a playing stream is resumed with.
+     */
+    private static DataSpec resolvePlayerDataSpec(DataSpec dataSpec) {
+        DataSpec resolved = resolveStreamDataSpec(dataSpec);
+
+        if (AdaptiveBitrateUtil.isStreamUri(resolved.uri)) {
+            synchronized (playerStreamUris) {
+                playerStreamUris.put(resolved.uri.getQueryParameter("id"), resolved.uri);
+            }
+        }
+
+        return resolved;
+    }
+
+    /*
+     * A stream opened from the start gets the bitrate currently chosen by the adaptive mode, unless the
+     * song is already complete in the streaming cache at another bitrate of the same format. A resumed
+     * stream keeps the bitrate the player opened it with, as byte offsets differ between bitrates, or
+     * else the one whose cached data holds the position.
+     */
+    private static Uri resolveStreamUri(Uri uri, long position) {
+        if (position > 0) {
+            synchronized (playerStreamUris) {
+                Uri opened = playerStreamUris.get(uri.getQueryParameter("id"));
+                if (opened != null) return opened;
+            }
+        }
+
+        if (!AdaptiveBitrateUtil.isEnabled()) return uri;
+
+        Uri current = AdaptiveBitrateUtil.withCurrentBitrate(uri);
+        String cachedKey = findCachedStreamKey(AdaptiveBitrateUtil.getCacheKey(current), position);
+
+        return cachedKey != null ? AdaptiveBitrateUtil.withBitrate(current, AdaptiveBitrateUtil.getCachedBitrate(cachedKey)) : current;
+    }
+
+    /*
+     * Looks for a bitrate of the song and format of the key, the key itself first, that is complete in
+     * the streaming cache or, for a resumed stream, holds the position.
+     */
+    private static String findCachedStreamKey(String key, long position) {
+        if (Preferences.getStreamingCacheSize() <= 0) return null;
+
+        Cache cache = getStreamingCache(App.getContext());
+        if (isCachedAt(cache, key, position)) return key;
+
+        String prefix = key.substring(0, key.lastIndexOf('/') + 1);
+
+        for (String cachedKey : cache.getKeys()) {
+            if (cachedKey.startsWith(prefix) && isCachedAt(cache, cachedKey, position)) return cachedKey;
+        }
+
+        return null;
+    }
+
+    private static boolean isCachedAt(Cache cache, String key, long position) {
+        return position > 0 ? cache.getCachedLength(key, position, 1) > 0 : isStreamCached(cache, key);
+    }
+
+    private static String getStreamCacheKey(MediaItem mediaItem) {
+        Uri uri = mediaItem.localConfiguration.uri;
+
+        if (AdaptiveBitrateUtil.isStreamUri(uri)) {
+            return AdaptiveBitrateUtil.getCacheKey(resolveStreamUri(uri, 0));
+        }
+
+        return mediaItem.localConfiguration.customCacheKey != null ? mediaItem.localConfiguration.customCacheKey : uri.toString();
+    }
+
     private static synchronized Cache getDownloadCache(Context context) {
         if (downloadCache == null) {
             File downloadContentDirectory = new File(getDownloadDirectory(context), DOWNLOAD_CONTENT_DIRECTORY);
@@ -138,11 +472,21 @@ public final class DownloadUtil {
         if (streamingCache == null) {
             File streamingCacheDirectory = new File(getStreamingCacheDirectory(context), STREAMING_CACHE_CONTENT_DIRECTORY);
 
-            streamingCache = new SimpleCache(
-                    streamingCacheDirectory,
-                    new LeastRecentlyUsedCacheEvictor(Preferences.getStreamingCacheSize() * 1024 * 1024),
-                    getDatabaseProvider(context)
+            if (Preferences.isCacheWarmingEnabled()) {
+                pinnedStreamKeys.put(PINNED_BY_CACHE_WARMING, Preferences.getCacheWarmingKeys());
+            }
+
+            if (Preferences.isPodcastPrefetchEnabled()) {
+                pinnedStreamKeys.put(PINNED_BY_PODCAST_PREFETCH, Preferences.getPodcastPrefetchKeys());
+            }
+
+            streamingCacheEvictor = new PinnedCacheEvictor(
+                    Preferences.getStreamingCacheSize() * 1024 * 1024,
+                    getPinnedStreamLimit(),
+                    getPinnedStreamKeys()
             );
+
+            streamingCache = new SimpleCache(streamingCacheDirectory, streamingCacheEvictor, getDatabaseProvider(context));
         }
 
         return streamingCache;
@@ -170,6 +514,14 @@ public final class DownloadUtil {
         return databaseProvider;
     }
 
+    private static synchronized ExecutorService getPreCacheExecutor() {
+        if (preCacheExecutor == null) {
+            preCacheExecutor = Executors.newSingleThreadExecutor();
+        }
+
+        return preCacheExecutor;
+    }
+
     private static synchronized File getStreamingCacheDirectory(Context context) {
         if (streamingCacheDirectory == null) {
             if (Preferences.getStreamingCacheStoragePreference() == 0) {
@@ -212,6 +564,16 @@ public final class DownloadUtil {
         return downloadDirectory;
     }
 
+    public static synchronized File getPinnedArtworkDirectory(Context context) {
+        File pinnedArtworkDirectory = new File(getDownloadDirectory(context), PINNED_ARTWORK_DIRECTORY);
+
+        if (!pinnedArtworkDirectory.exists()) {
+            pinnedArtworkDirectory.mkdirs();
+        }
+
+        return pinnedArtworkDirectory;
+    }
+
     private static CacheDataSource.Factory buildReadOnlyCacheDataSource(DataSource.Factory upstreamFactory, Cache cache) {
         return new CacheDataSource.Factory()
                 .setCache(cache)
@@ -0,0 +1,296 @@
+package com.cappielloantonio.tempo.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+
+import com.cappielloantonio.tempo.App;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the sectors of the home feed in the order they are shown, a few at a time.
+ * <p>
+ * The last list received for a sector is saved to disk and shown as soon as the feed starts, while the
+ * sector is loaded again from the server. A sector keeps its saved list until the server answers, so
+ * the home is not empty on a cold start or when the server cannot be reached. A sector whose request
+ * fails is done right away and gives its place to the next one.
+ */
+public class HomeFeedLoader {
+    private static final String TAG = "HomeFeedLoader";
+
+    private static final long LOAD_TIMEOUT = TimeUnit.SECONDS.toMillis(15);
+    private static final long SAVE_DELAY = TimeUnit.SECONDS.toMillis(2);
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Gson GSON = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss").create();
+
+    private static final int IDLE = 0;
+    private static final int QUEUED = 1;
+    private static final int LOADING = 2;
+    private static final int LOADED = 3;
+
+    public interface Source<T> {
+        RemoteLiveData<List<T>> load();
+    }
+
+    private final int maxLoads;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, Sector<?>> sectors = new HashMap<>();
+    private final Deque<Sector<?>> queue = new ArrayDeque<>();
+
+    private int loads = 0;
+    private boolean stopped = false;
+
+    /**
+     * @param maxLoads the number of sectors loaded from the server at the same time.
+     */
+    public HomeFeedLoader(int maxLoads) {
+        this.maxLoads = maxLoads;
+    }
+
+    /**
+     * @param type the type of the list, used to read the saved list back.
+     */
+    public <T> void register(String id, Type type, MutableLiveData<List<T>> target, Source<T> source) {
+        sectors.put(id, new Sector<>(id, type, target, source));
+    }
+
+    /**
+     * Shows the saved sectors, then loads them from the server in the given order.
+     */
+    public void start(List<String> order) {
+        List<Sector<?>> started = new ArrayList<>();
+
+        for (String id : order) {
+            Sector<?> sector = sectors.get(id);
+            if (sector == null || sector.state != IDLE) continue;
+
+            sector.state = QUEUED;
+            queue.addLast(sector);
+            started.add(sector);
+        }
+
+        restore(started);
+        next();
+    }
+
+    /**
+     * Loads a sector the feed was not started with, after the ones already waiting.
+     */
+    public void load(String id) {
+        Sector<?> sector = sectors.get(id);
+        if (sector == null || sector.state != IDLE) return;
+
+        sector.state = QUEUED;
+        queue.addLast(sector);
+
+        restore(Collections.singletonList(sector));
+        next();
+    }
+
+    /**
+     * Loads a sector again before the ones waiting, unless it is still waiting for the server.
+     */
+    public void refresh(String id) {
+        Sector<?> sector = sectors.get(id);
+        if (sector == null || sector.state == QUEUED) return;
+
+        if (sector.state == LOADING) {
+            if (sector.holdsLoad) return;
+            sector.finish();
+        }
+
+        sector.state = QUEUED;
+        queue.addFirst(sector);
+
+        next();
+    }
+
+    public void stop() {
+        stopped = true;
+        queue.clear();
+
+        for (Sector<?> sector : sectors.values()) {
+            if (sector.state == LOADING) sector.finish();
+        }
+    }
+
+    private void next() {
+        while (!stopped && loads < maxLoads && !queue.isEmpty()) {
+            queue.pollFirst().start();
+        }
+    }
+
+    private void restore(List<Sector<?>> restored) {
+        String server = Preferences.getServerId();
+        if (server == null || restored.isEmpty()) return;
+
+        EXECUTOR.execute(() -> {
+            for (Sector<?> sector : restored) {
+                Object items = read(getSnapshot(server, sector.id), sector.type);
+                if (items != null) mainHandler.post(() -> sector.restore(items));
+            }
+        });
+    }
+
+    private static File getSnapshot(String server, String id) {
+        return new File(App.getContext().getCacheDir(), "home_feed/" + server + "/" + id + ".json");
+    }
+
+    private static Object read(File file, Type type) {
+        if (!file.exists()) return null;
+
+        try (Reader reader = new FileReader(file)) {
+            return GSON.fromJson(reader, type);
+        } catch (Exception exception) {
+            Log.w(TAG, "Unable to read " + file.getName(), exception);
+            return null;
+        }
+    }
+
+    private static void write(File file, Object items) {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) return;
+
+        // Written aside and renamed, so that a snapshot is never read half written
+        File temporary = new File(file.getPath() + ".tmp");
+
+        try (Writer writer = new FileWriter(temporary)) {
+            GSON.toJson(items, writer);
+        } catch (IOException exception) {
+            Log.w(TAG, "Unable to write " + file.getName(), exception);
+            return;
+        }
+
+        if (!temporary.renameTo(file)) Log.w(TAG, "Unable to replace " + file.getName());
+    }
+
+    /*
+     * A sector frees its place for the next one with its first answer or its failure, or after a timeout.
+     * Some lists are then completed one item at a time: the sector keeps following them until the
+     * timeout, and saves the last one.
+     */
+    private class Sector<T> implements Observer<List<T>> {
+        private final String id;
+        private final Type type;
+        private final MutableLiveData<List<T>> target;
+        private final Source<T> source;
+
+        private final Runnable timeout = this::finish;
+        private final Runnable saving = this::save;
+
+        private int state = IDLE;
+        private RemoteLiveData<List<T>> live;
+        private List<T> latest;
+        private boolean unsaved;
+        private boolean attached;
+        private boolean holdsLoad;
+
+        private Sector(String id, Type type, MutableLiveData<List<T>> target, Source<T> source) {
+            this.id = id;
+            this.type = type;
+            this.target = target;
+            this.source = source;
+        }
+
+        private void start() {
+            state = LOADING;
+            loads++;
+            holdsLoad = true;
+
+            latest = null;
+            unsaved = false;
+            attached = false;
+
+            RemoteLiveData<List<T>> requested = source.load();
+
+            live = requested;
+            live.observeForever(this);
+            attached = true;
+
+            // The saved list is kept, a failure is not an answer
+            live.setFailureListener(() -> {
+                if (live == requested) finish();
+            });
+
+            mainHandler.postDelayed(timeout, LOAD_TIMEOUT);
+        }
+
+        /*
+         * The value a list holds when it is observed is the placeholder of the repository, not an answer.
+         */
+        @Override
+        public void onChanged(List<T> items) {
+            if (!attached || items == null) return;
+
+            latest = items;
+            unsaved = true;
+            release();
+
+            target.setValue(items);
+
+            mainHandler.removeCallbacks(saving);
+            mainHandler.postDelayed(saving, SAVE_DELAY);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void restore(Object items) {
+            if (!stopped && target.getValue() == null) target.setValue((List<T>) items);
+        }
+
+        private void finish() {
+            mainHandler.removeCallbacks(timeout);
+            mainHandler.removeCallbacks(saving);
+
+            if (live != null) live.removeObserver(this);
+            live = null;
+
+            if (unsaved) save();
+
+            state = LOADED;
+            release();
+        }
+
+        private void save() {
+            String server = Preferences.getServerId();
+            if (server == null || latest == null) return;
+
+            unsaved = false;
+
+            List<T> items = new ArrayList<>(latest);
+            File snapshot = getSnapshot(server, id);
+
+            EXECUTOR.execute(() -> write(snapshot, items));
+        }
+
+        private void release() {
+            if (!holdsLoad) return;
+
+            holdsLoad = false;
+            loads--;
+            next();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cappielloantonio.tempo.util;
+
+import android.os.Handler;
+
+import androidx.media3.common.Player;
+
+/**
+ * Follows the synced lines of the lyrics with a single timer set for the start of the next line, instead
+ * of polling the position of the player.
+ * <p>
+ * Nothing is scheduled while paused: the player listener of the caller syncs again when playback resumes,
+ * seeks or changes speed.
+ */
+public class LyricsLineScheduler {
+    // Fires slightly after a line boundary so that the player position is past it
+    private static final long LINE_BOUNDARY_MARGIN = 20;
+
+    private final Handler handler;
+    private final Runnable callback;
+    private boolean scheduled = false;
+
+    /**
+     * @param callback called on the handler at the start of the next line, usually to sync again.
+     */
+    public LyricsLineScheduler(Handler handler, Runnable callback) {
+        this.handler = handler;
+        this.callback = callback;
+    }
+
+    /**
+     * Returns the line at the current position of the player and, while playing, schedules the callback
+     * for the start of the next one.
+     *
+     * @param lineStarts the start times of the lines, in order.
+     */
+    public int sync(Player player, long[] lineStarts) {
+        cancel();
+
+        long position = player.getCurrentPosition();
+        int index = findLineIndex(lineStarts, position);
+
+        if (player.isPlaying() && index + 1 < lineStarts.length) {
+            long delay = (long) ((lineStarts[index + 1] - position) / player.getPlaybackParameters().speed) + LINE_BOUNDARY_MARGIN;
+
+            handler.postDelayed(callback, Math.max(delay, LINE_BOUNDARY_MARGIN));
+            scheduled = true;
+        }
+
+        return index;
+    }
+
+    public void cancel() {
+        handler.removeCallbacks(callback);
+        scheduled = false;
+    }
+
+    public boolean isScheduled() {
+        return scheduled;
+    }
+
+    /**
+     * Index of the last line starting at or before the position, -1 before the first line.
+     */
+    public static int findLineIndex(long[] lineStarts, long position) {
+        int low = 0;
+        int high = lineStarts.length - 1;
+        int index = -1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+
+            if (lineStarts[mid] <= position) {
+                index = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return index;
+    }
+}
@@ -10,7 +10,6 @@ import androidx.media3.common.MimeTypes;
 import androidx.media3.common.util.UnstableApi;
 
 import com.cappielloantonio.tempo.App;
-import com.cappielloantonio.tempo.glide.CustomGlideRequest;
 import com.cappielloantonio.tempo.model.Download;
 import com.cappielloantonio.tempo.repository.DownloadRepository;
 import com.cappielloantonio.tempo.subsonic.models.Child;
@@ -34,7 +33,7 @@ public class MappingUtil {
 
     public static MediaItem mapMediaItem(Child media) {
         Uri uri = getUri(media);
-        Uri artworkUri = Uri.parse(CustomGlideRequest.createUrl(media.getCoverArtId(), Preferences.getImageSize()));
+        Uri artworkUri = ArtworkUtil.getArtworkUri(media.getCoverArtId());
 
         Bundle bundle = new Bundle();
         bundle.putString("id", media.getId());
@@ -70,6 +69,10 @@ public class MappingUtil {
         bundle.putInt("originalHeight", media.getOriginalHeight() != null ? media.getOriginalHeight() : 0);
         bundle.putString("uri", uri.toString());
 
+        if (media.getReplayGain() != null) {
+            ReplayGainUtil.putReplayGain(bundle, media.getReplayGain());
+        }
+
         return new MediaItem.Builder()
                 .setMediaId(media.getId())
                 .setMediaMetadata(
@@ -166,7 +169,7 @@ public class MappingUtil {
 
     public static MediaItem mapMediaItem(PodcastEpisode podcastEpisode) {
         Uri uri = getUri(podcastEpisode);
-        Uri artworkUri = Uri.parse(CustomGlideRequest.createUrl(podcastEpisode.getCoverArtId(), Preferences.getImageSize()));
+        Uri artworkUri = ArtworkUtil.getArtworkUri(podcastEpisode.getCoverArtId());
 
         Bundle bundle = new Bundle();
         bundle.putString("id", podcastEpisode.getId());
@@ -186,6 +189,7 @@ public class MappingUtil {
         bundle.putLong("created", podcastEpisode.getCreated() != null ? podcastEpisode.getCreated().getTime() : 0);
         bundle.putString("artistId", podcastEpisode.getArtistId());
         bundle.putString("description", podcastEpisode.getDescription());
+        bundle.putString("streamId", podcastEpisode.getStreamId());
         bundle.putString("type", Constants.MEDIA_TYPE_PODCAST);
         bundle.putString("uri", uri.toString());
 
@@ -252,13 +252,17 @@ public class MusicUtil {
         if (audioTranscodeFormat.equals("raw") || network == null || networkCapabilities == null)
             return "0";
 
+        String maxBitrate;
+
         if (networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
-            return Preferences.getMaxBitrateWifi();
+            maxBitrate = Preferences.getMaxBitrateWifi();
         } else if (networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
-            return Preferences.getMaxBitrateMobile();
+            maxBitrate = Preferences.getMaxBitrateMobile();
         } else {
-            return Preferences.getMaxBitrateWifi();
+            maxBitrate = Preferences.getMaxBitrateWifi();
         }
+
+        return AdaptiveBitrateUtil.isEnabled() ? AdaptiveBitrateUtil.getBitrate(maxBitrate) : maxBitrate;
     }
 
     public static String getTranscodingFormatPreference() {
@@ -0,0 +1,97 @@
+package com.cappielloantonio.tempo.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Diffs the lists submitted to an adapter off the main thread, like {@link androidx.recyclerview.widget.AsyncListDiffer},
+ * but keeps a current list the adapter can reorder in place, as the drag and drop of the queue and of the
+ * playlist editor do.
+ * <p>
+ * A diff is only dispatched if the current list has not been moved while it was computed, otherwise it is
+ * computed again from the moved list. Only the last submitted list is applied.
+ */
+public class MutableListDiffer<T> {
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final RecyclerView.Adapter<?> adapter;
+    private final DiffUtil.ItemCallback<T> callback;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private List<T> list = new ArrayList<>();
+    private int generation = 0;
+
+    public MutableListDiffer(RecyclerView.Adapter<?> adapter, DiffUtil.ItemCallback<T> callback) {
+        this.adapter = adapter;
+        this.callback = callback;
+    }
+
+    public List<T> getCurrentList() {
+        return list;
+    }
+
+    public void submitList(List<T> newList) {
+        List<T> oldList = new ArrayList<>(list);
+        List<T> submittedList = newList != null ? new ArrayList<>(newList) : new ArrayList<>();
+        int submission = ++generation;
+
+        if (oldList.isEmpty() || submittedList.isEmpty()) {
+            int oldSize = oldList.size();
+
+            list = submittedList;
+
+            if (oldSize > 0) adapter.notifyItemRangeRemoved(0, oldSize);
+            if (!submittedList.isEmpty()) adapter.notifyItemRangeInserted(0, submittedList.size());
+            return;
+        }
+
+        DIFF_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                @Override
+                public int getOldListSize() {
+                    return oldList.size();
+                }
+
+                @Override
+                public int getNewListSize() {
+                    return submittedList.size();
+                }
+
+                @Override
+                public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                    return callback.areItemsTheSame(oldList.get(oldItemPosition), submittedList.get(newItemPosition));
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                    return callback.areContentsTheSame(oldList.get(oldItemPosition), submittedList.get(newItemPosition));
+                }
+
+                @Override
+                public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                    return callback.getChangePayload(oldList.get(oldItemPosition), submittedList.get(newItemPosition));
+                }
+            });
+
+            mainHandler.post(() -> {
+                if (submission != generation) return;
+
+                if (!oldList.equals(list)) {
+                    submitList(submittedList);
+                    return;
+                }
+
+                list = submittedList;
+                result.dispatchUpdatesTo(adapter);
+            });
+        });
+    }
+}
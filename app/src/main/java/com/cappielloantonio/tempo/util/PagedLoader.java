@@ -0,0 +1,153 @@
+package com.cappielloantonio.tempo.util;
+
+import androidx.annotation.NonNull;
+
+import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Loads every page of a paged Subsonic list, keeping a few requests in flight at once.
+ * <p>
+ * Pages may complete in any order: they are held until the pages before them arrive, and the listener
+ * receives them in order, as ranges to append. Loading ends with the first page shorter than the others.
+ */
+public class PagedLoader<T> {
+    public interface Request {
+        Call<ApiResponse> get(int size, int offset);
+    }
+
+    public interface Listener<T> {
+        void onLoad(List<T> appended, boolean completed);
+
+        void onError(Exception exception);
+    }
+
+    /**
+     * A range of items appended to a list loaded page by page, with its offset in the list.
+     */
+    public static class Slice<T> {
+        private final int offset;
+        private final List<T> items;
+
+        public Slice(int offset, List<T> items) {
+            this.offset = offset;
+            this.items = items;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+    }
+
+    private final int pageSize;
+    private final int window;
+    private final Request request;
+    private final Function<ApiResponse, List<T>> parser;
+    private final Listener<T> listener;
+
+    private final Map<Integer, List<T>> loadedPages = new HashMap<>();
+    private final List<Call<ApiResponse>> calls = new ArrayList<>();
+
+    private int nextPage = 0;
+    private int publishedPages = 0;
+    private int lastPage = Integer.MAX_VALUE;
+    private boolean stopped = false;
+
+    /**
+     * @param parser returns the items of a response, or null if the response holds no list.
+     */
+    public PagedLoader(int pageSize, int window, Request request, Function<ApiResponse, List<T>> parser, Listener<T> listener) {
+        this.pageSize = pageSize;
+        this.window = window;
+        this.request = request;
+        this.parser = parser;
+        this.listener = listener;
+    }
+
+    public void start() {
+        requestPages();
+    }
+
+    public void stop() {
+        stopped = true;
+
+        for (Call<ApiResponse> call : calls) {
+            call.cancel();
+        }
+
+        calls.clear();
+        loadedPages.clear();
+    }
+
+    private void requestPages() {
+        while (!stopped && nextPage <= lastPage && nextPage - publishedPages < window) {
+            requestPage(nextPage++);
+        }
+    }
+
+    private void requestPage(int page) {
+        Call<ApiResponse> pageCall = request.get(pageSize, pageSize * page);
+        calls.add(pageCall);
+
+        pageCall.enqueue(new Callback<ApiResponse>() {
+            @Override
+            public void onResponse(@NonNull Call<ApiResponse> call, @NonNull Response<ApiResponse> response) {
+                calls.remove(call);
+                if (stopped) return;
+
+                List<T> items = response.isSuccessful() && response.body() != null ? parser.apply(response.body()) : null;
+
+                if (items == null) {
+                    fail(new Exception("Unable to load page " + page + ": " + response.code()));
+                    return;
+                }
+
+                if (items.size() < pageSize) lastPage = Math.min(lastPage, page);
+
+                loadedPages.put(page, items);
+                publishPages();
+                requestPages();
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
+                calls.remove(call);
+                if (stopped) return;
+
+                fail(new Exception("Unable to load page " + page, t));
+            }
+        });
+    }
+
+    private void publishPages() {
+        List<T> appended = new ArrayList<>();
+
+        while (publishedPages <= lastPage && loadedPages.containsKey(publishedPages)) {
+            appended.addAll(loadedPages.remove(publishedPages++));
+        }
+
+        boolean completed = publishedPages > lastPage;
+
+        // The pages requested past the end are empty
+        if (completed) stop();
+        if (!appended.isEmpty() || completed) listener.onLoad(appended, completed);
+    }
+
+    private void fail(Exception exception) {
+        stop();
+        listener.onError(exception);
+    }
+}
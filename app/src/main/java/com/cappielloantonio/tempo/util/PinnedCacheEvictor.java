@@ -0,0 +1,106 @@
+package com.cappielloantonio.tempo.util;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.cache.Cache;
+import androidx.media3.datasource.cache.CacheEvictor;
+import androidx.media3.datasource.cache.CacheSpan;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Least recently used evictor which passes over the spans of pinned keys.
+ * <p>
+ * Pinned content is only protected while it fits in its own budget: once pinned spans take more than
+ * that, they are evicted like any other span, so the cache never exceeds its maximum size.
+ */
+@UnstableApi
+public final class PinnedCacheEvictor implements CacheEvictor {
+    private final long maxBytes;
+    private final long maxPinnedBytes;
+    private final TreeSet<CacheSpan> leastRecentlyUsed = new TreeSet<>(PinnedCacheEvictor::compare);
+
+    private Set<String> pinnedKeys;
+    private long currentSize = 0;
+    private long pinnedSize = 0;
+
+    public PinnedCacheEvictor(long maxBytes, long maxPinnedBytes, Set<String> pinnedKeys) {
+        this.maxBytes = maxBytes;
+        this.maxPinnedBytes = maxPinnedBytes;
+        this.pinnedKeys = new HashSet<>(pinnedKeys);
+    }
+
+    public synchronized void setPinnedKeys(Set<String> keys) {
+        pinnedKeys = new HashSet<>(keys);
+        pinnedSize = 0;
+
+        for (CacheSpan span : leastRecentlyUsed) {
+            if (pinnedKeys.contains(span.key)) pinnedSize += span.length;
+        }
+    }
+
+    public synchronized long getPinnedSize() {
+        return pinnedSize;
+    }
+
+    @Override
+    public boolean requiresCacheSpanTouches() {
+        return true;
+    }
+
+    @Override
+    public void onCacheInitialized() {
+    }
+
+    @Override
+    public synchronized void onStartFile(@NonNull Cache cache, @NonNull String key, long position, long length) {
+        if (length != C.LENGTH_UNSET) evictCache(cache, length);
+    }
+
+    @Override
+    public synchronized void onSpanAdded(@NonNull Cache cache, @NonNull CacheSpan span) {
+        leastRecentlyUsed.add(span);
+        currentSize += span.length;
+        if (pinnedKeys.contains(span.key)) pinnedSize += span.length;
+
+        evictCache(cache, 0);
+    }
+
+    @Override
+    public synchronized void onSpanRemoved(@NonNull Cache cache, @NonNull CacheSpan span) {
+        if (!leastRecentlyUsed.remove(span)) return;
+
+        currentSize -= span.length;
+        if (pinnedKeys.contains(span.key)) pinnedSize -= span.length;
+    }
+
+    @Override
+    public synchronized void onSpanTouched(@NonNull Cache cache, @NonNull CacheSpan oldSpan, @NonNull CacheSpan newSpan) {
+        onSpanRemoved(cache, oldSpan);
+        onSpanAdded(cache, newSpan);
+    }
+
+    private void evictCache(Cache cache, long requiredSpace) {
+        while (currentSize + requiredSpace > maxBytes && !leastRecentlyUsed.isEmpty()) {
+            cache.removeSpan(getEvictionCandidate());
+        }
+    }
+
+    private CacheSpan getEvictionCandidate() {
+        if (pinnedSize <= maxPinnedBytes) {
+            for (CacheSpan span : leastRecentlyUsed) {
+                if (!pinnedKeys.contains(span.key)) return span;
+            }
+        }
+
+        return leastRecentlyUsed.first();
+    }
+
+    private static int compare(CacheSpan lhs, CacheSpan rhs) {
+        if (lhs.lastTouchTimestamp == rhs.lastTouchTimestamp) return lhs.compareTo(rhs);
+        return lhs.lastTouchTimestamp < rhs.lastTouchTimestamp ? -1 : 1;
+    }
+}
@@ -37,6 +37,7 @@ object Preferences {
     private const val SYNC_STARRED_TRACKS_FOR_OFFLINE_USE = "sync_starred_tracks_for_offline_use"
     private const val QUEUE_SYNCING = "queue_syncing"
     private const val QUEUE_SYNCING_COUNTDOWN = "queue_syncing_countdown"
+    private const val PLAY_QUEUE_CHANGED = "play_queue_changed"
     private const val ROUNDED_CORNER = "rounded_corner"
     private const val ROUNDED_CORNER_SIZE = "rounded_corner_size"
     private const val PODCAST_SECTION_VISIBILITY = "podcast_section_visibility"
@@ -44,8 +45,10 @@ object Preferences {
     private const val MUSIC_DIRECTORY_SECTION_VISIBILITY = "music_directory_section_visibility"
     private const val REPLAY_GAIN_MODE = "replay_gain_mode"
     private const val AUDIO_TRANSCODE_PRIORITY = "audio_transcode_priority"
+    private const val AUDIO_TRANSCODE_ADAPTIVE = "audio_transcode_adaptive"
     private const val STREAMING_CACHE_STORAGE = "streaming_cache_storage"
     private const val DOWNLOAD_STORAGE = "download_storage"
+    const val DOWNLOAD_QUOTA = "download_quota"
     private const val DEFAULT_DOWNLOAD_VIEW_TYPE = "default_download_view_type"
     private const val AUDIO_TRANSCODE_DOWNLOAD = "audio_transcode_download"
     private const val AUDIO_TRANSCODE_DOWNLOAD_PRIORITY = "audio_transcode_download_priority"
@@ -55,6 +58,7 @@ object Preferences {
     private const val SCROBBLING = "scrobbling"
     private const val ESTIMATE_CONTENT_LENGTH = "estimate_content_length"
     private const val BUFFERING_STRATEGY = "buffering_strategy"
+    private const val AUDIO_OFFLOAD = "audio_offload"
     private const val SKIP_MIN_STAR_RATING = "skip_min_star_rating"
     private const val MIN_STAR_RATING = "min_star_rating"
     private const val ALWAYS_ON_DISPLAY = "always_on_display"
@@ -63,7 +67,13 @@ object Preferences {
     private const val RATING_PER_ITEM = "rating_per_item"
     private const val NEXT_UPDATE_CHECK = "next_update_check"
     private const val CONTINUOUS_PLAY = "continuous_play"
-    const val LAST_INSTANT_MIX = "last_instant_mix"
+    private const val CONTINUOUS_PLAY_WINDOW = "continuous_play_window"
+    const val CACHE_WARMING = "cache_warming"
+    private const val CACHE_WARMING_KEYS = "cache_warming_keys"
+    private const val CACHE_WARMING_LAST = "cache_warming_last"
+    const val PODCAST_PREFETCH = "podcast_prefetch"
+    private const val PODCAST_PREFETCH_KEYS = "podcast_prefetch_keys"
+    private const val PODCAST_PREFETCH_LAST = "podcast_prefetch_last"
     const val DESKTOP_LYRICS_ENABLED = "desktop_lyrics_enabled"
     const val DESKTOP_LYRICS_FONT_SIZE = "desktop_lyrics_font_size"
     const val DESKTOP_LYRICS_OPACITY = "desktop_lyrics_opacity"
@@ -318,6 +328,16 @@ object Preferences {
         return App.getInstance().preferences.getString(QUEUE_SYNCING_COUNTDOWN, "5")!!.toInt()
     }
 
+    @JvmStatic
+    fun getPlayQueueChanged(): Long {
+        return App.getInstance().preferences.getLong(PLAY_QUEUE_CHANGED, 0)
+    }
+
+    @JvmStatic
+    fun setPlayQueueChanged(changed: Long) {
+        App.getInstance().preferences.edit().putLong(PLAY_QUEUE_CHANGED, changed).apply()
+    }
+
     @JvmStatic
     fun isCornerRoundingEnabled(): Boolean {
         return App.getInstance().preferences.getBoolean(ROUNDED_CORNER, false)
@@ -363,6 +383,11 @@ object Preferences {
         return App.getInstance().preferences.getBoolean(AUDIO_TRANSCODE_PRIORITY, false)
     }
 
+    @JvmStatic
+    fun isAdaptiveBitrateEnabled(): Boolean {
+        return App.getInstance().preferences.getBoolean(AUDIO_TRANSCODE_ADAPTIVE, false)
+    }
+
     @JvmStatic
     fun getStreamingCacheStoragePreference(): Int {
         return App.getInstance().preferences.getString(STREAMING_CACHE_STORAGE, "0")!!.toInt()
@@ -389,6 +414,11 @@ object Preferences {
         ).apply()
     }
 
+    @JvmStatic
+    fun getDownloadQuota(): Long {
+        return App.getInstance().preferences.getString(DOWNLOAD_QUOTA, "0")!!.toLong()
+    }
+
     @JvmStatic
     fun getDefaultDownloadViewType(): String {
         return App.getInstance().preferences.getString(
@@ -445,6 +475,11 @@ object Preferences {
         return App.getInstance().preferences.getString(BUFFERING_STRATEGY, "1")!!.toDouble()
     }
 
+    @JvmStatic
+    fun isAudioOffloadEnabled(): Boolean {
+        return App.getInstance().preferences.getBoolean(AUDIO_OFFLOAD, false)
+    }
+
     @JvmStatic
     fun getMinStarRatingAccepted(): Int {
         return App.getInstance().preferences.getInt(MIN_STAR_RATING, 0)
@@ -493,15 +528,58 @@ object Preferences {
     }
 
     @JvmStatic
-    fun setLastInstantMix() {
-        App.getInstance().preferences.edit().putLong(LAST_INSTANT_MIX, System.currentTimeMillis()).apply()
+    fun getContinuousPlayWindow(): Long {
+        return App.getInstance().preferences.getString(CONTINUOUS_PLAY_WINDOW, "60")!!.toLong()
     }
 
     @JvmStatic
-    fun isInstantMixUsable(): Boolean {
-        return App.getInstance().preferences.getLong(
-                LAST_INSTANT_MIX, 0
-        ) + 5000 < System.currentTimeMillis()
+    fun isCacheWarmingEnabled(): Boolean {
+        return App.getInstance().preferences.getBoolean(CACHE_WARMING, false)
+    }
+
+    @JvmStatic
+    fun getCacheWarmingKeys(): Set<String> {
+        return App.getInstance().preferences.getStringSet(CACHE_WARMING_KEYS, emptySet())!!.toSet()
+    }
+
+    @JvmStatic
+    fun setCacheWarmingKeys(keys: Set<String>) {
+        App.getInstance().preferences.edit().putStringSet(CACHE_WARMING_KEYS, keys).apply()
+    }
+
+    @JvmStatic
+    fun getLastCacheWarming(): Long {
+        return App.getInstance().preferences.getLong(CACHE_WARMING_LAST, 0)
+    }
+
+    @JvmStatic
+    fun setLastCacheWarming() {
+        App.getInstance().preferences.edit().putLong(CACHE_WARMING_LAST, System.currentTimeMillis()).apply()
+    }
+
+    @JvmStatic
+    fun isPodcastPrefetchEnabled(): Boolean {
+        return App.getInstance().preferences.getBoolean(PODCAST_PREFETCH, false)
+    }
+
+    @JvmStatic
+    fun getPodcastPrefetchKeys(): Set<String> {
+        return App.getInstance().preferences.getStringSet(PODCAST_PREFETCH_KEYS, emptySet())!!.toSet()
+    }
+
+    @JvmStatic
+    fun setPodcastPrefetchKeys(keys: Set<String>) {
+        App.getInstance().preferences.edit().putStringSet(PODCAST_PREFETCH_KEYS, keys).apply()
+    }
+
+    @JvmStatic
+    fun getLastPodcastPrefetch(): Long {
+        return App.getInstance().preferences.getLong(PODCAST_PREFETCH_LAST, 0)
+    }
+
+    @JvmStatic
+    fun setLastPodcastPrefetch() {
+        App.getInstance().preferences.edit().putLong(PODCAST_PREFETCH_LAST, System.currentTimeMillis()).apply()
     }
 
     @JvmStatic
@@ -0,0 +1,106 @@
+package com.cappielloantonio.tempo.util;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.HttpDataSource;
+import androidx.media3.exoplayer.drm.DrmSessionManagerProvider;
+import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
+import androidx.media3.exoplayer.source.MediaSource;
+import androidx.media3.exoplayer.upstream.DefaultLoadErrorHandlingPolicy;
+import androidx.media3.exoplayer.upstream.LoadErrorHandlingPolicy;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Media source factory sending internet radio stations through their own uncached data source.
+ * <p>
+ * Songs and podcasts keep going through the download and streaming caches. Radio streams never end, so
+ * they skip the caches entirely and reconnect quickly when the connection drops, for instance after
+ * a handover between Wi-Fi and mobile data. ICY metadata is still parsed by the progressive source.
+ */
+@UnstableApi
+public class RadioAwareMediaSourceFactory implements MediaSource.Factory {
+    private static final int RADIO_MAX_RETRY_DELAY_MS = 4000;
+    private static final int RADIO_MAX_RETRIES = 32;
+
+    private final DefaultMediaSourceFactory mediaSourceFactory;
+    private final DefaultMediaSourceFactory radioMediaSourceFactory;
+
+    public RadioAwareMediaSourceFactory(Context context) {
+        mediaSourceFactory = new DefaultMediaSourceFactory(context)
+                .setDataSourceFactory(DownloadUtil.getDataSourceFactory(context));
+
+        radioMediaSourceFactory = new DefaultMediaSourceFactory(context)
+                .setDataSourceFactory(DownloadUtil.getRadioDataSourceFactory(context))
+                .setLoadErrorHandlingPolicy(new RadioLoadErrorHandlingPolicy());
+    }
+
+    @NonNull
+    @Override
+    public MediaSource.Factory setDrmSessionManagerProvider(@NonNull DrmSessionManagerProvider drmSessionManagerProvider) {
+        mediaSourceFactory.setDrmSessionManagerProvider(drmSessionManagerProvider);
+        radioMediaSourceFactory.setDrmSessionManagerProvider(drmSessionManagerProvider);
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public MediaSource.Factory setLoadErrorHandlingPolicy(@NonNull LoadErrorHandlingPolicy loadErrorHandlingPolicy) {
+        // Radio streams keep their own reconnection policy
+        mediaSourceFactory.setLoadErrorHandlingPolicy(loadErrorHandlingPolicy);
+        return this;
+    }
+
+    @Override
+    public @C.ContentType int[] getSupportedTypes() {
+        return mediaSourceFactory.getSupportedTypes();
+    }
+
+    @NonNull
+    @Override
+    public MediaSource createMediaSource(@NonNull MediaItem mediaItem) {
+        return isRadio(mediaItem)
+                ? radioMediaSourceFactory.createMediaSource(mediaItem)
+                : mediaSourceFactory.createMediaSource(mediaItem);
+    }
+
+    public static boolean isRadio(MediaItem mediaItem) {
+        return mediaItem.mediaMetadata.extras != null && Objects.equals(mediaItem.mediaMetadata.extras.getString("type"), Constants.MEDIA_TYPE_RADIO);
+    }
+
+    /*
+     * A live stream cannot be resumed later, so connection errors are retried with a short delay for about
+     * two minutes instead of failing playback after a few attempts. A station answering with a client
+     * error is not coming back, its error is reported right away.
+     */
+    private static class RadioLoadErrorHandlingPolicy extends DefaultLoadErrorHandlingPolicy {
+        @Override
+        public long getRetryDelayMsFor(@NonNull LoadErrorInfo loadErrorInfo) {
+            long retryDelayMs = super.getRetryDelayMsFor(loadErrorInfo);
+            if (retryDelayMs == C.TIME_UNSET) return C.TIME_UNSET;
+
+            if (isClientError(loadErrorInfo.exception) || loadErrorInfo.errorCount > RADIO_MAX_RETRIES) {
+                return C.TIME_UNSET;
+            }
+
+            return Math.min(500L * loadErrorInfo.errorCount, RADIO_MAX_RETRY_DELAY_MS);
+        }
+
+        @Override
+        public int getMinimumLoadableRetryCount(int dataType) {
+            return RADIO_MAX_RETRIES;
+        }
+
+        private static boolean isClientError(IOException exception) {
+            if (!(exception instanceof HttpDataSource.InvalidResponseCodeException)) return false;
+
+            int responseCode = ((HttpDataSource.InvalidResponseCodeException) exception).responseCode;
+            return responseCode >= 400 && responseCode < 500;
+        }
+    }
+}
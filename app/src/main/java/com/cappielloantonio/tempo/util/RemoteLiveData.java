@@ -0,0 +1,35 @@
+package com.cappielloantonio.tempo.util;
+
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * Live data filled by a request to the server, which also tells when the request failed.
+ * <p>
+ * A failure leaves the value as it was, so that the observers of the value see no difference with a
+ * request still waiting. Like the value, it is set from the main thread.
+ */
+public class RemoteLiveData<T> extends MutableLiveData<T> {
+    private boolean failed = false;
+    private Runnable failureListener;
+
+    public RemoteLiveData() {
+        super();
+    }
+
+    public RemoteLiveData(T value) {
+        super(value);
+    }
+
+    public void fail() {
+        failed = true;
+        if (failureListener != null) failureListener.run();
+    }
+
+    /**
+     * The listener is called right away if the request has already failed.
+     */
+    public void setFailureListener(Runnable failureListener) {
+        this.failureListener = failureListener;
+        if (failed && failureListener != null) failureListener.run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.cappielloantonio.tempo.util;
+
+import androidx.media3.common.C;
+import androidx.media3.common.audio.BaseAudioProcessor;
+import androidx.media3.common.util.UnstableApi;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Applies the ReplayGain of the media being rendered directly on the PCM samples, followed by a soft
+ * limiter, so that positive gains can be applied and the level is right from the first buffer.
+ * <p>
+ * The gain of the following media item is queued in advance and swapped in by {@link #onStreamBoundary()},
+ * which the audio sink calls when the renderer starts writing the samples of the next stream.
+ * <p>
+ * While ReplayGain is disabled the processor is inactive, so the audio sink skips it. The mode is read
+ * when the sink configures its processors, which it does for each new stream.
+ */
+@UnstableApi
+public final class ReplayGainAudioProcessor extends BaseAudioProcessor {
+    private static final float LIMITER_THRESHOLD = 0.95f;
+
+    private String activeId;
+    private float activeGain = 1f;
+    private String nextId;
+    private float nextGain = 1f;
+
+    public synchronized void setGains(String currentId, float currentGain, String nextId, float nextGain) {
+        if (activeId != null && !Objects.equals(activeId, currentId) && Objects.equals(activeId, nextId)) {
+            // The renderer has already moved on to the next item, the player will catch up shortly
+            activeGain = nextGain;
+            return;
+        }
+
+        this.activeId = currentId;
+        this.activeGain = currentGain;
+        this.nextId = nextId;
+        this.nextGain = nextGain;
+    }
+
+    public synchronized void onStreamBoundary() {
+        if (nextId == null) return;
+
+        activeId = nextId;
+        activeGain = nextGain;
+        nextId = null;
+    }
+
+    @Override
+    protected AudioFormat onConfigure(AudioFormat inputAudioFormat) {
+        if (Objects.equals(Preferences.getReplayGainMode(), "disabled")) {
+            return AudioFormat.NOT_SET;
+        }
+
+        if (inputAudioFormat.encoding != C.ENCODING_PCM_16BIT && inputAudioFormat.encoding != C.ENCODING_PCM_FLOAT) {
+            return AudioFormat.NOT_SET;
+        }
+
+        return inputAudioFormat;
+    }
+
+    @Override
+    public void queueInput(ByteBuffer inputBuffer) {
+        int remaining = inputBuffer.remaining();
+        if (remaining == 0) return;
+
+        float gain;
+
+        synchronized (this) {
+            gain = activeGain;
+        }
+
+        ByteBuffer outputBuffer = replaceOutputBuffer(remaining);
+
+        if (gain == 1f) {
+            outputBuffer.put(inputBuffer);
+        } else if (inputAudioFormat.encoding == C.ENCODING_PCM_16BIT) {
+            while (inputBuffer.hasRemaining()) {
+                float sample = limit(inputBuffer.getShort() / 32768f * gain);
+                outputBuffer.putShort((short) Math.round(sample * 32767f));
+            }
+        } else {
+            while (inputBuffer.hasRemaining()) {
+                outputBuffer.putFloat(limit(inputBuffer.getFloat() * gain));
+            }
+        }
+
+        outputBuffer.flip();
+    }
+
+    /*
+     * Soft knee above the threshold: maps [threshold, +inf) onto [threshold, 1) so that boosted
+     * samples never clip and the ones below the threshold are left untouched.
+     */
+    private static float limit(float sample) {
+        float magnitude = Math.abs(sample);
+        if (magnitude <= LIMITER_THRESHOLD) return sample;
+
+        float over = (magnitude - LIMITER_THRESHOLD) / (1f - LIMITER_THRESHOLD);
+        return Math.copySign(LIMITER_THRESHOLD + (1f - LIMITER_THRESHOLD) * over / (1f + over), sample);
+    }
+}
@@ -1,178 +1,226 @@
 package com.cappielloantonio.tempo.util;
 
+import android.os.Bundle;
+
+import androidx.annotation.Nullable;
 import androidx.annotation.OptIn;
+import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.Metadata;
+import androidx.media3.common.Player;
 import androidx.media3.common.Tracks;
 import androidx.media3.common.util.UnstableApi;
-import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.extractor.metadata.id3.TextInformationFrame;
+import androidx.media3.extractor.metadata.vorbis.VorbisComment;
 
 import com.cappielloantonio.tempo.model.ReplayGain;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 @OptIn(markerClass = UnstableApi.class)
 public class ReplayGainUtil {
-    private static final String[] tags = {"REPLAYGAIN_TRACK_GAIN", "REPLAYGAIN_ALBUM_GAIN", "R128_TRACK_GAIN", "R128_ALBUM_GAIN"};
+    private static final String[] tags = {"REPLAYGAIN_TRACK_GAIN", "REPLAYGAIN_ALBUM_GAIN", "R128_TRACK_GAIN", "R128_ALBUM_GAIN", "REPLAYGAIN_TRACK_PEAK", "REPLAYGAIN_ALBUM_PEAK"};
 
-    public static void setReplayGain(ExoPlayer player, Tracks tracks) {
-        List<Metadata> metadata = getMetadata(tracks);
-        List<ReplayGain> gains = getReplayGains(metadata);
+    private static final String TRACK_GAIN = "trackGain";
+    private static final String ALBUM_GAIN = "albumGain";
+    private static final String TRACK_PEAK = "trackPeak";
+    private static final String ALBUM_PEAK = "albumPeak";
 
-        applyReplayGain(player, gains);
-    }
+    private static final int CACHE_SIZE = 500;
 
-    private static List<Metadata> getMetadata(Tracks tracks) {
-        List<Metadata> metadata = new ArrayList<>();
+    private static final Map<String, ReplayGain> replayGains = Collections.synchronizedMap(new LinkedHashMap<String, ReplayGain>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReplayGain> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    });
 
-        if (tracks != null && !tracks.getGroups().isEmpty()) {
-            for (int i = 0; i < tracks.getGroups().size(); i++) {
-                Tracks.Group group = tracks.getGroups().get(i);
+    public static void putReplayGain(Bundle bundle, ReplayGain replayGain) {
+        bundle.putFloat(TRACK_GAIN, replayGain.getTrackGain());
+        bundle.putFloat(ALBUM_GAIN, replayGain.getAlbumGain());
+        bundle.putFloat(TRACK_PEAK, replayGain.getTrackPeak());
+        bundle.putFloat(ALBUM_PEAK, replayGain.getAlbumPeak());
+    }
 
-                if (group != null && group.getMediaTrackGroup() != null) {
-                    for (int j = 0; j < group.getMediaTrackGroup().length; j++) {
-                        metadata.add(group.getTrackFormat(j).metadata);
-                    }
-                }
-            }
+    /*
+     * The tags are only parsed when the server did not provide the gains and only once per media,
+     * the result (even an empty one) is kept so that following track changes do not parse them again.
+     * Tracks without a selected audio format, reported before the media is prepared, are not parsed:
+     * their tags are not known yet.
+     */
+    public static void setReplayGain(Player player, Tracks tracks, ReplayGainAudioProcessor processor) {
+        MediaItem currentMediaItem = player.getCurrentMediaItem();
+
+        if (currentMediaItem != null && getReplayGain(currentMediaItem) == null && hasSelectedAudio(tracks)) {
+            replayGains.put(currentMediaItem.mediaId, parseReplayGain(tracks));
         }
 
-        return metadata;
+        setReplayGain(player, processor);
     }
 
-    private static List<ReplayGain> getReplayGains(List<Metadata> metadata) {
-        List<ReplayGain> gains = new ArrayList<>();
+    public static void setReplayGain(Player player, ReplayGainAudioProcessor processor) {
+        int currentIndex = player.getCurrentMediaItemIndex();
+        MediaItem currentMediaItem = player.getCurrentMediaItem();
 
-        if (metadata != null) {
-            for (int i = 0; i < metadata.size(); i++) {
-                Metadata singleMetadata = metadata.get(i);
+        if (currentMediaItem == null) {
+            processor.setGains(null, 1f, null, 1f);
+            return;
+        }
 
-                if (singleMetadata != null) {
-                    for (int j = 0; j < singleMetadata.length(); j++) {
-                        Metadata.Entry entry = singleMetadata.get(j);
+        int previousIndex = player.getPreviousMediaItemIndex();
+        int nextIndex = player.getNextMediaItemIndex();
 
-                        if (checkReplayGain(entry)) {
-                            ReplayGain replayGain = setReplayGains(entry);
-                            gains.add(replayGain);
-                        }
-                    }
-                }
-            }
-        }
+        MediaItem previousMediaItem = previousIndex != C.INDEX_UNSET ? player.getMediaItemAt(previousIndex) : null;
+        MediaItem nextMediaItem = nextIndex != C.INDEX_UNSET && nextIndex != currentIndex ? player.getMediaItemAt(nextIndex) : null;
+
+        processor.setGains(
+                currentMediaItem.mediaId,
+                getGain(currentMediaItem, previousMediaItem),
+                nextMediaItem != null ? nextMediaItem.mediaId : null,
+                nextMediaItem != null ? getGain(nextMediaItem, currentMediaItem) : 1f
+        );
+    }
+
+    @Nullable
+    private static ReplayGain getReplayGain(MediaItem mediaItem) {
+        ReplayGain replayGain = replayGains.get(mediaItem.mediaId);
+        if (replayGain != null) return replayGain;
 
-        if (gains.size() == 0) gains.add(0, new ReplayGain());
-        if (gains.size() == 1) gains.add(1, new ReplayGain());
+        Bundle extras = mediaItem.mediaMetadata.extras;
+        if (extras == null || !extras.containsKey(TRACK_GAIN)) return null;
 
-        return gains;
+        replayGain = new ReplayGain(
+                extras.getFloat(TRACK_GAIN),
+                extras.getFloat(ALBUM_GAIN),
+                extras.getFloat(TRACK_PEAK),
+                extras.getFloat(ALBUM_PEAK)
+        );
+
+        replayGains.put(mediaItem.mediaId, replayGain);
+
+        return replayGain;
     }
 
-    private static boolean checkReplayGain(Metadata.Entry entry) {
-        for (String tag : tags) {
-            if (entry.toString().contains(tag)) {
-                return true;
-            }
+    private static boolean hasSelectedAudio(Tracks tracks) {
+        if (tracks == null) return false;
+
+        for (Tracks.Group group : tracks.getGroups()) {
+            if (group.getType() == C.TRACK_TYPE_AUDIO && group.isSelected()) return true;
         }
 
         return false;
     }
 
-    private static ReplayGain setReplayGains(Metadata.Entry entry) {
+    private static ReplayGain parseReplayGain(Tracks tracks) {
         ReplayGain replayGain = new ReplayGain();
 
-        if (entry.toString().contains(tags[0])) {
-            replayGain.setTrackGain(parseReplayGainTag(entry));
-        }
+        if (tracks == null) return replayGain;
 
-        if (entry.toString().contains(tags[1])) {
-            replayGain.setAlbumGain(parseReplayGainTag(entry));
-        }
+        for (Tracks.Group group : tracks.getGroups()) {
+            if (group.getType() != C.TRACK_TYPE_AUDIO) continue;
 
-        if (entry.toString().contains(tags[2])) {
-            replayGain.setTrackGain(parseReplayGainTag(entry) / 256f);
-        }
+            for (int i = 0; i < group.length; i++) {
+                Metadata metadata = group.getTrackFormat(i).metadata;
+                if (metadata == null) continue;
 
-        if (entry.toString().contains(tags[3])) {
-            replayGain.setAlbumGain(parseReplayGainTag(entry) / 256f);
+                for (int j = 0; j < metadata.length(); j++) {
+                    parseEntry(metadata.get(j), replayGain);
+                }
+            }
         }
 
         return replayGain;
     }
 
-    private static Float parseReplayGainTag(Metadata.Entry entry) {
-        try {
-            return Float.parseFloat(entry.toString().replaceAll("[^\\d.-]", ""));
-        } catch (NumberFormatException exception) {
-            return 0f;
+    private static void parseEntry(Metadata.Entry entry, ReplayGain replayGain) {
+        String key;
+        String value;
+
+        if (entry instanceof VorbisComment) {
+            key = ((VorbisComment) entry).key;
+            value = ((VorbisComment) entry).value;
+        } else if (entry instanceof TextInformationFrame) {
+            key = ((TextInformationFrame) entry).description;
+            value = ((TextInformationFrame) entry).values.isEmpty() ? null : ((TextInformationFrame) entry).values.get(0);
+        } else {
+            String string = entry.toString();
+            key = string;
+            value = string;
         }
-    }
 
-    private static void applyReplayGain(ExoPlayer player, List<ReplayGain> gains) {
-        if (Objects.equals(Preferences.getReplayGainMode(), "disabled") || gains == null || gains.isEmpty()) {
-            setNoReplayGain(player);
-            return;
-        }
-
-        if (Objects.equals(Preferences.getReplayGainMode(), "auto")) {
-            if (areTracksConsecutive(player)) {
-                setAutoReplayGain(player, gains);
-            } else {
-                setTrackReplayGain(player, gains);
+        if (key == null || value == null) return;
+
+        String upperKey = key.toUpperCase();
+
+        for (int i = 0; i < tags.length; i++) {
+            if (!upperKey.contains(tags[i])) continue;
+
+            float parsed = parseReplayGainTag(value);
+
+            switch (i) {
+                case 0:
+                    replayGain.setTrackGain(parsed);
+                    break;
+                case 1:
+                    replayGain.setAlbumGain(parsed);
+                    break;
+                case 2:
+                    replayGain.setTrackGain(parsed / 256f);
+                    break;
+                case 3:
+                    replayGain.setAlbumGain(parsed / 256f);
+                    break;
+                case 4:
+                    replayGain.setTrackPeak(parsed);
+                    break;
+                case 5:
+                    replayGain.setAlbumPeak(parsed);
+                    break;
             }
 
             return;
         }
-
-        if (Objects.equals(Preferences.getReplayGainMode(), "track")) {
-            setTrackReplayGain(player, gains);
-            return;
-        }
-
-        if (Objects.equals(Preferences.getReplayGainMode(), "album")) {
-            setAlbumReplayGain(player, gains);
-            return;
-        }
-
-        setNoReplayGain(player);
     }
 
-    private static void setNoReplayGain(ExoPlayer player) {
-        setReplayGain(player, 0f);
+    private static float parseReplayGainTag(String value) {
+        try {
+            return Float.parseFloat(value.replaceAll("[^\\d.-]", ""));
+        } catch (NumberFormatException exception) {
+            return 0f;
+        }
     }
 
-    private static void setTrackReplayGain(ExoPlayer player, List<ReplayGain> gains) {
-        float trackGain = gains.get(0).getTrackGain() != 0f ? gains.get(0).getTrackGain() : gains.get(1).getTrackGain();
+    private static float getGain(MediaItem mediaItem, @Nullable MediaItem previousMediaItem) {
+        String mode = Preferences.getReplayGainMode();
+        ReplayGain replayGain = getReplayGain(mediaItem);
 
-        setReplayGain(player, trackGain != 0f ? trackGain : 0f);
-    }
+        if (replayGain == null || Objects.equals(mode, "disabled")) return 1f;
 
-    private static void setAlbumReplayGain(ExoPlayer player, List<ReplayGain> gains) {
-        float albumGain = gains.get(0).getAlbumGain() != 0f ? gains.get(0).getAlbumGain() : gains.get(1).getAlbumGain();
+        float gain;
+        float peak;
 
-        setReplayGain(player, albumGain != 0f ? albumGain : 0f);
-    }
+        if (Objects.equals(mode, "album") || (Objects.equals(mode, "auto") && areTracksConsecutive(previousMediaItem, mediaItem) && replayGain.getAlbumGain() != 0f)) {
+            gain = replayGain.getAlbumGain();
+            peak = replayGain.getAlbumPeak();
+        } else if (Objects.equals(mode, "track") || Objects.equals(mode, "auto")) {
+            gain = replayGain.getTrackGain();
+            peak = replayGain.getTrackPeak();
+        } else {
+            return 1f;
+        }
 
-    private static void setAutoReplayGain(ExoPlayer player, List<ReplayGain> gains) {
-        float albumGain = gains.get(0).getAlbumGain() != 0f ? gains.get(0).getAlbumGain() : gains.get(1).getAlbumGain();
-        float trackGain = gains.get(0).getTrackGain() != 0f ? gains.get(0).getTrackGain() : gains.get(1).getTrackGain();
+        float linear = (float) Math.pow(10f, gain / 20f);
 
-        setReplayGain(player, albumGain != 0f ? albumGain : trackGain);
+        return peak > 0f ? Math.min(linear, 1f / peak) : linear;
     }
 
-    private static boolean areTracksConsecutive(ExoPlayer player) {
-        MediaItem currentMediaItem = player.getCurrentMediaItem();
-        int currentMediaItemIndex = player.getCurrentMediaItemIndex();
-        MediaItem pastMediaItem = currentMediaItemIndex > 0 ? player.getMediaItemAt(currentMediaItemIndex - 1) : null;
-
-        return currentMediaItem != null &&
-                pastMediaItem != null &&
+    private static boolean areTracksConsecutive(@Nullable MediaItem pastMediaItem, MediaItem currentMediaItem) {
+        return pastMediaItem != null &&
                 pastMediaItem.mediaMetadata.albumTitle != null &&
                 currentMediaItem.mediaMetadata.albumTitle != null &&
                 pastMediaItem.mediaMetadata.albumTitle.toString().equals(currentMediaItem.mediaMetadata.albumTitle.toString());
     }
-
-    private static void setReplayGain(ExoPlayer player, float gain) {
-        player.setVolume((float) Math.pow(10f, gain / 20f));
-    }
 }
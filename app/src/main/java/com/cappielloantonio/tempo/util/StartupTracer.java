@@ -0,0 +1,110 @@
+package com.cappielloantonio.tempo.util;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import com.cappielloantonio.tempo.App;
+import com.cappielloantonio.tempo.BuildConfig;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the phases of a cold start, from the creation of the process to the end of the work deferred
+ * after the first frame.
+ * <p>
+ * Every phase is a section of the system trace, and the time each milestone is reached, counted from the
+ * start of the process, is logged. The milestones of the last cold starts are kept in a file along with
+ * the version they were measured on, so that a regression can be traced back to a build.
+ */
+public class StartupTracer {
+    private static final String TAG = "StartupTracer";
+
+    public static final String APPLICATION_CREATED = "application_created";
+    public static final String ACTIVITY_CREATED = "activity_created";
+    public static final String FIRST_FRAME = "first_frame";
+    public static final String MEDIA_CONNECTED = "media_connected";
+    public static final String DEFERRED_DONE = "deferred_done";
+
+    private static final String FILE_NAME = "startup_timings.csv";
+    private static final int MAX_RECORDS = 30;
+
+    private static final Executor executor = Executors.newSingleThreadExecutor();
+    private static final Map<String, Long> milestones = new LinkedHashMap<>();
+
+    private static boolean finished = false;
+
+    public static void beginSection(String section) {
+        Trace.beginSection(section);
+    }
+
+    public static void endSection() {
+        Trace.endSection();
+    }
+
+    /**
+     * Only the first time a milestone is reached in the process counts, later ones are warm starts.
+     */
+    public static synchronized void mark(String milestone) {
+        if (finished || milestones.containsKey(milestone)) return;
+        milestones.put(milestone, SystemClock.uptimeMillis() - Process.getStartUptimeMillis());
+    }
+
+    /**
+     * Records the milestones reached so far, once per process.
+     */
+    public static synchronized void finish() {
+        if (finished || !milestones.containsKey(APPLICATION_CREATED)) return;
+        finished = true;
+
+        StringBuilder record = new StringBuilder()
+                .append(System.currentTimeMillis()).append(',')
+                .append(BuildConfig.VERSION_NAME).append(',')
+                .append(BuildConfig.VERSION_CODE);
+
+        for (Map.Entry<String, Long> milestone : milestones.entrySet()) {
+            record.append(',').append(milestone.getKey()).append('=').append(milestone.getValue());
+        }
+
+        Log.i(TAG, "Cold start: " + milestones);
+
+        executor.execute(() -> save(record.toString()));
+    }
+
+    private static void save(String record) {
+        File file = new File(App.getContext().getFilesDir(), FILE_NAME);
+        List<String> records = new ArrayList<>();
+
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = reader.readLine()) != null) records.add(line);
+            } catch (IOException exception) {
+                Log.w(TAG, "Unable to read the startup timings", exception);
+            }
+        }
+
+        records.add(record);
+
+        try (Writer writer = new FileWriter(file)) {
+            for (String line : records.subList(Math.max(0, records.size() - MAX_RECORDS), records.size())) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException exception) {
+            Log.w(TAG, "Unable to save the startup timings", exception);
+        }
+    }
+}
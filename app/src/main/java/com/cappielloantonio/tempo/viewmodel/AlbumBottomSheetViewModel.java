@@ -7,7 +7,6 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.cappielloantonio.tempo.interfaces.StarCallback;
 import com.cappielloantonio.tempo.repository.AlbumRepository;
 import com.cappielloantonio.tempo.repository.ArtistRepository;
 import com.cappielloantonio.tempo.repository.FavoriteRepository;
@@ -16,7 +15,6 @@ import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
 import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.subsonic.models.Share;
-import com.cappielloantonio.tempo.util.NetworkUtil;
 
 import java.util.Date;
 import java.util.List;
@@ -56,55 +54,15 @@ public class AlbumBottomSheetViewModel extends AndroidViewModel {
 
     public void setFavorite() {
         if (album.getStarred() != null) {
-            if (NetworkUtil.isOffline()) {
-                removeFavoriteOffline();
-            } else {
-                removeFavoriteOnline();
-            }
+            favoriteRepository.setStarred(null, album.getId(), null, false);
+            album.setStarred(null);
         } else {
-            if (NetworkUtil.isOffline()) {
-                setFavoriteOffline();
-            } else {
-                setFavoriteOnline();
-            }
+            favoriteRepository.setStarred(null, album.getId(), null, true);
+            album.setStarred(new Date());
         }
     }
 
     public MutableLiveData<Share> shareAlbum() {
         return sharingRepository.createShare(album.getId(), album.getName(), null);
     }
-
-    private void removeFavoriteOffline() {
-        favoriteRepository.starLater(null, album.getId(), null, false);
-        album.setStarred(null);
-    }
-
-    private void removeFavoriteOnline() {
-        favoriteRepository.unstar(null, album.getId(), null, new StarCallback() {
-            @Override
-            public void onError() {
-                // album.setStarred(new Date());
-                favoriteRepository.starLater(null, album.getId(), null, false);
-            }
-        });
-
-        album.setStarred(null);
-    }
-
-    private void setFavoriteOffline() {
-        favoriteRepository.starLater(null, album.getId(), null, true);
-        album.setStarred(new Date());
-    }
-
-    private void setFavoriteOnline() {
-        favoriteRepository.star(null, album.getId(), null, new StarCallback() {
-            @Override
-            public void onError() {
-                // album.setStarred(null);
-                favoriteRepository.starLater(null, album.getId(), null, true);
-            }
-        });
-
-        album.setStarred(new Date());
-    }
 }
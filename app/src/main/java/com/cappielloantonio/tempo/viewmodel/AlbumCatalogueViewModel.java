@@ -8,29 +8,37 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.cappielloantonio.tempo.App;
-import com.cappielloantonio.tempo.interfaces.MediaCallback;
-import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
 import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
+import com.cappielloantonio.tempo.util.PagedLoader;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-
 public class AlbumCatalogueViewModel extends AndroidViewModel {
-    private final MutableLiveData<List<AlbumID3>> albumList = new MutableLiveData<>(new ArrayList<>());
-    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(true);
+    private static final int PAGE_SIZE = 500;
+    private static final int PAGES_IN_FLIGHT = 4;
+
+    private final List<AlbumID3> albums = new ArrayList<>();
 
-    private int page = 0;
-    private Status status = Status.STOPPED;
+    // Each page is published alone, with its offset in the albums loaded so far
+    private final MutableLiveData<PagedLoader.Slice<AlbumID3>> albumPages = new MutableLiveData<>(new PagedLoader.Slice<>(0, Collections.emptyList()));
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(true);
+    private PagedLoader<AlbumID3> loader;
 
     public AlbumCatalogueViewModel(@NonNull Application application) {
         super(application);
     }
 
-    public LiveData<List<AlbumID3>> getAlbumList() {
-        return albumList;
+    public LiveData<PagedLoader.Slice<AlbumID3>> getAlbumPages() {
+        return albumPages;
+    }
+
+    /**
+     * The albums loaded so far, for an observer that did not receive every page.
+     */
+    public List<AlbumID3> getAlbums() {
+        return new ArrayList<>(albums);
     }
 
     public LiveData<Boolean> getLoadingStatus() {
@@ -38,68 +46,57 @@ public class AlbumCatalogueViewModel extends AndroidViewModel {
     }
 
     public void loadAlbums() {
-        page = 0;
-        status = Status.RUNNING;
-        albumList.setValue(new ArrayList<>());
-        loadAlbums(500);
-    }
-
-    public void stopLoading() {
-        status = Status.STOPPED;
-    }
-
-    private void loadAlbums(int size) {
-        retrieveAlbums(new MediaCallback() {
-            @Override
-            public void onError(Exception exception) {
-            }
-
-            @Override
-            public void onLoadMedia(List<?> media) {
-                if (status == Status.STOPPED) {
-                    loading.setValue(false);
-                    return;
-                }
-
-                List<AlbumID3> liveAlbum = albumList.getValue();
-
-                liveAlbum.addAll((List<AlbumID3>) media);
-                albumList.setValue(liveAlbum);
-
-                if (media.size() == size) {
-                    loadAlbums(size);
-                    loading.setValue(true);
-                } else {
-                    status = Status.STOPPED;
-                    loading.setValue(false);
-                }
-            }
-        }, size, size * page++);
-    }
-
-
-    private void retrieveAlbums(MediaCallback callback, int size, int offset) {
-        App.getSubsonicClientInstance(false)
-                .getAlbumSongListClient()
-                .getAlbumList2("alphabeticalByName", size, offset, null, null)
-                .enqueue(new Callback<ApiResponse>() {
+        stopLoading();
+
+        albums.clear();
+        albumPages.setValue(new PagedLoader.Slice<>(0, Collections.emptyList()));
+        loading.setValue(true);
+
+        loader = new PagedLoader<>(
+                PAGE_SIZE,
+                PAGES_IN_FLIGHT,
+                (size, offset) -> App.getSubsonicClientInstance(false)
+                        .getAlbumSongListClient()
+                        .getAlbumList2("alphabeticalByName", size, offset, null, null),
+                response -> {
+                    if (response.getSubsonicResponse().getAlbumList2() == null) return null;
+
+                    List<AlbumID3> page = response.getSubsonicResponse().getAlbumList2().getAlbums();
+                    return page != null ? page : Collections.emptyList();
+                },
+                new PagedLoader.Listener<AlbumID3>() {
                     @Override
-                    public void onResponse(@NonNull Call<ApiResponse> call, @NonNull retrofit2.Response<ApiResponse> response) {
-                        if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getAlbumList2() != null && response.body().getSubsonicResponse().getAlbumList2().getAlbums() != null) {
-                            List<AlbumID3> albumList = new ArrayList<>(response.body().getSubsonicResponse().getAlbumList2().getAlbums());
-                            callback.onLoadMedia(albumList);
-                        }
+                    public void onLoad(List<AlbumID3> appended, boolean completed) {
+                        int offset = albums.size();
+                        albums.addAll(appended);
+
+                        // The albums loaded so far are on screen while the rest loads
+                        if (!appended.isEmpty()) albumPages.setValue(new PagedLoader.Slice<>(offset, Collections.unmodifiableList(appended)));
+                        if (completed) loading.setValue(false);
                     }
 
                     @Override
-                    public void onFailure(@NonNull Call<ApiResponse> call, @NonNull Throwable t) {
-                        callback.onError(new Exception(t.getMessage()));
+                    public void onError(Exception exception) {
+                        loading.setValue(false);
                     }
                 });
+
+        loader.start();
     }
 
-    private enum Status {
-        RUNNING,
-        STOPPED
+    public void stopLoading() {
+        if (loader != null) {
+            loader.stop();
+            loader = null;
+        }
+
+        loading.setValue(false);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+
+        if (loader != null) loader.stop();
     }
-}
\ No newline at end of file
+}
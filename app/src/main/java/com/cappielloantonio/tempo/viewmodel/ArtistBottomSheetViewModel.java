@@ -5,11 +5,9 @@ import android.app.Application;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 
-import com.cappielloantonio.tempo.interfaces.StarCallback;
 import com.cappielloantonio.tempo.repository.ArtistRepository;
 import com.cappielloantonio.tempo.repository.FavoriteRepository;
 import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
-import com.cappielloantonio.tempo.util.NetworkUtil;
 
 import java.util.Date;
 
@@ -36,51 +34,11 @@ public class ArtistBottomSheetViewModel extends AndroidViewModel {
 
     public void setFavorite() {
         if (artist.getStarred() != null) {
-            if (NetworkUtil.isOffline()) {
-                removeFavoriteOffline();
-            } else {
-                removeFavoriteOnline();
-            }
+            favoriteRepository.setStarred(null, null, artist.getId(), false);
+            artist.setStarred(null);
         } else {
-            if (NetworkUtil.isOffline()) {
-                setFavoriteOffline();
-            } else {
-                setFavoriteOnline();
-            }
+            favoriteRepository.setStarred(null, null, artist.getId(), true);
+            artist.setStarred(new Date());
         }
     }
-
-    private void removeFavoriteOffline() {
-        favoriteRepository.starLater(null, null, artist.getId(), false);
-        artist.setStarred(null);
-    }
-
-    private void removeFavoriteOnline() {
-        favoriteRepository.unstar(null, null, artist.getId(), new StarCallback() {
-            @Override
-            public void onError() {
-                // artist.setStarred(new Date());
-                favoriteRepository.starLater(null, null, artist.getId(), false);
-            }
-        });
-
-        artist.setStarred(null);
-    }
-
-    private void setFavoriteOffline() {
-        favoriteRepository.starLater(null, null, artist.getId(), true);
-        artist.setStarred(new Date());
-    }
-
-    private void setFavoriteOnline() {
-        favoriteRepository.star(null, null, artist.getId(), new StarCallback() {
-            @Override
-            public void onError() {
-                // artist.setStarred(null);
-                favoriteRepository.starLater(null, null, artist.getId(), true);
-            }
-        });
-
-        artist.setStarred(new Date());
-    }
 }
@@ -9,7 +9,6 @@ import androidx.lifecycle.MutableLiveData;
 
 import com.cappielloantonio.tempo.App;
 import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
-import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
 import com.cappielloantonio.tempo.subsonic.models.IndexID3;
 
 import java.util.ArrayList;
@@ -19,14 +18,14 @@ import retrofit2.Call;
 import retrofit2.Callback;
 
 public class ArtistCatalogueViewModel extends AndroidViewModel {
-    private final MutableLiveData<List<ArtistID3>> artistList = new MutableLiveData<>(new ArrayList<>());
+    private final MutableLiveData<List<IndexID3>> artistIndex = new MutableLiveData<>(new ArrayList<>());
 
     public ArtistCatalogueViewModel(@NonNull Application application) {
         super(application);
     }
 
-    public LiveData<List<ArtistID3>> getArtistList() {
-        return artistList;
+    public LiveData<List<IndexID3>> getArtistIndex() {
+        return artistIndex;
     }
 
     public void loadArtists() {
@@ -36,14 +35,8 @@ public class ArtistCatalogueViewModel extends AndroidViewModel {
                 .enqueue(new Callback<ApiResponse>() {
                     @Override
                     public void onResponse(@NonNull Call<ApiResponse> call, @NonNull retrofit2.Response<ApiResponse> response) {
-                        if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getArtists() != null) {
-                            List<ArtistID3> artists = new ArrayList<>();
-
-                            for (IndexID3 index : response.body().getSubsonicResponse().getArtists().getIndices()) {
-                                artists.addAll(index.getArtists());
-                            }
-
-                            artistList.setValue(artists);
+                        if (response.isSuccessful() && response.body() != null && response.body().getSubsonicResponse().getArtists() != null && response.body().getSubsonicResponse().getArtists().getIndices() != null) {
+                            artistIndex.setValue(response.body().getSubsonicResponse().getArtists().getIndices());
                         }
                     }
 
@@ -11,19 +11,18 @@ import androidx.lifecycle.MutableLiveData;
 
 import com.cappielloantonio.tempo.model.DownloadStack;
 import com.cappielloantonio.tempo.repository.DownloadRepository;
-import com.cappielloantonio.tempo.subsonic.models.Child;
+import com.cappielloantonio.tempo.util.DownloadIndex;
 import com.cappielloantonio.tempo.util.Preferences;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class DownloadViewModel extends AndroidViewModel {
     private static final String TAG = "DownloadViewModel";
 
     private final DownloadRepository downloadRepository;
 
-    private final MutableLiveData<List<Child>> downloadedTrackSample = new MutableLiveData<>(null);
+    private final DownloadIndex downloadIndex = new DownloadIndex();
+    private final MutableLiveData<DownloadIndex> downloadedTracks = new MutableLiveData<>(null);
     private final MutableLiveData<ArrayList<DownloadStack>> viewStack = new MutableLiveData<>(null);
 
     public DownloadViewModel(@NonNull Application application) {
@@ -34,9 +33,17 @@ public class DownloadViewModel extends AndroidViewModel {
         initViewStack(new DownloadStack(Preferences.getDefaultDownloadViewType(), null));
     }
 
-    public LiveData<List<Child>> getDownloadedTracks(LifecycleOwner owner) {
-        downloadRepository.getLiveDownload().observe(owner, downloads -> downloadedTrackSample.postValue(downloads.stream().map(download -> (Child) download).collect(Collectors.toList())));
-        return downloadedTrackSample;
+    /*
+     * The download table changes with every download progress, but the index is only published when songs
+     * were added or removed.
+     */
+    public LiveData<DownloadIndex> getDownloadedTracks(LifecycleOwner owner) {
+        downloadRepository.getLiveDownload().observe(owner, downloads -> {
+            if (downloadIndex.update(downloads) || downloadedTracks.getValue() == null) {
+                downloadedTracks.setValue(downloadIndex);
+            }
+        });
+        return downloadedTracks;
     }
 
     public LiveData<ArrayList<DownloadStack>> getViewStack() {
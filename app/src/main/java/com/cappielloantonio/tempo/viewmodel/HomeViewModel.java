@@ -8,14 +8,11 @@ import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.cappielloantonio.tempo.interfaces.StarCallback;
 import com.cappielloantonio.tempo.model.Chronology;
-import com.cappielloantonio.tempo.model.Favorite;
 import com.cappielloantonio.tempo.model.HomeSector;
 import com.cappielloantonio.tempo.repository.AlbumRepository;
 import com.cappielloantonio.tempo.repository.ArtistRepository;
 import com.cappielloantonio.tempo.repository.ChronologyRepository;
-import com.cappielloantonio.tempo.repository.FavoriteRepository;
 import com.cappielloantonio.tempo.repository.PlaylistRepository;
 import com.cappielloantonio.tempo.repository.SharingRepository;
 import com.cappielloantonio.tempo.repository.SongRepository;
@@ -24,26 +21,29 @@ import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.subsonic.models.Playlist;
 import com.cappielloantonio.tempo.subsonic.models.Share;
+import com.cappielloantonio.tempo.util.Constants;
+import com.cappielloantonio.tempo.util.HomeFeedLoader;
 import com.cappielloantonio.tempo.util.Preferences;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class HomeViewModel extends AndroidViewModel {
     private static final String TAG = "HomeViewModel";
 
+    private static final int HOME_FEED_LOADS = 4;
+
     private final SongRepository songRepository;
     private final AlbumRepository albumRepository;
     private final ArtistRepository artistRepository;
     private final ChronologyRepository chronologyRepository;
-    private final FavoriteRepository favoriteRepository;
     private final PlaylistRepository playlistRepository;
     private final SharingRepository sharingRepository;
 
@@ -67,6 +67,8 @@ public class HomeViewModel extends AndroidViewModel {
     private final MutableLiveData<List<Playlist>> pinnedPlaylists = new MutableLiveData<>(null);
     private final MutableLiveData<List<Share>> shares = new MutableLiveData<>(null);
 
+    private final HomeFeedLoader homeFeed = new HomeFeedLoader(HOME_FEED_LOADS);
+
     private List<HomeSector> sectors;
 
     public HomeViewModel(@NonNull Application application) {
@@ -78,18 +80,20 @@ public class HomeViewModel extends AndroidViewModel {
         albumRepository = new AlbumRepository();
         artistRepository = new ArtistRepository();
         chronologyRepository = new ChronologyRepository();
-        favoriteRepository = new FavoriteRepository();
         playlistRepository = new PlaylistRepository();
         sharingRepository = new SharingRepository();
 
-        setOfflineFavorite();
+        initHomeFeed();
     }
 
-    public LiveData<List<Child>> getDiscoverSongSample(LifecycleOwner owner) {
-        if (dicoverSongSample.getValue() == null) {
-            songRepository.getRandomSample(10, null, null).observe(owner, dicoverSongSample::postValue);
-        }
+    @Override
+    protected void onCleared() {
+        homeFeed.stop();
+        super.onCleared();
+    }
 
+    public LiveData<List<Child>> getDiscoverSongSample() {
+        homeFeed.load(Constants.HOME_SECTOR_DISCOVERY);
         return dicoverSongSample;
     }
 
@@ -111,98 +115,58 @@ public class HomeViewModel extends AndroidViewModel {
         return thisGridTopSong;
     }
 
-    public LiveData<List<AlbumID3>> getRecentlyReleasedAlbums(LifecycleOwner owner) {
-        if (newReleasedAlbum.getValue() == null) {
-            int currentYear = Calendar.getInstance().get(Calendar.YEAR);
-
-            albumRepository.getAlbums("byYear", 500, currentYear, currentYear).observe(owner, albums -> {
-                if (albums != null) {
-                    albums.sort(Comparator.comparing(AlbumID3::getCreated).reversed());
-                    newReleasedAlbum.postValue(albums.subList(0, Math.min(20, albums.size())));
-                }
-            });
-        }
-
+    public LiveData<List<AlbumID3>> getRecentlyReleasedAlbums() {
+        homeFeed.load(Constants.HOME_SECTOR_NEW_RELEASES);
         return newReleasedAlbum;
     }
 
-    public LiveData<List<Child>> getStarredTracksSample(LifecycleOwner owner) {
-        if (starredTracksSample.getValue() == null) {
-            songRepository.getStarredSongs(true, 10).observe(owner, starredTracksSample::postValue);
-        }
-
+    public LiveData<List<Child>> getStarredTracksSample() {
+        homeFeed.load(Constants.HOME_SECTOR_MADE_FOR_YOU);
         return starredTracksSample;
     }
 
-    public LiveData<List<ArtistID3>> getStarredArtistsSample(LifecycleOwner owner) {
-        if (starredArtistsSample.getValue() == null) {
-            artistRepository.getStarredArtists(true, 10).observe(owner, starredArtistsSample::postValue);
-        }
-
+    public LiveData<List<ArtistID3>> getStarredArtistsSample() {
+        homeFeed.load(Constants.HOME_SECTOR_RADIO_STATION);
         return starredArtistsSample;
     }
 
-    public LiveData<List<ArtistID3>> getBestOfArtists(LifecycleOwner owner) {
-        if (bestOfArtists.getValue() == null) {
-            artistRepository.getStarredArtists(true, 20).observe(owner, bestOfArtists::postValue);
-        }
-
+    public LiveData<List<ArtistID3>> getBestOfArtists() {
+        homeFeed.load(Constants.HOME_SECTOR_BEST_OF);
         return bestOfArtists;
     }
 
-    public LiveData<List<Child>> getStarredTracks(LifecycleOwner owner) {
-        if (starredTracks.getValue() == null) {
-            songRepository.getStarredSongs(true, 20).observe(owner, starredTracks::postValue);
-        }
-
+    public LiveData<List<Child>> getStarredTracks() {
+        homeFeed.load(Constants.HOME_SECTOR_STARRED_TRACKS);
         return starredTracks;
     }
 
-    public LiveData<List<AlbumID3>> getStarredAlbums(LifecycleOwner owner) {
-        if (starredAlbums.getValue() == null) {
-            albumRepository.getStarredAlbums(true, 20).observe(owner, starredAlbums::postValue);
-        }
-
+    public LiveData<List<AlbumID3>> getStarredAlbums() {
+        homeFeed.load(Constants.HOME_SECTOR_STARRED_ALBUMS);
         return starredAlbums;
     }
 
-    public LiveData<List<ArtistID3>> getStarredArtists(LifecycleOwner owner) {
-        if (starredArtists.getValue() == null) {
-            artistRepository.getStarredArtists(true, 20).observe(owner, starredArtists::postValue);
-        }
-
+    public LiveData<List<ArtistID3>> getStarredArtists() {
+        homeFeed.load(Constants.HOME_SECTOR_STARRED_ARTISTS);
         return starredArtists;
     }
 
-    public LiveData<List<Integer>> getYearList(LifecycleOwner owner) {
-        if (years.getValue() == null) {
-            albumRepository.getDecades().observe(owner, years::postValue);
-        }
-
+    public LiveData<List<Integer>> getYearList() {
+        homeFeed.load(Constants.HOME_SECTOR_FLASHBACK);
         return years;
     }
 
-    public LiveData<List<AlbumID3>> getMostPlayedAlbums(LifecycleOwner owner) {
-        if (mostPlayedAlbumSample.getValue() == null) {
-            albumRepository.getAlbums("frequent", 20, null, null).observe(owner, mostPlayedAlbumSample::postValue);
-        }
-
+    public LiveData<List<AlbumID3>> getMostPlayedAlbums() {
+        homeFeed.load(Constants.HOME_SECTOR_MOST_PLAYED);
         return mostPlayedAlbumSample;
     }
 
-    public LiveData<List<AlbumID3>> getMostRecentlyAddedAlbums(LifecycleOwner owner) {
-        if (recentlyAddedAlbumSample.getValue() == null) {
-            albumRepository.getAlbums("newest", 20, null, null).observe(owner, recentlyAddedAlbumSample::postValue);
-        }
-
+    public LiveData<List<AlbumID3>> getMostRecentlyAddedAlbums() {
+        homeFeed.load(Constants.HOME_SECTOR_RECENTLY_ADDED);
         return recentlyAddedAlbumSample;
     }
 
-    public LiveData<List<AlbumID3>> getRecentlyPlayedAlbumList(LifecycleOwner owner) {
-        if (recentlyPlayedAlbumSample.getValue() == null) {
-            albumRepository.getAlbums("recent", 20, null, null).observe(owner, recentlyPlayedAlbumSample::postValue);
-        }
-
+    public LiveData<List<AlbumID3>> getRecentlyPlayedAlbumList() {
+        homeFeed.load(Constants.HOME_SECTOR_LAST_PLAYED);
         return recentlyPlayedAlbumSample;
     }
 
@@ -248,11 +212,8 @@ public class HomeViewModel extends AndroidViewModel {
         return pinnedPlaylists;
     }
 
-    public LiveData<List<Share>> getShares(LifecycleOwner owner) {
-        if (shares.getValue() == null) {
-            sharingRepository.getShares().observe(owner, shares::postValue);
-        }
-
+    public LiveData<List<Share>> getShares() {
+        homeFeed.load(Constants.HOME_SECTOR_SHARED);
         return shares;
     }
 
@@ -285,48 +246,105 @@ public class HomeViewModel extends AndroidViewModel {
         chronologyRepository.getChronology(server, start, end).observe(owner, thisGridTopSong::postValue);
     }
 
-    public void refreshDiscoverySongSample(LifecycleOwner owner) {
-        songRepository.getRandomSample(10, null, null).observe(owner, dicoverSongSample::postValue);
+    public void refreshDiscoverySongSample() {
+        homeFeed.refresh(Constants.HOME_SECTOR_DISCOVERY);
     }
 
-    public void refreshSimilarSongSample(LifecycleOwner owner) {
-        songRepository.getStarredSongs(true, 10).observe(owner, starredTracksSample::postValue);
+    public void refreshSimilarSongSample() {
+        homeFeed.refresh(Constants.HOME_SECTOR_MADE_FOR_YOU);
     }
 
-    public void refreshRadioArtistSample(LifecycleOwner owner) {
-        artistRepository.getStarredArtists(true, 10).observe(owner, starredArtistsSample::postValue);
+    public void refreshRadioArtistSample() {
+        homeFeed.refresh(Constants.HOME_SECTOR_RADIO_STATION);
     }
 
-    public void refreshBestOfArtist(LifecycleOwner owner) {
-        artistRepository.getStarredArtists(true, 20).observe(owner, bestOfArtists::postValue);
+    public void refreshBestOfArtist() {
+        homeFeed.refresh(Constants.HOME_SECTOR_BEST_OF);
     }
 
-    public void refreshStarredTracks(LifecycleOwner owner) {
-        songRepository.getStarredSongs(true, 20).observe(owner, starredTracks::postValue);
+    public void refreshStarredTracks() {
+        homeFeed.refresh(Constants.HOME_SECTOR_STARRED_TRACKS);
     }
 
-    public void refreshStarredAlbums(LifecycleOwner owner) {
-        albumRepository.getStarredAlbums(true, 20).observe(owner, starredAlbums::postValue);
+    public void refreshStarredAlbums() {
+        homeFeed.refresh(Constants.HOME_SECTOR_STARRED_ALBUMS);
     }
 
-    public void refreshStarredArtists(LifecycleOwner owner) {
-        artistRepository.getStarredArtists(true, 20).observe(owner, starredArtists::postValue);
+    public void refreshStarredArtists() {
+        homeFeed.refresh(Constants.HOME_SECTOR_STARRED_ARTISTS);
     }
 
-    public void refreshMostPlayedAlbums(LifecycleOwner owner) {
-        albumRepository.getAlbums("frequent", 20, null, null).observe(owner, mostPlayedAlbumSample::postValue);
+    public void refreshMostPlayedAlbums() {
+        homeFeed.refresh(Constants.HOME_SECTOR_MOST_PLAYED);
     }
 
-    public void refreshMostRecentlyAddedAlbums(LifecycleOwner owner) {
-        albumRepository.getAlbums("newest", 20, null, null).observe(owner, recentlyAddedAlbumSample::postValue);
+    public void refreshMostRecentlyAddedAlbums() {
+        homeFeed.refresh(Constants.HOME_SECTOR_RECENTLY_ADDED);
     }
 
-    public void refreshRecentlyPlayedAlbumList(LifecycleOwner owner) {
-        albumRepository.getAlbums("recent", 20, null, null).observe(owner, recentlyPlayedAlbumSample::postValue);
+    public void refreshRecentlyPlayedAlbumList() {
+        homeFeed.refresh(Constants.HOME_SECTOR_LAST_PLAYED);
     }
 
-    public void refreshShares(LifecycleOwner owner) {
-        sharingRepository.getShares().observe(owner, this.shares::postValue);
+    public void refreshShares() {
+        homeFeed.refresh(Constants.HOME_SECTOR_SHARED);
+    }
+
+    /*
+     * The sectors are loaded in the order they are shown, and the hidden ones only if they are shown
+     * again.
+     */
+    private void initHomeFeed() {
+        Type songs = new TypeToken<List<Child>>() {
+        }.getType();
+        Type albums = new TypeToken<List<AlbumID3>>() {
+        }.getType();
+        Type artists = new TypeToken<List<ArtistID3>>() {
+        }.getType();
+
+        homeFeed.register(Constants.HOME_SECTOR_DISCOVERY, songs, dicoverSongSample, () -> songRepository.getRandomSample(10, null, null));
+        homeFeed.register(Constants.HOME_SECTOR_MADE_FOR_YOU, songs, starredTracksSample, () -> songRepository.getStarredSongs(true, 10));
+        homeFeed.register(Constants.HOME_SECTOR_BEST_OF, artists, bestOfArtists, () -> artistRepository.getStarredArtists(true, 20));
+        homeFeed.register(Constants.HOME_SECTOR_RADIO_STATION, artists, starredArtistsSample, () -> artistRepository.getStarredArtists(true, 10));
+        homeFeed.register(Constants.HOME_SECTOR_STARRED_TRACKS, songs, starredTracks, () -> songRepository.getStarredSongs(true, 20));
+        homeFeed.register(Constants.HOME_SECTOR_STARRED_ALBUMS, albums, starredAlbums, () -> albumRepository.getStarredAlbums(true, 20));
+        homeFeed.register(Constants.HOME_SECTOR_STARRED_ARTISTS, artists, starredArtists, () -> artistRepository.getStarredArtists(true, 20));
+        homeFeed.register(Constants.HOME_SECTOR_NEW_RELEASES, albums, newReleasedAlbum, () -> albumRepository.getRecentlyReleasedAlbums(20));
+        homeFeed.register(Constants.HOME_SECTOR_FLASHBACK, new TypeToken<List<Integer>>() {
+        }.getType(), years, albumRepository::getDecades);
+        homeFeed.register(Constants.HOME_SECTOR_MOST_PLAYED, albums, mostPlayedAlbumSample, () -> albumRepository.getAlbums("frequent", 20, null, null));
+        homeFeed.register(Constants.HOME_SECTOR_LAST_PLAYED, albums, recentlyPlayedAlbumSample, () -> albumRepository.getAlbums("recent", 20, null, null));
+        homeFeed.register(Constants.HOME_SECTOR_RECENTLY_ADDED, albums, recentlyAddedAlbumSample, () -> albumRepository.getAlbums("newest", 20, null, null));
+        homeFeed.register(Constants.HOME_SECTOR_SHARED, new TypeToken<List<Share>>() {
+        }.getType(), shares, sharingRepository::getShares);
+
+        List<String> order = new ArrayList<>();
+
+        if (sectors != null) {
+            for (HomeSector sector : sectors) {
+                if (sector.isVisible()) order.add(sector.getId());
+            }
+        } else {
+            order.addAll(Arrays.asList(
+                    Constants.HOME_SECTOR_DISCOVERY,
+                    Constants.HOME_SECTOR_MADE_FOR_YOU,
+                    Constants.HOME_SECTOR_BEST_OF,
+                    Constants.HOME_SECTOR_RADIO_STATION,
+                    Constants.HOME_SECTOR_STARRED_TRACKS,
+                    Constants.HOME_SECTOR_STARRED_ALBUMS,
+                    Constants.HOME_SECTOR_STARRED_ARTISTS,
+                    Constants.HOME_SECTOR_NEW_RELEASES,
+                    Constants.HOME_SECTOR_FLASHBACK,
+                    Constants.HOME_SECTOR_MOST_PLAYED,
+                    Constants.HOME_SECTOR_LAST_PLAYED,
+                    Constants.HOME_SECTOR_RECENTLY_ADDED,
+                    Constants.HOME_SECTOR_SHARED
+            ));
+        }
+
+        if (!Preferences.isSharingEnabled()) order.remove(Constants.HOME_SECTOR_SHARED);
+
+        homeFeed.start(order);
     }
 
     private void setHomeSectorList() {
@@ -348,109 +366,4 @@ public class HomeViewModel extends AndroidViewModel {
                 .findAny()
                 .orElse(null) == null;
     }
-
-    public void setOfflineFavorite() {
-        ArrayList<Favorite> favorites = getFavorites();
-        ArrayList<Favorite> favoritesToSave = getFavoritesToSave(favorites);
-        ArrayList<Favorite> favoritesToDelete = getFavoritesToDelete(favorites, favoritesToSave);
-
-        manageFavoriteToSave(favoritesToSave);
-        manageFavoriteToDelete(favoritesToDelete);
-    }
-
-    private ArrayList<Favorite> getFavorites() {
-        return new ArrayList<>(favoriteRepository.getFavorites());
-    }
-
-    private ArrayList<Favorite> getFavoritesToSave(ArrayList<Favorite> favorites) {
-        HashMap<String, Favorite> filteredMap = new HashMap<>();
-
-        for (Favorite favorite : favorites) {
-            String key = favorite.toString();
-
-            if (!filteredMap.containsKey(key) || favorite.getTimestamp() > filteredMap.get(key).getTimestamp()) {
-                filteredMap.put(key, favorite);
-            }
-        }
-
-        return new ArrayList<>(filteredMap.values());
-    }
-
-    private ArrayList<Favorite> getFavoritesToDelete(ArrayList<Favorite> favorites, ArrayList<Favorite> favoritesToSave) {
-        ArrayList<Favorite> favoritesToDelete = new ArrayList<>();
-
-        for (Favorite favorite : favorites) {
-            if (!favoritesToSave.contains(favorite)) {
-                favoritesToDelete.add(favorite);
-            }
-        }
-
-        return favoritesToDelete;
-    }
-
-    private void manageFavoriteToSave(ArrayList<Favorite> favoritesToSave) {
-        for (Favorite favorite : favoritesToSave) {
-            if (favorite.getToStar()) {
-                favoriteToStar(favorite);
-            } else {
-                favoriteToUnstar(favorite);
-            }
-        }
-    }
-
-    private void manageFavoriteToDelete(ArrayList<Favorite> favoritesToDelete) {
-        for (Favorite favorite : favoritesToDelete) {
-            favoriteRepository.delete(favorite);
-        }
-    }
-
-    private void favoriteToStar(Favorite favorite) {
-        if (favorite.getSongId() != null) {
-            favoriteRepository.star(favorite.getSongId(), null, null, new StarCallback() {
-                @Override
-                public void onSuccess() {
-                    favoriteRepository.delete(favorite);
-                }
-            });
-        } else if (favorite.getAlbumId() != null) {
-            favoriteRepository.star(null, favorite.getAlbumId(), null, new StarCallback() {
-                @Override
-                public void onSuccess() {
-                    favoriteRepository.delete(favorite);
-                }
-            });
-        } else if (favorite.getArtistId() != null) {
-            favoriteRepository.star(null, null, favorite.getArtistId(), new StarCallback() {
-                @Override
-                public void onSuccess() {
-                    favoriteRepository.delete(favorite);
-                }
-            });
-        }
-    }
-
-    private void favoriteToUnstar(Favorite favorite) {
-        if (favorite.getSongId() != null) {
-            favoriteRepository.unstar(favorite.getSongId(), null, null, new StarCallback() {
-                @Override
-                public void onSuccess() {
-                    favoriteRepository.delete(favorite);
-                }
-            });
-        } else if (favorite.getAlbumId() != null) {
-            favoriteRepository.unstar(null, favorite.getAlbumId(), null, new StarCallback() {
-                @Override
-                public void onSuccess() {
-                    favoriteRepository.delete(favorite);
-                }
-            });
-        } else if (favorite.getArtistId() != null) {
-            favoriteRepository.unstar(null, null, favorite.getArtistId(), new StarCallback() {
-                @Override
-                public void onSuccess() {
-                    favoriteRepository.delete(favorite);
-                }
-            });
-        }
-    }
 }
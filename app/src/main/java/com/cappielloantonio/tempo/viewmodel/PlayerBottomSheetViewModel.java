@@ -1,7 +1,6 @@
 package com.cappielloantonio.tempo.viewmodel;
 
 import android.app.Application;
-import android.content.ComponentName;
 import android.content.Context;
 import android.os.Handler;
 
@@ -13,9 +12,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.session.MediaBrowser;
-import androidx.media3.session.SessionToken;
 
-import com.cappielloantonio.tempo.interfaces.StarCallback;
 import com.cappielloantonio.tempo.model.Download;
 import com.cappielloantonio.tempo.model.Queue;
 import com.cappielloantonio.tempo.repository.AlbumRepository;
@@ -24,30 +21,28 @@ import com.cappielloantonio.tempo.repository.FavoriteRepository;
 import com.cappielloantonio.tempo.repository.OpenRepository;
 import com.cappielloantonio.tempo.repository.QueueRepository;
 import com.cappielloantonio.tempo.repository.SongRepository;
-import com.cappielloantonio.tempo.service.MediaService;
+import com.cappielloantonio.tempo.service.DownloaderManager;
+import com.cappielloantonio.tempo.service.MediaBrowserManager;
 import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
 import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.subsonic.models.Line;
 import com.cappielloantonio.tempo.subsonic.models.LyricsList;
-import com.cappielloantonio.tempo.subsonic.models.PlayQueue;
 import com.cappielloantonio.tempo.subsonic.models.StructuredLyrics;
 import com.cappielloantonio.tempo.util.Constants;
 import com.cappielloantonio.tempo.util.DownloadUtil;
 import com.cappielloantonio.tempo.util.MappingUtil;
-import com.cappielloantonio.tempo.util.NetworkUtil;
 import com.cappielloantonio.tempo.util.OpenSubsonicExtensionsUtil;
 import android.content.Intent;
 import com.cappielloantonio.tempo.service.DesktopLyricsService;
 import com.cappielloantonio.tempo.util.OverlayPermissionUtil;
 import com.cappielloantonio.tempo.util.Preferences;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Futures;
 
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @OptIn(markerClass = UnstableApi.class)
 public class PlayerBottomSheetViewModel extends AndroidViewModel {
@@ -68,9 +63,8 @@ public class PlayerBottomSheetViewModel extends AndroidViewModel {
     private final MutableLiveData<List<Child>> instantMix = new MutableLiveData<>(null);
     private boolean lyricsSyncState = true;
     
-    // Media browser for getting current playback position
+    // Media browser for getting current playback position, renewed on each use
     private ListenableFuture<MediaBrowser> mediaBrowserListenableFuture;
-    private MediaBrowser mediaBrowser;
     // Handler for periodic lyrics update
     private Handler syncLyricsHandler;
     private Runnable syncLyricsRunnable;
@@ -87,24 +81,18 @@ public class PlayerBottomSheetViewModel extends AndroidViewModel {
         openRepository = new OpenRepository();
         
         // Initialize media browser for getting current playback position
-        initializeMediaBrowser();
+        mediaBrowserListenableFuture = MediaBrowserManager.acquire();
     }
-    
-    private void initializeMediaBrowser() {
-        mediaBrowserListenableFuture = new MediaBrowser.Builder(getApplication(), 
-                new SessionToken(getApplication(), 
-                        new ComponentName(getApplication(), MediaService.class)))
-                .buildAsync();
-        
-        mediaBrowserListenableFuture.addListener(() -> {
-            try {
-                if (mediaBrowserListenableFuture.isDone()) {
-                    mediaBrowser = mediaBrowserListenableFuture.get();
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }, MoreExecutors.directExecutor());
+
+    private MediaBrowser getMediaBrowser() {
+        mediaBrowserListenableFuture = MediaBrowserManager.renew(mediaBrowserListenableFuture);
+        if (!mediaBrowserListenableFuture.isDone()) return null;
+
+        try {
+            return Futures.getDone(mediaBrowserListenableFuture);
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     public LiveData<List<Queue>> getQueueSong() {
@@ -114,59 +102,31 @@ public class PlayerBottomSheetViewModel extends AndroidViewModel {
     public void setFavorite(Context context, Child media) {
         if (media != null) {
             if (media.getStarred() != null) {
-                if (NetworkUtil.isOffline()) {
-                    removeFavoriteOffline(media);
-                } else {
-                    removeFavoriteOnline(media);
-                }
+                removeFavorite(media);
             } else {
-                if (NetworkUtil.isOffline()) {
-                    setFavoriteOffline(media);
-                } else {
-                    setFavoriteOnline(context, media);
-                }
+                addFavorite(context, media);
             }
         }
     }
 
-    private void removeFavoriteOffline(Child media) {
-        favoriteRepository.starLater(media.getId(), null, null, false);
+    private void removeFavorite(Child media) {
+        favoriteRepository.setStarred(media.getId(), null, null, false);
         media.setStarred(null);
     }
 
-    private void removeFavoriteOnline(Child media) {
-        favoriteRepository.unstar(media.getId(), null, null, new StarCallback() {
-            @Override
-            public void onError() {
-                // media.setStarred(new Date());
-                favoriteRepository.starLater(media.getId(), null, null, false);
-            }
-        });
-
-        media.setStarred(null);
-    }
-
-    private void setFavoriteOffline(Child media) {
-        favoriteRepository.starLater(media.getId(), null, null, true);
-        media.setStarred(new Date());
-    }
-
-    private void setFavoriteOnline(Context context, Child media) {
-        favoriteRepository.star(media.getId(), null, null, new StarCallback() {
-            @Override
-            public void onError() {
-                // media.setStarred(null);
-                favoriteRepository.starLater(media.getId(), null, null, true);
-            }
-        });
-
+    private void addFavorite(Context context, Child media) {
+        favoriteRepository.setStarred(media.getId(), null, null, true);
         media.setStarred(new Date());
 
         if (Preferences.isStarredSyncEnabled()) {
-            DownloadUtil.getDownloadTracker(context).download(
-                    MappingUtil.mapDownload(media),
-                    new Download(media)
-            );
+            DownloaderManager manager = DownloadUtil.getDownloadTracker(context);
+
+            // A manual download is kept as it is, the synced ones are left to the download quota
+            if (!manager.isDownloaded(media.getId())) {
+                Download download = new Download(media);
+                download.setAutoSynced(true);
+                manager.download(MappingUtil.mapDownload(media), download);
+            }
         }
     }
 
@@ -219,6 +179,7 @@ public class PlayerBottomSheetViewModel extends AndroidViewModel {
     }
     
     private void updateCurrentLyric(LyricsList lyricsList, String plainLyrics) {
+        MediaBrowser mediaBrowser = getMediaBrowser();
         if (mediaBrowser == null) return;
         
         String currentLyric = null;
@@ -335,23 +296,6 @@ public class PlayerBottomSheetViewModel extends AndroidViewModel {
         return instantMix;
     }
 
-    public LiveData<PlayQueue> getPlayQueue() {
-        return queueRepository.getPlayQueue();
-    }
-
-    public boolean savePlayQueue() {
-        Child media = getLiveMedia().getValue();
-        List<Child> queue = queueRepository.getMedia();
-        List<String> ids = queue.stream().map(Child::getId).collect(Collectors.toList());
-
-        if (media != null) {
-            queueRepository.savePlayQueue(ids, media.getId(), 0);
-            return true;
-        }
-
-        return false;
-    }
-
     public void changeSyncLyricsState() {
         lyricsSyncState = !lyricsSyncState;
     }
@@ -366,7 +310,7 @@ public class PlayerBottomSheetViewModel extends AndroidViewModel {
         // Release resources
         releaseLyricsSyncHandler();
         if (mediaBrowserListenableFuture != null) {
-            MediaBrowser.releaseFuture(mediaBrowserListenableFuture);
+            MediaBrowserManager.release(mediaBrowserListenableFuture);
         }
     }
 }
@@ -10,20 +10,19 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.media3.common.util.UnstableApi;
 
-import com.cappielloantonio.tempo.interfaces.StarCallback;
 import com.cappielloantonio.tempo.model.Download;
 import com.cappielloantonio.tempo.repository.AlbumRepository;
 import com.cappielloantonio.tempo.repository.ArtistRepository;
 import com.cappielloantonio.tempo.repository.FavoriteRepository;
 import com.cappielloantonio.tempo.repository.SharingRepository;
 import com.cappielloantonio.tempo.repository.SongRepository;
+import com.cappielloantonio.tempo.service.DownloaderManager;
 import com.cappielloantonio.tempo.subsonic.models.AlbumID3;
 import com.cappielloantonio.tempo.subsonic.models.ArtistID3;
 import com.cappielloantonio.tempo.subsonic.models.Child;
 import com.cappielloantonio.tempo.subsonic.models.Share;
 import com.cappielloantonio.tempo.util.DownloadUtil;
 import com.cappielloantonio.tempo.util.MappingUtil;
-import com.cappielloantonio.tempo.util.NetworkUtil;
 import com.cappielloantonio.tempo.util.Preferences;
 
 import java.util.Collections;
@@ -62,58 +61,30 @@ public class SongBottomSheetViewModel extends AndroidViewModel {
 
     public void setFavorite(Context context) {
         if (song.getStarred() != null) {
-            if (NetworkUtil.isOffline()) {
-                removeFavoriteOffline(song);
-            } else {
-                removeFavoriteOnline(song);
-            }
+            removeFavorite(song);
         } else {
-            if (NetworkUtil.isOffline()) {
-                setFavoriteOffline(song);
-            } else {
-                setFavoriteOnline(context, song);
-            }
+            addFavorite(context, song);
         }
     }
 
-    private void removeFavoriteOffline(Child media) {
-        favoriteRepository.starLater(media.getId(), null, null, false);
-        media.setStarred(null);
-    }
-
-    private void removeFavoriteOnline(Child media) {
-        favoriteRepository.unstar(media.getId(), null, null, new StarCallback() {
-            @Override
-            public void onError() {
-                // media.setStarred(new Date());
-                favoriteRepository.starLater(media.getId(), null, null, false);
-            }
-        });
-
+    private void removeFavorite(Child media) {
+        favoriteRepository.setStarred(media.getId(), null, null, false);
         media.setStarred(null);
     }
 
-    private void setFavoriteOffline(Child media) {
-        favoriteRepository.starLater(media.getId(), null, null, true);
-        media.setStarred(new Date());
-    }
-
-    private void setFavoriteOnline(Context context, Child media) {
-        favoriteRepository.star(media.getId(), null, null, new StarCallback() {
-            @Override
-            public void onError() {
-                // media.setStarred(null);
-                favoriteRepository.starLater(media.getId(), null, null, true);
-            }
-        });
-
+    private void addFavorite(Context context, Child media) {
+        favoriteRepository.setStarred(media.getId(), null, null, true);
         media.setStarred(new Date());
 
         if (Preferences.isStarredSyncEnabled()) {
-            DownloadUtil.getDownloadTracker(context).download(
-                    MappingUtil.mapDownload(media),
-                    new Download(media)
-            );
+            DownloaderManager manager = DownloadUtil.getDownloadTracker(context);
+
+            // A manual download is kept as it is, the synced ones are left to the download quota
+            if (!manager.isDownloaded(media.getId())) {
+                Download download = new Download(media);
+                download.setAutoSynced(true);
+                manager.download(MappingUtil.mapDownload(media), download);
+            }
         }
     }
 
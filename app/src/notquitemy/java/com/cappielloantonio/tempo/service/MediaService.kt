@@ -8,9 +8,7 @@ import android.content.Intent
 import android.os.Bundle
 import androidx.media3.common.*
 import androidx.media3.common.util.UnstableApi
-import androidx.media3.exoplayer.DefaultLoadControl
 import androidx.media3.exoplayer.ExoPlayer
-import androidx.media3.exoplayer.source.DefaultMediaSourceFactory
 import androidx.media3.exoplayer.source.TrackGroupArray
 import androidx.media3.exoplayer.trackselection.TrackSelectionArray
 import androidx.media3.session.*
@@ -21,6 +19,8 @@ import com.cappielloantonio.tempo.ui.activity.MainActivity
 import com.cappielloantonio.tempo.util.Constants
 import com.cappielloantonio.tempo.util.DownloadUtil
 import com.cappielloantonio.tempo.util.Preferences
+import com.cappielloantonio.tempo.util.RadioAwareMediaSourceFactory
+import com.cappielloantonio.tempo.util.ReplayGainAudioProcessor
 import com.cappielloantonio.tempo.util.ReplayGainUtil
 import com.google.common.collect.ImmutableList
 import com.google.common.util.concurrent.Futures
@@ -32,6 +32,16 @@ class MediaService : MediaLibraryService() {
     private val librarySessionCallback = CustomMediaLibrarySessionCallback()
 
     private lateinit var player: ExoPlayer
+    private lateinit var loadControl: AdaptiveLoadControl
+    private val replayGainAudioProcessor = ReplayGainAudioProcessor()
+    private lateinit var audioOffloadManager: AudioOffloadManager
+    private lateinit var adaptiveBitrateManager: AdaptiveBitrateManager
+    private lateinit var wakeModeManager: WakeModeManager
+    private lateinit var continuousPlayManager: ContinuousPlayManager
+    private lateinit var playQueueSyncManager: PlayQueueSyncManager
+    private lateinit var podcastBookmarkManager: PodcastBookmarkManager
+    private lateinit var cacheWarmer: CacheWarmer
+    private lateinit var podcastPrefetcher: PodcastPrefetcher
     private lateinit var mediaLibrarySession: MediaLibrarySession
     private lateinit var customCommands: List<CommandButton>
 
@@ -48,6 +58,7 @@ class MediaService : MediaLibraryService() {
         super.onCreate()
 
         initializeCustomCommands()
+        MutationJournal.start()
         initializePlayer()
         initializeMediaLibrarySession()
         initializePlayerListener()
@@ -56,6 +67,7 @@ class MediaService : MediaLibraryService() {
     }
 
     override fun onGetSession(controllerInfo: ControllerInfo): MediaLibrarySession {
+        playQueueSyncManager.pull()
         return mediaLibrarySession
     }
 
@@ -140,14 +152,27 @@ class MediaService : MediaLibraryService() {
     }
 
     private fun initializePlayer() {
+        loadControl = AdaptiveLoadControl(this)
+
         player = ExoPlayer.Builder(this)
             .setRenderersFactory(getRenderersFactory())
             .setMediaSourceFactory(getMediaSourceFactory())
             .setAudioAttributes(AudioAttributes.DEFAULT, true)
             .setHandleAudioBecomingNoisy(true)
             .setWakeMode(C.WAKE_MODE_NETWORK)
-            .setLoadControl(initializeLoadControl())
+            .setLoadControl(loadControl)
             .build()
+
+        loadControl.attach(player)
+        audioOffloadManager = AudioOffloadManager(this, player)
+        adaptiveBitrateManager = AdaptiveBitrateManager(this, player)
+        wakeModeManager = WakeModeManager(this, player)
+        continuousPlayManager = ContinuousPlayManager(this, player)
+        playQueueSyncManager = PlayQueueSyncManager(player)
+        podcastBookmarkManager = PodcastBookmarkManager(player)
+        cacheWarmer = CacheWarmer(this)
+        podcastPrefetcher = PodcastPrefetcher(this)
+        player.addAnalyticsListener(DecoderStatsListener())
     }
 
     private fun initializeMediaLibrarySession() {
@@ -174,21 +199,33 @@ class MediaService : MediaLibraryService() {
 
                 if (reason == Player.MEDIA_ITEM_TRANSITION_REASON_SEEK || reason == Player.MEDIA_ITEM_TRANSITION_REASON_AUTO) {
                     MediaManager.setLastPlayedTimestamp(mediaItem)
-                    
-                    // Send song changed action to DesktopLyricsService when transitioning to a new song
-                    val intent = Intent(this@MediaService, DesktopLyricsService::class.java)
-                    intent.action = DesktopLyricsService.ACTION_SONG_CHANGED
-                    intent.putExtra(DesktopLyricsService.EXTRA_SONG_ID, mediaItem.mediaId)
-                    startService(intent)
+
+                    // Send song changed action to DesktopLyricsService when transitioning to a new song,
+                    // the service is only started while desktop lyrics are enabled
+                    if (Preferences.isDesktopLyricsEnabled()) {
+                        val intent = Intent(this@MediaService, DesktopLyricsService::class.java)
+                        intent.action = DesktopLyricsService.ACTION_SONG_CHANGED
+                        intent.putExtra(DesktopLyricsService.EXTRA_SONG_ID, mediaItem.mediaId)
+                        startService(intent)
+                    }
+                }
+            }
+
+            override fun onEvents(eventPlayer: Player, events: Player.Events) {
+                if (events.containsAny(
+                                Player.EVENT_TIMELINE_CHANGED,
+                                Player.EVENT_MEDIA_ITEM_TRANSITION,
+                                Player.EVENT_SHUFFLE_MODE_ENABLED_CHANGED,
+                                Player.EVENT_REPEAT_MODE_CHANGED
+                        )
+                ) {
+                    ReplayGainUtil.setReplayGain(player, replayGainAudioProcessor)
                 }
             }
 
             override fun onTracksChanged(tracks: Tracks) {
-                ReplayGainUtil.setReplayGain(player, tracks)
+                ReplayGainUtil.setReplayGain(player, tracks, replayGainAudioProcessor)
                 MediaManager.scrobble(player.currentMediaItem, false)
-
-                if (player.currentMediaItemIndex + 1 == player.mediaItemCount)
-                    MediaManager.continuousPlay(player.currentMediaItem)
             }
 
             override fun onIsPlayingChanged(isPlaying: Boolean) {
@@ -250,6 +287,15 @@ class MediaService : MediaLibraryService() {
     }
 
     private fun releasePlayer() {
+        loadControl.release()
+        audioOffloadManager.release()
+        adaptiveBitrateManager.release()
+        wakeModeManager.release()
+        continuousPlayManager.release()
+        playQueueSyncManager.release()
+        podcastBookmarkManager.release()
+        cacheWarmer.release()
+        podcastPrefetcher.release()
         player.release()
         mediaLibrarySession.release()
     }
@@ -273,19 +319,7 @@ class MediaService : MediaLibraryService() {
         /* Do nothing. */
     }
 
-    private fun initializeLoadControl(): DefaultLoadControl {
-        return DefaultLoadControl.Builder()
-            .setBufferDurationsMs(
-                (DefaultLoadControl.DEFAULT_MIN_BUFFER_MS * Preferences.getBufferingStrategy()).toInt(),
-                (DefaultLoadControl.DEFAULT_MAX_BUFFER_MS * Preferences.getBufferingStrategy()).toInt(),
-                DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_MS,
-                DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS
-            )
-            .build()
-    }
-
-    private fun getRenderersFactory() = DownloadUtil.buildRenderersFactory(this, false)
+    private fun getRenderersFactory() = DownloadUtil.buildRenderersFactory(this, false, replayGainAudioProcessor)
 
-    private fun getMediaSourceFactory() =
-        DefaultMediaSourceFactory(this).setDataSourceFactory(DownloadUtil.getDataSourceFactory(this))
+    private fun getMediaSourceFactory() = RadioAwareMediaSourceFactory(this)
 }
\ No newline at end of file
@@ -12,9 +12,7 @@ import androidx.media3.common.MediaItem
 import androidx.media3.common.Player
 import androidx.media3.common.Tracks
 import androidx.media3.common.util.UnstableApi
-import androidx.media3.exoplayer.DefaultLoadControl
 import androidx.media3.exoplayer.ExoPlayer
-import androidx.media3.exoplayer.source.DefaultMediaSourceFactory
 import androidx.media3.session.MediaLibraryService
 import androidx.media3.session.MediaSession.ControllerInfo
 import com.cappielloantonio.tempo.repository.AutomotiveRepository
@@ -23,6 +21,8 @@ import com.cappielloantonio.tempo.ui.activity.MainActivity
 import com.cappielloantonio.tempo.util.Constants
 import com.cappielloantonio.tempo.util.DownloadUtil
 import com.cappielloantonio.tempo.util.Preferences
+import com.cappielloantonio.tempo.util.RadioAwareMediaSourceFactory
+import com.cappielloantonio.tempo.util.ReplayGainAudioProcessor
 import com.cappielloantonio.tempo.util.ReplayGainUtil
 import com.google.android.gms.cast.framework.CastContext
 import com.google.android.gms.common.ConnectionResult
@@ -32,6 +32,16 @@ import com.google.android.gms.common.GoogleApiAvailability
 class MediaService : MediaLibraryService(), SessionAvailabilityListener {
     private lateinit var automotiveRepository: AutomotiveRepository
     private lateinit var player: ExoPlayer
+    private lateinit var loadControl: AdaptiveLoadControl
+    private val replayGainAudioProcessor = ReplayGainAudioProcessor()
+    private lateinit var audioOffloadManager: AudioOffloadManager
+    private lateinit var adaptiveBitrateManager: AdaptiveBitrateManager
+    private lateinit var wakeModeManager: WakeModeManager
+    private lateinit var continuousPlayManager: ContinuousPlayManager
+    private lateinit var playQueueSyncManager: PlayQueueSyncManager
+    private lateinit var podcastBookmarkManager: PodcastBookmarkManager
+    private lateinit var cacheWarmer: CacheWarmer
+    private lateinit var podcastPrefetcher: PodcastPrefetcher
     private lateinit var castPlayer: CastPlayer
     private lateinit var mediaLibrarySession: MediaLibrarySession
 
@@ -39,6 +49,7 @@ class MediaService : MediaLibraryService(), SessionAvailabilityListener {
         super.onCreate()
 
         initializeRepository()
+        MutationJournal.start()
         initializePlayer()
         initializeCastPlayer()
         initializeMediaLibrarySession()
@@ -51,6 +62,7 @@ class MediaService : MediaLibraryService(), SessionAvailabilityListener {
     }
 
     override fun onGetSession(controllerInfo: ControllerInfo): MediaLibrarySession {
+        playQueueSyncManager.pull()
         return mediaLibrarySession
     }
 
@@ -72,14 +84,27 @@ class MediaService : MediaLibraryService(), SessionAvailabilityListener {
     }
 
     private fun initializePlayer() {
+        loadControl = AdaptiveLoadControl(this)
+
         player = ExoPlayer.Builder(this)
                 .setRenderersFactory(getRenderersFactory())
                 .setMediaSourceFactory(getMediaSourceFactory())
                 .setAudioAttributes(AudioAttributes.DEFAULT, true)
                 .setHandleAudioBecomingNoisy(true)
                 .setWakeMode(C.WAKE_MODE_NETWORK)
-                .setLoadControl(initializeLoadControl())
+                .setLoadControl(loadControl)
                 .build()
+
+        loadControl.attach(player)
+        audioOffloadManager = AudioOffloadManager(this, player)
+        adaptiveBitrateManager = AdaptiveBitrateManager(this, player)
+        wakeModeManager = WakeModeManager(this, player)
+        continuousPlayManager = ContinuousPlayManager(this, player)
+        playQueueSyncManager = PlayQueueSyncManager(player)
+        podcastBookmarkManager = PodcastBookmarkManager(player)
+        cacheWarmer = CacheWarmer(this)
+        podcastPrefetcher = PodcastPrefetcher(this)
+        player.addAnalyticsListener(DecoderStatsListener())
     }
 
     private fun initializeCastPlayer() {
@@ -115,21 +140,33 @@ class MediaService : MediaLibraryService(), SessionAvailabilityListener {
 
                 if (reason == Player.MEDIA_ITEM_TRANSITION_REASON_SEEK || reason == Player.MEDIA_ITEM_TRANSITION_REASON_AUTO) {
                     MediaManager.setLastPlayedTimestamp(mediaItem)
-                    
-                    // Send song changed action to DesktopLyricsService when transitioning to a new song
-                    val intent = Intent(this@MediaService, DesktopLyricsService::class.java)
-                    intent.action = DesktopLyricsService.ACTION_SONG_CHANGED
-                    intent.putExtra(DesktopLyricsService.EXTRA_SONG_ID, mediaItem.mediaId)
-                    startService(intent)
+
+                    // Send song changed action to DesktopLyricsService when transitioning to a new song,
+                    // the service is only started while desktop lyrics are enabled
+                    if (Preferences.isDesktopLyricsEnabled()) {
+                        val intent = Intent(this@MediaService, DesktopLyricsService::class.java)
+                        intent.action = DesktopLyricsService.ACTION_SONG_CHANGED
+                        intent.putExtra(DesktopLyricsService.EXTRA_SONG_ID, mediaItem.mediaId)
+                        startService(intent)
+                    }
+                }
+            }
+
+            override fun onEvents(eventPlayer: Player, events: Player.Events) {
+                if (events.containsAny(
+                                Player.EVENT_TIMELINE_CHANGED,
+                                Player.EVENT_MEDIA_ITEM_TRANSITION,
+                                Player.EVENT_SHUFFLE_MODE_ENABLED_CHANGED,
+                                Player.EVENT_REPEAT_MODE_CHANGED
+                        )
+                ) {
+                    ReplayGainUtil.setReplayGain(player, replayGainAudioProcessor)
                 }
             }
 
             override fun onTracksChanged(tracks: Tracks) {
-                ReplayGainUtil.setReplayGain(player, tracks)
+                ReplayGainUtil.setReplayGain(player, tracks, replayGainAudioProcessor)
                 MediaManager.scrobble(player.currentMediaItem, false)
-
-                if (player.currentMediaItemIndex + 1 == player.mediaItemCount)
-                    MediaManager.continuousPlay(player.currentMediaItem)
             }
 
             override fun onIsPlayingChanged(isPlaying: Boolean) {
@@ -187,17 +224,6 @@ class MediaService : MediaLibraryService(), SessionAvailabilityListener {
         })
     }
 
-    private fun initializeLoadControl(): DefaultLoadControl {
-        return DefaultLoadControl.Builder()
-                .setBufferDurationsMs(
-                        (DefaultLoadControl.DEFAULT_MIN_BUFFER_MS * Preferences.getBufferingStrategy()).toInt(),
-                        (DefaultLoadControl.DEFAULT_MAX_BUFFER_MS * Preferences.getBufferingStrategy()).toInt(),
-                        DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_MS,
-                        DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS
-                )
-                .build()
-    }
-
     private fun setPlayer(oldPlayer: Player?, newPlayer: Player) {
         if (oldPlayer === newPlayer) return
         oldPlayer?.stop()
@@ -207,16 +233,24 @@ class MediaService : MediaLibraryService(), SessionAvailabilityListener {
     private fun releasePlayer() {
         if (this::castPlayer.isInitialized) castPlayer.setSessionAvailabilityListener(null)
         if (this::castPlayer.isInitialized) castPlayer.release()
+        loadControl.release()
+        audioOffloadManager.release()
+        adaptiveBitrateManager.release()
+        wakeModeManager.release()
+        continuousPlayManager.release()
+        playQueueSyncManager.release()
+        podcastBookmarkManager.release()
+        cacheWarmer.release()
+        podcastPrefetcher.release()
         player.release()
         mediaLibrarySession.release()
         automotiveRepository.deleteMetadata()
         clearListener()
     }
 
-    private fun getRenderersFactory() = DownloadUtil.buildRenderersFactory(this, false)
+    private fun getRenderersFactory() = DownloadUtil.buildRenderersFactory(this, false, replayGainAudioProcessor)
 
-    private fun getMediaSourceFactory() =
-            DefaultMediaSourceFactory(this).setDataSourceFactory(DownloadUtil.getDataSourceFactory(this))
+    private fun getMediaSourceFactory() = RadioAwareMediaSourceFactory(this)
 
     override fun onCastSessionAvailable() {
         setPlayer(player, castPlayer)
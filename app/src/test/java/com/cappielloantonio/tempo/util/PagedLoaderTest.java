@@ -0,0 +1,216 @@
+package com.cappielloantonio.tempo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import com.cappielloantonio.tempo.subsonic.base.ApiResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public class PagedLoaderTest {
+    private static final int PAGE_SIZE = 3;
+    private static final int WINDOW = 2;
+
+    private final Map<ApiResponse, List<Integer>> bodies = new IdentityHashMap<>();
+    private final List<PageCall> calls = new ArrayList<>();
+
+    private final List<Integer> loaded = new ArrayList<>();
+    private final List<Boolean> completions = new ArrayList<>();
+    private Exception error;
+
+    private PagedLoader<Integer> loader;
+
+    @Before
+    public void setUp() {
+        loader = new PagedLoader<>(
+                PAGE_SIZE,
+                WINDOW,
+                (size, offset) -> {
+                    PageCall call = new PageCall(offset / size);
+                    calls.add(call);
+                    return call;
+                },
+                bodies::get,
+                new PagedLoader.Listener<Integer>() {
+                    @Override
+                    public void onLoad(List<Integer> appended, boolean completed) {
+                        loaded.addAll(appended);
+                        completions.add(completed);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        error = exception;
+                    }
+                });
+    }
+
+    @Test
+    public void keepsTheWindowOfRequestsInFlight() {
+        loader.start();
+
+        assertEquals(WINDOW, calls.size());
+
+        answer(0, 3);
+        assertEquals(WINDOW + 1, calls.size());
+        assertEquals(2, calls.get(2).page);
+    }
+
+    @Test
+    public void publishesPagesInOrder() {
+        loader.start();
+
+        answer(1, 3);
+        assertTrue(loaded.isEmpty());
+
+        answer(0, 3);
+        assertEquals(pages(0, 2), loaded);
+        assertEquals(Collections.singletonList(false), completions);
+    }
+
+    @Test
+    public void completesWithTheFirstShortPage() {
+        loader.start();
+
+        answer(0, 3);
+        answer(1, 3);
+        answer(2, 1);
+
+        // The page requested past the end is dropped
+        assertTrue(calls.get(3).isCanceled());
+        assertEquals(pages(0, 2).subList(0, 7), loaded);
+        assertEquals(Boolean.TRUE, completions.get(completions.size() - 1));
+        assertNull(error);
+    }
+
+    @Test
+    public void completesWhenTheListIsEmpty() {
+        loader.start();
+
+        answer(1, 0);
+        answer(0, 0);
+
+        assertTrue(loaded.isEmpty());
+        assertEquals(Collections.singletonList(true), completions);
+    }
+
+    @Test
+    public void failsOnAnUnsuccessfulPage() {
+        loader.start();
+
+        calls.get(0).fail();
+
+        assertNotNull(error);
+        assertTrue(error.getCause() instanceof IOException);
+        assertTrue(calls.get(1).isCanceled());
+        assertTrue(completions.isEmpty());
+    }
+
+    @Test
+    public void ignoresAnswersAfterStop() {
+        loader.start();
+        loader.stop();
+
+        assertTrue(calls.get(0).isCanceled());
+
+        answer(0, 3);
+        assertTrue(loaded.isEmpty());
+        assertEquals(WINDOW, calls.size());
+    }
+
+    private void answer(int page, int size) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) items.add(page * PAGE_SIZE + i);
+
+        ApiResponse body = new ApiResponse();
+        bodies.put(body, items);
+
+        calls.get(page).succeed(body);
+    }
+
+    private static List<Integer> pages(int first, int last) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = first * PAGE_SIZE; i < (last + 1) * PAGE_SIZE; i++) items.add(i);
+        return items;
+    }
+
+    private static class PageCall implements Call<ApiResponse> {
+        private final int page;
+        private Callback<ApiResponse> callback;
+        private boolean canceled = false;
+
+        private PageCall(int page) {
+            this.page = page;
+        }
+
+        private void succeed(ApiResponse body) {
+            callback.onResponse(this, Response.success(body));
+        }
+
+        private void fail() {
+            callback.onFailure(this, new IOException("Page " + page));
+        }
+
+        @NonNull
+        @Override
+        public Response<ApiResponse> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<ApiResponse> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return callback != null;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Call<ApiResponse> clone() {
+            return new PageCall(page);
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return new Request.Builder().url("http://localhost/rest/getAlbumList2").build();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+}